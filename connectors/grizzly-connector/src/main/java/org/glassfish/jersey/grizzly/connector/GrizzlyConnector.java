@@ -39,6 +39,7 @@
  */
 package org.glassfish.jersey.grizzly.connector;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
@@ -48,35 +49,48 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.client.Configuration;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.client.InvocationException;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 
+import org.glassfish.jersey.client.AsyncConnector;
 import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.client.ClientRequest;
 import org.glassfish.jersey.client.ClientResponse;
 import org.glassfish.jersey.client.RequestWriter;
 import org.glassfish.jersey.internal.util.PropertiesHelper;
-import org.glassfish.jersey.process.Inflector;
 
+import com.ning.http.client.AsyncCompletionHandler;
 import com.ning.http.client.AsyncHttpClient;
 import com.ning.http.client.AsyncHttpClientConfig;
 import com.ning.http.client.RequestBuilder;
 import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProvider;
 
+import com.google.common.util.concurrent.Futures;
+
 /**
  * The transport using the AsyncHttpClient.
+ * <p>
+ * The connector keeps a single long-lived {@link AsyncHttpClient} instance with a pool of keep-alive
+ * connections, which is shared by all the requests sent via the connector. The connector is an
+ * {@link AsyncConnector asynchronous connector}, i.e. the requests submitted by the Jersey client
+ * do not block the submitting thread and the responses are completed from the Grizzly worker threads.
+ * The connector needs to be {@link #close() closed} to release the pooled connections and threads,
+ * which is done automatically when the Jersey client using the connector is closed.
+ * </p>
  *
  * @author Stepan Kopriva (stepan.kopriva at oracle.com)
  */
-public class GrizzlyConnector extends RequestWriter implements Inflector<ClientRequest, ClientResponse> {
+public class GrizzlyConnector extends RequestWriter implements AsyncConnector, Closeable {
 
-    private AsyncHttpClient client;
-    private AsyncHttpClientConfig config;
+    private final AsyncHttpClient client;
+    private final AsyncHttpClientConfig config;
     private final ExecutorService executorService;
 
     /*
@@ -126,14 +140,72 @@ public class GrizzlyConnector extends RequestWriter implements Inflector<ClientR
             throw new InvocationException(e.getMessage(), e);
         } catch (Exception ex) {
             throw new InvocationException(ex.getMessage(), ex);
-        } finally {
-            client.close();
         }
         ClientResponse responseContext = getClientResponse(requestContext, ningResponse);
 
         return responseContext;
     }
 
+    /*
+     * Sends the {@link javax.ws.rs.core.Request} via Grizzly transport and notifies the callback once
+     * the {@link javax.ws.rs.core.Response} is received, without blocking the calling thread.
+     */
+    @Override
+    public Future<?> apply(final ClientRequest requestContext, final InvocationCallback<ClientResponse> callback) {
+        // AsyncHttpClient invokes onThrowable also if onCompleted throws - make sure only one callback method is invoked
+        final AtomicBoolean callbackInvoked = new AtomicBoolean(false);
+        try {
+            final com.ning.http.client.Request grizzlyRequest = this.getRequest(requestContext);
+            return client.executeRequest(grizzlyRequest, new AsyncCompletionHandler<com.ning.http.client.Response>() {
+
+                @Override
+                public com.ning.http.client.Response onCompleted(com.ning.http.client.Response ningResponse) {
+                    final ClientResponse responseContext;
+                    try {
+                        responseContext = getClientResponse(requestContext, ningResponse);
+                    } catch (RuntimeException ex) {
+                        failed(callback, callbackInvoked, ex);
+                        return ningResponse;
+                    }
+                    if (callbackInvoked.compareAndSet(false, true)) {
+                        callback.completed(responseContext);
+                    }
+                    return ningResponse;
+                }
+
+                @Override
+                public void onThrowable(Throwable t) {
+                    failed(callback, callbackInvoked, t);
+                }
+            });
+        } catch (Exception ex) {
+            final InvocationException failure = toInvocationException(ex);
+            failed(callback, callbackInvoked, failure);
+            return Futures.immediateFailedFuture(failure);
+        }
+    }
+
+    private static void failed(final InvocationCallback<ClientResponse> callback,
+                               final AtomicBoolean callbackInvoked,
+                               final Throwable t) {
+        if (callbackInvoked.compareAndSet(false, true)) {
+            callback.failed(toInvocationException(t));
+        }
+    }
+
+    private static InvocationException toInvocationException(final Throwable t) {
+        return t instanceof InvocationException ? (InvocationException) t : new InvocationException(t.getMessage(), t);
+    }
+
+    /**
+     * Close the connector and release the pooled connections and threads used by the connector.
+     */
+    @Override
+    public void close() {
+        client.close();
+        executorService.shutdown();
+    }
+
     private ClientResponse getClientResponse(ClientRequest requestContext, final com.ning.http.client.Response original) {
 
         final ClientResponse responseContext = new ClientResponse(new Response.StatusType() {
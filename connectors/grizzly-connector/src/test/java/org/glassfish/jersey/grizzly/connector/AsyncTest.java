@@ -0,0 +1,178 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010-2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly.connector;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.InvocationException;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.JerseyClient;
+import org.glassfish.jersey.client.JerseyClientFactory;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the asynchronous request processing using the shared Grizzly client.
+ */
+public class AsyncTest extends JerseyTest {
+
+    private static final String PATH = "test";
+    private static final int REQUESTS = 50;
+
+    @Path(PATH)
+    public static class AsyncResource {
+
+        @GET
+        public String get() throws InterruptedException {
+            Thread.sleep(50);
+            return "GET";
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(AsyncResource.class);
+    }
+
+    private JerseyClient createClient() {
+        return JerseyClientFactory.clientBuilder().transport(new GrizzlyConnector(this.client().configuration())).build();
+    }
+
+    @Test
+    public void testAsyncGet() throws Exception {
+        final URI u = target().getUri();
+        JerseyClient client = createClient();
+        try {
+            WebTarget t = client.target(u);
+
+            final List<Future<Response>> futures = new ArrayList<Future<Response>>(REQUESTS);
+            final long start = System.currentTimeMillis();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(t.path(PATH).request().async().get());
+            }
+            // the submitting thread must not block on the responses
+            assertTrue(System.currentTimeMillis() - start < REQUESTS * 50);
+
+            for (Future<Response> future : futures) {
+                assertEquals("GET", future.get(10, TimeUnit.SECONDS).readEntity(String.class));
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testSyncRequestsReuseClient() {
+        final URI u = target().getUri();
+        JerseyClient client = createClient();
+        try {
+            WebTarget t = client.target(u);
+            for (int i = 0; i < 5; i++) {
+                assertEquals("GET", t.path(PATH).request().get().readEntity(String.class));
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Only one callback method may be invoked, even if the completion callback throws an exception.
+     */
+    @Test
+    public void testSingleCallbackInvocation() throws Exception {
+        final JerseyClient client = createClient();
+        final GrizzlyConnector connector = new GrizzlyConnector(client.configuration());
+        try {
+            final ClientRequest request = new ClientRequest(target().path(PATH).getUri(), client,
+                    client.configuration(), new MapPropertiesDelegate());
+            request.setMethod("GET");
+
+            final AtomicInteger invocations = new AtomicInteger();
+            final CountDownLatch completed = new CountDownLatch(1);
+            final Future<?> future = connector.apply(request, new InvocationCallback<ClientResponse>() {
+                @Override
+                public void completed(ClientResponse response) {
+                    invocations.incrementAndGet();
+                    completed.countDown();
+                    throw new RuntimeException("test");
+                }
+
+                @Override
+                public void failed(InvocationException error) {
+                    invocations.incrementAndGet();
+                }
+            });
+
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+            try {
+                // the failure of the completion callback is propagated to the response future
+                future.get(10, TimeUnit.SECONDS);
+                fail("ExecutionException expected.");
+            } catch (ExecutionException ex) {
+                assertEquals("test", ex.getCause().getMessage());
+            }
+            assertEquals(1, invocations.get());
+        } finally {
+            connector.close();
+            client.close();
+        }
+    }
+}
@@ -39,6 +39,9 @@
  */
 package org.glassfish.jersey.grizzly2.httpserver;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -47,10 +50,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriBuilder;
 
@@ -58,6 +63,7 @@ import org.glassfish.jersey.internal.inject.AbstractModule;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.ExtendedLogger;
 import org.glassfish.jersey.internal.util.collection.Ref;
+import org.glassfish.jersey.message.internal.FileTransferOutput;
 import org.glassfish.jersey.process.internal.RequestScope;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerException;
@@ -79,10 +85,16 @@ import org.glassfish.hk2.scopes.PerLookup;
 import org.jvnet.hk2.annotations.Inject;
 
 import org.glassfish.grizzly.CompletionHandler;
+import org.glassfish.grizzly.FileTransfer;
+import org.glassfish.grizzly.WriteResult;
+import org.glassfish.grizzly.filterchain.Filter;
+import org.glassfish.grizzly.http.HttpCodecFilter;
 import org.glassfish.grizzly.http.server.HttpHandler;
 import org.glassfish.grizzly.http.server.Request;
 import org.glassfish.grizzly.http.server.Response;
+import org.glassfish.grizzly.impl.FutureImpl;
 import org.glassfish.grizzly.utils.Charsets;
+import org.glassfish.grizzly.utils.Futures;
 
 /**
  * Grizzly 2 Jersey HTTP Container.
@@ -244,13 +256,100 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
                     }
                 }
 
-                return grizzlyResponse.getOutputStream();
+                return new FileTransferOutputStream(grizzlyResponse);
             } finally {
                 logger.debugLog("{0} - writeResponseStatusAndHeaders() called", name);
             }
         }
     }
 
+    /**
+     * Grizzly response output stream that transfers files using the Grizzly {@link FileTransfer}
+     * support, i.e. using the {@code sendfile} system call if the platform supports it.
+     */
+    private final static class FileTransferOutputStream extends OutputStream implements FileTransferOutput {
+
+        private final Response grizzlyResponse;
+        private final OutputStream output;
+        private boolean written;
+
+        FileTransferOutputStream(final Response grizzlyResponse) {
+            this.grizzlyResponse = grizzlyResponse;
+            this.output = grizzlyResponse.getOutputStream();
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            written = true;
+            output.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b) throws IOException {
+            written = true;
+            output.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            written = true;
+            output.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+
+        @Override
+        public boolean transferFile(final File file, final long position, final long count) throws IOException {
+            if (written || !grizzlyResponse.isSendFileEnabled() || grizzlyResponse.isCommitted()
+                    || grizzlyResponse.getContentLengthLong() != count
+                    || grizzlyResponse.getHeader(HttpHeaders.CONTENT_ENCODING) != null
+                    || isContentEncodingConfigured()) {
+                return false;
+            }
+            written = true;
+            output.flush();
+
+            final FutureImpl<WriteResult> transferred = Futures.createSafeFuture();
+            grizzlyResponse.getRequest().getContext().write(
+                    new FileTransfer(file, position, count), Futures.toCompletionHandler(transferred));
+            try {
+                transferred.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("File transfer interrupted: " + file);
+            } catch (ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException("File transfer failed: " + file, cause);
+            }
+            return true;
+        }
+
+        /**
+         * Check whether the Grizzly compression may apply to the response. The raw file content
+         * would bypass the compression while the response headers would still announce it.
+         */
+        private boolean isContentEncodingConfigured() {
+            for (Filter filter : grizzlyResponse.getRequest().getContext().getFilterChain()) {
+                if (filter instanceof HttpCodecFilter
+                        && ((HttpCodecFilter) filter).getContentEncodings().length > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     private volatile ApplicationHandler appHandler;
     private final ContainerLifecycleListener containerListener;
 
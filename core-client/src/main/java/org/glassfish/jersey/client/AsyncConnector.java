@@ -0,0 +1,72 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.concurrent.Future;
+
+import javax.ws.rs.client.InvocationCallback;
+
+import org.glassfish.jersey.process.Inflector;
+
+/**
+ * Client transport connector capable of processing requests asynchronously.
+ * <p>
+ * When an asynchronous connector is {@link JerseyClient.Builder#transport(Inflector) used by a Jersey client},
+ * the client invokes the {@link #apply(ClientRequest, InvocationCallback) asynchronous method} of the connector
+ * instead of the synchronous {@link #apply(Object) inflector method}. The thread that submitted the request is thus
+ * not blocked while the request is being processed by the transport layer and the response processing is resumed
+ * from the thread that completes the response callback, typically a transport I/O thread.
+ * </p>
+ */
+public interface AsyncConnector extends Inflector<ClientRequest, ClientResponse> {
+
+    /**
+     * Asynchronously process the client request.
+     * <p>
+     * The method must not block waiting for the response. Once the response is available, the connector
+     * notifies the supplied callback. Exactly one of the callback methods is invoked for each request.
+     * </p>
+     *
+     * @param request  client request to be sent.
+     * @param callback callback to be notified once the response is received or the request processing fails.
+     * @return future representing the pending response.
+     */
+    public Future<?> apply(ClientRequest request, InvocationCallback<ClientResponse> callback);
+}
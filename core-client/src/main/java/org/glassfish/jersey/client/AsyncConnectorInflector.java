@@ -0,0 +1,105 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.InvocationException;
+
+import org.glassfish.jersey.internal.util.collection.Ref;
+import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.process.internal.InvocationContext;
+
+import org.glassfish.hk2.Factory;
+
+import org.jvnet.hk2.annotations.Inject;
+
+/**
+ * Terminal client request processing inflector that invokes an {@link AsyncConnector asynchronous connector}.
+ * <p>
+ * The inflector suspends the current {@link InvocationContext invocation context}, submits the request
+ * to the connector and returns immediately. The invocation context is resumed once the connector
+ * notifies the response callback.
+ * </p>
+ */
+final class AsyncConnectorInflector implements Inflector<ClientRequest, ClientResponse> {
+
+    private final AsyncConnector connector;
+
+    @Inject
+    private Factory<Ref<InvocationContext>> invocationContextReferenceFactory;
+
+    /**
+     * Create new asynchronous connector inflector.
+     *
+     * @param connector asynchronous connector.
+     */
+    AsyncConnectorInflector(final AsyncConnector connector) {
+        this.connector = connector;
+    }
+
+    @Override
+    public ClientResponse apply(final ClientRequest request) {
+        final InvocationContext invocationContext = invocationContextReferenceFactory.get().get();
+
+        // suspend before submitting the request so that a fast response cannot resume the context first
+        invocationContext.suspend();
+        try {
+            connector.apply(request, new InvocationCallback<ClientResponse>() {
+
+                @Override
+                public void completed(final ClientResponse response) {
+                    invocationContext.resume(response);
+                }
+
+                @Override
+                public void failed(final InvocationException error) {
+                    invocationContext.resume(error);
+                }
+            });
+        } catch (InvocationException ex) {
+            // the context is already suspended - resume it, otherwise the invocation would never complete
+            invocationContext.resume(ex);
+        } catch (RuntimeException ex) {
+            invocationContext.resume(new InvocationException(ex.getMessage(), ex));
+        }
+
+        return null;
+    }
+}
@@ -136,6 +136,16 @@ class ClientModule extends AbstractModule {
                                     // TODO get rid of this code on the client side
                                     return new ClientResponse(requestContext, response);
                                 }
+
+                                @Override
+                                protected ClientResponse convertResumedResponse(
+                                        ClientRequest requestContext, Object response) {
+                                    // resumed by an asynchronous connector
+                                    if (response instanceof ClientResponse) {
+                                        return (ClientResponse) response;
+                                    }
+                                    return super.convertResumedResponse(requestContext, response);
+                                }
                             };
                         }
                     };
@@ -91,19 +91,42 @@ public final class ClientProperties {
      *
      * The value MUST be an instance convertible to {@link java.lang.Integer}.
      * <p />
-     * If the property is absent then chunked encoding will not be used.
-     * A value &lt= 0 declares that chunked encoding will be used with
-     * the default chunk size. A value &gt 0 declares that chunked encoding
+     * If the property is absent then chunked encoding will not be used (unless
+     * {@link #REQUEST_ENTITY_STREAMING request entity streaming} is enabled) and request
+     * entities may be buffered by the transport connector. If the property is set, request
+     * entities of an unknown size are sent using chunked encoding.
+     * A value &lt;= 0 declares that chunked encoding will be used with
+     * the default chunk size. A value &gt; 0 declares that chunked encoding
      * will be used with the value as the declared chunk size.
      * <p />
      * A default value is not set.
      * <p />
      * The name of the configuration property is <code>{@value}</code>.
      */
-    // TODO add support (ported from Jersey 1.x).
     public static final String CHUNKED_ENCODING_SIZE =
             "jersey.config.client.chunkedEncodingSize";
 
+    /**
+     * Request entity streaming. A value of {@code true} declares that the transport connector
+     * will stream request entities instead of buffering them in memory.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Boolean}.
+     * <p />
+     * If enabled, request entities of a known size are sent with the {@code Content-Length}
+     * header, all other entities are sent using chunked encoding with the chunk size
+     * configured by {@link #CHUNKED_ENCODING_SIZE} (or the default chunk size if not configured).
+     * The size is known if it is reported by the {@link javax.ws.rs.ext.MessageBodyWriter message body writer}
+     * and no {@link javax.ws.rs.ext.WriterInterceptor writer interceptor} replaced the entity output stream.
+     * Note that streamed requests are not retried by the connector if they fail on a stale
+     * persistent connection.
+     * <p />
+     * The default value is {@code false}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String REQUEST_ENTITY_STREAMING =
+            "jersey.config.client.requestEntityStreaming";
+
     /**
      * Automatic response buffering in case of an exception.
      *
@@ -164,6 +187,23 @@ public final class ClientProperties {
     public static final String SSL_CONTEXT =
             "jersey.config.client.ssl.sslContext";
 
+    /**
+     * Content encoding of the request entities. If set, the
+     * {@link org.glassfish.jersey.client.filter.EncodingFilter encoding filter} sets the
+     * {@code Content-Encoding} header of the requests with an entity to the configured value,
+     * provided a {@link org.glassfish.jersey.message.ContentEncoder content encoder} supporting
+     * the encoding is registered and the entity media type is one of the
+     * {@link org.glassfish.jersey.message.MessageProperties#ENCODING_MEDIA_TYPES encodable media types}.
+     *
+     * <p>The value MUST be an instance of {@link String}, e.g. {@code "gzip"}.</p>
+     *
+     * <p>A default value is not set, i.e. the request entities are not encoded.</p>
+     *
+     * <p>The name of the configuration property is <code>{@value}</code>.</p>
+     */
+    public static final String USE_ENCODING =
+            "jersey.config.client.useEncoding";
+
     private ClientProperties() {
         // prevents instantiation
     }
@@ -263,28 +263,36 @@ public class ClientRequest extends OutboundMessageContext implements ClientReque
     /**
      * Set message encoding.
      *
-     * @param encoding message encoding to be set.
+     * @param encoding message encoding to be set. If {@code null}, the message encoding is removed.
      */
     public void encoding(String encoding) {
-        getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+        putOrRemove(HttpHeaders.CONTENT_ENCODING, encoding);
     }
 
     /**
      * Set message language.
      *
-     * @param language message language to be set.
+     * @param language message language to be set. If {@code null}, the message language is removed.
      */
     public void language(String language) {
-        getHeaders().putSingle(HttpHeaders.CONTENT_LANGUAGE, language);
+        putOrRemove(HttpHeaders.CONTENT_LANGUAGE, language);
     }
 
     /**
      * Set message language.
      *
-     * @param language message language to be set.
+     * @param language message language to be set. If {@code null}, the message language is removed.
      */
     public void language(Locale language) {
-        getHeaders().putSingle(HttpHeaders.CONTENT_LANGUAGE, language);
+        putOrRemove(HttpHeaders.CONTENT_LANGUAGE, language);
+    }
+
+    private void putOrRemove(String name, Object value) {
+        if (value == null) {
+            getHeaders().remove(name);
+        } else {
+            getHeaders().putSingle(name, value);
+        }
     }
 
     /**
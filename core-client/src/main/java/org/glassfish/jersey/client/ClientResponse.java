@@ -41,14 +41,20 @@ package org.glassfish.jersey.client;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 import java.util.Map;
 
 import javax.ws.rs.client.ClientResponseContext;
 import javax.ws.rs.core.NewCookie;
 import javax.ws.rs.core.Response;
 
+import javax.xml.transform.Source;
+
+import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.message.internal.InboundMessageContext;
 import org.glassfish.jersey.message.internal.Statuses;
 
@@ -108,6 +114,24 @@ public class ClientResponse extends InboundMessageContext implements ClientRespo
         this.status = status;
         this.requestContext = requestContext;
         setWorkers(requestContext.getWorkers());
+        setEntityBufferingThreshold(getEntityBufferingThreshold(requestContext.getConfiguration().getProperties()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A {@link #bufferEntity() buffered} entity that has been spilled into a temporary file is released
+     * once it has been read, unless it has been read as a stream, so that the file does not outlive
+     * the entity if the response is never closed.
+     * </p>
+     */
+    @Override
+    public <T> T readEntity(Class<T> rawType, Type type, Annotation[] annotations, PropertiesDelegate propertiesDelegate) {
+        final T entity = super.readEntity(rawType, type, annotations, propertiesDelegate);
+        if (!(entity instanceof Closeable) && !(entity instanceof Source)) {
+            releaseSpilledEntity();
+        }
+        return entity;
     }
 
     @Override
@@ -68,6 +68,16 @@ import com.google.common.collect.Maps;
 
 /**
  * Default client transport connector using {@link HttpURLConnection}.
+ * <p>
+ * By default, request entities are buffered by the {@code HttpURLConnection} in order to compute
+ * the {@code Content-Length} header. If {@link ClientProperties#REQUEST_ENTITY_STREAMING} is enabled,
+ * request entities are streamed to the connection instead: entities of a known size (as reported by
+ * {@link javax.ws.rs.ext.MessageBodyWriter#getSize MessageBodyWriter.getSize(...)}, provided no writer
+ * interceptor replaced the entity stream) are sent in the fixed-length streaming mode, all other entities
+ * are sent using the chunked transfer encoding. If only {@link ClientProperties#CHUNKED_ENCODING_SIZE}
+ * is set, the chunked transfer encoding is used for entities of an unknown size and entities of a known
+ * size are buffered.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -131,26 +141,11 @@ public class HttpUrlConnector extends RequestWriter implements Inflector<ClientR
             }
 
             writeRequestEntity(requestContext, new RequestEntityWriterListener() {
+                private long size = -1;
+
                 @Override
                 public void onRequestEntitySize(long size) {
-                    if (size != -1 && size < Integer.MAX_VALUE) {
-                        // HttpURLConnection uses the int type for content length
-
-                        // this just does not work for several consecutive requests.
-                        // another day wasted on HttpUrlConnection bug :/
-                        // uc.setFixedLengthStreamingMode((int)size);
-                    } else {
-                        // TODO (copied from Jersey 1.x) it appears HttpURLConnection has some bugs in
-                        // chunked encoding
-                        // uc.setChunkedStreamingMode(0);
-
-                        // TODO deal with chunked encoding
-//                        Integer chunkedEncodingSize = (Integer)request.getProperties().get(
-//                                ClientConfig.PROPERTY_CHUNKED_ENCODING_SIZE);
-//                        if (chunkedEncodingSize != null) {
-//                            uc.setChunkedStreamingMode(chunkedEncodingSize);
-//                        }
-                    }
+                    this.size = size;
                 }
 
                 @Override
@@ -162,7 +157,8 @@ public class HttpUrlConnector extends RequestWriter implements Inflector<ClientR
                         }
 
                         @Override
-                        public void commit() throws IOException {
+                        public void commit(long contentLength) throws IOException {
+                            setStreamingMode(uc, size, configurationProperties);
                             writeOutBoundHeaders(requestContext.getStringHeaders(), uc);
                         }
                     };
@@ -181,6 +177,28 @@ public class HttpUrlConnector extends RequestWriter implements Inflector<ClientR
         return responseContext;
     }
 
+    /**
+     * Make the connection stream the request entity instead of buffering it in memory, if configured.
+     * <p>
+     * Must be invoked before the connection is connected, i.e. before the first entity byte is written.
+     * </p>
+     */
+    private static void setStreamingMode(HttpURLConnection uc, long size, Map<String, Object> properties) {
+        // streamed requests are not retried by HttpURLConnection on stale keep-alive connections
+        final boolean streaming = PropertiesHelper.getValue(properties, ClientProperties.REQUEST_ENTITY_STREAMING, false);
+        final Integer chunkSize = PropertiesHelper.getValue(properties, ClientProperties.CHUNKED_ENCODING_SIZE, Integer.class);
+
+        if (size != -1 && size < Integer.MAX_VALUE) {
+            if (streaming) {
+                // HttpURLConnection uses the int type for content length
+                uc.setFixedLengthStreamingMode((int) size);
+            }
+        } else if (streaming || chunkSize != null) {
+            // values <= 0 make HttpURLConnection use its default chunk size
+            uc.setChunkedStreamingMode(chunkSize == null ? 0 : chunkSize);
+        }
+    }
+
     private void writeOutBoundHeaders(MultivaluedMap<String, String> headers, HttpURLConnection uc) {
         for (String key : headers.keySet()) {
             List<String> headerValues = headers.get(key);
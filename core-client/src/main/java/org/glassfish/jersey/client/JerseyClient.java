@@ -39,12 +39,16 @@
  */
 package org.glassfish.jersey.client;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.InvocationException;
@@ -55,6 +59,7 @@ import javax.ws.rs.core.UriBuilder;
 import static javax.ws.rs.HttpMethod.POST;
 import static javax.ws.rs.HttpMethod.PUT;
 
+import org.glassfish.jersey.client.internal.LocalizationMessages;
 import org.glassfish.jersey.process.Inflector;
 import org.glassfish.jersey.process.internal.InvocationCallback;
 import org.glassfish.jersey.process.internal.InvocationContext;
@@ -200,10 +205,18 @@ public class JerseyClient implements javax.ws.rs.client.Client {
         final RequestProcessingInitializationStage workersInitializationStage = injector.inject(RequestProcessingInitializationStage.class);
         final ClientFilteringStage filteringStage = injector.inject(ClientFilteringStage.class);
 
+        final Inflector<ClientRequest, ClientResponse> terminalInflector;
+        if (connector instanceof AsyncConnector) {
+            terminalInflector = new AsyncConnectorInflector((AsyncConnector) connector);
+            injector.inject(terminalInflector);
+        } else {
+            terminalInflector = connector;
+        }
+
         Stage<ClientRequest> rootStage = Stages
                 .chain(workersInitializationStage)
                 .to(filteringStage)
-                .build(Stages.asStage(connector));
+                .build(Stages.asStage(terminalInflector));
 
         this.invoker = injector.inject(ClientModule.RequestInvokerBuilder.class).build(rootStage);
 
@@ -224,7 +237,7 @@ public class JerseyClient implements javax.ws.rs.client.Client {
 
                     @Override
                     public void run() {
-                        invoker.apply(requestContext, new InvocationCallback<ClientResponse>() {
+                        invoker.submit(requestContext, new InvocationCallback<ClientResponse>() {
 
                             @Override
                             public void result(ClientResponse responseContext) {
@@ -272,7 +285,14 @@ public class JerseyClient implements javax.ws.rs.client.Client {
     }
 
     private void release() {
-        // TODO release resources
+        // TODO release remaining resources
+        if (connector instanceof Closeable) {
+            try {
+                ((Closeable) connector).close();
+            } catch (IOException ex) {
+                Logger.getLogger(JerseyClient.class.getName()).log(Level.FINE, LocalizationMessages.CONNECTOR_CLOSE_FAILED(), ex);
+            }
+        }
     }
 
     /**
@@ -328,6 +328,22 @@ public class JerseyConfiguration implements javax.ws.rs.client.Configuration, Fe
         return new JerseyConfiguration(state);
     }
 
+    /**
+     * Get the current internal configuration state.
+     * <p/>
+     * The returned state is marked as shared, i.e. any subsequent modification
+     * of this configuration replaces the state with a modified copy instead of
+     * modifying the returned state instance. The identity of the returned instance
+     * can therefore be used as a key of runtime structures derived from the current
+     * configuration.
+     *
+     * @return current configuration state.
+     */
+    javax.ws.rs.client.Configuration getState() {
+        state.markAsShared();
+        return state;
+    }
+
     @Override
     public Map<String, Object> getProperties() {
         return state.getProperties();
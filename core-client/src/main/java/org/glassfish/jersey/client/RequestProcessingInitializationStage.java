@@ -39,6 +39,12 @@
  */
 package org.glassfish.jersey.client;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import javax.ws.rs.client.Configuration;
+
 import org.glassfish.jersey.internal.ContextResolverFactory;
 import org.glassfish.jersey.internal.ExceptionMapperFactory;
 import org.glassfish.jersey.internal.ProviderBinder;
@@ -54,11 +60,23 @@ import org.glassfish.hk2.inject.Injector;
 import org.jvnet.hk2.annotations.Inject;
 
 import com.google.common.base.Function;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 
 /**
  * Function that can be put to an acceptor chain to properly initialize
  * the client-side request-scoped processing injection for the current
  * request and response exchange.
+ * <p/>
+ * The configured providers are bound and the message body workers, exception
+ * mappers and context resolvers are created only once per set of registered
+ * providers, the created instances are shared by all the requests whose
+ * {@link JerseyConfiguration#getState() configuration state} registers the same
+ * providers. Configuration states that differ only in their properties share
+ * the same provider runtime.
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -77,10 +95,81 @@ public class RequestProcessingInitializationStage implements Function<ClientRequ
         Ref<ClientRequest> requestContextRef;
     }
 
+    /**
+     * Key identifying the set of providers registered in a configuration state.
+     */
+    private static final class ProviderKey {
+
+        private final Set<Class<?>> classes;
+        private final Set<Object> instances;
+
+        private ProviderKey(Configuration state) {
+            this.classes = ImmutableSet.copyOf(state.getProviderClasses());
+            this.instances = ImmutableSet.copyOf(state.getProviderInstances());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ProviderKey)) {
+                return false;
+            }
+            final ProviderKey other = (ProviderKey) obj;
+            return classes.equals(other.classes) && instances.equals(other.instances);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 31 * hash + classes.hashCode();
+            hash = 31 * hash + instances.hashCode();
+            return hash;
+        }
+    }
+
+    /**
+     * Provider runtime derived from a single set of registered providers.
+     */
+    private static final class ProviderRuntime {
+
+        private final ExceptionMappers mappers;
+        private final MessageBodyWorkers workers;
+        private final ContextResolvers resolvers;
+
+        private ProviderRuntime(ExceptionMappers mappers, MessageBodyWorkers workers, ContextResolvers resolvers) {
+            this.mappers = mappers;
+            this.workers = workers;
+            this.resolvers = resolvers;
+        }
+    }
+
     private final Services services;
     private final Injector injector;
     private final ProviderBinder providerBinder;
 
+    // runtimes by provider set, kept as long as a cached configuration state refers to them
+    private final LoadingCache<ProviderKey, ProviderRuntime> runtimes = CacheBuilder.newBuilder()
+            .weakValues()
+            .build(new CacheLoader<ProviderKey, ProviderRuntime>() {
+
+                @Override
+                public ProviderRuntime load(ProviderKey key) {
+                    return createRuntime(key);
+                }
+            });
+    // fast lookup of the runtime of an already seen configuration state
+    private final LoadingCache<Configuration, ProviderRuntime> stateRuntimes = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<Configuration, ProviderRuntime>() {
+
+                @Override
+                public ProviderRuntime load(Configuration state) {
+                    return runtimes.getUnchecked(new ProviderKey(state));
+                }
+            });
+    // providers already bound to the client services, guarded by "this"
+    private final Set<Class<?>> boundClasses = Sets.newHashSet();
+    private final Set<Object> boundInstances = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
     /**
      * Create new {@link org.glassfish.jersey.message.MessageBodyWorkers} initialization function
      * for requests and responses.
@@ -103,21 +192,48 @@ public class RequestProcessingInitializationStage implements Function<ClientRequ
         References refs = injector.inject(References.class); // request-scoped
 
         final JerseyConfiguration cfg = requestContext.getConfiguration();
-        providerBinder.bindClasses(cfg.getProviderClasses());
-        providerBinder.bindInstances(cfg.getProviderInstances());
-        final ExceptionMapperFactory mappers = new ExceptionMapperFactory(services);
-        final MessageBodyWorkers workers = new MessageBodyFactory(services);
-        final ContextResolvers resolvers = new ContextResolverFactory(services);
+        final ProviderRuntime runtime = stateRuntimes.getUnchecked(cfg.getState());
 
         refs.configuration.set(cfg);
 
-        refs.exceptionMappers.set(mappers);
-        refs.messageBodyWorkers.set(workers);
-        refs.contextResolvers.set(resolvers);
+        refs.exceptionMappers.set(runtime.mappers);
+        refs.messageBodyWorkers.set(runtime.workers);
+        refs.contextResolvers.set(runtime.resolvers);
         refs.requestContextRef.set(requestContext);
 
-        requestContext.setWorkers(workers);
+        requestContext.setWorkers(runtime.workers);
 
         return requestContext;
     }
+
+    /**
+     * Bind the registered providers that have not been bound yet and create
+     * the provider runtime for the provider set.
+     *
+     * @param key registered provider set.
+     * @return provider runtime of the provider set.
+     */
+    private synchronized ProviderRuntime createRuntime(ProviderKey key) {
+        final Set<Class<?>> classes = Sets.newLinkedHashSet();
+        for (Class<?> providerClass : key.classes) {
+            if (boundClasses.add(providerClass)) {
+                classes.add(providerClass);
+            }
+        }
+        final Set<Object> instances = Sets.newLinkedHashSet();
+        for (Object provider : key.instances) {
+            if (boundInstances.add(provider)) {
+                instances.add(provider);
+            }
+        }
+        providerBinder.bindClasses(classes);
+        if (!instances.isEmpty()) {
+            providerBinder.bindInstances(instances);
+        }
+
+        return new ProviderRuntime(
+                new ExceptionMapperFactory(services),
+                new MessageBodyFactory(services),
+                new ContextResolverFactory(services));
+    }
 }
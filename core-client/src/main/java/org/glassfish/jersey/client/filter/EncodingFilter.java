@@ -0,0 +1,151 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client.filter;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Configuration;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.message.internal.ContentEncodings;
+
+/**
+ * Client filter that advertises the content encodings supported by the registered
+ * {@link org.glassfish.jersey.message.ContentEncoder content encoders} in the request
+ * {@code Accept-Encoding} header. Encoded response entities are then decoded by the
+ * content encoders.
+ * <p>
+ * If the {@value ClientProperties#USE_ENCODING} property is set, request entities are encoded
+ * using the configured content encoding as well, subject to the
+ * {@value MessageProperties#ENCODING_MEDIA_TYPES} and {@value MessageProperties#ENCODING_MIN_SIZE}
+ * configuration properties.
+ * </p>
+ *
+ * @see EncodingFeature
+ * @see org.glassfish.jersey.server.filter.EncodingFilter
+ */
+public class EncodingFilter implements ClientRequestFilter {
+
+    private volatile AcceptEncoding acceptEncoding;
+    private volatile MediaTypes mediaTypes;
+
+    @Override
+    public void filter(ClientRequestContext rc) throws IOException {
+        if (!(rc instanceof ClientRequest)) {
+            return;
+        }
+        final MessageBodyWorkers workers = ((ClientRequest) rc).getWorkers();
+
+        if (!rc.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            final String value = getAcceptEncoding(workers);
+            if (value != null) {
+                rc.getHeaders().putSingle(HttpHeaders.ACCEPT_ENCODING, value);
+            }
+        }
+
+        final Configuration configuration = rc.getConfiguration();
+        final Object encoding = configuration.getProperty(ClientProperties.USE_ENCODING);
+        if (encoding == null || !rc.hasEntity() || rc.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        final MediaType mediaType = rc.getMediaType();
+        if (mediaType == null
+                || !ContentEncodings.isEncodable(mediaType,
+                        getMediaTypes(configuration.getProperty(MessageProperties.ENCODING_MEDIA_TYPES)))
+                || ContentEncodings.getEncoder(workers, encoding.toString()) == null) {
+            return;
+        }
+        rc.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, encoding.toString());
+        rc.setProperty(MessageProperties.ENCODING_MIN_SIZE,
+                ContentEncodings.readMinSize(configuration.getProperty(MessageProperties.ENCODING_MIN_SIZE)));
+    }
+
+    private String getAcceptEncoding(final MessageBodyWorkers workers) {
+        AcceptEncoding cached = acceptEncoding;
+        if (cached == null || cached.workers != workers) {
+            cached = new AcceptEncoding(workers, ContentEncodings.getAcceptEncoding(workers));
+            acceptEncoding = cached;
+        }
+        return cached.value;
+    }
+
+    private List<MediaType> getMediaTypes(final Object property) {
+        MediaTypes cached = mediaTypes;
+        if (cached == null || cached.property != property) {
+            cached = new MediaTypes(property, ContentEncodings.readMediaTypes(property));
+            mediaTypes = cached;
+        }
+        return cached.mediaTypes;
+    }
+
+    /**
+     * {@code Accept-Encoding} header value computed for a message body workers instance.
+     */
+    private static final class AcceptEncoding {
+        final MessageBodyWorkers workers;
+        final String value;
+
+        AcceptEncoding(final MessageBodyWorkers workers, final String value) {
+            this.workers = workers;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Encodable media types parsed from a configuration property value.
+     */
+    private static final class MediaTypes {
+        final Object property;
+        final List<MediaType> mediaTypes;
+
+        MediaTypes(final Object property, final List<MediaType> mediaTypes) {
+            this.property = property;
+            this.mediaTypes = mediaTypes;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.process.Inflector;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests buffering of client response entities.
+ */
+public class ClientResponseEntityBufferingTest {
+
+    private static final String ENTITY;
+
+    static {
+        final char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        ENTITY = new String(chars);
+    }
+
+    public static class EntityTransport implements Inflector<ClientRequest, ClientResponse> {
+
+        @Override
+        public ClientResponse apply(ClientRequest request) {
+            final ClientResponse response = new ClientResponse(Response.Status.OK, request);
+            response.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN);
+            response.setEntityStream(new ByteArrayInputStream(ENTITY.getBytes()));
+            return response;
+        }
+    }
+
+    private static Response get(Object threshold) {
+        final JerseyClient client = new JerseyClient.Builder().transport(new EntityTransport()).build();
+        client.configuration().setProperty(MessageProperties.ENTITY_BUFFERING_THRESHOLD, threshold);
+        return client.target(UriBuilder.fromUri("/").build()).request().get();
+    }
+
+    /**
+     * Buffered entity kept on the heap can be read repeatedly.
+     */
+    @Test
+    public void testHeapBufferedEntity() {
+        final Response response = get(ENTITY.length());
+        assertTrue(response.bufferEntity());
+
+        assertEquals(ENTITY, response.readEntity(String.class));
+        assertEquals(ENTITY, response.readEntity(String.class));
+        assertTrue(response.hasEntity());
+        response.close();
+    }
+
+    /**
+     * Buffered entity spilled into a temporary file is released once it has been read.
+     */
+    @Test
+    public void testSpilledEntityReleasedWhenRead() {
+        final Response response = get("10");
+        assertTrue(response.bufferEntity());
+
+        assertEquals(ENTITY, response.readEntity(String.class));
+        assertFalse(response.hasEntity());
+        assertNull(response.readEntity(String.class));
+        response.close();
+    }
+}
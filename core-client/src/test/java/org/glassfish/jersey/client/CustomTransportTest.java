@@ -39,13 +39,17 @@
  */
 package org.glassfish.jersey.client;
 
+import java.util.concurrent.Future;
+
 import javax.ws.rs.client.ClientException;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.core.UriBuilder;
 
 import org.glassfish.jersey.process.Inflector;
 
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * @author Pavel Bucek (pavel.bucek at oracle.com)
@@ -69,4 +73,26 @@ public class CustomTransportTest {
             assertEquals("test", ce.getMessage());
         }
     }
+
+    public static class FailingAsyncTransport extends NullTransport implements AsyncConnector {
+
+        @Override
+        public Future<?> apply(ClientRequest request, InvocationCallback<ClientResponse> callback) {
+            throw new RuntimeException("test");
+        }
+    }
+
+    /**
+     * Asynchronous connector failing synchronously must not leave the suspended invocation hanging.
+     */
+    @Test(timeout = 10000)
+    public void testFailingAsyncTransport() {
+        JerseyClient client = new JerseyClient.Builder().transport(new FailingAsyncTransport()).build();
+        try {
+            client.target(UriBuilder.fromUri("/").build()).request().get();
+            fail("ClientException expected.");
+        } catch (ClientException ce) {
+            assertEquals("test", ce.getMessage());
+        }
+    }
 }
@@ -0,0 +1,254 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.Executors;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that {@link HttpUrlConnector} streams request entities instead of buffering them in memory.
+ * <p>
+ * The test is run in a separate JVM with a 64 MB heap (see the module pom.xml), which is not enough
+ * to buffer the 2 GB entity uploaded by {@link #testUploadLargeEntityChunked()}.
+ * </p>
+ */
+public class HttpUrlConnectorStreamingTest {
+
+    private static final long LARGE_ENTITY_SIZE = 2L * 1024 * 1024 * 1024;
+
+    private HttpServer server;
+    private URI uri;
+
+    /**
+     * Replies with the number of the received entity bytes and the transfer mode used by the client.
+     */
+    private static class CountingHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            final InputStream in = exchange.getRequestBody();
+            final byte[] buffer = new byte[64 * 1024];
+            long count = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                count += read;
+            }
+            in.close();
+
+            final String transferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+            final String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            final byte[] response = (count + ":" + (transferEncoding != null ? "chunked:" : "fixed:") + contentLength)
+                    .getBytes("US-ASCII");
+
+            exchange.sendResponseHeaders(200, response.length);
+            final OutputStream out = exchange.getResponseBody();
+            out.write(response);
+            out.close();
+        }
+    }
+
+    /**
+     * Generates the given number of bytes without holding them in memory.
+     */
+    private static class GeneratingInputStream extends InputStream {
+
+        private long remaining;
+
+        public GeneratingInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 'a';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int count = (int) Math.min(len, remaining);
+            for (int i = off; i < off + count; i++) {
+                b[i] = 'a';
+            }
+            remaining -= count;
+            return count;
+        }
+    }
+
+    /**
+     * Compresses the entity, i.e. changes the number of bytes written to the connection.
+     */
+    public static class DeflaterWriterInterceptor implements WriterInterceptor {
+
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+            final DeflaterOutputStream deflaterStream = new DeflaterOutputStream(context.getOutputStream());
+            context.setOutputStream(deflaterStream);
+            context.proceed();
+            deflaterStream.finish();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/upload", new CountingHandler());
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/upload");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testUploadFixedLength() {
+        final JerseyClient client = JerseyClientFactory.clientBuilder().build();
+        client.configuration().setProperty(ClientProperties.REQUEST_ENTITY_STREAMING, true);
+        final Response response = client.target(uri).request()
+                .post(Entity.entity(new byte[1024], MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("1024:fixed:1024", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testUploadTransformedEntityChunked() throws IOException {
+        final JerseyClient client = JerseyClientFactory.clientBuilder().build();
+        client.configuration().setProperty(ClientProperties.REQUEST_ENTITY_STREAMING, true);
+        client.configuration().register(DeflaterWriterInterceptor.class);
+        final Response response = client.target(uri).request()
+                .post(Entity.entity(new byte[1024], MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+        final ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        final DeflaterOutputStream deflaterStream = new DeflaterOutputStream(deflated);
+        deflaterStream.write(new byte[1024]);
+        deflaterStream.close();
+
+        // the size reported by the message body writer does not match the number of the written bytes
+        assertEquals(200, response.getStatus());
+        assertEquals(deflated.size() + ":chunked:null", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testUploadAsciiStringFixedLength() {
+        final JerseyClient client = JerseyClientFactory.clientBuilder().build();
+        client.configuration().setProperty(ClientProperties.REQUEST_ENTITY_STREAMING, true);
+        final Response response = client.target(uri).request()
+                .post(Entity.entity("ascii", "text/plain;charset=UTF-8"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("5:fixed:5", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testUploadNonAsciiStringChunked() throws IOException {
+        final String entity = "\u017elu\u0165ou\u010dk\u00fd k\u016f\u0148";
+        final JerseyClient client = JerseyClientFactory.clientBuilder().build();
+        client.configuration().setProperty(ClientProperties.REQUEST_ENTITY_STREAMING, true);
+        final Response response = client.target(uri).request()
+                .post(Entity.entity(entity, "text/plain;charset=UTF-8"));
+
+        // the number of characters does not match the number of the encoded bytes
+        assertEquals(200, response.getStatus());
+        assertEquals(entity.getBytes("UTF-8").length + ":chunked:null", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testUploadChunkedWithConfiguredChunkSize() {
+        final JerseyClient client = JerseyClientFactory.clientBuilder().build();
+        client.configuration().setProperty(ClientProperties.CHUNKED_ENCODING_SIZE, 1024);
+        final Response response = client.target(uri).request()
+                .post(Entity.entity(new GeneratingInputStream(10000), MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("10000:chunked:null", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testUploadUnknownLengthBuffered() {
+        final JerseyClient client = JerseyClientFactory.clientBuilder().build();
+        final Response response = client.target(uri).request()
+                .post(Entity.entity(new GeneratingInputStream(10000), MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("10000:fixed:10000", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testUploadLargeEntityChunked() {
+        final JerseyClient client = JerseyClientFactory.clientBuilder().build();
+        client.configuration().setProperty(ClientProperties.REQUEST_ENTITY_STREAMING, true);
+        final Response response = client.target(uri).request()
+                .post(Entity.entity(new GeneratingInputStream(LARGE_ENTITY_SIZE), MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(LARGE_ENTITY_SIZE + ":chunked:null", response.readEntity(String.class));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ContextResolver;
+
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.process.Inflector;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the reuse of the client provider runtime across requests.
+ */
+public class RequestProcessingInitializationStageTest {
+
+    private static final AtomicInteger resolverInstances = new AtomicInteger();
+
+    public static class CountingResolver implements ContextResolver<String> {
+
+        public CountingResolver() {
+            resolverInstances.incrementAndGet();
+        }
+
+        @Override
+        public String getContext(Class<?> type) {
+            return null;
+        }
+    }
+
+    public static class OtherResolver implements ContextResolver<Integer> {
+
+        @Override
+        public Integer getContext(Class<?> type) {
+            return null;
+        }
+    }
+
+    private static class RecordingTransport implements Inflector<ClientRequest, ClientResponse> {
+
+        private final List<MessageBodyWorkers> workers = new CopyOnWriteArrayList<MessageBodyWorkers>();
+
+        @Override
+        public ClientResponse apply(ClientRequest request) {
+            workers.add(request.getWorkers());
+            return new ClientResponse(Response.Status.OK, request);
+        }
+    }
+
+    private RecordingTransport transport;
+    private JerseyClient client;
+
+    @Before
+    public void setUp() {
+        resolverInstances.set(0);
+        transport = new RecordingTransport();
+        client = new JerseyClient.Builder().transport(transport).build();
+        client.configuration().register(CountingResolver.class);
+    }
+
+    @Test
+    public void testRuntimeReusedForSameConfiguration() {
+        final WebTarget target = client.target("http://localhost/");
+        for (int i = 0; i < 3; i++) {
+            target.request().get();
+        }
+        client.target("http://localhost/other").request().get();
+
+        assertEquals(4, transport.workers.size());
+        for (MessageBodyWorkers workers : transport.workers) {
+            assertSame(transport.workers.get(0), workers);
+        }
+        assertEquals(1, resolverInstances.get());
+    }
+
+    @Test
+    public void testRuntimeRebuiltOnConfigurationChange() {
+        final WebTarget target = client.target("http://localhost/");
+        final WebTarget modified = client.target("http://localhost/");
+        modified.configuration().register(OtherResolver.class);
+
+        target.request().get();
+        modified.request().get();
+        target.request().get();
+
+        assertNotSame(transport.workers.get(0), transport.workers.get(1));
+        assertSame(transport.workers.get(0), transport.workers.get(2));
+        // providers bound for a previous configuration are not bound again
+        assertEquals(1, resolverInstances.get());
+    }
+
+    @Test
+    public void testRuntimeReusedOnPropertyChange() {
+        final WebTarget target = client.target("http://localhost/");
+        final WebTarget modified = client.target("http://localhost/");
+        modified.configuration().setProperty("test.property", "target");
+
+        target.request().get();
+        modified.request().get();
+        final JerseyInvocation.Builder builder = target.request();
+        builder.configuration().setProperty("test.property", "request");
+        builder.get();
+
+        assertEquals(3, transport.workers.size());
+        assertSame(transport.workers.get(0), transport.workers.get(1));
+        assertSame(transport.workers.get(0), transport.workers.get(2));
+        assertEquals(1, resolverInstances.get());
+    }
+}
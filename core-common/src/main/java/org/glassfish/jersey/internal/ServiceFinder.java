@@ -50,14 +50,18 @@ import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 import java.util.logging.Level;
@@ -65,6 +69,11 @@ import java.util.logging.Logger;
 
 import org.glassfish.jersey.internal.util.ReflectionHelper;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * A simple service-provider lookup mechanism.  A <i>service</i> is a
  * well-known set of interfaces and (usually abstract) classes.  A <i>service
@@ -147,6 +156,14 @@ import org.glassfish.jersey.internal.util.ReflectionHelper;
  *   }
  * </pre>
  * <p/>
+ * The names of the provider classes read from the provider-configuration files
+ * are cached per class loader, the provider classes are loaded and instantiated
+ * on each lookup. The cached names are dropped once the class loader is garbage
+ * collected. Providers that are made visible to an already used class loader
+ * are found only after the cache has been cleared using {@link #clearCache()}.
+ * The provider-configuration files of several services can be read concurrently
+ * in advance using {@link #preload(ClassLoader, Class[])}.
+ * <p/>
  * The provider-lookup mechanism always executes in the security context of the
  * caller.  Trusted system code should typically invoke the methods in this
  * class from within a privileged security context.
@@ -218,7 +235,34 @@ public final class ServiceFinder<T> implements Iterable<T> {
             return null;
         }
     }
-    private static final Map<URL, Boolean> manifestURLs = new HashMap<URL, Boolean>();
+    private static final ConcurrentMap<URL, Boolean> manifestURLs = new ConcurrentHashMap<URL, Boolean>();
+    /**
+     * Provider class names per class loader and service name. Only the names are cached,
+     * references to the provider classes would prevent the class loaders from being collected.
+     */
+    private static final LoadingCache<ClassLoader, ConcurrentMap<String, List<String>>> providerNames =
+            CacheBuilder.newBuilder()
+                    .weakKeys()
+                    .build(new CacheLoader<ClassLoader, ConcurrentMap<String, List<String>>>() {
+
+                        @Override
+                        public ConcurrentMap<String, List<String>> load(ClassLoader loader) {
+                            return new ConcurrentHashMap<String, List<String>>();
+                        }
+                    });
+    /**
+     * Provider class names per service name for the {@code null} (system or bootstrap) class loader.
+     */
+    private static final ConcurrentMap<String, List<String>> defaultProviderNames =
+            new ConcurrentHashMap<String, List<String>>();
+    /**
+     * Reads the provider-configuration files of the {@link #preload(ClassLoader, Class[]) preloaded} services.
+     * The threads are terminated when idle.
+     */
+    private static final ExecutorService preloadExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("jersey-service-finder-%d")
+            .setDaemon(true)
+            .build());
 
     private static Enumeration<URL> filterServiceURLsWithVersion(String serviceName, Enumeration<URL> serviceUrls) {
         if (BUNDLE_VERSION == null || !serviceUrls.hasMoreElements()) {
@@ -232,32 +276,19 @@ public final class ServiceFinder<T> implements Iterable<T> {
             try {
                 final URL manifestURL = getManifestURL(serviceName, url);
 
-                synchronized (manifestURLs) {
-                    Boolean keep = manifestURLs.get(manifestURL);
-                    if (keep != null) {
-                        if (!keep) {
-                            if (LOGGER.isLoggable(Level.CONFIG)) {
-                                LOGGER.log(Level.CONFIG, "Ignoring service URL: {0}", url);
-                            }
-                            li.remove();
-                        } else {
-                            if (LOGGER.isLoggable(Level.FINE)) {
-                                LOGGER.log(Level.FINE, "Including service URL: {0}", url);
-                            }
-                        }
-                    } else {
-                        if (!compatibleManifest(manifestURL)) {
-                            if (LOGGER.isLoggable(Level.CONFIG)) {
-                                LOGGER.log(Level.CONFIG, "Ignoring service URL: {0}", url);
-                            }
-                            li.remove();
-                            manifestURLs.put(manifestURL, false);
-                        } else {
-                            if (LOGGER.isLoggable(Level.FINE)) {
-                                LOGGER.log(Level.FINE, "Including service URL: {0}", url);
-                            }
-                            manifestURLs.put(manifestURL, true);
-                        }
+                Boolean keep = manifestURLs.get(manifestURL);
+                if (keep == null) {
+                    keep = compatibleManifest(manifestURL);
+                    manifestURLs.put(manifestURL, keep);
+                }
+                if (!keep) {
+                    if (LOGGER.isLoggable(Level.CONFIG)) {
+                        LOGGER.log(Level.CONFIG, "Ignoring service URL: {0}", url);
+                    }
+                    li.remove();
+                } else {
+                    if (LOGGER.isLoggable(Level.FINE)) {
+                        LOGGER.log(Level.FINE, "Including service URL: {0}", url);
                     }
                 }
             } catch (IOException ex) {
@@ -537,6 +568,77 @@ public final class ServiceFinder<T> implements Iterable<T> {
      */
     public static void setIteratorProvider(ServiceIteratorProvider sip) throws SecurityException {
         ServiceIteratorProvider.setInstance(sip);
+        clearCache();
+    }
+
+    /**
+     * Clear the cached names of the provider classes read from the META-INF/services
+     * files.
+     * <p>
+     * Subsequent lookups re-read the provider-configuration files. This method should
+     * be invoked when new service providers are made visible to a class loader that has
+     * already been used for a lookup.
+     */
+    public static void clearCache() {
+        providerNames.invalidateAll();
+        defaultProviderNames.clear();
+    }
+
+    /**
+     * Read and cache the names of the provider classes of the services, reading the
+     * provider-configuration files of different services concurrently.
+     * <p>
+     * Services whose provider class names are already cached for the class loader are skipped.
+     * Errors are not reported by this method; the provider-configuration files of a failed
+     * service are read again and the error is reported by the subsequent lookup of the service.
+     * The method has no effect if a custom {@link ServiceIteratorProvider} has been
+     * {@link #setIteratorProvider(ServiceIteratorProvider) registered}.
+     *
+     * @param loader the class loader used to look up the provider-configuration files.
+     * @param services the services to be looked up.
+     */
+    public static void preload(final ClassLoader loader, Class<?>... services) {
+        if (!(ServiceIteratorProvider.getInstance() instanceof DefaultServiceIteratorProvider)) {
+            return;
+        }
+
+        final ConcurrentMap<String, List<String>> names =
+                (loader == null) ? defaultProviderNames : providerNames.getUnchecked(loader);
+        final List<Future<?>> pending = new ArrayList<Future<?>>(services.length);
+        for (Class<?> service : services) {
+            final String serviceName = service.getName();
+            if (!names.containsKey(serviceName)) {
+                pending.add(preloadExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        names.putIfAbsent(serviceName, readProviderNames(serviceName, loader));
+                    }
+                }));
+            }
+        }
+
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.FINE, "Preloading of service provider names failed.", e.getCause());
+            } catch (InterruptedException e) {
+                // the names not read yet will be read by the lookups
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Read and cache the names of the provider classes of the services using the context
+     * class loader of the current thread.
+     *
+     * @param services the services to be looked up.
+     * @see #preload(ClassLoader, Class[])
+     */
+    public static void preload(Class<?>... services) {
+        preload(Thread.currentThread().getContextClassLoader(), services);
     }
 
     private ServiceFinder(
@@ -726,15 +828,59 @@ public final class ServiceFinder<T> implements Iterable<T> {
         return names.iterator();
     }
 
+    /**
+     * Get the names of the provider classes of a service, reading the provider-configuration
+     * files only if the names have not been cached for the class loader yet.
+     *
+     * @param serviceName the service name.
+     * @param loader the class loader used to look up the provider-configuration files.
+     * @return unmodifiable list of the provider class names.
+     * @throws ServiceConfigurationError if a provider-configuration file cannot be read or parsed.
+     */
+    private static List<String> getProviderNames(String serviceName, ClassLoader loader)
+            throws ServiceConfigurationError {
+        final ConcurrentMap<String, List<String>> names =
+                (loader == null) ? defaultProviderNames : providerNames.getUnchecked(loader);
+
+        List<String> result = names.get(serviceName);
+        if (result == null) {
+            result = readProviderNames(serviceName, loader);
+            final List<String> existing = names.putIfAbsent(serviceName, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    private static List<String> readProviderNames(String serviceName, ClassLoader loader)
+            throws ServiceConfigurationError {
+        Enumeration<URL> configs = null;
+        try {
+            final String fullName = PREFIX + serviceName;
+            configs = filterServiceURLsWithVersion(fullName, getResources(loader, fullName));
+        } catch (IOException x) {
+            fail(serviceName, ": " + x);
+        }
+
+        final List<String> names = new ArrayList<String>();
+        final Set<String> returned = new TreeSet<String>();
+        while (configs.hasMoreElements()) {
+            final Iterator<String> pending = parse(serviceName, configs.nextElement(), returned);
+            while (pending.hasNext()) {
+                names.add(pending.next());
+            }
+        }
+        return names.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(names);
+    }
+
     private static class AbstractLazyIterator<T> {
 
         final Class<T> service;
         final String serviceName;
         final ClassLoader loader;
         final boolean ignoreOnClassNotFound;
-        Enumeration<URL> configs = null;
         Iterator<String> pending = null;
-        Set<String> returned = new TreeSet<String>();
         String nextName = null;
 
         private AbstractLazyIterator(
@@ -748,15 +894,9 @@ public final class ServiceFinder<T> implements Iterable<T> {
             this.ignoreOnClassNotFound = ignoreOnClassNotFound;
         }
 
-        protected final void setConfigs() {
-            if (configs == null) {
-                try {
-                    final String fullName = PREFIX + serviceName;
-                    configs = filterServiceURLsWithVersion(fullName,
-                            getResources(loader, fullName));
-                } catch (IOException x) {
-                    fail(serviceName, ": " + x);
-                }
+        protected final void setPending() {
+            if (pending == null) {
+                pending = getProviderNames(serviceName, loader).iterator();
             }
         }
 
@@ -764,14 +904,11 @@ public final class ServiceFinder<T> implements Iterable<T> {
             if (nextName != null) {
                 return true;
             }
-            setConfigs();
+            setPending();
 
             while (nextName == null) {
-                while ((pending == null) || !pending.hasNext()) {
-                    if (!configs.hasMoreElements()) {
-                        return false;
-                    }
-                    pending = parse(serviceName, configs.nextElement(), returned);
+                if (!pending.hasNext()) {
+                    return false;
                 }
                 nextName = pending.next();
                 if (ignoreOnClassNotFound) {
@@ -871,14 +1008,11 @@ public final class ServiceFinder<T> implements Iterable<T> {
             if (nextName != null) {
                 return true;
             }
-            setConfigs();
+            setPending();
 
             while (nextName == null) {
-                while ((pending == null) || !pending.hasNext()) {
-                    if (!configs.hasMoreElements()) {
-                        return false;
-                    }
-                    pending = parse(serviceName, configs.nextElement(), returned);
+                if (!pending.hasNext()) {
+                    return false;
                 }
                 nextName = pending.next();
                 try {
@@ -0,0 +1,337 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import javax.ws.rs.BindingPriority;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Base class for entity content coding (e.g. {@code gzip}) implementations.
+ * <p>
+ * A content encoder is both a {@link ReaderInterceptor reader} and a {@link WriterInterceptor writer}
+ * interceptor. When reading an entity, the entity stream is decoded if the value of the
+ * {@code Content-Encoding} header is one of the {@link #getSupportedEncodings() supported encodings}
+ * (the header is removed afterwards, as the entity is no longer encoded). When writing an entity,
+ * the entity stream is encoded if the {@code Content-Encoding} header of the outbound message
+ * has been set to one of the supported encodings. The encoders do not negotiate the encoding
+ * themselves; that is the job of the server-side and client-side {@code EncodingFilter}s.
+ * </p>
+ * <p>
+ * If the {@value MessageProperties#ENCODING_MIN_SIZE} property of the written message is set to
+ * a positive integer, the first bytes of the entity up to the configured size are buffered.
+ * Shorter entities are not worth encoding; such entities are written unencoded and the
+ * {@code Content-Encoding} header is removed before the message headers are committed.
+ * </p>
+ */
+@BindingPriority(BindingPriority.ENCODER)
+public abstract class ContentEncoder implements ReaderInterceptor, WriterInterceptor {
+
+    private final List<String> supportedEncodings;
+
+    /**
+     * Initialize the content encoder with the supported content encodings.
+     *
+     * @param supportedEncodings content encodings (values of the {@code Content-Encoding}
+     *                           header) supported by the encoder.
+     */
+    protected ContentEncoder(final String... supportedEncodings) {
+        if (supportedEncodings.length == 0) {
+            throw new IllegalArgumentException("At least one supported encoding must be specified.");
+        }
+        final String[] encodings = new String[supportedEncodings.length];
+        for (int i = 0; i < encodings.length; i++) {
+            encodings[i] = supportedEncodings[i].toLowerCase(Locale.ENGLISH);
+        }
+        this.supportedEncodings = Collections.unmodifiableList(Arrays.asList(encodings));
+    }
+
+    /**
+     * Get the content encodings supported by this encoder, in the order of preference.
+     *
+     * @return unmodifiable list of supported content encodings.
+     */
+    public final List<String> getSupportedEncodings() {
+        return supportedEncodings;
+    }
+
+    /**
+     * Check whether the content encoding is supported by this encoder.
+     *
+     * @param encoding content encoding (case insensitive).
+     * @return {@code true} if the encoding is supported, {@code false} otherwise.
+     */
+    public final boolean supports(final String encoding) {
+        for (int i = 0; i < supportedEncodings.size(); i++) {
+            if (supportedEncodings.get(i).equalsIgnoreCase(encoding)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wrap the encoded entity input stream in a decoding stream.
+     * <p>
+     * The returned stream must not use any pooled resources once it has reached the end
+     * of the encoded data or once it has been closed.
+     * </p>
+     *
+     * @param contentEncoding content encoding of the entity, one of the supported encodings.
+     * @param encodedStream   encoded entity input stream.
+     * @return decoded entity input stream.
+     * @throws IOException in case of an I/O error.
+     */
+    public abstract InputStream decode(String contentEncoding, InputStream encodedStream) throws IOException;
+
+    /**
+     * Wrap the entity output stream in an encoding stream.
+     * <p>
+     * The returned stream must write all the remaining encoded data to the entity stream and
+     * release any pooled resources once {@link #finish(OutputStream)} or {@code close()} is
+     * invoked on it.
+     * </p>
+     *
+     * @param contentEncoding content encoding of the entity, one of the supported encodings.
+     * @param entityStream    entity output stream.
+     * @return encoding output stream.
+     * @throws IOException in case of an I/O error.
+     */
+    public abstract OutputStream encode(String contentEncoding, OutputStream entityStream) throws IOException;
+
+    /**
+     * Complete the encoding of an entity without closing the underlying entity stream.
+     *
+     * @param encodingStream stream returned from {@link #encode(String, OutputStream)}.
+     * @throws IOException in case of an I/O error.
+     */
+    protected abstract void finish(OutputStream encodingStream) throws IOException;
+
+    /**
+     * Release the resources held by an encoding stream without completing the encoding, e.g. because
+     * writing of the entity has failed. Nothing is written to the underlying entity stream.
+     * <p>
+     * The default implementation does nothing. Encoders using pooled resources must override
+     * the method and must not return the resources of an aborted stream to the pool.
+     * </p>
+     *
+     * @param encodingStream stream returned from {@link #encode(String, OutputStream)}.
+     */
+    protected void abort(final OutputStream encodingStream) {
+    }
+
+    @Override
+    public final Object aroundReadFrom(final ReaderInterceptorContext context)
+            throws IOException, WebApplicationException {
+        final String encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || !supports(encoding.trim())) {
+            return context.proceed();
+        }
+
+        context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+        context.setInputStream(decode(encoding.trim(), context.getInputStream()));
+        return context.proceed();
+    }
+
+    @Override
+    public final void aroundWriteTo(final WriterInterceptorContext context) throws IOException, WebApplicationException {
+        final MultivaluedMap<String, Object> headers = context.getHeaders();
+        final Object encodingValue = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        final String encoding = encodingValue == null ? null : encodingValue.toString().trim();
+        if (encoding == null || !supports(encoding)) {
+            context.proceed();
+            return;
+        }
+
+        // the length of the encoded entity is not known
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+        final OutputStream entityStream = context.getOutputStream();
+        final int minSize = getMinSize(context.getProperty(MessageProperties.ENCODING_MIN_SIZE));
+        final OutputStream encodingStream = minSize > 0
+                ? new ThresholdOutputStream(encoding, entityStream, headers, minSize)
+                : encode(encoding, entityStream);
+
+        context.setOutputStream(encodingStream);
+        boolean written = false;
+        try {
+            context.proceed();
+            written = true;
+            if (encodingStream instanceof ThresholdOutputStream) {
+                ((ThresholdOutputStream) encodingStream).finish();
+            } else {
+                finish(encodingStream);
+            }
+        } finally {
+            if (!written) {
+                if (encodingStream instanceof ThresholdOutputStream) {
+                    ((ThresholdOutputStream) encodingStream).abort();
+                } else {
+                    abort(encodingStream);
+                }
+            }
+            context.setOutputStream(entityStream);
+        }
+    }
+
+    private static int getMinSize(final Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException ignored) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Defers the decision whether to encode the entity until the entity is known to be
+     * at least {@code minSize} bytes long. The entity bytes are buffered till then and
+     * nothing is written to the entity stream, so the headers of the message can still
+     * be modified.
+     */
+    private final class ThresholdOutputStream extends OutputStream {
+
+        private final String encoding;
+        private final OutputStream entityStream;
+        private final MultivaluedMap<String, Object> headers;
+        private byte[] buffer;
+        private int count;
+        private OutputStream encodingStream;
+        private boolean finished;
+
+        ThresholdOutputStream(final String encoding, final OutputStream entityStream,
+                              final MultivaluedMap<String, Object> headers, final int minSize) {
+            this.encoding = encoding;
+            this.entityStream = entityStream;
+            this.headers = headers;
+            // entities of exactly minSize bytes are encoded already
+            this.buffer = new byte[minSize - 1];
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (encodingStream != null) {
+                encodingStream.write(b);
+            } else if (count < buffer.length) {
+                buffer[count++] = (byte) b;
+            } else {
+                startEncoding().write(b);
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (encodingStream != null) {
+                encodingStream.write(b, off, len);
+            } else if (len <= buffer.length - count) {
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+            } else {
+                startEncoding().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // flushing the buffered bytes would commit the headers before the encoding is decided
+            if (encodingStream != null) {
+                encodingStream.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            entityStream.close();
+        }
+
+        private OutputStream startEncoding() throws IOException {
+            encodingStream = encode(encoding, entityStream);
+            encodingStream.write(buffer, 0, count);
+            buffer = null;
+            return encodingStream;
+        }
+
+        void abort() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+
+            if (encodingStream != null) {
+                ContentEncoder.this.abort(encodingStream);
+            }
+            buffer = null;
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+
+            if (encodingStream != null) {
+                ContentEncoder.this.finish(encodingStream);
+            } else {
+                // too short to be worth encoding
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                entityStream.write(buffer, 0, count);
+                buffer = null;
+            }
+        }
+    }
+}
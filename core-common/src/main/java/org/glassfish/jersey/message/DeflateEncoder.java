@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.Deflater;
+
+import org.glassfish.jersey.message.internal.CodecPool;
+import org.glassfish.jersey.message.internal.PooledDeflaterOutputStream;
+import org.glassfish.jersey.message.internal.PooledInflaterInputStream;
+
+/**
+ * Deflate {@link ContentEncoder content encoder} supporting the {@code deflate} content encoding.
+ * <p>
+ * Entities are encoded in the ZLIB format (RFC 1950) as required by the HTTP specification.
+ * As some implementations send raw deflate data (RFC 1951) instead, both formats are accepted
+ * when decoding an entity. The native {@link Deflater} and {@link java.util.zip.Inflater}
+ * instances used by the encoder are pooled and reused across messages.
+ * </p>
+ */
+public class DeflateEncoder extends ContentEncoder {
+
+    private final CodecPool zlibPool;
+    private final CodecPool rawPool;
+
+    /**
+     * Create new deflate encoder using the {@link Deflater#DEFAULT_COMPRESSION default compression level}.
+     */
+    public DeflateEncoder() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Create new deflate encoder.
+     *
+     * @param level compression level ({@code 0-9} or {@link Deflater#DEFAULT_COMPRESSION}).
+     */
+    public DeflateEncoder(final int level) {
+        super("deflate");
+        this.zlibPool = new CodecPool(level, false);
+        this.rawPool = new CodecPool(level, true);
+    }
+
+    @Override
+    public InputStream decode(final String contentEncoding, final InputStream encodedStream) throws IOException {
+        final PushbackInputStream in = new PushbackInputStream(encodedStream, 2);
+        final int cmf = in.read();
+        if (cmf == -1) {
+            return in;
+        }
+        final int flg = in.read();
+        if (flg != -1) {
+            in.unread(flg);
+        }
+        in.unread(cmf);
+
+        // ZLIB header: compression method 8 and a header checksum divisible by 31
+        final boolean zlib = (cmf & 0x0f) == Deflater.DEFLATED && flg != -1 && ((cmf << 8) | flg) % 31 == 0;
+        return new PooledInflaterInputStream(in, zlib ? zlibPool : rawPool, false);
+    }
+
+    @Override
+    public OutputStream encode(final String contentEncoding, final OutputStream entityStream) throws IOException {
+        return new PooledDeflaterOutputStream(entityStream, zlibPool, false);
+    }
+
+    @Override
+    protected void finish(final OutputStream encodingStream) throws IOException {
+        ((PooledDeflaterOutputStream) encodingStream).finish();
+    }
+
+    @Override
+    protected void abort(final OutputStream encodingStream) {
+        ((PooledDeflaterOutputStream) encodingStream).abort();
+    }
+}
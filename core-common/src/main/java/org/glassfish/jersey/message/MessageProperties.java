@@ -94,6 +94,63 @@ public final class MessageProperties {
      * streams.
      */
     public static final int IO_DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * Maximum number of bytes of a {@link javax.ws.rs.core.Response#bufferEntity() buffered}
+     * inbound entity kept on the heap. The rest of a larger entity is spilled into a temporary
+     * file. The property is read from the client or the server configuration. Its value is
+     * expected to be a non-negative integer otherwise it will be ignored; {@code 0} means that
+     * buffered entities are always stored in a temporary file.
+     * <p />
+     * A client response entity that has been spilled into a temporary file is released as soon
+     * as it has been read as an entity other than a stream; it cannot be read again.
+     * <p />
+     * The default value is <code>{@value #ENTITY_BUFFERING_DEFAULT_THRESHOLD}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String ENTITY_BUFFERING_THRESHOLD = "jersey.config.entity.buffering.threshold";
+    /**
+     * The default maximum number of bytes ({@value}) of a buffered inbound entity kept
+     * on the heap.
+     */
+    public static final int ENTITY_BUFFERING_DEFAULT_THRESHOLD = 1024 * 1024;
+    /**
+     * Minimal size (in bytes) of an entity to be encoded using a negotiated content
+     * encoding (see {@link ContentEncoder}). Shorter entities are sent unencoded as
+     * the encoding would not pay off. The property value is expected to be a non-negative
+     * integer; {@code 0} means that all entities are encoded.
+     * <p />
+     * The default value is <code>{@value #ENCODING_DEFAULT_MIN_SIZE}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String ENCODING_MIN_SIZE = "jersey.config.encoding.minSize";
+    /**
+     * The default minimal size ({@value}) of an entity to be encoded using a negotiated
+     * content encoding.
+     */
+    public static final int ENCODING_DEFAULT_MIN_SIZE = 1024;
+    /**
+     * Media types of entities that may be encoded using a negotiated content encoding
+     * (see {@link ContentEncoder}). Entities of other media types (typically already
+     * compressed images, videos or archives) are always sent unencoded.
+     * <p />
+     * The property value MUST be an instance of {@link String} or {@code String[]}
+     * array. Each {@code String} instance represents one or more media types separated
+     * by a comma. Wildcard types and subtypes as well as structured syntax suffix
+     * wildcards (e.g. {@code application/*+json}) are supported.
+     * <p />
+     * The default value is <code>{@value #ENCODING_DEFAULT_MEDIA_TYPES}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String ENCODING_MEDIA_TYPES = "jersey.config.encoding.mediaTypes";
+    /**
+     * The default media types ({@value}) of entities that may be encoded using
+     * a negotiated content encoding.
+     */
+    public static final String ENCODING_DEFAULT_MEDIA_TYPES = "text/*, application/json, application/*+json, "
+            + "application/xml, application/*+xml, application/javascript, application/x-www-form-urlencoded";
 
     private MessageProperties() {
         // prevents instantiation
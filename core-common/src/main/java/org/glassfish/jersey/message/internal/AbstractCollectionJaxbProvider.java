@@ -264,12 +264,16 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
             final String charsetName = charset.name();
 
             final Marshaller m = getMarshaller(elementType, mediaType);
-            m.setProperty(Marshaller.JAXB_FRAGMENT, true);
-            if (charset != UTF8) {
-                m.setProperty(Marshaller.JAXB_ENCODING, charsetName);
+            try {
+                m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+                if (charset != UTF8) {
+                    m.setProperty(Marshaller.JAXB_ENCODING, charsetName);
+                }
+                setHeader(m, annotations);
+                writeList(elementType, c, mediaType, charset, m, entityStream);
+            } finally {
+                releaseMarshaller(m);
             }
-            setHeader(m, annotations);
-            writeList(elementType, c, mediaType, charset, m, entityStream);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
         }
@@ -301,9 +305,10 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
             MediaType mediaType,
             MultivaluedMap<String, String> httpHeaders,
             InputStream entityStream) throws IOException {
+        Unmarshaller u = null;
         try {
             final Class<?> elementType = getElementClass(type, genericType);
-            final Unmarshaller u = getUnmarshaller(elementType, mediaType);
+            u = getUnmarshaller(elementType, mediaType);
             final XMLStreamReader r = getXMLStreamReader(elementType, mediaType, u, entityStream);
             boolean jaxbElement = false;
 
@@ -369,6 +374,10 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
+        } finally {
+            if (u != null) {
+                releaseUnmarshaller(u);
+            }
         }
     }
 
@@ -108,7 +108,12 @@ public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<J
         final Class ta = (Class) pt.getActualTypeArguments()[0];
 
         try {
-            return readFrom(ta, mediaType, getUnmarshaller(ta, mediaType), entityStream);
+            final Unmarshaller u = getUnmarshaller(ta, mediaType);
+            try {
+                return readFrom(ta, mediaType, u, entityStream);
+            } finally {
+                releaseUnmarshaller(u);
+            }
         } catch (UnmarshalException ex) {
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
         } catch (JAXBException ex) {
@@ -131,12 +136,16 @@ public abstract class AbstractJaxbElementProvider extends AbstractJaxbProvider<J
             OutputStream entityStream) throws IOException {
         try {
             final Marshaller m = getMarshaller(t.getDeclaredType(), mediaType);
-            final Charset c = getCharset(mediaType);
-            if (c != UTF8) {
-                m.setProperty(Marshaller.JAXB_ENCODING, c.name());
+            try {
+                final Charset c = getCharset(mediaType);
+                if (c != UTF8) {
+                    m.setProperty(Marshaller.JAXB_ENCODING, c.name());
+                }
+                setHeader(m, annotations);
+                writeTo(t, mediaType, c, m, entityStream);
+            } finally {
+                releaseMarshaller(m);
             }
-            setHeader(m, annotations);
-            writeTo(t, mediaType, c, m, entityStream);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
         }
@@ -41,8 +41,6 @@ package org.glassfish.jersey.message.internal;
 
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -80,8 +78,6 @@ import com.google.common.base.Suppliers;
  */
 public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWriterProvider<T> {
 
-    private static final Map<Class, JAXBContext> jaxbContexts =
-            new WeakHashMap<Class, JAXBContext>();
     private final Providers ps;
     private final boolean fixedMediaType;
     private final Supplier<ContextResolver<JAXBContext>> mtContext;
@@ -163,7 +159,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        return getJAXBContext(type, mt).createUnmarshaller();
+        return JaxbContextRegistry.acquireUnmarshaller(getJAXBContext(type, mt));
     }
 
     private Unmarshaller getUnmarshaller(Class type) throws JAXBException {
@@ -175,7 +171,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        return getJAXBContext(type).createUnmarshaller();
+        return JaxbContextRegistry.acquireUnmarshaller(getJAXBContext(type));
     }
 
     protected final Marshaller getMarshaller(Class type, MediaType mt) throws JAXBException {
@@ -191,7 +187,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        Marshaller m = getJAXBContext(type, mt).createMarshaller();
+        Marshaller m = JaxbContextRegistry.acquireMarshaller(getJAXBContext(type, mt));
         if (formattedOutput.get()) {
             m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput.get());
         }
@@ -208,7 +204,7 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
             }
         }
 
-        Marshaller m = getJAXBContext(type).createMarshaller();
+        Marshaller m = JaxbContextRegistry.acquireMarshaller(getJAXBContext(type));
         if (formattedOutput.get()) {
             m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput.get());
         }
@@ -240,14 +236,51 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
     }
 
     protected JAXBContext getStoredJaxbContext(Class type) throws JAXBException {
-        synchronized (jaxbContexts) {
-            JAXBContext c = jaxbContexts.get(type);
-            if (c == null) {
-                c = JAXBContext.newInstance(type);
-                jaxbContexts.put(type, c);
-            }
-            return c;
-        }
+        return JaxbContextRegistry.getContext(type);
+    }
+
+    /**
+     * Release an unmarshaller obtained from {@link #getUnmarshaller(Class, MediaType)}
+     * once the entity has been read. Unmarshallers created by Jersey are returned
+     * to the {@link JaxbContextRegistry pool}, the method has no effect on unmarshallers
+     * supplied by an application {@link ContextResolver}.
+     *
+     * @param u released unmarshaller.
+     */
+    protected final void releaseUnmarshaller(Unmarshaller u) {
+        JaxbContextRegistry.release(u);
+    }
+
+    /**
+     * Release a marshaller obtained from {@link #getMarshaller(Class, MediaType)}
+     * once the entity has been written. Marshallers created by Jersey are returned
+     * to the {@link JaxbContextRegistry pool}, the method has no effect on marshallers
+     * supplied by an application {@link ContextResolver}.
+     *
+     * @param m released marshaller.
+     */
+    protected final void releaseMarshaller(Marshaller m) {
+        JaxbContextRegistry.release(m);
+    }
+
+    /**
+     * Prevent an unmarshaller configured with adapters or non-standard properties from being
+     * reused for other entities once {@link #releaseUnmarshaller(Unmarshaller) released}.
+     *
+     * @param u unmarshaller obtained from {@link #getUnmarshaller(Class, MediaType)}.
+     */
+    protected final void discardUnmarshaller(Unmarshaller u) {
+        JaxbContextRegistry.discard(u);
+    }
+
+    /**
+     * Prevent a marshaller configured beyond the standard JAXB properties from being
+     * reused for other entities once {@link #releaseMarshaller(Marshaller) released}.
+     *
+     * @param m marshaller obtained from {@link #getMarshaller(Class, MediaType)}.
+     */
+    protected final void discardMarshaller(Marshaller m) {
+        JaxbContextRegistry.discard(m);
     }
 
     protected static SAXSource getSAXSource(SAXParserFactory spf,
@@ -272,6 +305,8 @@ public abstract class AbstractJaxbProvider<T> extends AbstractMessageReaderWrite
     protected void setHeader(Marshaller m, Annotation[] annotations) throws PropertyException {
         for (Annotation a : annotations) {
             if (a instanceof XmlHeader) {
+                // the header property cannot be reset in an implementation-independent way
+                discardMarshaller(m);
                 try {
                     // standalone jaxb ri
                     m.setProperty("com.sun.xml.bind.xmlHeaders", ((XmlHeader) a).value());
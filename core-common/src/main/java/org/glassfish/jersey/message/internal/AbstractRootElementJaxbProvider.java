@@ -109,7 +109,12 @@ public abstract class AbstractRootElementJaxbProvider extends AbstractJaxbProvid
             InputStream entityStream) throws IOException {
 
         try {
-            return readFrom(type, mediaType, getUnmarshaller(type, mediaType), entityStream);
+            final Unmarshaller u = getUnmarshaller(type, mediaType);
+            try {
+                return readFrom(type, mediaType, u, entityStream);
+            } finally {
+                releaseUnmarshaller(u);
+            }
         } catch (UnmarshalException ex) {
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
         } catch (JAXBException ex) {
@@ -151,12 +156,16 @@ public abstract class AbstractRootElementJaxbProvider extends AbstractJaxbProvid
             OutputStream entityStream) throws IOException {
         try {
             final Marshaller m = getMarshaller(type, mediaType);
-            final Charset c = getCharset(mediaType);
-            if (c != UTF8) {
-                m.setProperty(Marshaller.JAXB_ENCODING, c.name());
+            try {
+                final Charset c = getCharset(mediaType);
+                if (c != UTF8) {
+                    m.setProperty(Marshaller.JAXB_ENCODING, c.name());
+                }
+                setHeader(m, annotations);
+                writeTo(t, mediaType, c, m, entityStream);
+            } finally {
+                releaseMarshaller(m);
             }
-            setHeader(m, annotations);
-            writeTo(t, mediaType, c, m, entityStream);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
         }
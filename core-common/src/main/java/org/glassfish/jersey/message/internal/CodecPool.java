@@ -0,0 +1,182 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pool of {@link Deflater} and {@link Inflater} instances sharing the same
+ * compression level and header format.
+ * <p>
+ * Both classes hold native zlib memory that is only released by an explicit {@code end()}
+ * call or by finalization. Creating a new instance per message is therefore expensive
+ * and puts pressure on the native heap; the pool keeps up to a given number of released
+ * instances around in a {@link Deflater#reset() reset} state and hands them out again.
+ * Instances released into a full pool are {@link Deflater#end() ended} immediately.
+ * </p>
+ * <p>
+ * The pool is thread-safe. An acquired instance is owned by the caller until it is
+ * released and must not be used after it has been released.
+ * </p>
+ */
+public final class CodecPool {
+
+    /**
+     * Default maximum number of pooled instances of each kind.
+     */
+    public static final int DEFAULT_MAX_POOLED = 64;
+
+    private final int level;
+    private final boolean nowrap;
+    private final int maxPooled;
+
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<Deflater>();
+    private final AtomicInteger pooledDeflaters = new AtomicInteger();
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<Inflater>();
+    private final AtomicInteger pooledInflaters = new AtomicInteger();
+
+    /**
+     * Create new codec pool holding at most {@value #DEFAULT_MAX_POOLED} instances of each kind.
+     *
+     * @param level  compression level of the pooled deflaters.
+     * @param nowrap if {@code true}, the pooled instances produce and consume raw deflate
+     *               data without the ZLIB header and checksum fields (as required by GZIP).
+     */
+    public CodecPool(final int level, final boolean nowrap) {
+        this(level, nowrap, DEFAULT_MAX_POOLED);
+    }
+
+    /**
+     * Create new codec pool.
+     *
+     * @param level     compression level of the pooled deflaters.
+     * @param nowrap    if {@code true}, the pooled instances produce and consume raw deflate
+     *                  data without the ZLIB header and checksum fields (as required by GZIP).
+     * @param maxPooled maximum number of released instances of each kind kept in the pool.
+     */
+    public CodecPool(final int level, final boolean nowrap, final int maxPooled) {
+        if (maxPooled < 0) {
+            throw new IllegalArgumentException("Maximum number of pooled instances must not be negative.");
+        }
+        this.level = level;
+        this.nowrap = nowrap;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Get a deflater from the pool or create a new one if the pool is empty.
+     *
+     * @return deflater ready to compress a new data set.
+     */
+    public Deflater acquireDeflater() {
+        final Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            return new Deflater(level, nowrap);
+        }
+        pooledDeflaters.decrementAndGet();
+        return deflater;
+    }
+
+    /**
+     * Return a deflater acquired from this pool back to the pool.
+     *
+     * @param deflater released deflater.
+     */
+    public void release(final Deflater deflater) {
+        if (pooledDeflaters.incrementAndGet() <= maxPooled) {
+            deflater.reset();
+            deflaters.offer(deflater);
+        } else {
+            pooledDeflaters.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    /**
+     * Get an inflater from the pool or create a new one if the pool is empty.
+     *
+     * @return inflater ready to decompress a new data set.
+     */
+    public Inflater acquireInflater() {
+        final Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            return new Inflater(nowrap);
+        }
+        pooledInflaters.decrementAndGet();
+        return inflater;
+    }
+
+    /**
+     * Return an inflater acquired from this pool back to the pool.
+     *
+     * @param inflater released inflater.
+     */
+    public void release(final Inflater inflater) {
+        if (pooledInflaters.incrementAndGet() <= maxPooled) {
+            inflater.reset();
+            inflaters.offer(inflater);
+        } else {
+            pooledInflaters.decrementAndGet();
+            inflater.end();
+        }
+    }
+
+    /**
+     * Get the number of deflaters currently held by the pool.
+     *
+     * @return number of pooled deflaters.
+     */
+    int getPooledDeflaters() {
+        return pooledDeflaters.get();
+    }
+
+    /**
+     * Get the number of inflaters currently held by the pool.
+     *
+     * @return number of pooled inflaters.
+     */
+    int getPooledInflaters() {
+        return pooledInflaters.get();
+    }
+}
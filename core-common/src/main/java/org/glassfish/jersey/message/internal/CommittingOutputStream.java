@@ -39,22 +39,33 @@
  */
 package org.glassfish.jersey.message.internal;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 
 /**
- * An abstract committing output stream adapter that performs a {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#commit()
+ * An abstract committing output stream adapter that performs a {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#commit(long)
  * commit} and then retrieves the {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#getOutputStream() provided output} stream
  * before the first byte is written to the provided stream.
  *
  * Concrete implementations of the class typically override the commit operation
  * to perform any initialization on the adapted output stream.
+ * <p>
+ * If {@link #enableBuffering(int) buffering} is enabled, the commit is deferred until the written
+ * data exceed the buffer size or until the stream is {@link #commit() committed}, {@link #flush() flushed}
+ * or {@link #close() closed}. An entity that fits into the buffer completely is then committed with its
+ * exact length. A flush commits the stream with an unknown length and writes out the buffered data.
+ * </p>
+ * <p>
+ * A {@link #transferFile(File, long, long) file transfer} is delegated to the provided
+ * output stream if it implements {@link FileTransferOutput}.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 // TODO make package-private
-public final class CommittingOutputStream extends OutputStream {
+public final class CommittingOutputStream extends OutputStream implements FileTransferOutput {
 
     /**
      * Adapted output stream.
@@ -68,6 +79,22 @@ public final class CommittingOutputStream extends OutputStream {
      * Stream provider.
      */
     private OutboundMessageContext.StreamProvider streamProvider;
+    /**
+     * Size of the buffer holding the data written before the commit, {@code 0} if buffering is disabled.
+     */
+    private int bufferSize = 0;
+    /**
+     * Data written before the commit, allocated lazily.
+     */
+    private byte[] buffer;
+    /**
+     * Number of bytes in the buffer.
+     */
+    private int buffered = 0;
+    /**
+     * Set while the streams wrapping this stream are flushed at the end of the entity.
+     */
+    private boolean completing = false;
 
     /**
      * Construct a new committing output stream using a deferred initialization
@@ -85,6 +112,22 @@ public final class CommittingOutputStream extends OutputStream {
         this.streamProvider = streamProvider;
     }
 
+    /**
+     * Enable buffering of the data written before the commit. Buffering lets the stream
+     * commit entities that fit into the buffer with their exact length.
+     * <p>
+     * The method has no effect if the stream has already been committed or if the buffer
+     * size is not positive.
+     * </p>
+     *
+     * @param bufferSize size of the buffer in bytes.
+     */
+    public void enableBuffering(int bufferSize) {
+        if (!isCommitted && bufferSize > 0) {
+            this.bufferSize = bufferSize;
+        }
+    }
+
     /**
      * Determines whether the stream was already committed or not.
      *
@@ -96,47 +139,104 @@ public final class CommittingOutputStream extends OutputStream {
 
     @Override
     public void write(byte b[]) throws IOException {
-        if (b.length > 0) {
-            commitWrite();
-            adaptedOutput.write(b);
-        }
+        write(b, 0, b.length);
     }
 
     @Override
     public void write(byte b[], int off, int len) throws IOException {
         if (len > 0) {
-            commitWrite();
+            if (!isCommitted && buffered + len <= bufferSize) {
+                if (buffer == null) {
+                    buffer = new byte[bufferSize];
+                }
+                System.arraycopy(b, off, buffer, buffered, len);
+                buffered += len;
+                return;
+            }
+            commitWrite(-1);
             adaptedOutput.write(b, off, len);
         }
     }
 
     @Override
     public void write(int b) throws IOException {
-        commitWrite();
+        if (!isCommitted && buffered < bufferSize) {
+            if (buffer == null) {
+                buffer = new byte[bufferSize];
+            }
+            buffer[buffered++] = (byte) b;
+            return;
+        }
+        commitWrite(-1);
         adaptedOutput.write(b);
     }
 
+    @Override
+    public boolean transferFile(File file, long position, long count) throws IOException {
+        commitWrite(-1);
+        return adaptedOutput instanceof FileTransferOutput
+                && ((FileTransferOutput) adaptedOutput).transferFile(file, position, count);
+    }
+
     @Override
     public void flush() throws IOException {
-        commitWrite();
+        if (completing && !isCommitted) {
+            // the buffered data are committed as the complete entity
+            return;
+        }
+        commitWrite(-1);
         adaptedOutput.flush();
     }
 
+    /**
+     * Commit the stream if it wasn't already committed. If buffering is enabled, the buffered
+     * data are written into the provided stream as the complete entity.
+     *
+     * @throws IOException in case of an I/O error.
+     */
+    public void commit() throws IOException {
+        commitWrite(bufferSize > 0 ? buffered : -1);
+    }
+
+    /**
+     * Flush the entity stream wrapping this stream once the entity has been written completely and
+     * commit this stream afterwards. Unlike an explicit flush during the writing of the entity, flushing
+     * the wrapping streams here does not prevent a buffered entity from being committed with its length.
+     *
+     * @param entityStream entity stream wrapping this stream (or this stream itself).
+     * @throws IOException in case of an I/O error.
+     */
+    void complete(OutputStream entityStream) throws IOException {
+        completing = true;
+        try {
+            entityStream.flush();
+        } finally {
+            completing = false;
+        }
+        commit();
+        flush();
+    }
+
     @Override
     public void close() throws IOException {
-        commitWrite();
+        commit();
         adaptedOutput.close();
     }
 
-    private void commitWrite() throws IOException {
+    private void commitWrite(long contentLength) throws IOException {
         if (!isCommitted) {
             isCommitted = true;
 
-            streamProvider.commit();
+            streamProvider.commit(contentLength);
 
             if (adaptedOutput == null) {
                 adaptedOutput = streamProvider.getOutputStream();
             }
+            if (buffered > 0) {
+                adaptedOutput.write(buffer, 0, buffered);
+            }
+            buffer = null;
+            buffered = 0;
         }
     }
 }
@@ -187,7 +187,7 @@ public class ContentDisposition {
 
     protected void addDateParameter(StringBuilder sb, String name, Date p) {
         if (p != null) {
-            sb.append("; ").append(name).append("=\"").append(HttpDateFormat.getPreferedDateFormat().format(p)).append("\"");
+            HttpDateFormat.appendDate(sb.append("; ").append(name).append("=\""), p).append("\"");
         }
     }
 
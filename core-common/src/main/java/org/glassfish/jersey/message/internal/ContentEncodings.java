@@ -0,0 +1,273 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.WriterInterceptor;
+
+import org.glassfish.jersey.message.ContentEncoder;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.MessageProperties;
+
+/**
+ * Content encoding negotiation utilities shared by the server-side and client-side
+ * encoding filters.
+ */
+public final class ContentEncodings {
+
+    private static final String IDENTITY = "identity";
+    private static final String ANY = "*";
+
+    private static final List<MediaType> DEFAULT_MEDIA_TYPES =
+            Collections.unmodifiableList(parseMediaTypes(MessageProperties.ENCODING_DEFAULT_MEDIA_TYPES));
+
+    private ContentEncodings() {
+        // prevents instantiation
+    }
+
+    /**
+     * Read the value of the {@value MessageProperties#ENCODING_MIN_SIZE} property.
+     *
+     * @param value property value, may be {@code null}.
+     * @return minimal size of an encoded entity.
+     */
+    public static int readMinSize(final Object value) {
+        if (value instanceof Number) {
+            return Math.max(0, ((Number) value).intValue());
+        } else if (value != null) {
+            try {
+                return Math.max(0, Integer.parseInt(value.toString().trim()));
+            } catch (NumberFormatException ignored) {
+                // fall through to the default
+            }
+        }
+        return MessageProperties.ENCODING_DEFAULT_MIN_SIZE;
+    }
+
+    /**
+     * Read the value of the {@value MessageProperties#ENCODING_MEDIA_TYPES} property.
+     *
+     * @param value property value, may be {@code null}.
+     * @return list of encodable media types.
+     */
+    public static List<MediaType> readMediaTypes(final Object value) {
+        if (value instanceof String) {
+            return parseMediaTypes((String) value);
+        } else if (value instanceof String[]) {
+            final List<MediaType> mediaTypes = new ArrayList<MediaType>();
+            for (String types : (String[]) value) {
+                mediaTypes.addAll(parseMediaTypes(types));
+            }
+            return mediaTypes;
+        }
+        return DEFAULT_MEDIA_TYPES;
+    }
+
+    private static List<MediaType> parseMediaTypes(final String value) {
+        final List<MediaType> mediaTypes = new ArrayList<MediaType>();
+        for (String type : value.split(",")) {
+            type = type.trim();
+            if (type.length() > 0) {
+                mediaTypes.add(MediaType.valueOf(type));
+            }
+        }
+        return mediaTypes;
+    }
+
+    /**
+     * Check whether an entity of the given media type may be encoded.
+     *
+     * @param mediaType  entity media type.
+     * @param mediaTypes encodable media types, may contain wildcards.
+     * @return {@code true} if the entity may be encoded, {@code false} otherwise.
+     */
+    public static boolean isEncodable(final MediaType mediaType, final List<MediaType> mediaTypes) {
+        for (int i = 0; i < mediaTypes.size(); i++) {
+            final MediaType allowed = mediaTypes.get(i);
+            if (!allowed.isWildcardType() && !allowed.getType().equalsIgnoreCase(mediaType.getType())) {
+                continue;
+            }
+            final String subtype = allowed.getSubtype();
+            if (allowed.isWildcardSubtype() || subtype.equalsIgnoreCase(mediaType.getSubtype())) {
+                return true;
+            }
+            // structured syntax suffix, e.g. "*+json"
+            if (subtype.startsWith("*+")) {
+                final String actual = mediaType.getSubtype();
+                final int suffixLength = subtype.length() - 1;
+                if (actual.length() > suffixLength
+                        && actual.regionMatches(true, actual.length() - suffixLength, subtype, 1, suffixLength)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the value of the {@code Accept-Encoding} header listing all the content encodings
+     * supported by the {@link ContentEncoder content encoders} registered with the workers.
+     *
+     * @param workers message body workers.
+     * @return {@code Accept-Encoding} header value or {@code null} if there is no content encoder.
+     */
+    public static String getAcceptEncoding(final MessageBodyWorkers workers) {
+        final StringBuilder sb = new StringBuilder();
+        for (WriterInterceptor interceptor : workers.getWriterInterceptors()) {
+            if (interceptor instanceof ContentEncoder) {
+                for (String encoding : ((ContentEncoder) interceptor).getSupportedEncodings()) {
+                    if (sb.length() > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(encoding);
+                }
+            }
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    /**
+     * Get a content encoder registered with the workers that supports the given content encoding.
+     *
+     * @param workers  message body workers.
+     * @param encoding content encoding.
+     * @return content encoder or {@code null} if the content encoding is not supported.
+     */
+    public static ContentEncoder getEncoder(final MessageBodyWorkers workers, final String encoding) {
+        for (WriterInterceptor interceptor : workers.getWriterInterceptors()) {
+            if (interceptor instanceof ContentEncoder && ((ContentEncoder) interceptor).supports(encoding)) {
+                return (ContentEncoder) interceptor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Select the content encoding of a response entity based on the values of the request
+     * {@code Accept-Encoding} header and the {@link ContentEncoder content encoders} registered
+     * with the workers.
+     *
+     * @param acceptEncoding values of the {@code Accept-Encoding} header.
+     * @param workers        message body workers.
+     * @return selected content encoding or {@code null} if the entity should not be encoded.
+     */
+    public static String selectEncoding(final List<String> acceptEncoding, final MessageBodyWorkers workers) {
+        final List<AcceptableToken> tokens;
+        try {
+            tokens = HttpHeaderReader.readAcceptToken(join(acceptEncoding));
+        } catch (ParseException e) {
+            // ignore malformed header and send the entity unencoded
+            return null;
+        }
+
+        for (AcceptableToken token : tokens) {
+            if (token.getQuality() == 0) {
+                // the remaining tokens are not acceptable
+                return null;
+            }
+            final String encoding = token.getToken();
+            if (IDENTITY.equalsIgnoreCase(encoding)) {
+                return null;
+            } else if (ANY.equals(encoding)) {
+                for (WriterInterceptor interceptor : workers.getWriterInterceptors()) {
+                    if (interceptor instanceof ContentEncoder) {
+                        for (String supported : ((ContentEncoder) interceptor).getSupportedEncodings()) {
+                            if (!isRejected(supported, tokens)) {
+                                return supported;
+                            }
+                        }
+                    }
+                }
+            } else if (getEncoder(workers, encoding) != null) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isRejected(final String encoding, final List<AcceptableToken> tokens) {
+        for (AcceptableToken token : tokens) {
+            if (token.getQuality() == 0 && encoding.equalsIgnoreCase(token.getToken())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String join(final List<String> values) {
+        if (values.size() == 1) {
+            return values.get(0);
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (String value : values) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Add the {@code Accept-Encoding} header to the {@code Vary} header values unless already present.
+     *
+     * @param headers outbound message headers.
+     */
+    public static void addVaryAcceptEncoding(final MultivaluedMap<String, Object> headers) {
+        final List<Object> vary = headers.get(HttpHeaders.VARY);
+        if (vary != null) {
+            for (Object value : vary) {
+                final String header = value.toString();
+                if (header.trim().equals(ANY) || header.toLowerCase(Locale.ENGLISH).contains("accept-encoding")) {
+                    return;
+                }
+            }
+        }
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.message.MessageProperties;
+
+/**
+ * Re-readable buffer of an inbound message entity.
+ * <p>
+ * Up to a {@link #EntityBuffer(long) threshold} of the entity data is kept on the heap in
+ * fixed-size chunks taken from a shared bounded pool. The remainder of the entity is spilled
+ * into a temporary file, so that buffering a large entity does not exhaust the heap. The buffer
+ * is read directly from the chunks and the file, without copying the data into a contiguous array.
+ * </p>
+ * <p>
+ * The buffer is an input stream that {@link #markSupported() supports marks}; {@link #reset()}
+ * without a previous {@link #mark(int)} rewinds the stream to the beginning of the entity.
+ * Like {@link java.io.ByteArrayInputStream}, {@link #close() closing} the stream has no effect
+ * so that the entity can be read again; the chunks and the temporary file are released
+ * by {@link #release()}.
+ * </p>
+ */
+final class EntityBuffer extends InputStream {
+
+    private static final Logger LOGGER = Logger.getLogger(EntityBuffer.class.getName());
+    /**
+     * Size of the heap chunks.
+     */
+    static final int CHUNK_SIZE = ReaderWriter.BUFFER_SIZE;
+    /**
+     * Maximum number of released chunks kept in the pool.
+     */
+    static final int MAX_POOLED_CHUNKS = 256;
+
+    private static final Queue<byte[]> CHUNKS = new ConcurrentLinkedQueue<byte[]>();
+    private static final AtomicInteger POOLED_CHUNKS = new AtomicInteger();
+
+    /**
+     * Get the heap threshold configured by a value of the
+     * {@value MessageProperties#ENTITY_BUFFERING_THRESHOLD} property.
+     *
+     * @param value property value, may be {@code null}.
+     * @return configured threshold or the default threshold if the value is {@code null}
+     *         or not a valid non-negative integer.
+     */
+    static long getThreshold(final Object value) {
+        if (value != null) {
+            try {
+                final long threshold = (value instanceof Number)
+                        ? ((Number) value).longValue() : Long.parseLong(value.toString().trim());
+                if (threshold < 0) {
+                    throw new NumberFormatException("Value negative.");
+                }
+                return threshold;
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.CONFIG,
+                        "Value of " + MessageProperties.ENTITY_BUFFERING_THRESHOLD
+                        + " property is not a valid non-negative integer [" + value + "]."
+                        + " Reverting to default [" + MessageProperties.ENTITY_BUFFERING_DEFAULT_THRESHOLD + "].",
+                        e);
+            }
+        }
+        return MessageProperties.ENTITY_BUFFERING_DEFAULT_THRESHOLD;
+    }
+
+    private static byte[] acquireChunk() {
+        final byte[] chunk = CHUNKS.poll();
+        if (chunk == null) {
+            return new byte[CHUNK_SIZE];
+        }
+        POOLED_CHUNKS.decrementAndGet();
+        return chunk;
+    }
+
+    private static void releaseChunk(final byte[] chunk) {
+        if (POOLED_CHUNKS.incrementAndGet() <= MAX_POOLED_CHUNKS) {
+            CHUNKS.offer(chunk);
+        } else {
+            POOLED_CHUNKS.decrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of chunks currently held by the pool.
+     *
+     * @return number of pooled chunks.
+     */
+    static int getPooledChunks() {
+        return POOLED_CHUNKS.get();
+    }
+
+    private final long threshold;
+    private final List<byte[]> chunks = new ArrayList<byte[]>();
+    private long heapSize = 0;
+    private long size = 0;
+
+    private File file;
+    private FileInputStream fileInput;
+    private FileChannel fileChannel;
+    /**
+     * Read-ahead window of the spilled data used by short reads.
+     */
+    private byte[] window;
+    private long windowStart = 0;
+    private int windowLength = 0;
+
+    private long position = 0;
+    private long mark = 0;
+    private boolean released = false;
+
+    /**
+     * Create new entity buffer.
+     *
+     * @param threshold maximum number of entity bytes kept on the heap, the remaining
+     *                  bytes are spilled into a temporary file.
+     */
+    EntityBuffer(final long threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Entity buffering threshold must not be negative.");
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * Read the complete entity from the input stream into the buffer. The input stream is not closed.
+     *
+     * @param in entity input stream.
+     * @throws IOException in case of an I/O error; the buffer is released in such case.
+     */
+    void readFrom(final InputStream in) throws IOException {
+        try {
+            if (fillChunks(in)) {
+                spill(in);
+            }
+        } catch (IOException ex) {
+            release();
+            throw ex;
+        } catch (RuntimeException ex) {
+            release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Fill the heap chunks up to the threshold.
+     *
+     * @return {@code true} if the threshold has been reached before the end of the stream.
+     */
+    private boolean fillChunks(final InputStream in) throws IOException {
+        byte[] chunk = null;
+        int fill = CHUNK_SIZE;
+        while (heapSize < threshold) {
+            if (fill == CHUNK_SIZE) {
+                chunk = acquireChunk();
+                chunks.add(chunk);
+                fill = 0;
+            }
+            final int read = in.read(chunk, fill, (int) Math.min(CHUNK_SIZE - fill, threshold - heapSize));
+            if (read == -1) {
+                size = heapSize;
+                return false;
+            }
+            fill += read;
+            heapSize += read;
+        }
+        size = heapSize;
+        return true;
+    }
+
+    private void spill(final InputStream in) throws IOException {
+        final byte[] transfer = acquireChunk();
+        try {
+            int read = in.read(transfer);
+            if (read == -1) {
+                return;
+            }
+
+            file = File.createTempFile("entity", ".buf");
+            final OutputStream out = new FileOutputStream(file);
+            try {
+                do {
+                    out.write(transfer, 0, read);
+                    size += read;
+                } while ((read = in.read(transfer)) != -1);
+            } finally {
+                out.close();
+            }
+        } finally {
+            releaseChunk(transfer);
+        }
+
+        fileInput = new FileInputStream(file);
+        fileChannel = fileInput.getChannel();
+        // the data remain accessible through the open channel on platforms that allow
+        // removing open files; the file is deleted again on release otherwise
+        file.delete();
+    }
+
+    /**
+     * Get the size of the buffered entity.
+     *
+     * @return number of buffered entity bytes.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Determine whether a part of the entity has been spilled into a temporary file.
+     *
+     * @return {@code true} if the entity is larger than the heap threshold.
+     */
+    boolean isSpilled() {
+        return fileChannel != null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureNotReleased();
+        if (position >= size) {
+            return -1;
+        }
+        final int b;
+        if (position < heapSize) {
+            b = chunks.get((int) (position / CHUNK_SIZE))[(int) (position % CHUNK_SIZE)] & 0xFF;
+        } else {
+            if (position < windowStart || position >= windowStart + windowLength) {
+                fillWindow();
+            }
+            b = window[(int) (position - windowStart)] & 0xFF;
+        }
+        position++;
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureNotReleased();
+        if (position >= size) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        int total = 0;
+        while (total < len && position < size) {
+            total += readSegment(b, off + total, len - total);
+        }
+        return total;
+    }
+
+    /**
+     * Read the data from a single heap chunk, the read-ahead window or directly from the file.
+     */
+    private int readSegment(final byte[] b, final int off, final int len) throws IOException {
+        int n;
+        if (position < heapSize) {
+            final int offset = (int) (position % CHUNK_SIZE);
+            n = (int) Math.min(Math.min(len, CHUNK_SIZE - offset), heapSize - position);
+            System.arraycopy(chunks.get((int) (position / CHUNK_SIZE)), offset, b, off, n);
+        } else if (position >= windowStart && position < windowStart + windowLength) {
+            final int offset = (int) (position - windowStart);
+            n = Math.min(len, windowLength - offset);
+            System.arraycopy(window, offset, b, off, n);
+        } else if (len < CHUNK_SIZE) {
+            fillWindow();
+            n = Math.min(len, windowLength);
+            System.arraycopy(window, 0, b, off, n);
+        } else {
+            n = readFile(ByteBuffer.wrap(b, off, (int) Math.min(len, size - position)));
+        }
+        position += n;
+        return n;
+    }
+
+    private void fillWindow() throws IOException {
+        if (window == null) {
+            window = acquireChunk();
+        }
+        windowStart = position;
+        windowLength = 0;
+        windowLength = readFile(ByteBuffer.wrap(window, 0, (int) Math.min(CHUNK_SIZE, size - position)));
+    }
+
+    private int readFile(final ByteBuffer target) throws IOException {
+        final int n = fileChannel.read(target, position - heapSize);
+        if (n <= 0) {
+            throw new EOFException("Unexpected end of the buffered entity file.");
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        ensureNotReleased();
+        if (n <= 0) {
+            return 0;
+        }
+        final long skipped = Math.min(n, size - position);
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureNotReleased();
+        return (int) Math.min(size - position, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(final int readlimit) {
+        mark = position;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        ensureNotReleased();
+        position = mark;
+    }
+
+    /**
+     * Closing the entity buffer has no effect, the buffered entity can be read again
+     * after the stream is {@link #reset() reset}.
+     */
+    @Override
+    public void close() {
+        // re-readable
+    }
+
+    /**
+     * Release the heap chunks and the temporary file held by the buffer. The buffer
+     * cannot be read after it has been released.
+     */
+    void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+
+        for (byte[] chunk : chunks) {
+            releaseChunk(chunk);
+        }
+        chunks.clear();
+        if (window != null) {
+            releaseChunk(window);
+            window = null;
+        }
+
+        if (fileInput != null) {
+            try {
+                fileInput.close();
+            } catch (IOException ex) {
+                LOGGER.log(Level.FINE, "Error closing the entity buffer file.", ex);
+            }
+        }
+        if (file != null && file.exists() && !file.delete()) {
+            LOGGER.log(Level.FINE, "Entity buffer file {0} could not be deleted.", file);
+            file.deleteOnExit();
+        }
+    }
+
+    private void ensureNotReleased() throws IOException {
+        if (released) {
+            throw new IOException("Entity buffer has been released.");
+        }
+    }
+}
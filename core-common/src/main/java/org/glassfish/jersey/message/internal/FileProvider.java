@@ -39,10 +39,8 @@
  */
 package org.glassfish.jersey.message.internal;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -59,6 +57,10 @@ import javax.ws.rs.core.MultivaluedMap;
 /**
  * Provider for marshalling/un-marshalling of {@code application/octet-stream}
  * entity type to/from a {@link File} instance.
+ * <p>
+ * Files are written using a {@link FileTransferOutput#transferFile(File, long, long) direct
+ * file transfer} if supported by the entity output stream.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -104,12 +106,7 @@ public final class FileProvider extends AbstractMessageReaderWriterProvider<File
             MediaType mediaType,
             MultivaluedMap<String, Object> httpHeaders,
             OutputStream entityStream) throws IOException {
-        InputStream in = new BufferedInputStream(new FileInputStream(t), ReaderWriter.BUFFER_SIZE);
-        try {
-            writeTo(in, entityStream);
-        } finally {
-            in.close();
-        }
+        ReaderWriter.writeTo(t, 0, t.length(), entityStream);
     }
 
     @Override
@@ -0,0 +1,103 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.File;
+
+/**
+ * Message entity representing a contiguous region of a {@link File file}, e.g. a single byte
+ * range of a file requested by a HTTP {@code Range} request.
+ *
+ * @see FileRegionProvider
+ */
+public final class FileRegion {
+
+    private final File file;
+    private final long position;
+    private final long count;
+
+    /**
+     * Create new file region entity.
+     *
+     * @param file     file containing the region.
+     * @param position position of the first byte of the region in the file.
+     * @param count    number of bytes in the region.
+     */
+    public FileRegion(File file, long position, long count) {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("Invalid file region [" + position + ", " + count + "].");
+        }
+        this.file = file;
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * Get the file containing the region.
+     *
+     * @return file containing the region.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Get the position of the first byte of the region in the file.
+     *
+     * @return position of the region in the file.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Get the number of bytes in the region.
+     *
+     * @return length of the region.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return file + " [" + position + ", " + count + "]";
+    }
+}
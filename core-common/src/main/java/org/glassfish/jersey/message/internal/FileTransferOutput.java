@@ -0,0 +1,75 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Entity output capable of transferring a region of a file directly to the underlying
+ * connection, without copying the file content through the Java heap (e.g. using
+ * the {@code sendfile} system call).
+ * <p>
+ * An entity output stream implementing this interface may be used by the
+ * {@link javax.ws.rs.ext.MessageBodyWriter message body writers} of file based entities
+ * as an alternative to writing the file content into the stream. Containers that have
+ * access to the underlying connection implement this interface on the output stream
+ * returned from the response writer. The transfer is only performed if the file region
+ * represents the complete message entity and nothing has been written into the output
+ * stream yet; in all other cases the output is expected to decline the transfer and the
+ * caller falls back to writing the file content into the stream.
+ * </p>
+ *
+ * @see ReaderWriter#writeTo(File, long, long, java.io.OutputStream)
+ */
+public interface FileTransferOutput {
+
+    /**
+     * Transfer the region of the file as the complete message entity.
+     *
+     * @param file     file to be transferred.
+     * @param position position of the first transferred byte in the file.
+     * @param count    number of bytes to be transferred.
+     * @return {@code true} if the file region has been transferred, {@code false} if
+     *         the transfer has been declined and no data has been written.
+     * @throws IOException in case the transfer of the file region failed.
+     */
+    public boolean transferFile(File file, long position, long count) throws IOException;
+}
@@ -42,6 +42,7 @@ package org.glassfish.jersey.message.internal;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -50,6 +51,13 @@ import java.util.TimeZone;
 
 /**
  * Helper class for HTTP specified date formats.
+ * <p>
+ * Dates in the canonical forms of the RFC 1123, RFC 1036 and ANSI C asctime() formats
+ * (see <a href="http://tools.ietf.org/html/rfc7231#section-7.1.1.1">RFC 7231, section 7.1.1.1</a>)
+ * are {@link #readDate(String) parsed} and {@link #formatDate(Date) formatted} by hand-written
+ * thread-safe code that does not need any intermediate objects. Any other input accepted
+ * by the {@link #getDateFormats() HTTP date formats} is parsed using the date formats.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -78,6 +86,32 @@ public class HttpDateFormat {
         }
     };
 
+    private static final String[] WEEKDAYS = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+    private static final String[] WEEKDAY_NAMES = {
+            "Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+    private static final String[] MONTHS = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    /**
+     * Length of a formatted RFC 1123 date with a four digit year.
+     */
+    private static final int RFC1123_DATE_LENGTH = 29;
+    /**
+     * Dates before this year (and the Gregorian calendar cutover) as well as dates after the
+     * year 9999 are left to the date formats.
+     */
+    private static final int MIN_YEAR = 1600;
+    private static final int MAX_YEAR = 9999;
+    private static final long MIN_TIME = -11676096000000L; // 1600-01-01T00:00:00Z
+    private static final long MAX_TIME = 253402300799999L; // 9999-12-31T23:59:59.999Z
+    /**
+     * The first year of the century used to interpret the two digit RFC 1036 years,
+     * same as the default of {@link SimpleDateFormat}.
+     */
+    private static final int TWO_DIGIT_YEAR_START = Calendar.getInstance().get(Calendar.YEAR) - 80;
+
+    private static final TimeZone GMT = TimeZone.getTimeZone("GMT");
+
     private static List<SimpleDateFormat> createDateFormats() {
         SimpleDateFormat[] formats = new SimpleDateFormat[]{
             new SimpleDateFormat(RFC1123_DATE_FORMAT_PATTERN, Locale.US),
@@ -129,6 +163,11 @@ public class HttpDateFormat {
      * @throws java.text.ParseException
      */
     public static Date readDate(String date) throws ParseException {
+        final long time = parse(date);
+        if (time != Long.MIN_VALUE) {
+            return new Date(time);
+        }
+
         ParseException pe = null;
         for (SimpleDateFormat f : HttpDateFormat.getDateFormats()) {
             try {
@@ -140,4 +179,289 @@ public class HttpDateFormat {
 
         throw pe;
     }
+
+    /**
+     * Format a date using the preferred HTTP date format (RFC 1123).
+     *
+     * @param date the date.
+     * @return the formatted date.
+     */
+    public static String formatDate(Date date) {
+        return formatDate(date.getTime());
+    }
+
+    /**
+     * Append a date formatted using the preferred HTTP date format (RFC 1123)
+     * to a string builder.
+     *
+     * @param sb   the string builder.
+     * @param date the date.
+     * @return the string builder.
+     */
+    public static StringBuilder appendDate(StringBuilder sb, Date date) {
+        final long time = date.getTime();
+        if (time < MIN_TIME || time > MAX_TIME) {
+            return sb.append(formatWithDateFormat(date));
+        }
+        final char[] buffer = new char[RFC1123_DATE_LENGTH];
+        format(time, buffer);
+        return sb.append(buffer);
+    }
+
+    private static String formatDate(final long time) {
+        if (time < MIN_TIME || time > MAX_TIME) {
+            return formatWithDateFormat(new Date(time));
+        }
+        final char[] buffer = new char[RFC1123_DATE_LENGTH];
+        format(time, buffer);
+        return new String(buffer);
+    }
+
+    private static String formatWithDateFormat(final Date date) {
+        final SimpleDateFormat format = getPreferedDateFormat();
+        // parsing a date with a time zone changes the time zone of the format
+        format.setTimeZone(GMT);
+        return format.format(date);
+    }
+
+    /**
+     * Format the time as {@code EEE, dd MMM yyyy HH:mm:ss GMT} into the buffer.
+     */
+    private static void format(final long time, final char[] buffer) {
+        long days = time / 86400000L;
+        int millisOfDay = (int) (time % 86400000L);
+        if (millisOfDay < 0) {
+            millisOfDay += 86400000;
+            days--;
+        }
+        final int secondOfDay = millisOfDay / 1000;
+
+        // civil date from days since the epoch (proleptic Gregorian calendar)
+        final long z = days + 719468;
+        final long era = (z >= 0 ? z : z - 146096) / 146097;
+        final int doe = (int) (z - era * 146097);
+        final int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        final int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        final int mp = (5 * doy + 2) / 153;
+        final int day = doy - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 3 : mp - 9;
+        final int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+        // 1970-01-01 was Thursday
+        final String weekday = WEEKDAYS[(int) (((days + 4) % 7 + 7) % 7)];
+        final String monthName = MONTHS[month - 1];
+
+        buffer[0] = weekday.charAt(0);
+        buffer[1] = weekday.charAt(1);
+        buffer[2] = weekday.charAt(2);
+        buffer[3] = ',';
+        buffer[4] = ' ';
+        put2(buffer, 5, day);
+        buffer[7] = ' ';
+        buffer[8] = monthName.charAt(0);
+        buffer[9] = monthName.charAt(1);
+        buffer[10] = monthName.charAt(2);
+        buffer[11] = ' ';
+        put2(buffer, 12, year / 100);
+        put2(buffer, 14, year % 100);
+        buffer[16] = ' ';
+        put2(buffer, 17, secondOfDay / 3600);
+        buffer[19] = ':';
+        put2(buffer, 20, secondOfDay / 60 % 60);
+        buffer[22] = ':';
+        put2(buffer, 23, secondOfDay % 60);
+        buffer[25] = ' ';
+        buffer[26] = 'G';
+        buffer[27] = 'M';
+        buffer[28] = 'T';
+    }
+
+    private static void put2(final char[] buffer, final int offset, final int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Parse a date in one of the canonical HTTP date forms with a {@code GMT} or a numeric
+     * ({@code +hhmm}) time zone.
+     *
+     * @param date the date as a string.
+     * @return the date time in milliseconds or {@link Long#MIN_VALUE} if the input
+     *         is not in any of the canonical forms.
+     */
+    static long parse(final String date) {
+        final int length = date.length();
+        final int comma = date.indexOf(',');
+
+        int pos;
+        final int year;
+        final int month;
+        final int day;
+        if (comma == 3) {
+            // RFC 1123: Sun, 06 Nov 1994 08:49:37 GMT
+            if (indexOf(WEEKDAYS, date, 0, 3) < 0 || length < 5 || date.charAt(4) != ' ') {
+                return Long.MIN_VALUE;
+            }
+            pos = 5;
+            final int dayDigits = digits(date, pos, 2);
+            if (dayDigits == 0 || pos + dayDigits >= length || date.charAt(pos + dayDigits) != ' ') {
+                return Long.MIN_VALUE;
+            }
+            day = number(date, pos, dayDigits);
+            pos += dayDigits + 1;
+            month = indexOf(MONTHS, date, pos, 3);
+            pos += 3;
+            if (month < 0 || pos >= length || date.charAt(pos) != ' ' || digits(date, pos + 1, 5) != 4) {
+                return Long.MIN_VALUE;
+            }
+            year = number(date, pos + 1, 4);
+            pos += 5;
+        } else if (comma > 3) {
+            // RFC 1036: Sunday, 06-Nov-94 08:49:37 GMT
+            if (indexOf(WEEKDAY_NAMES, date, 0, comma) < 0 || length < comma + 12 || date.charAt(comma + 1) != ' ') {
+                return Long.MIN_VALUE;
+            }
+            pos = comma + 2;
+            if (digits(date, pos, 2) != 2 || date.charAt(pos + 2) != '-' || date.charAt(pos + 6) != '-'
+                    || digits(date, pos + 7, 3) != 2) {
+                return Long.MIN_VALUE;
+            }
+            day = number(date, pos, 2);
+            month = indexOf(MONTHS, date, pos + 3, 3);
+            final int twoDigitYear = number(date, pos + 7, 2);
+            if (month < 0 || twoDigitYear == TWO_DIGIT_YEAR_START % 100) {
+                // the century of the boundary year depends on the complete date
+                return Long.MIN_VALUE;
+            }
+            final int century = TWO_DIGIT_YEAR_START / 100 * 100;
+            year = century + twoDigitYear + (twoDigitYear < TWO_DIGIT_YEAR_START % 100 ? 100 : 0);
+            pos += 9;
+        } else if (comma < 0) {
+            // ANSI C asctime(): Sun Nov  6 08:49:37 1994 (or with a single space before the day)
+            if (length < 23 || indexOf(WEEKDAYS, date, 0, 3) < 0 || date.charAt(3) != ' '
+                    || date.charAt(7) != ' ') {
+                return Long.MIN_VALUE;
+            }
+            month = indexOf(MONTHS, date, 4, 3);
+            pos = date.charAt(8) == ' ' ? 9 : 8;
+            final int dayDigits = digits(date, pos, 2);
+            if (month < 0 || dayDigits == 0 || pos + dayDigits + 9 >= length) {
+                return Long.MIN_VALUE;
+            }
+            day = number(date, pos, dayDigits);
+            pos += dayDigits;
+            final long time = parseTime(date, pos);
+            pos += 9;
+            if (time < 0 || date.charAt(pos) != ' ' || pos + 5 != length || digits(date, pos + 1, 4) != 4) {
+                return Long.MIN_VALUE;
+            }
+            year = number(date, pos + 1, 4);
+            return toMillis(year, month, day, time, 0);
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        final long time = parseTime(date, pos);
+        pos += 9;
+        if (time < 0 || pos >= length || date.charAt(pos) != ' ') {
+            return Long.MIN_VALUE;
+        }
+        pos++;
+
+        final long offset;
+        if (length - pos == 3 && date.regionMatches(pos, "GMT", 0, 3)) {
+            offset = 0;
+        } else if (length - pos == 5 && (date.charAt(pos) == '+' || date.charAt(pos) == '-')
+                && digits(date, pos + 1, 4) == 4) {
+            final int hours = number(date, pos + 1, 2);
+            final int minutes = number(date, pos + 3, 2);
+            if (hours > 23 || minutes > 59) {
+                return Long.MIN_VALUE;
+            }
+            offset = (date.charAt(pos) == '-' ? -1 : 1) * (hours * 3600000L + minutes * 60000L);
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        return toMillis(year, month, day, time, offset);
+    }
+
+    /**
+     * Parse {@code " HH:mm:ss"} at the position.
+     *
+     * @return milliseconds of the day or {@code -1} if the time is not valid.
+     */
+    private static long parseTime(final String date, final int pos) {
+        if (pos + 9 > date.length() || date.charAt(pos) != ' ' || date.charAt(pos + 3) != ':'
+                || date.charAt(pos + 6) != ':' || digits(date, pos + 1, 2) != 2 || digits(date, pos + 4, 2) != 2
+                || digits(date, pos + 7, 2) != 2) {
+            return -1;
+        }
+        final int hours = number(date, pos + 1, 2);
+        final int minutes = number(date, pos + 4, 2);
+        final int seconds = number(date, pos + 7, 2);
+        if (hours > 23 || minutes > 59 || seconds > 59) {
+            return -1;
+        }
+        return (hours * 3600L + minutes * 60L + seconds) * 1000L;
+    }
+
+    /**
+     * Compute the time of the date in the proleptic Gregorian calendar.
+     *
+     * @param month zero-based month.
+     */
+    private static long toMillis(int year, final int month, final int day, final long time, final long offset) {
+        if (year < MIN_YEAR || year > MAX_YEAR || day < 1 || day > DAYS_IN_MONTH[month]
+                || (month == 1 && day == 29 && !isLeapYear(year))) {
+            return Long.MIN_VALUE;
+        }
+        final int m = month + 1;
+        year -= m <= 2 ? 1 : 0;
+        final int era = year / 400;
+        final int yoe = year - era * 400;
+        final int doy = (153 * (m + (m > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        final long days = era * 146097L + doe - 719468;
+        return days * 86400000L + time - offset;
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    /**
+     * Count the decimal digits (up to the maximum) at the position.
+     */
+    private static int digits(final String date, final int pos, final int max) {
+        int count = 0;
+        while (count < max && pos + count < date.length()) {
+            final char c = date.charAt(pos + count);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static int number(final String date, final int pos, final int digits) {
+        int value = 0;
+        for (int i = pos; i < pos + digits; i++) {
+            value = value * 10 + date.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    private static int indexOf(final String[] names, final String date, final int pos, final int length) {
+        if (pos + length > date.length()) {
+            return -1;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].length() == length && date.regionMatches(pos, names[i], 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
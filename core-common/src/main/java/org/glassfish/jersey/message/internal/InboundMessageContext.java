@@ -39,8 +39,6 @@
  */
 package org.glassfish.jersey.message.internal;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
@@ -79,6 +77,7 @@ import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.ProcessingException;
 import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.MessageProperties;
 
 import com.google.common.base.Function;
 
@@ -102,6 +101,7 @@ public class InboundMessageContext {
     private final MultivaluedMap<String, String> headers;
     private final ContentStream contentStream;
     private MessageBodyWorkers workers;
+    private long entityBufferingThreshold = MessageProperties.ENTITY_BUFFERING_DEFAULT_THRESHOLD;
 
     /**
      * Input stream and its state. State is represented by the {@link Type Type enum} and
@@ -146,7 +146,10 @@ public class InboundMessageContext {
         }
 
         public void invalidateContentStream() {
-            if (contentStream != null) {
+            if (contentStream instanceof EntityBuffer) {
+                ((EntityBuffer) contentStream).release();
+                this.contentStream = null;
+            } else if (contentStream != null) {
                 try {
                     contentStream.close();
                 } catch (IOException ex) {
@@ -798,6 +801,32 @@ public class InboundMessageContext {
         this.workers = workers;
     }
 
+    /**
+     * Get the maximum number of bytes of a {@link #bufferEntity() buffered} entity kept on the heap
+     * as configured by the {@value MessageProperties#ENTITY_BUFFERING_THRESHOLD} property.
+     *
+     * @param properties runtime configuration properties.
+     * @return configured threshold or the default threshold if the property is not set or
+     *         its value is not a valid non-negative integer.
+     */
+    public static long getEntityBufferingThreshold(Map<String, ?> properties) {
+        return EntityBuffer.getThreshold(properties.get(MessageProperties.ENTITY_BUFFERING_THRESHOLD));
+    }
+
+    /**
+     * Set the maximum number of bytes of a {@link #bufferEntity() buffered} entity kept on the heap.
+     * The rest of a larger entity is spilled into a temporary file.
+     *
+     * @param threshold heap threshold of a buffered entity.
+     * @see #getEntityBufferingThreshold(java.util.Map)
+     */
+    public void setEntityBufferingThreshold(long threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Entity buffering threshold must not be negative.");
+        }
+        this.entityBufferingThreshold = threshold;
+    }
+
     /**
      * Check if there is a non-empty entity input stream is available in the
      * message.
@@ -927,14 +956,14 @@ public class InboundMessageContext {
                 return true;
             }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            final EntityBuffer buffer = new EntityBuffer(entityBufferingThreshold);
             try {
-                ReaderWriter.writeTo(contentStream.getInputStream(), baos);
+                buffer.readFrom(contentStream.getInputStream());
             } finally {
                 contentStream.invalidateContentStream();
             }
 
-            contentStream.setBufferedContentStream(new ByteArrayInputStream(baos.toByteArray()));
+            contentStream.setBufferedContentStream(buffer);
 
             return true;
         } catch (IOException ex) {
@@ -942,4 +971,33 @@ public class InboundMessageContext {
         }
     }
 
+    /**
+     * Close the entity input stream and release any resources held by a
+     * {@link #bufferEntity() buffered} entity.
+     */
+    public void close() {
+        contentStream.invalidateContentStream();
+    }
+
+    /**
+     * Release the resources held by a {@link #bufferEntity() buffered} entity. The method has
+     * no effect if the entity has not been buffered.
+     */
+    public void releaseBufferedEntity() {
+        if (contentStream.getInputStream() instanceof EntityBuffer) {
+            contentStream.invalidateContentStream();
+        }
+    }
+
+    /**
+     * Release the resources held by a {@link #bufferEntity() buffered} entity if a part of the entity
+     * has been spilled into a temporary file. The method has no effect if the entity has not been
+     * buffered or if the buffered entity is kept on the heap only.
+     */
+    public void releaseSpilledEntity() {
+        final InputStream stream = contentStream.getInputStream();
+        if (stream instanceof EntityBuffer && ((EntityBuffer) stream).isSpilled()) {
+            contentStream.invalidateContentStream();
+        }
+    }
 }
@@ -0,0 +1,307 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Registry of {@link JAXBContext JAXB contexts} and pools of {@link Marshaller marshallers}
+ * and {@link Unmarshaller unmarshallers} shared by all JAXB-based entity providers.
+ * <p>
+ * JAXB contexts created for a Java type are cached using weak references to the type
+ * and soft references to the context. A context for a given type is created at most once,
+ * concurrent lookups of the same type wait for the context being created instead of creating
+ * their own copies. Note that the context references the type, so a cached context keeps
+ * the type and its class loader reachable until the soft reference is cleared, i.e. until
+ * the JVM runs short of memory. The registry therefore delays, but does not prevent, the
+ * garbage collection of an undeployed application class loader.
+ * </p>
+ * <p>
+ * Creating a new marshaller or unmarshaller for every entity is not cheap, hence the registry
+ * keeps a bounded pool of released marshallers and unmarshallers per JAXB context (including
+ * contexts supplied by an application {@link javax.ws.rs.ext.ContextResolver}). Only instances
+ * created by the registry may be pooled, {@link #release(Marshaller) releasing} any other
+ * instance has no effect. When a marshaller or an unmarshaller is released, its event handler,
+ * schema, listener and attachment (un)marshaller are reset to their defaults, as are the standard
+ * marshaller properties modified by Jersey providers ({@link Marshaller#JAXB_ENCODING},
+ * {@link Marshaller#JAXB_FRAGMENT} and {@link Marshaller#JAXB_FORMATTED_OUTPUT}); an instance
+ * that cannot be reset is not pooled. Adapters and any other properties cannot be reset,
+ * hence instances configured with those must be {@link #discard(Object) discarded} before
+ * they are released.
+ * </p>
+ * <p>
+ * The registry is thread-safe. An acquired instance is owned by the caller until it is
+ * released and must not be used after it has been released.
+ * </p>
+ */
+public final class JaxbContextRegistry {
+
+    /**
+     * Maximum number of pooled marshallers as well as unmarshallers per JAXB context.
+     */
+    public static final int MAX_POOLED = 64;
+
+    private static final LoadingCache<Class<?>, JAXBContext> contexts = CacheBuilder.newBuilder()
+            .weakKeys()
+            .softValues()
+            .build(new CacheLoader<Class<?>, JAXBContext>() {
+
+                @Override
+                public JAXBContext load(Class<?> type) throws JAXBException {
+                    return JAXBContext.newInstance(type);
+                }
+            });
+    private static final LoadingCache<JAXBContext, Pool> pools = CacheBuilder.newBuilder()
+            .weakKeys()
+            .softValues()
+            .build(new CacheLoader<JAXBContext, Pool>() {
+
+                @Override
+                public Pool load(JAXBContext context) {
+                    return new Pool(context);
+                }
+            });
+    /**
+     * Pool owning each marshaller or unmarshaller created by the registry. Values are weak
+     * so that a dropped pool does not keep itself reachable via the instances it created.
+     */
+    private static final ConcurrentMap<Object, Pool> owners = new MapMaker().weakKeys().weakValues().makeMap();
+
+    private JaxbContextRegistry() {
+        // prevents instantiation
+    }
+
+    /**
+     * Get the JAXB context for a Java type, creating a new one if necessary.
+     *
+     * @param type Java type.
+     * @return JAXB context created for the type.
+     * @throws JAXBException in case the JAXB context creation failed.
+     */
+    public static JAXBContext getContext(final Class<?> type) throws JAXBException {
+        try {
+            return contexts.get(type);
+        } catch (ExecutionException ex) {
+            Throwables.propagateIfInstanceOf(ex.getCause(), JAXBException.class);
+            throw new JAXBException(ex.getCause());
+        } catch (UncheckedExecutionException ex) {
+            throw Throwables.propagate(ex.getCause());
+        }
+    }
+
+    /**
+     * Get a marshaller for the JAXB context from the pool or create a new one if the pool
+     * is empty.
+     *
+     * @param context JAXB context.
+     * @return marshaller owned by the caller until {@link #release(Marshaller) released}.
+     * @throws JAXBException in case the marshaller creation failed.
+     */
+    public static Marshaller acquireMarshaller(final JAXBContext context) throws JAXBException {
+        return pools.getUnchecked(context).acquireMarshaller();
+    }
+
+    /**
+     * Get an unmarshaller for the JAXB context from the pool or create a new one if the pool
+     * is empty.
+     *
+     * @param context JAXB context.
+     * @return unmarshaller owned by the caller until {@link #release(Unmarshaller) released}.
+     * @throws JAXBException in case the unmarshaller creation failed.
+     */
+    public static Unmarshaller acquireUnmarshaller(final JAXBContext context) throws JAXBException {
+        return pools.getUnchecked(context).acquireUnmarshaller();
+    }
+
+    /**
+     * Return a marshaller back to the pool it has been acquired from. The method does nothing
+     * if the marshaller has not been created by the registry or if it has been
+     * {@link #discard(Object) discarded}.
+     *
+     * @param marshaller released marshaller.
+     */
+    public static void release(final Marshaller marshaller) {
+        final Pool pool = owners.get(marshaller);
+        if (pool != null) {
+            pool.release(marshaller);
+        }
+    }
+
+    /**
+     * Return an unmarshaller back to the pool it has been acquired from. The method does nothing
+     * if the unmarshaller has not been created by the registry or if it has been
+     * {@link #discard(Object) discarded}.
+     *
+     * @param unmarshaller released unmarshaller.
+     */
+    public static void release(final Unmarshaller unmarshaller) {
+        final Pool pool = owners.get(unmarshaller);
+        if (pool != null) {
+            pool.release(unmarshaller);
+        }
+    }
+
+    /**
+     * Prevent a marshaller or an unmarshaller that has been configured in a non-standard way
+     * from being returned to the pool once released.
+     *
+     * @param marshallerOrUnmarshaller acquired marshaller or unmarshaller.
+     */
+    public static void discard(final Object marshallerOrUnmarshaller) {
+        owners.remove(marshallerOrUnmarshaller);
+    }
+
+    /**
+     * Get the number of marshallers currently pooled for the JAXB context.
+     *
+     * @param context JAXB context.
+     * @return number of pooled marshallers.
+     */
+    static int getPooledMarshallers(final JAXBContext context) {
+        return pools.getUnchecked(context).pooledMarshallers.get();
+    }
+
+    /**
+     * Get the number of unmarshallers currently pooled for the JAXB context.
+     *
+     * @param context JAXB context.
+     * @return number of pooled unmarshallers.
+     */
+    static int getPooledUnmarshallers(final JAXBContext context) {
+        return pools.getUnchecked(context).pooledUnmarshallers.get();
+    }
+
+    private static final class Pool {
+
+        private final JAXBContext context;
+
+        private final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<Marshaller>();
+        private final AtomicInteger pooledMarshallers = new AtomicInteger();
+        private final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<Unmarshaller>();
+        private final AtomicInteger pooledUnmarshallers = new AtomicInteger();
+
+        Pool(final JAXBContext context) {
+            this.context = context;
+        }
+
+        Marshaller acquireMarshaller() throws JAXBException {
+            final Marshaller marshaller = marshallers.poll();
+            if (marshaller != null) {
+                pooledMarshallers.decrementAndGet();
+                return marshaller;
+            }
+
+            final Marshaller created = context.createMarshaller();
+            owners.put(created, this);
+            return created;
+        }
+
+        void release(final Marshaller marshaller) {
+            if (pooledMarshallers.incrementAndGet() <= MAX_POOLED) {
+                try {
+                    marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+                    marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+                    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
+                    marshaller.setEventHandler(null);
+                    marshaller.setSchema(null);
+                    marshaller.setListener(null);
+                    marshaller.setAttachmentMarshaller(null);
+                } catch (JAXBException ex) {
+                    // cannot be reset, drop it
+                    pooledMarshallers.decrementAndGet();
+                    owners.remove(marshaller);
+                    return;
+                }
+                marshallers.offer(marshaller);
+            } else {
+                pooledMarshallers.decrementAndGet();
+                owners.remove(marshaller);
+            }
+        }
+
+        Unmarshaller acquireUnmarshaller() throws JAXBException {
+            final Unmarshaller unmarshaller = unmarshallers.poll();
+            if (unmarshaller != null) {
+                pooledUnmarshallers.decrementAndGet();
+                return unmarshaller;
+            }
+
+            final Unmarshaller created = context.createUnmarshaller();
+            owners.put(created, this);
+            return created;
+        }
+
+        void release(final Unmarshaller unmarshaller) {
+            if (pooledUnmarshallers.incrementAndGet() <= MAX_POOLED) {
+                try {
+                    unmarshaller.setEventHandler(null);
+                    unmarshaller.setSchema(null);
+                    unmarshaller.setListener(null);
+                    unmarshaller.setAttachmentUnmarshaller(null);
+                } catch (JAXBException ex) {
+                    // cannot be reset, drop it
+                    pooledUnmarshallers.decrementAndGet();
+                    owners.remove(unmarshaller);
+                    return;
+                }
+                unmarshallers.offer(unmarshaller);
+            } else {
+                pooledUnmarshallers.decrementAndGet();
+                owners.remove(unmarshaller);
+            }
+        }
+    }
+}
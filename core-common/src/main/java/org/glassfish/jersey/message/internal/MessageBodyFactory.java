@@ -53,6 +53,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
@@ -75,6 +77,7 @@ import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper.DeclaringClassInterfacePair;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.process.internal.PriorityComparator;
 import org.glassfish.jersey.process.internal.RequestScope;
 
 import org.glassfish.hk2.Factory;
@@ -163,6 +166,20 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     private List<MessageBodyWriterPair> customWriterListProviders;
     private List<ReaderInterceptor> readerInterceptors;
     private List<WriterInterceptor> writerInterceptors;
+    /**
+     * Sorted interceptor chains executed if the interception is enabled, resp. disabled
+     * (only the {@link ExceptionWrapperInterceptor exception wrapping interceptors} are executed).
+     */
+    private ReaderInterceptor[] readerInterceptorChain;
+    private ReaderInterceptor[] exceptionWrappingReaderInterceptorChain;
+    private WriterInterceptor[] writerInterceptorChain;
+    private WriterInterceptor[] exceptionWrappingWriterInterceptorChain;
+    /**
+     * Selected readers and writers, including the negative results (represented by {@link #NO_WORKER}).
+     * The caches are cleared whenever the provider lists are (re)initialized.
+     */
+    private final ConcurrentMap<WorkerKey, Object> readerCache = new ConcurrentHashMap<WorkerKey, Object>();
+    private final ConcurrentMap<WorkerKey, Object> writerCache = new ConcurrentHashMap<WorkerKey, Object>();
 
     @Override
     public List<ReaderInterceptor> getReaderInterceptors() {
@@ -174,6 +191,103 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         return writerInterceptors;
     }
 
+    /**
+     * Maximum number of entries in each of the worker selection caches. Once reached, the workers
+     * for the new keys are looked up without being cached.
+     */
+    private static final int MAX_CACHED_WORKERS = 1024;
+    private static final Object NO_WORKER = new Object();
+
+    /**
+     * Worker selection cache key.
+     * <p>
+     * Annotations are compared by identity, element by element. The annotation arrays passed
+     * to the factory are often copies, but they contain the annotation instances cached by the
+     * reflection API for the annotated element, so the identity comparison hits the cache
+     * without invoking the (reflective) {@code equals} and {@code hashCode} methods of the
+     * annotations. Equal annotations represented by distinct instances only result in separate
+     * cache entries.
+     * </p>
+     */
+    private static final class WorkerKey {
+
+        private final Class<?> type;
+        private final Type genericType;
+        private final Annotation[] annotations;
+        private final MediaType mediaType;
+        private final int hash;
+
+        WorkerKey(final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.mediaType = mediaType;
+
+            int h = type.hashCode();
+            h = 31 * h + (genericType != null ? genericType.hashCode() : 0);
+            h = 31 * h + (mediaType != null ? mediaType.hashCode() : 0);
+            if (annotations != null) {
+                for (Annotation annotation : annotations) {
+                    h = 31 * h + System.identityHashCode(annotation);
+                }
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WorkerKey)) {
+                return false;
+            }
+            final WorkerKey other = (WorkerKey) o;
+            return hash == other.hash
+                    && type == other.type
+                    && (genericType == null ? other.genericType == null : genericType.equals(other.genericType))
+                    && (mediaType == null ? other.mediaType == null : mediaType.equals(other.mediaType))
+                    && sameAnnotations(annotations, other.annotations);
+        }
+
+        private static boolean sameAnnotations(final Annotation[] a1, final Annotation[] a2) {
+            if (a1 == a2) {
+                return true;
+            }
+            if (a1 == null || a2 == null || a1.length != a2.length) {
+                return false;
+            }
+            for (int i = 0; i < a1.length; i++) {
+                if (a1[i] != a2[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Check whether the worker selected for the media type may be cached. Media types with parameters
+     * other than {@code charset} (e.g. a multipart {@code boundary}) are typically unique per message
+     * and would only pollute the cache.
+     */
+    private static boolean isCacheable(final MediaType mediaType, final ConcurrentMap<WorkerKey, Object> cache) {
+        if (cache.size() >= MAX_CACHED_WORKERS) {
+            return false;
+        }
+        if (mediaType == null) {
+            return true;
+        }
+        final Map<String, String> parameters = mediaType.getParameters();
+        return parameters.isEmpty()
+                || (parameters.size() == 1 && parameters.containsKey("charset"));
+    }
+
     private static class MessageBodyWriterPair {
 
         final MessageBodyWriter<?> mbw;
@@ -258,9 +372,29 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     private void initInterceptors() {
         this.readerInterceptors = Providers.getAllProviders(services, ReaderInterceptor.class);
         this.writerInterceptors = Providers.getAllProviders(services, WriterInterceptor.class);
+
+        this.readerInterceptorChain = createInterceptorChain(readerInterceptors, true, new ReaderInterceptor[0]);
+        this.exceptionWrappingReaderInterceptorChain =
+                createInterceptorChain(readerInterceptors, false, new ReaderInterceptor[0]);
+        this.writerInterceptorChain = createInterceptorChain(writerInterceptors, true, new WriterInterceptor[0]);
+        this.exceptionWrappingWriterInterceptorChain =
+                createInterceptorChain(writerInterceptors, false, new WriterInterceptor[0]);
+    }
+
+    private static <T> T[] createInterceptorChain(List<T> interceptors, boolean intercept, T[] type) {
+        final List<T> chain = new ArrayList<T>(interceptors.size());
+        for (T interceptor : interceptors) {
+            if (intercept || (interceptor instanceof ExceptionWrapperInterceptor)) {
+                chain.add(interceptor);
+            }
+        }
+        Collections.sort(chain, new PriorityComparator<T>(PriorityComparator.Order.ASCENDING));
+        return chain.toArray(type);
     }
 
     private void initReaders() {
+        readerCache.clear();
+
         this.customReaderProviders = new KeyComparatorHashMap<MediaType, List<MessageBodyReader>>(
                 MEDIA_TYPE_COMPARATOR);
         this.customReaderListProviders = new ArrayList<MessageBodyReaderPair>();
@@ -298,6 +432,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     }
 
     private void initWriters() {
+        writerCache.clear();
+
         this.customWriterProviders = new KeyComparatorHashMap<MediaType, List<MessageBodyWriter>>(
                 MEDIA_TYPE_COMPARATOR);
         this.customWriterListProviders = new ArrayList<MessageBodyWriterPair>();
@@ -398,10 +534,28 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> c, Type t,
             Annotation[] as,
             MediaType mediaType) {
 
+        final WorkerKey key = new WorkerKey(c, t, as, mediaType);
+        final Object cached = readerCache.get(key);
+        if (cached != null) {
+            return cached == NO_WORKER ? null : (MessageBodyReader<T>) cached;
+        }
+
+        final MessageBodyReader<T> reader = selectMessageBodyReader(c, t, as, mediaType);
+        if (isCacheable(mediaType, readerCache)) {
+            readerCache.putIfAbsent(key, reader == null ? NO_WORKER : reader);
+        }
+        return reader;
+    }
+
+    private <T> MessageBodyReader<T> selectMessageBodyReader(Class<T> c, Type t,
+            Annotation[] as,
+            MediaType mediaType) {
+
         MessageBodyReader<T> reader;
 
         if (!customReaderProviders.isEmpty()) {
@@ -475,10 +629,28 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> c, Type t,
             Annotation[] as,
             MediaType mediaType) {
 
+        final WorkerKey key = new WorkerKey(c, t, as, mediaType);
+        final Object cached = writerCache.get(key);
+        if (cached != null) {
+            return cached == NO_WORKER ? null : (MessageBodyWriter<T>) cached;
+        }
+
+        final MessageBodyWriter<T> writer = selectMessageBodyWriter(c, t, as, mediaType);
+        if (isCacheable(mediaType, writerCache)) {
+            writerCache.putIfAbsent(key, writer == null ? NO_WORKER : writer);
+        }
+        return writer;
+    }
+
+    private <T> MessageBodyWriter<T> selectMessageBodyWriter(Class<T> c, Type t,
+            Annotation[] as,
+            MediaType mediaType) {
+
         MessageBodyWriter<T> p;
 
         if (!customWriterProviders.isEmpty()) {
@@ -611,8 +783,14 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             MultivaluedMap<String, String> httpHeaders, PropertiesDelegate propertiesDelegate, InputStream entityStream,
             boolean intercept) throws WebApplicationException, IOException {
 
+        final ReaderInterceptor[] interceptors = intercept
+                ? readerInterceptorChain : exceptionWrappingReaderInterceptorChain;
+        if (interceptors.length == 0) {
+            return ReaderInterceptorExecutor.readEntity(rawType, type, annotations, mediaType, httpHeaders, entityStream, this);
+        }
+
         ReaderInterceptorExecutor executor = new ReaderInterceptorExecutor(rawType, type, annotations, mediaType,
-                httpHeaders, propertiesDelegate, entityStream, this, intercept);
+                httpHeaders, propertiesDelegate, entityStream, this, interceptors);
         return executor.proceed();
     }
 
@@ -629,8 +807,16 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             MultivaluedMap<String, Object> httpHeaders, PropertiesDelegate propertiesDelegate, OutputStream entityStream,
             MessageBodySizeCallback sizeCallback, boolean intercept, boolean writeEntity) throws IOException, WebApplicationException {
 
+        final WriterInterceptor[] interceptors = intercept
+                ? writerInterceptorChain : exceptionWrappingWriterInterceptorChain;
+        if (interceptors.length == 0) {
+            WriterInterceptorExecutor.writeEntity(t, rawType, type, annotations, mediaType, httpHeaders,
+                    entityStream, entityStream, this, sizeCallback, writeEntity);
+            return;
+        }
+
         WriterInterceptorExecutor executor = new WriterInterceptorExecutor(t, rawType, type, annotations, mediaType,
-                httpHeaders, propertiesDelegate, entityStream, this, sizeCallback, intercept, writeEntity);
+                httpHeaders, propertiesDelegate, entityStream, this, interceptors, sizeCallback, writeEntity);
         executor.proceed();
     }
 }
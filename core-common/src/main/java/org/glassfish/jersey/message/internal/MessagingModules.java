@@ -47,6 +47,7 @@ import javax.xml.parsers.SAXParserFactory;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.transform.TransformerFactory;
 
+import org.glassfish.jersey.internal.ServiceFinder;
 import org.glassfish.jersey.internal.ServiceFinderModule;
 import org.glassfish.jersey.internal.inject.AbstractModule;
 import org.glassfish.jersey.spi.HeaderDelegateProvider;
@@ -66,6 +67,8 @@ public class MessagingModules {
 
         @Override
         protected void configure() {
+            // read the META-INF/services files of the service finder modules below concurrently
+            ServiceFinder.preload(MessageBodyReader.class, MessageBodyWriter.class, HeaderDelegateProvider.class);
 
             // Message body providers (both readers & writers)
             bindSingletonWorker(ByteArrayProvider.class);
@@ -105,6 +108,7 @@ public class MessagingModules {
             install(new ServiceFinderModule<MessageBodyReader>(MessageBodyReader.class));
 
             // Message body writers
+            bind(MessageBodyWriter.class).to(FileRegionProvider.class).in(Singleton.class);
             bind(MessageBodyWriter.class).to(StreamingOutputProvider.class).in(Singleton.class);
             bind(MessageBodyWriter.class).to(SourceProvider.SourceWriter.class).in(Singleton.class);
 
@@ -97,7 +97,7 @@ public class OutboundMessageContext {
          * Get the output stream.
          *
          * The method is called once as part of a "commit" operation immediately after
-         * the {@link #commit()} method has been invoked.
+         * the {@link #commit(long)} method has been invoked.
          *
          * @return the adapted output stream.
          * @throws java.io.IOException in case of an IO error.
@@ -110,9 +110,11 @@ public class OutboundMessageContext {
          * The method is called once as part of a "commit" operation before the first byte
          * is written to the provider stream.
          *
+         * @param contentLength length of the complete entity if known to the committing stream
+         *                      (i.e. the entity has been buffered completely), {@code -1} otherwise.
          * @throws java.io.IOException in case of an IO error.
          */
-        public void commit() throws IOException;
+        public void commit(long contentLength) throws IOException;
     }
 
     /**
@@ -794,18 +796,26 @@ public class OutboundMessageContext {
         this.rootStream.setStreamProvider(streamProvider);
     }
 
+    /**
+     * Enable buffering of the entity data written before the {@link #getEntityStream() entity stream}
+     * is committed, so that an entity not larger than the buffer is committed with its exact length.
+     *
+     * @param bufferSize size of the buffer in bytes.
+     * @see CommittingOutputStream#enableBuffering(int)
+     */
+    public void enableBuffering(int bufferSize) {
+        this.rootStream.enableBuffering(bufferSize);
+    }
+
     /**
      * Commits the {@link #getEntityStream() entity stream} if it wasn't already committed.
+     * Any buffered entity data are written as the complete entity.
      */
     public void commitStream() {
         if (!rootStream.isCommitted()) {
             try {
-                // flush the entity stream
-                entityStream.flush();
-                if (!rootStream.isCommitted()) {
-                    // flush the committing stream
-                    rootStream.flush();
-                }
+                // flush the entity stream, commit and flush the committing stream
+                rootStream.complete(entityStream);
             } catch (Exception ioe) {
                 // Do nothing - we are already handling an exception.
             }
@@ -0,0 +1,182 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Deflater output stream that takes its {@link Deflater} from a {@link CodecPool} and returns it
+ * once the stream is {@link #finish() finished} or {@link #close() closed}. If finishing the stream
+ * fails or the stream is {@link #abort() aborted}, the deflater is ended instead. The stream produces
+ * either plain ZLIB/raw deflate data (depending on the pool configuration) or a GZIP member
+ * (RFC 1952) when created in the GZIP mode, in which case the pool must be configured to produce
+ * raw deflate data.
+ * <p>
+ * Nothing is written to (or flushed into) the underlying stream before the first entity byte
+ * is written or the stream is finished, so that message headers are not committed prematurely.
+ * Unlike {@link DeflaterOutputStream}, finishing the stream is idempotent.
+ * </p>
+ */
+public final class PooledDeflaterOutputStream extends DeflaterOutputStream {
+
+    private static final byte[] GZIP_HEADER = new byte[] {
+            0x1f, (byte) 0x8b,  // magic number
+            Deflater.DEFLATED,  // compression method
+            0,                  // flags
+            0, 0, 0, 0,         // modification time
+            0,                  // extra flags
+            (byte) 0xff         // operating system (unknown)
+    };
+
+    /**
+     * Size of the (per stream) deflate buffer, same as in the JDK GZIP streams.
+     */
+    private static final int BUFFER_SIZE = 512;
+
+    private final CodecPool pool;
+    private final CRC32 crc;
+    private boolean started;
+    private boolean released;
+    private boolean closed;
+
+    /**
+     * Create new pooled deflater output stream.
+     *
+     * @param out  underlying output stream.
+     * @param pool deflater pool.
+     * @param gzip if {@code true}, the stream writes GZIP header and trailer around the deflated data.
+     */
+    public PooledDeflaterOutputStream(final OutputStream out, final CodecPool pool, final boolean gzip) {
+        super(out, pool.acquireDeflater(), BUFFER_SIZE);
+        this.pool = pool;
+        this.crc = gzip ? new CRC32() : null;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (released) {
+            throw new IOException("Write beyond the end of the deflated stream.");
+        }
+        start();
+        super.write(b, off, len);
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (started) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (released) {
+            return;
+        }
+        boolean finished = false;
+        try {
+            start();
+            super.finish();
+            if (crc != null) {
+                writeInt((int) crc.getValue());
+                writeInt((int) def.getBytesRead());
+            }
+            finished = true;
+        } finally {
+            release(finished);
+        }
+    }
+
+    /**
+     * Release the deflater without writing any more data to the underlying stream, e.g. because
+     * writing of the entity has failed. The deflater is {@link Deflater#end() ended} instead of
+     * being returned to the pool. Further writes fail; finishing or closing the stream does not
+     * write anything.
+     */
+    public void abort() {
+        if (!released) {
+            release(false);
+        }
+    }
+
+    private void release(final boolean reuse) {
+        released = true;
+        if (reuse) {
+            pool.release(def);
+        } else {
+            def.end();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                finish();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private void start() throws IOException {
+        if (!started) {
+            started = true;
+            if (crc != null) {
+                out.write(GZIP_HEADER);
+            }
+        }
+    }
+
+    private void writeInt(final int i) throws IOException {
+        out.write(i & 0xff);
+        out.write((i >> 8) & 0xff);
+        out.write((i >> 16) & 0xff);
+        out.write((i >> 24) & 0xff);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Inflater input stream that takes its {@link Inflater} from a {@link CodecPool} and returns it
+ * once the end of the deflated data is reached or the stream is {@link #close() closed}.
+ * The stream consumes either plain ZLIB/raw deflate data (depending on the pool configuration)
+ * or a single GZIP member (RFC 1952) when created in the GZIP mode, in which case the pool must
+ * be configured to consume raw deflate data. An empty input stream is read as an empty entity.
+ */
+public final class PooledInflaterInputStream extends InflaterInputStream {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    /**
+     * Size of the (per stream) inflate buffer, same as in the JDK GZIP streams.
+     */
+    private static final int BUFFER_SIZE = 512;
+
+    private final CodecPool pool;
+    private final CRC32 crc;
+    private boolean released;
+
+    /**
+     * Create new pooled inflater input stream.
+     *
+     * @param in   underlying input stream.
+     * @param pool inflater pool.
+     * @param gzip if {@code true}, the stream reads and verifies the GZIP header and trailer
+     *             around the deflated data.
+     * @throws IOException in case the GZIP header cannot be read or is not valid.
+     */
+    public PooledInflaterInputStream(final InputStream in, final CodecPool pool, final boolean gzip) throws IOException {
+        super(in, pool.acquireInflater(), BUFFER_SIZE);
+        this.pool = pool;
+        this.crc = gzip ? new CRC32() : null;
+        if (gzip) {
+            try {
+                readHeader();
+            } catch (IOException e) {
+                release();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (released) {
+            return -1;
+        }
+        final int n;
+        try {
+            n = super.read(b, off, len);
+        } catch (IOException e) {
+            release();
+            throw e;
+        }
+        if (n == -1) {
+            try {
+                if (crc != null) {
+                    readTrailer();
+                }
+            } finally {
+                release();
+            }
+        } else if (crc != null) {
+            crc.update(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return released ? 0 : super.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        release();
+        super.close();
+    }
+
+    private void release() {
+        if (!released) {
+            released = true;
+            pool.release(inf);
+        }
+    }
+
+    private void readHeader() throws IOException {
+        final int first = in.read();
+        if (first == -1) {
+            // empty entity
+            release();
+            return;
+        }
+        if ((readUByte() << 8 | first) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format.");
+        }
+        if (readUByte() != 8) {
+            throw new ZipException("Unsupported GZIP compression method.");
+        }
+        final int flags = readUByte();
+        skipBytes(6);
+        if ((flags & FEXTRA) == FEXTRA) {
+            skipBytes(readUByte() | readUByte() << 8);
+        }
+        if ((flags & FNAME) == FNAME) {
+            while (readUByte() != 0) {
+                // skip the file name
+            }
+        }
+        if ((flags & FCOMMENT) == FCOMMENT) {
+            while (readUByte() != 0) {
+                // skip the comment
+            }
+        }
+        if ((flags & FHCRC) == FHCRC) {
+            skipBytes(2);
+        }
+    }
+
+    private void readTrailer() throws IOException {
+        // part of the trailer may have been read into the inflater input buffer already
+        int remaining = inf.getRemaining();
+        int position = len - remaining;
+        long trailer = 0;
+        for (int i = 0; i < 8; i++) {
+            final int b;
+            if (remaining > 0) {
+                b = buf[position++] & 0xff;
+                remaining--;
+            } else {
+                b = readUByte();
+            }
+            trailer |= ((long) b) << (8 * i);
+        }
+        if ((trailer & 0xffffffffL) != crc.getValue()
+                || (trailer >>> 32) != (inf.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer.");
+        }
+    }
+
+    private int readUByte() throws IOException {
+        final int b = in.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of GZIP input stream.");
+        }
+        return b;
+    }
+
+    private void skipBytes(int n) throws IOException {
+        while (n-- > 0) {
+            readUByte();
+        }
+    }
+}
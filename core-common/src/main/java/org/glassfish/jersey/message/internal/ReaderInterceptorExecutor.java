@@ -43,10 +43,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
@@ -60,8 +56,6 @@ import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.ProcessingException;
 import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.message.MessageBodyWorkers;
-import org.glassfish.jersey.process.internal.PriorityComparator;
-import org.glassfish.jersey.process.internal.PriorityComparator.Order;
 
 /**
  * Entry point of the reader interceptor chain. It contstructs the chain of wrapped
@@ -73,9 +67,13 @@ import org.glassfish.jersey.process.internal.PriorityComparator.Order;
  * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
  */
 public class ReaderInterceptorExecutor extends InterceptorExecutor implements ReaderInterceptorContext {
+    private static final ReaderInterceptor TERMINAL_INTERCEPTOR = new TerminalReaderInterceptor();
+
     private InputStream inputStream;
     private final MultivaluedMap<String, String> headers;
-    private Iterator<ReaderInterceptor> iterator;
+    private final MessageBodyWorkers workers;
+    private final ReaderInterceptor[] interceptors;
+    private int index;
 
     /**
      * Reads a type from the {@link InputStream entityStream} using interceptors.
@@ -92,27 +90,17 @@ public class ReaderInterceptorExecutor extends InterceptorExecutor implements Re
      * @param propertiesDelegate a request-scoped properties delegate.
      * @param inputStream entity stream.
      * @param workers {@link MessageBodyWorkers Message body workers}.
-     * @param intercept true if the user interceptors should be executed. Otherwise only
-     *            {@link ExceptionWrapperInterceptor exception wrapping interceptor} will
-     *            be executed in the client.
+     * @param interceptors interceptors to be executed, sorted by their priority. The array
+     *            is not modified and can be shared by multiple executors.
      */
     public ReaderInterceptorExecutor(Class<?> rawType, Type type, Annotation[] annotations, MediaType mediaType,
             MultivaluedMap<String, String> headers, PropertiesDelegate propertiesDelegate, InputStream inputStream,
-            MessageBodyWorkers workers, boolean intercept) {
+            MessageBodyWorkers workers, ReaderInterceptor[] interceptors) {
         super(rawType, type, annotations, mediaType, propertiesDelegate);
         this.headers = headers;
         this.inputStream = inputStream;
-
-        List<ReaderInterceptor> interceptors = new ArrayList<ReaderInterceptor>();
-        for (ReaderInterceptor interceptor : workers.getReaderInterceptors()) {
-            if (intercept || (interceptor instanceof ExceptionWrapperInterceptor)) {
-                interceptors.add(interceptor);
-            }
-        }
-        Collections.sort(interceptors, new PriorityComparator<ReaderInterceptor>(Order.ASCENDING));
-
-        interceptors.add(new TerminalReaderInterceptor(workers));
-        this.iterator = interceptors.iterator();
+        this.workers = workers;
+        this.interceptors = interceptors;
     }
 
     /**
@@ -121,10 +109,13 @@ public class ReaderInterceptorExecutor extends InterceptorExecutor implements Re
      * @return Next interceptor.
      */
     public ReaderInterceptor getNextInterceptor() {
-        if (!iterator.hasNext()) {
-            return null;
+        if (index < interceptors.length) {
+            return interceptors[index++];
+        } else if (index == interceptors.length) {
+            index++;
+            return TERMINAL_INTERCEPTOR;
         }
-        return iterator.next();
+        return null;
     }
 
     /**
@@ -159,39 +150,53 @@ public class ReaderInterceptorExecutor extends InterceptorExecutor implements Re
     }
 
     /**
-     * Terminal reader interceptor which choose the appropriate {@link MessageBodyReader}
-     * and reads the entity from the input stream. The order of actions is the following: <br>
-     * 1. choose the appropriate {@link MessageBodyWriter} <br>
-     * 3. reads the entity from the output stream <br>
+     * Choose the appropriate {@link MessageBodyReader} and read the entity from the input stream.
+     * The order of actions is the following: <br>
+     * 1. choose the appropriate {@link MessageBodyReader} <br>
+     * 2. reads the entity from the input stream <br>
+     * <p>
+     * Invoked at the end of the interceptor chain or directly if there are no interceptors to be executed.
+     * </p>
+     *
+     * @param rawType raw Java entity type.
+     * @param type generic Java entity type.
+     * @param annotations annotations of the entity.
+     * @param mediaType the media type of the HTTP entity.
+     * @param headers mutable message headers.
+     * @param inputStream entity stream.
+     * @param workers {@link MessageBodyWorkers Message body workers}.
+     * @return entity read from the stream.
+     * @throws IOException in case of an I/O error.
      */
-    private static class TerminalReaderInterceptor implements ReaderInterceptor {
-        private final MessageBodyWorkers workers;
+    @SuppressWarnings("unchecked")
+    static Object readEntity(Class<?> rawType, Type type, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> headers, InputStream inputStream, MessageBodyWorkers workers) throws IOException {
 
-        public TerminalReaderInterceptor(MessageBodyWorkers workers) {
-            super();
-            this.workers = workers;
+        final MessageBodyReader bodyReader = workers.getMessageBodyReader(rawType, type, annotations, mediaType);
+        if (bodyReader == null) {
+            throw new MessageBodyProviderNotFoundException(LocalizationMessages.ERROR_NOTFOUND_MESSAGEBODYREADER(
+                    mediaType, rawType, type));
         }
 
-        @Override
-        @SuppressWarnings("unchecked")
-        public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException {
-            final MessageBodyReader bodyReader = workers.getMessageBodyReader(context.getType(), context.getGenericType(),
-                    context.getAnnotations(), context.getMediaType());
-
-            if (bodyReader == null) {
-                throw new MessageBodyProviderNotFoundException(LocalizationMessages.ERROR_NOTFOUND_MESSAGEBODYREADER(
-                        context.getMediaType(), context.getType(), context.getGenericType()));
-            }
+        Object entity = bodyReader.readFrom(rawType, type, annotations, mediaType, headers, inputStream);
 
-            Object entity = bodyReader.readFrom(context.getType(), context.getGenericType(), context.getAnnotations(),
-                    context.getMediaType(), context.getHeaders(), context.getInputStream());
+        if (bodyReader instanceof CompletableReader) {
+            entity = ((CompletableReader) bodyReader).complete(entity);
+        }
+        return entity;
+    }
 
-            if (bodyReader instanceof CompletableReader) {
-                entity = ((CompletableReader) bodyReader).complete(entity);
-            }
-            return entity;
+    /**
+     * Terminal reader interceptor which reads the entity using {@link #readEntity}.
+     * The interceptor is stateless, the state is taken from the executor it is invoked with.
+     */
+    private static class TerminalReaderInterceptor implements ReaderInterceptor {
 
+        @Override
+        public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException {
+            final ReaderInterceptorExecutor executor = (ReaderInterceptorExecutor) context;
+            return readEntity(executor.getType(), executor.getGenericType(), executor.getAnnotations(),
+                    executor.getMediaType(), executor.getHeaders(), executor.getInputStream(), executor.workers);
         }
-
     }
 }
@@ -40,6 +40,9 @@
 package org.glassfish.jersey.message.internal;
 
 import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -112,6 +115,45 @@ public final class ReaderWriter {
         }
     }
 
+    /**
+     * Write a region of a file to an output stream.
+     * <p>
+     * If the output stream is a {@link FileTransferOutput} the region is first offered for
+     * a {@link FileTransferOutput#transferFile(File, long, long) direct transfer}; the file
+     * content is copied into the output stream only if the transfer is declined.
+     * </p>
+     *
+     * @param file the file to read from.
+     * @param position position of the first byte of the region in the file.
+     * @param count number of bytes in the region.
+     * @param out the output stream to write to.
+     * @throws IOException if there is an error reading or writing bytes.
+     */
+    public static void writeTo(File file, long position, long count, OutputStream out) throws IOException {
+        if (out instanceof FileTransferOutput && ((FileTransferOutput) out).transferFile(file, position, count)) {
+            return;
+        }
+
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            if (position > 0) {
+                in.getChannel().position(position);
+            }
+            final byte[] data = new byte[(int) Math.min(BUFFER_SIZE, Math.max(count, 1))];
+            long remaining = count;
+            while (remaining > 0) {
+                final int read = in.read(data, 0, (int) Math.min(data.length, remaining));
+                if (read == -1) {
+                    throw new EOFException("Unexpected end of file " + file + ", " + remaining + " bytes remaining.");
+                }
+                out.write(data, 0, read);
+                remaining -= read;
+            }
+        } finally {
+            in.close();
+        }
+    }
+
     /**
      * Read characters from an input stream and write them to an output stream.
      *
@@ -80,6 +80,16 @@ public final class StringMessageProvider extends AbstractMessageReaderWriterProv
 
     @Override
     public long getSize(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        // the number of characters equals the number of encoded bytes only for ASCII text in ASCII-compatible charsets
+        final String charset = getCharset(mediaType).name();
+        if (!"UTF-8".equals(charset) && !"ISO-8859-1".equals(charset) && !"US-ASCII".equals(charset)) {
+            return -1;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return -1;
+            }
+        }
         return s.length();
     }
 
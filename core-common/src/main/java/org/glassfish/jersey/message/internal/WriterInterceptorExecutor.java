@@ -43,10 +43,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
@@ -60,8 +56,6 @@ import org.glassfish.jersey.internal.ProcessingException;
 import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.message.MessageBodyWorkers.MessageBodySizeCallback;
-import org.glassfish.jersey.process.internal.PriorityComparator;
-import org.glassfish.jersey.process.internal.PriorityComparator.Order;
 
 /**
  * Entry point of the writer interceptor chain. It constructs the chain of wrapped
@@ -73,12 +67,20 @@ import org.glassfish.jersey.process.internal.PriorityComparator.Order;
  * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
  */
 public class WriterInterceptorExecutor extends InterceptorExecutor implements WriterInterceptorContext {
-    private Iterator<WriterInterceptor> iterator;
+    private static final WriterInterceptor TERMINAL_INTERCEPTOR = new TerminalWriterInterceptor();
+
+    private final WriterInterceptor[] interceptors;
+    private int index;
 
     private OutputStream outputStream;
     private final MultivaluedMap<String, Object> headers;
     private Object entity;
 
+    private final MessageBodyWorkers workers;
+    private final MessageBodySizeCallback sizeCallback;
+    private final OutputStream entityStream;
+    private final boolean writeEntity;
+
     /**
      * Reads a type from the {@link java.io.InputStream entityStream} using interceptors.
      *
@@ -96,33 +98,27 @@ public class WriterInterceptorExecutor extends InterceptorExecutor implements Wr
      * @param entityStream the {@link java.io.InputStream} of the HTTP entity. The stream is not
      *            closed after reading the entity.
      * @param workers {@link MessageBodyWorkers Message body workers}.
+     * @param interceptors interceptors to be executed, sorted by their priority. The array
+     *            is not modified and can be shared by multiple executors.
      * @param sizeCallback {@link MessageBodySizeCallback} instance. Can be null.
-     * @param intercept true if the user interceptors should be executed. Otherwise only
-     *            {@link ExceptionWrapperInterceptor exception wrapping interceptor} will
-     *            be executed in the client.
      * @param writeEntity true if the entity should be written. Otherwise only headers will
      *            be written to underlying {@link OutputStream}.
      */
     public WriterInterceptorExecutor(Object entity, Class<?> rawType, Type type, Annotation[] annotations, MediaType mediaType,
             MultivaluedMap<String, Object> headers, PropertiesDelegate propertiesDelegate, OutputStream entityStream,
-            MessageBodyWorkers workers, MessageBodySizeCallback sizeCallback, boolean intercept, boolean writeEntity) {
+            MessageBodyWorkers workers, WriterInterceptor[] interceptors, MessageBodySizeCallback sizeCallback,
+            boolean writeEntity) {
 
         super(rawType, type, annotations, mediaType, propertiesDelegate);
         this.entity = entity;
         this.headers = headers;
         this.outputStream = entityStream;
 
-        List<WriterInterceptor> interceptors = new ArrayList<WriterInterceptor>();
-        for (WriterInterceptor interceptor : workers.getWriterInterceptors()) {
-            if (intercept || (interceptor instanceof ExceptionWrapperInterceptor)) {
-                interceptors.add(interceptor);
-            }
-        }
-        Collections.sort(interceptors, new PriorityComparator<WriterInterceptor>(Order.ASCENDING));
-
-        interceptors.add(new TerminalWriterInterceptor(workers, sizeCallback, writeEntity));
-
-        this.iterator = interceptors.iterator();
+        this.interceptors = interceptors;
+        this.workers = workers;
+        this.sizeCallback = sizeCallback;
+        this.entityStream = entityStream;
+        this.writeEntity = writeEntity;
     }
 
     /**
@@ -131,10 +127,13 @@ public class WriterInterceptorExecutor extends InterceptorExecutor implements Wr
      * @return Next interceptor.
      */
     public WriterInterceptor getNextInterceptor() {
-        if (!iterator.hasNext()) {
-            return null;
+        if (index < interceptors.length) {
+            return interceptors[index++];
+        } else if (index == interceptors.length) {
+            index++;
+            return TERMINAL_INTERCEPTOR;
         }
-        return iterator.next();
+        return null;
     }
 
     /**
@@ -177,45 +176,65 @@ public class WriterInterceptorExecutor extends InterceptorExecutor implements Wr
     }
 
     /**
-     * Terminal writer interceptor which choose the appropriate {@link MessageBodyWriter}
-     * and writes the entity to the output stream. The order of actions is the following: <br>
+     * Choose the appropriate {@link MessageBodyWriter} and write the entity to the output stream.
+     * The order of actions is the following: <br>
      * 1. choose the appropriate {@link MessageBodyWriter} <br>
-     * 2. if callback is defined then it retrieves size and passes it to the callback <br>
+     * 2. if callback is defined then it retrieves size and passes it to the callback; the size is reported
+     * as unknown (-1) if an interceptor replaced the original entity output stream, as the number of bytes
+     * written to the original stream then does not have to match the size of the entity <br>
      * 3. writes the entity to the output stream <br>
+     * <p>
+     * Invoked at the end of the interceptor chain or directly if there are no interceptors to be executed.
+     * </p>
      *
+     * @param entity entity object to be written.
+     * @param rawType raw Java entity type.
+     * @param type generic Java entity type.
+     * @param annotations annotations of the entity.
+     * @param mediaType the media type of the HTTP entity.
+     * @param headers the mutable HTTP headers associated with HTTP entity.
+     * @param outputStream the stream the entity is written to.
+     * @param entityStream the original entity stream.
+     * @param workers {@link MessageBodyWorkers Message body workers}.
+     * @param sizeCallback {@link MessageBodySizeCallback} instance. Can be null.
+     * @param writeEntity true if the entity should be written.
+     * @throws IOException in case of an I/O error.
      */
-    private static class TerminalWriterInterceptor implements WriterInterceptor {
-        private final MessageBodyWorkers workers;
-        private final MessageBodySizeCallback sizeCallback;
-        private final boolean writeEntity;
-
-        public TerminalWriterInterceptor(MessageBodyWorkers workers, MessageBodySizeCallback sizeCallback, boolean writeEntity) {
-            super();
-            this.workers = workers;
-            this.sizeCallback = sizeCallback;
-            this.writeEntity = writeEntity;
+    @SuppressWarnings("unchecked")
+    static void writeEntity(Object entity, Class<?> rawType, Type type, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> headers, OutputStream outputStream, OutputStream entityStream,
+            MessageBodyWorkers workers, MessageBodySizeCallback sizeCallback, boolean writeEntity) throws IOException {
+
+        final MessageBodyWriter writer = workers.getMessageBodyWriter(rawType, type, annotations, mediaType);
+        if (writer == null) {
+            throw new MessageBodyProviderNotFoundException(LocalizationMessages.ERROR_NOTFOUND_MESSAGEBODYWRITER(
+                    mediaType, rawType, type));
+        }
+        if (sizeCallback != null) {
+            long size = -1;
+            if (outputStream == entityStream) {
+                size = writer.getSize(entity, rawType, type, annotations, mediaType);
+            }
+            sizeCallback.onRequestEntitySize(size);
         }
 
-        @Override
-        @SuppressWarnings("unchecked")
-        public void aroundWriteTo(WriterInterceptorContext context) throws WebApplicationException, IOException {
+        if (writeEntity) {
+            writer.writeTo(entity, rawType, type, annotations, mediaType, headers, outputStream);
+        }
+    }
 
-            final MessageBodyWriter writer = workers.getMessageBodyWriter(context.getType(), context.getGenericType(),
-                    context.getAnnotations(), context.getMediaType());
-            if (writer == null) {
-                throw new MessageBodyProviderNotFoundException(LocalizationMessages.ERROR_NOTFOUND_MESSAGEBODYWRITER(
-                        context.getMediaType(), context.getType(), context.getGenericType()));
-            }
-            if (sizeCallback != null) {
-                long size = writer.getSize(context.getEntity(), context.getType(), context.getGenericType(),
-                        context.getAnnotations(), context.getMediaType());
-                sizeCallback.onRequestEntitySize(size);
-            }
+    /**
+     * Terminal writer interceptor which writes the entity using {@link #writeEntity}.
+     * The interceptor is stateless, the state is taken from the executor it is invoked with.
+     */
+    private static class TerminalWriterInterceptor implements WriterInterceptor {
 
-            if(writeEntity) {
-                writer.writeTo(context.getEntity(), context.getType(), context.getGenericType(), context.getAnnotations(),
-                        context.getMediaType(), context.getHeaders(), context.getOutputStream());
-            }
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws WebApplicationException, IOException {
+            final WriterInterceptorExecutor executor = (WriterInterceptorExecutor) context;
+            writeEntity(executor.getEntity(), executor.getType(), executor.getGenericType(), executor.getAnnotations(),
+                    executor.getMediaType(), executor.getHeaders(), executor.getOutputStream(), executor.entityStream,
+                    executor.workers, executor.sizeCallback, executor.writeEntity);
         }
     }
 
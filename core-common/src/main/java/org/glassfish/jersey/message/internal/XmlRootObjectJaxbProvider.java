@@ -138,7 +138,15 @@ public abstract class XmlRootObjectJaxbProvider extends AbstractJaxbProvider<Obj
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation annotations[], MediaType mediaType) {
         try {
-            return Object.class == type && isSupported(mediaType) && getUnmarshaller(type, mediaType) != null;
+            if (Object.class != type || !isSupported(mediaType)) {
+                return false;
+            }
+            final Unmarshaller u = getUnmarshaller(type, mediaType);
+            if (u == null) {
+                return false;
+            }
+            releaseUnmarshaller(u);
+            return true;
         } catch (JAXBException cause) {
             throw new RuntimeException(LocalizationMessages.ERROR_UNMARSHALLING_JAXB(type), cause);
         }
@@ -153,8 +161,12 @@ public abstract class XmlRootObjectJaxbProvider extends AbstractJaxbProvider<Obj
             MultivaluedMap<String, String> httpHeaders,
             InputStream entityStream) throws IOException {
         try {
-            return getUnmarshaller(type, mediaType).
-                    unmarshal(getSAXSource(spf.get(), entityStream));
+            final Unmarshaller u = getUnmarshaller(type, mediaType);
+            try {
+                return u.unmarshal(getSAXSource(spf.get(), entityStream));
+            } finally {
+                releaseUnmarshaller(u);
+            }
         } catch (UnmarshalException ex) {
             throw new WebApplicationException(ex, Status.BAD_REQUEST);
         } catch (JAXBException ex) {
@@ -40,7 +40,6 @@
 package org.glassfish.jersey.process.internal;
 
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -100,6 +99,7 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
     // state variable synced via monitor => doesn't have to be volatile
     private State executionState = State.RUNNING;
     private final Monitor executionStateMonitor = new Monitor();
+    // the invocation can be resumed as well as cancelled in the same states
     private final Monitor.Guard resumableState = new Monitor.Guard(executionStateMonitor) {
 
         @Override
@@ -114,19 +114,12 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
             return executionState == State.RUNNING;
         }
     };
-    private final Monitor.Guard cancellableState = new Monitor.Guard(executionStateMonitor) {
-
-        @Override
-        public boolean isSatisfied() {
-            return executionState == State.RUNNING || executionState == State.SUSPENDED;
-        }
-    };
     //
     private long defaultTimeout = Suspend.NEVER;
     private TimeUnit defaultTimeoutUnit = TimeUnit.MILLISECONDS;
     //
-    private AtomicReference<Response> defaultResponse = new AtomicReference<Response>();
-    private AtomicReference<REQUEST> originatingRequest = new AtomicReference<REQUEST>();
+    private volatile Response defaultResponse;
+    private volatile REQUEST originatingRequest;
     //
     private final Inflector<REQUEST, RESPONSE> wrapped;
     private final InvocationCallback<RESPONSE> callback;
@@ -149,7 +142,7 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
      * @param request request data to be processed.
      */
     public ListenableFuture<RESPONSE> apply(REQUEST request) {
-        originatingRequest.set(request);
+        originatingRequest = request;
         final RESPONSE response;
 
         try {
@@ -188,7 +181,7 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
         resume(new Runnable() {
             @Override
             public void run() {
-                set(convertResponse(originatingRequest.get(), toJaxrsResponse(response)));
+                set(convertResumedResponse(originatingRequest, response));
             }
         });
     }
@@ -306,7 +299,7 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
 
     @Override
     public void cancel() {
-        if (executionStateMonitor.enterIf(cancellableState)) {
+        if (executionStateMonitor.enterIf(resumableState)) {
             try {
                 executionState = State.CANCELLED;
             } finally {
@@ -337,12 +330,12 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
 
     @Override
     public void setResponse(Object response) {
-        defaultResponse.set(toJaxrsResponse(response));
+        defaultResponse = toJaxrsResponse(response);
     }
 
     @Override
     public Response getResponse() {
-        return defaultResponse.get();
+        return defaultResponse;
     }
 
     private Response toJaxrsResponse(final Object response) {
@@ -353,6 +346,24 @@ public abstract class AsyncInflectorAdapter<REQUEST, RESPONSE> extends AbstractF
         }
     }
 
+    /**
+     * Convert the response the invocation has been {@link #resume(Object) resumed with} to supported
+     * response data type.
+     * <p>
+     * By default, the resumed response is converted to a JAX-RS {@link Response response} first, which is
+     * subsequently {@link #convertResponse(Object, javax.ws.rs.core.Response) converted} to the supported
+     * response data type. Subclasses may override the method in order to support resuming the invocation
+     * directly with an instance of the supported response data type.
+     * </p>
+     *
+     * @param originatingRequest originating request data.
+     * @param response           response the invocation has been resumed with.
+     * @return resumed response converted to supported response data type.
+     */
+    protected RESPONSE convertResumedResponse(REQUEST originatingRequest, Object response) {
+        return convertResponse(originatingRequest, toJaxrsResponse(response));
+    }
+
     /**
      * Convert the JAX-RS {@link Response response} to supported response data type.
      *
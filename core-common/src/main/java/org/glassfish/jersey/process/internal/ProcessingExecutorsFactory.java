@@ -68,14 +68,29 @@ public class ProcessingExecutorsFactory implements ProcessingExecutorsProvider {
     //
     private final ExecutorService requestingExecutor;
     private final ExecutorService respondingExecutor;
+    private final boolean directExecution;
 
     ProcessingExecutorsFactory(@Inject Services services) {
         final Set<ProcessingExecutorsProvider> providers = Providers.getProviders(services, ProcessingExecutorsProvider.class);
-        requestingExecutor = createRequestingExecutor(providers);
-        respondingExecutor = createRespondingExecutor(providers);
+        final ExecutorService customRequestingExecutor = findRequestingExecutor(providers);
+        final ExecutorService customRespondingExecutor = findRespondingExecutor(providers);
+
+        directExecution = customRequestingExecutor == null && customRespondingExecutor == null;
+        if (customRequestingExecutor == null) {
+            LOGGER.config("Using default requesting executor.");
+            requestingExecutor = MoreExecutors.sameThreadExecutor();
+        } else {
+            requestingExecutor = customRequestingExecutor;
+        }
+        if (customRespondingExecutor == null) {
+            LOGGER.config("Using default responding executor.");
+            respondingExecutor = MoreExecutors.sameThreadExecutor();
+        } else {
+            respondingExecutor = customRespondingExecutor;
+        }
     }
 
-    private static ExecutorService createRequestingExecutor(final Set<ProcessingExecutorsProvider> providers) {
+    private static ExecutorService findRequestingExecutor(final Set<ProcessingExecutorsProvider> providers) {
         for (ProcessingExecutorsProvider provider : providers) {
             ExecutorService es = provider.getRequestingExecutor();
             if (es != null) {
@@ -85,11 +100,10 @@ public class ProcessingExecutorsFactory implements ProcessingExecutorsProvider {
             }
         }
 
-        LOGGER.config("Using default requesting executor.");
-        return MoreExecutors.sameThreadExecutor();
+        return null;
     }
 
-    private static ExecutorService createRespondingExecutor(final Set<ProcessingExecutorsProvider> providers) {
+    private static ExecutorService findRespondingExecutor(final Set<ProcessingExecutorsProvider> providers) {
         for (ProcessingExecutorsProvider provider : providers) {
             ExecutorService es = provider.getRespondingExecutor();
             if (es != null) {
@@ -99,8 +113,7 @@ public class ProcessingExecutorsFactory implements ProcessingExecutorsProvider {
             }
         }
 
-        LOGGER.config("Using default responding executor.");
-        return MoreExecutors.sameThreadExecutor();
+        return null;
     }
 
     // ProcessingExecutorsProvider
@@ -113,4 +126,20 @@ public class ProcessingExecutorsFactory implements ProcessingExecutorsProvider {
     public ExecutorService getRespondingExecutor() {
         return respondingExecutor;
     }
+
+    /**
+     * Check if the request and response processing may be executed directly on the caller
+     * thread.
+     * <p>
+     * The direct execution is possible if no custom requesting nor responding executor
+     * has been provided, in which case both default executors execute the submitted tasks
+     * synchronously on the submitting thread anyway.
+     * </p>
+     *
+     * @return {@code true} if the processing may be executed directly on the caller thread,
+     *         {@code false} otherwise.
+     */
+    public boolean isDirectExecution() {
+        return directExecution;
+    }
 }
@@ -42,6 +42,8 @@ package org.glassfish.jersey.process.internal;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.ProcessingException;
@@ -78,6 +80,11 @@ import com.google.common.util.concurrent.SettableFuture;
  * on the caller thread too. In case the request processing is suspended, the response
  * processing is resumed in the thread executing the code that resumed the response
  * processing.
+ * <p/>
+ * If no custom executors are {@link ProcessingExecutorsFactory#isDirectExecution() configured},
+ * the request processing is executed directly on the caller thread, without being submitted
+ * to the requesting executor, and a response available once the inflector returns is processed
+ * directly on the caller thread as well.
  *
  * @param <REQUEST>  request processing data type.
  * @param <RESPONSE> response processing data type.
@@ -86,6 +93,7 @@ import com.google.common.util.concurrent.SettableFuture;
  */
 public class RequestInvoker<REQUEST, RESPONSE> {
 
+    private static final Logger LOGGER = Logger.getLogger(RequestInvoker.class.getName());
     private static final InvocationCallback EMPTY_CALLBACK = new InvocationCallback() {
 
         @Override
@@ -119,6 +127,7 @@ public class RequestInvoker<REQUEST, RESPONSE> {
     private final ResponseProcessor.Builder<RESPONSE> responseProcessorBuilder;
     private final Factory<Ref<InvocationContext>> invocationContextReferenceFactory;
     private final ProcessingExecutorsFactory executorsFactory;
+    private final AcceptingInvoker acceptingInvoker = new AcceptingInvoker();
 
     /**
      * Create new request invoker.
@@ -172,46 +181,128 @@ public class RequestInvoker<REQUEST, RESPONSE> {
      * @return future response.
      */
     public ListenableFuture<RESPONSE> apply(final REQUEST request, final InvocationCallback<RESPONSE> callback) {
-        final Instance instance = requestScope.createInstance();
         final SettableFuture<RESPONSE> result = SettableFuture.create();
+        invoke(request, callback, result);
+        return result;
+    }
+
+    /**
+     * Transform request data of a given type into a response result of the
+     * different type, reporting the result only to the provided {@link InvocationCallback
+     * result callback}.
+     * <p/>
+     * Unlike {@link #apply(Object, InvocationCallback)}, the method does not create
+     * a response future, so it is meant for the callers that listen only to the
+     * result callback.
+     *
+     * @param request  request data to be transformed into a response result.
+     * @param callback result callback called when the request transformation is
+     *                 done. Must not be {@code null}.
+     */
+    public void submit(final REQUEST request, final InvocationCallback<RESPONSE> callback) {
+        invoke(request, callback, null);
+    }
+
+    private void invoke(final REQUEST request,
+                        final InvocationCallback<RESPONSE> callback,
+                        final SettableFuture<RESPONSE> result) {
+        final Instance instance = requestScope.createInstance();
+
+        if (executorsFactory.isDirectExecution()) {
+            // default executors run the tasks on the caller thread anyway - skip the executor hop
+            requestScope.runInScope(instance, new Requester(request, callback, instance, result, true));
+            return;
+        }
+
+        final Requester requester = new Requester(request, callback, instance, result, false);
+        try {
+            executorsFactory.getRequestingExecutor().submit(new Runnable() {
+
+                @Override
+                public void run() {
+                    requestScope.runInScope(instance, requester);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            final ProcessingException failure =
+                    new ProcessingException(LocalizationMessages.REQUEST_EXECUTION_FAILED(), ex);
+            try {
+                if (result != null) {
+                    result.setException(failure);
+                }
+            } finally {
+                callback.failure(failure);
+            }
+        }
+    }
+
+    /**
+     * Request processing task executed in the request scope.
+     */
+    private class Requester implements Runnable {
 
-        final Runnable requester = new Runnable() {
+        private final REQUEST request;
+        private final InvocationCallback<RESPONSE> callback;
+        private final Instance instance;
+        private final SettableFuture<RESPONSE> result;
+        private final boolean direct;
 
-            @Override
-            public void run() {
+        /**
+         * Create new request processing task.
+         *
+         * @param request  request data to be processed.
+         * @param callback invocation callback.
+         * @param instance request scope instance of the processed request.
+         * @param result   response future to be set once the response processing is finished,
+         *                 or {@code null} if the response is reported only to the callback.
+         * @param direct   if {@code true}, a response that is available once the inflector returns
+         *                 is processed directly on the current thread instead of being processed
+         *                 on the responding executor.
+         */
+        Requester(final REQUEST request,
+                  final InvocationCallback<RESPONSE> callback,
+                  final Instance instance,
+                  final SettableFuture<RESPONSE> result,
+                  final boolean direct) {
+            this.request = request;
+            this.callback = callback;
+            this.instance = instance;
+            this.result = result;
+            this.direct = direct;
+        }
+
+        @Override
+        public void run() {
+            boolean responding = false;
+            try {
                 final AsyncInflectorAdapter<REQUEST, RESPONSE> asyncAdapter =
-                        asyncAdapterBuilder.create(new AcceptingInvoker(), callback);
+                        asyncAdapterBuilder.create(acceptingInvoker, callback);
                 final ResponseProcessor<RESPONSE> responseProcessor =
                         responseProcessorBuilder.build(asyncAdapter, result, callback, instance);
                 invocationContextReferenceFactory.get().set(asyncAdapter);
                 try {
                     asyncAdapter.apply(request);
                 } finally {
-                    asyncAdapter.addListener(responseProcessor, executorsFactory.getRespondingExecutor());
+                    // from now on the response processor is responsible for the callback notification
+                    responding = true;
+                    if (direct && asyncAdapter.isDone()) {
+                        responseProcessor.run();
+                    } else {
+                        asyncAdapter.addListener(responseProcessor, executorsFactory.getRespondingExecutor());
+                    }
                 }
-            }
-        };
-
-        try {
-            try {
-                executorsFactory.getRequestingExecutor().submit(new Runnable() {
-
-                    @Override
-                    public void run() {
-                        requestScope.runInScope(instance, requester);
+            } catch (RuntimeException ex) {
+                // contain the failure regardless of whether the task runs directly on the caller thread
+                // or has been submitted to the requesting executor
+                LOGGER.log(Level.SEVERE, LocalizationMessages.REQUEST_EXECUTION_FAILED(), ex);
+                if (result != null ? result.setException(ex) : !responding) {
+                    try {
+                        callback.failure(ex);
+                    } catch (Exception callbackException) {
+                        LOGGER.log(Level.WARNING, LocalizationMessages.CALLBACK_METHOD_INVOCATION_FAILED(
+                                "failure", Thread.currentThread().getName()), callbackException);
                     }
-                });
-                return result;
-            } catch (RejectedExecutionException ex) {
-                throw new ProcessingException(LocalizationMessages.REQUEST_EXECUTION_FAILED(), ex);
-            }
-        } catch (ProcessingException ex) {
-            try {
-                SettableFuture<RESPONSE> failedResponse = SettableFuture.create();
-                failedResponse.setException(ex);
-                return failedResponse;
-            } finally {
-                callback.failure(ex);
+                }
             }
         }
     }
@@ -220,8 +311,11 @@ public class RequestInvoker<REQUEST, RESPONSE> {
 
         @Override
         public RESPONSE apply(REQUEST request) {
-            Stage<REQUEST> lastStage = null;
-            Stage.Continuation<REQUEST> continuation = Stage.Continuation.of(request, rootStage);
+            Preconditions.checkState(rootStage != null,
+                    "No stage has been invoked as part of the processing.");
+
+            Stage<REQUEST> lastStage = rootStage;
+            Stage.Continuation<REQUEST> continuation = rootStage.apply(request);
             Stage<REQUEST> currentStage;
             while ((currentStage = continuation.next()) != null) {
                 lastStage = currentStage;
@@ -231,9 +325,6 @@ public class RequestInvoker<REQUEST, RESPONSE> {
             Inflector<REQUEST, RESPONSE> inflector = Stages.extractInflector(lastStage);
             REQUEST result = continuation.result();
 
-            Preconditions.checkState(lastStage != null,
-                    "No stage has been invoked as part of the processing.");
-
             if (inflector == null) {
                 throw new InflectorNotFoundException("Terminal stage did not provide an inflector");
             }
@@ -39,16 +39,19 @@
  */
 package org.glassfish.jersey.process.internal;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.glassfish.jersey.internal.inject.AbstractModule;
 import org.glassfish.jersey.internal.util.ExtendedLogger;
-import org.glassfish.jersey.internal.util.LazyUid;
 
 import org.glassfish.hk2.Provider;
 import org.glassfish.hk2.Scope;
@@ -124,6 +127,12 @@ import static com.google.common.base.Preconditions.checkState;
  * which may change it's state during each request-scoped task execution for
  * which this scope instance is used.
  * </p>
+ * <p>
+ * Each request-scoped {@link Provider provider} is assigned a dense integer slot the first time
+ * an instance is stored for it in any scope instance. A scope instance stores the request-scoped
+ * instances in an array indexed by the slots. The number of slots is limited; instances of the
+ * providers seen once all the slots have been assigned are stored in a map.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
@@ -132,6 +141,11 @@ public class RequestScope implements Scope {
 
     private static final ExtendedLogger logger = new ExtendedLogger(Logger.getLogger(RequestScope.class.getName()), Level.FINEST);
 
+    /**
+     * Maximum number of slots assigned to the request-scoped providers.
+     */
+    private static final int MAX_SLOTS = 256;
+
     public static class Module extends AbstractModule {
 
         @Override
@@ -145,6 +159,10 @@ public class RequestScope implements Scope {
      * A thread local copy of the current scope instance.
      */
     private final ThreadLocal<Instance> currentScopeInstance = new ThreadLocal<Instance>();
+    /**
+     * Slots assigned to the request-scoped providers.
+     */
+    private final ConcurrentMap<Provider<?>, Integer> slots = new ConcurrentHashMap<Provider<?>, Integer>();
 
     @Override
     public ScopeInstance current() {
@@ -197,7 +215,42 @@ public class RequestScope implements Scope {
      * @return New suspended request scope instance.
      */
     public Instance createInstance() {
-        return new Instance();
+        return new Instance(this);
+    }
+
+    /**
+     * Get the slot assigned to the provider.
+     *
+     * @param provider request-scoped provider.
+     * @return assigned slot or {@code -1} if no slot has been assigned to the provider yet.
+     */
+    private int getSlot(final Provider<?> provider) {
+        final Integer slot = slots.get(provider);
+        return (slot == null) ? -1 : slot;
+    }
+
+    /**
+     * Get the slot assigned to the provider, assigning a new slot if necessary.
+     *
+     * @param provider request-scoped provider.
+     * @return slot assigned to the provider or {@code -1} if all the slots have already been assigned.
+     */
+    private int assignSlot(final Provider<?> provider) {
+        final Integer slot = slots.get(provider);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (slots) {
+            Integer newSlot = slots.get(provider);
+            if (newSlot == null) {
+                if (slots.size() >= MAX_SLOTS) {
+                    return -1;
+                }
+                newSlot = slots.size();
+                slots.put(provider, newSlot);
+            }
+            return newSlot;
+        }
     }
 
     /**
@@ -372,69 +425,142 @@ public class RequestScope implements Scope {
      * Implementation of the request scope instance.
      */
     public static final class Instance implements ScopeInstance {
+
+        private static final Object[] EMPTY = new Object[0];
+        /**
+         * Stored in the slot of a provider seeded with a {@code null} instance.
+         */
+        private static final Object NULL = new Object();
+        private static final AtomicIntegerFieldUpdater<Instance> REFERENCE_COUNTER_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Instance.class, "referenceCounter");
+
+        /**
+         * Request scope this instance belongs to.
+         */
+        private final RequestScope scope;
         /*
          * Scope instance UUID.
          *
          * For performance reasons, it's only generated if toString() method is invoked,
          * e.g. as part of some low-level logging.
          */
-
-        private final LazyUid id = new LazyUid();
+        private volatile String id;
+        /**
+         * Injectable instances in this scope indexed by the slots of their providers.
+         * <p>
+         * The scope instance may be passed between threads, so the array is re-assigned after
+         * every modification to publish the stored instances to the threads reading the array.
+         * </p>
+         */
+        private volatile Object[] store;
         /**
-         * A map of injectable instances in this scope.
+         * Injectable instances of the providers without a slot. Created lazily, guarded by this instance.
          */
-        private final Map<Provider<?>, Object> store;
+        private Map<Provider<?>, Object> overflow;
         /**
          * Holds the number of snapshots of this scope.
          */
-        private final AtomicInteger referenceCounter;
+        private volatile int referenceCounter;
 
-        private Instance() {
-            this.store = new HashMap<Provider<?>, Object>();
-            this.referenceCounter = new AtomicInteger(1);
+        private Instance(final RequestScope scope) {
+            this.scope = scope;
+            final int size = scope.slots.size();
+            this.store = (size == 0) ? EMPTY : new Object[size];
+            this.referenceCounter = 1;
         }
 
         private Instance getReference() {
             // TODO: replace counter with a phantom reference + reference queue-based solution
-            referenceCounter.incrementAndGet();
+            REFERENCE_COUNTER_UPDATER.incrementAndGet(this);
             return this;
         }
 
         @Override
         @SuppressWarnings("unchecked")
         public <T> T get(Provider<T> inhabitant) {
-            return (T) store.get(inhabitant);
+            final int slot = scope.getSlot(inhabitant);
+            if (slot < 0) {
+                synchronized (this) {
+                    return (overflow == null) ? null : (T) overflow.get(inhabitant);
+                }
+            }
+            final Object[] values = store;
+            final Object value = (slot < values.length) ? values[slot] : null;
+            return (value == NULL) ? null : (T) value;
         }
 
         @Override
         @SuppressWarnings("unchecked")
-        public <T> T put(Provider<T> inhabitant, T value) {
-            checkState(!store.containsKey(inhabitant), "An instance for the provider %s was "
-                    + "already seeded in this scope. Old instance: %s New instance: %s", inhabitant, store.get(inhabitant), value);
+        public synchronized <T> T put(Provider<T> inhabitant, T value) {
+            checkState(!contains(inhabitant), "An instance for the provider %s was "
+                    + "already seeded in this scope. Old instance: %s New instance: %s", inhabitant, get(inhabitant), value);
+
+            final int slot = scope.assignSlot(inhabitant);
+            if (slot < 0) {
+                if (overflow == null) {
+                    overflow = new HashMap<Provider<?>, Object>();
+                }
+                overflow.put(inhabitant, value);
+                return null;
+            }
 
-            return (T) store.put(inhabitant, value);
+            Object[] values = store;
+            if (slot >= values.length) {
+                values = Arrays.copyOf(values, Math.max(slot + 1, scope.slots.size()));
+            }
+            values[slot] = (value == null) ? NULL : value;
+            store = values;
+            return null;
         }
 
         @Override
         public <T> boolean contains(Provider<T> provider) {
-            return store.containsKey(provider);
+            final int slot = scope.getSlot(provider);
+            if (slot < 0) {
+                synchronized (this) {
+                    return overflow != null && overflow.containsKey(provider);
+                }
+            }
+            final Object[] values = store;
+            return slot < values.length && values[slot] != null;
         }
 
         @Override
         public void release() {
-            if (referenceCounter.decrementAndGet() < 1) {
+            if (REFERENCE_COUNTER_UPDATER.decrementAndGet(this) < 1) {
                 try {
-                    store.clear();
+                    synchronized (this) {
+                        store = EMPTY;
+                        overflow = null;
+                    }
                 } finally {
                     logger.debugLog("Released scope instance {0}", this);
                 }
             }
         }
 
+        private String id() {
+            if (id == null) {
+                id = UUID.randomUUID().toString();
+            }
+            return id;
+        }
+
         @Override
         public String toString() {
-            return Objects.toStringHelper(this).add("id", id.value()).add("referenceCounter", referenceCounter.get())
-                    .add("store size", store.size()).toString();
+            int size = 0;
+            for (Object value : store) {
+                if (value != null) {
+                    size++;
+                }
+            }
+            synchronized (this) {
+                if (overflow != null) {
+                    size += overflow.size();
+                }
+            }
+            return Objects.toStringHelper(this).add("id", id()).add("referenceCounter", referenceCounter)
+                    .add("store size", size).toString();
         }
     }
 }
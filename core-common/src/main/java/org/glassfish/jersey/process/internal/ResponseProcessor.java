@@ -129,7 +129,8 @@ public abstract class ResponseProcessor<DATA> implements Runnable {
          *
          * @param inflectedResponse inflected response data future.
          * @param processedResponse settable future that will be used to set the response
-         *                          processing result.
+         *                          processing result, may be {@code null} if the result
+         *                          is reported only to the invocation callback.
          * @param callback          the invocation callback to be invoked once the
          *                          response processing has finished.
          * @param scopeInstance     the instance of the request scope this processor
@@ -158,7 +159,8 @@ public abstract class ResponseProcessor<DATA> implements Runnable {
      *                                 response processing has finished.
      * @param inflectedResponse        inflected response data future.
      * @param processedResponse        settable future that will be used to set the response
-     *                                 processing result.
+     *                                 processing result, may be {@code null} if the result
+     *                                 is reported only to the invocation callback.
      * @param respondingCtxProvider    responding context provider.
      * @param scopeInstance            the instance of the request scope this processor
      *                                 belongs to.
@@ -191,7 +193,9 @@ public abstract class ResponseProcessor<DATA> implements Runnable {
                 public void run() {
                     if (inflectedResponse.isCancelled()) {
                         // the request processing has been cancelled; just cancel this future & return
-                        processedResponse.cancel(true);
+                        if (processedResponse != null) {
+                            processedResponse.cancel(true);
+                        }
                         return;
                     }
 
@@ -296,7 +300,9 @@ public abstract class ResponseProcessor<DATA> implements Runnable {
 
     private void setResult(DATA response) {
         try {
-            processedResponse.set(response);
+            if (processedResponse != null) {
+                processedResponse.set(response);
+            }
         } finally {
             notifyCallback(response);
         }
@@ -304,7 +310,9 @@ public abstract class ResponseProcessor<DATA> implements Runnable {
 
     private void setResult(Throwable exception) {
         try {
-            processedResponse.setException(exception);
+            if (processedResponse != null) {
+                processedResponse.setException(exception);
+            }
         } finally {
             notifyCallback(exception);
         }
@@ -0,0 +1,150 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.glassfish.jersey.internal.ServiceFinder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+/**
+ * {@link ServiceFinder} provider class name caching unit test.
+ */
+public class ServiceFinderTest {
+
+    private File root;
+    private File services;
+    private ClassLoader loader;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDir();
+        services = new File(root, "META-INF/services/" + TestContract.class.getName());
+        Files.createParentDirs(services);
+        loader = new URLClassLoader(new URL[] {root.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    @After
+    public void tearDown() {
+        ServiceFinder.clearCache();
+        services.delete();
+        services.getParentFile().delete();
+        services.getParentFile().getParentFile().delete();
+        root.delete();
+    }
+
+    @Test
+    public void testCachedUntilCleared() throws IOException {
+        Files.write(TestServiceB.class.getName() + "\n", services, Charsets.UTF_8);
+        Set<String> names = find();
+        assertTrue(names.contains(TestServiceA.class.getName()));
+        assertTrue(names.contains(TestServiceB.class.getName()));
+        assertFalse(names.contains(TestServiceD.class.getName()));
+
+        Files.append(TestServiceD.class.getName() + "\n", services, Charsets.UTF_8);
+        assertFalse(find().contains(TestServiceD.class.getName()));
+
+        ServiceFinder.clearCache();
+        names = find();
+        assertTrue(names.contains(TestServiceB.class.getName()));
+        assertTrue(names.contains(TestServiceD.class.getName()));
+    }
+
+    @Test
+    public void testCachedPerClassLoader() throws IOException {
+        Files.write(TestServiceB.class.getName() + "\n", services, Charsets.UTF_8);
+        assertTrue(find().contains(TestServiceB.class.getName()));
+
+        final Set<String> names = new HashSet<String>();
+        for (TestContract provider : ServiceFinder.find(TestContract.class, getClass().getClassLoader())) {
+            names.add(provider.name());
+        }
+        assertTrue(names.contains(TestServiceA.class.getName()));
+        assertFalse(names.contains(TestServiceB.class.getName()));
+    }
+
+    @Test
+    public void testPreloaded() throws IOException {
+        Files.write(TestServiceB.class.getName() + "\n", services, Charsets.UTF_8);
+        ServiceFinder.preload(loader, TestContract.class, Runnable.class);
+
+        Files.append(TestServiceD.class.getName() + "\n", services, Charsets.UTF_8);
+        final Set<String> names = find();
+        assertTrue(names.contains(TestServiceB.class.getName()));
+        assertFalse(names.contains(TestServiceD.class.getName()));
+    }
+
+    @Test
+    public void testClassLoaderNotRetained() throws Exception {
+        Files.write(TestServiceB.class.getName() + "\n", services, Charsets.UTF_8);
+        assertTrue(find().contains(TestServiceB.class.getName()));
+
+        final WeakReference<ClassLoader> reference = new WeakReference<ClassLoader>(loader);
+        loader = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(reference.get());
+    }
+
+    private Set<String> find() {
+        final Set<String> names = new HashSet<String>();
+        for (TestContract provider : ServiceFinder.find(TestContract.class, loader)) {
+            names.add(provider.name());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link GZipEncoder} and {@link DeflateEncoder} stream encoding and decoding.
+ */
+public class ContentEncoderTest {
+
+    private static byte[] entity(final int size) {
+        final byte[] data = new byte[size];
+        final Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            // compressible, but not trivially
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    private static byte[] encode(final ContentEncoder encoder, final String encoding, final byte[] data)
+            throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStream encoded = encoder.encode(encoding, out);
+        encoded.write(data, 0, data.length / 2);
+        encoded.write(data, data.length / 2, data.length - data.length / 2);
+        encoder.finish(encoded);
+        // finishing is idempotent
+        encoder.finish(encoded);
+        return out.toByteArray();
+    }
+
+    private static byte[] readFully(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1000];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSupportedEncodings() {
+        final GZipEncoder gzip = new GZipEncoder();
+        assertEquals("gzip", gzip.getSupportedEncodings().get(0));
+        assertTrue(gzip.supports("X-GZIP"));
+        assertFalse(gzip.supports("deflate"));
+        assertTrue(new DeflateEncoder().supports("deflate"));
+    }
+
+    @Test
+    public void testGZipCompatibleWithJdk() throws IOException {
+        final GZipEncoder encoder = new GZipEncoder();
+        for (int size : new int[] {0, 1, 1000, 100000}) {
+            final byte[] data = entity(size);
+
+            final byte[] encoded = encode(encoder, "gzip", data);
+            assertArrayEquals(data, readFully(new GZIPInputStream(new ByteArrayInputStream(encoded))));
+
+            final ByteArrayOutputStream jdk = new ByteArrayOutputStream();
+            final GZIPOutputStream gzipOut = new GZIPOutputStream(jdk);
+            gzipOut.write(data);
+            gzipOut.close();
+            assertArrayEquals(data, readFully(encoder.decode("gzip", new ByteArrayInputStream(jdk.toByteArray()))));
+        }
+    }
+
+    @Test
+    public void testGZipEmptyEntity() throws IOException {
+        final InputStream decoded = new GZipEncoder().decode("gzip", new ByteArrayInputStream(new byte[0]));
+        assertEquals(-1, decoded.read());
+    }
+
+    @Test(expected = ZipException.class)
+    public void testGZipCorruptTrailer() throws IOException {
+        final byte[] encoded = encode(new GZipEncoder(), "gzip", entity(1000));
+        encoded[encoded.length - 5]++;
+        readFully(new GZipEncoder().decode("gzip", new ByteArrayInputStream(encoded)));
+    }
+
+    @Test
+    public void testDeflateCompatibleWithJdk() throws IOException {
+        final DeflateEncoder encoder = new DeflateEncoder();
+        final byte[] data = entity(50000);
+
+        final byte[] encoded = encode(encoder, "deflate", data);
+        assertArrayEquals(data, readFully(new InflaterInputStream(new ByteArrayInputStream(encoded))));
+        assertArrayEquals(data, readFully(encoder.decode("deflate", new ByteArrayInputStream(encoded))));
+    }
+
+    @Test
+    public void testDeflateAcceptsRawData() throws IOException {
+        final byte[] data = entity(50000);
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final DeflaterOutputStream out = new DeflaterOutputStream(raw, deflater);
+        out.write(data);
+        out.close();
+        deflater.end();
+
+        assertArrayEquals(data, readFully(new DeflateEncoder().decode("deflate", new ByteArrayInputStream(raw.toByteArray()))));
+    }
+
+    @Test
+    public void testEncoderReuse() throws IOException {
+        // deflaters and inflaters are pooled, the results must not be affected by the previous use
+        final GZipEncoder encoder = new GZipEncoder();
+        final byte[] first = encode(encoder, "gzip", entity(10000));
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(first, encode(encoder, "gzip", entity(10000)));
+            assertArrayEquals(entity(10000), readFully(encoder.decode("gzip", new ByteArrayInputStream(first))));
+        }
+    }
+}
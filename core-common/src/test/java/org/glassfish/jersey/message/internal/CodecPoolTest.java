@@ -0,0 +1,129 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the {@link CodecPool} bounds.
+ */
+public class CodecPoolTest {
+
+    @Test
+    public void testDeflaterReuse() {
+        final CodecPool pool = new CodecPool(Deflater.BEST_SPEED, true, 1);
+        final Deflater first = pool.acquireDeflater();
+        final Deflater second = pool.acquireDeflater();
+        assertNotSame(first, second);
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getPooledDeflaters());
+
+        assertSame(first, pool.acquireDeflater());
+        assertEquals(0, pool.getPooledDeflaters());
+    }
+
+    @Test
+    public void testInflaterReuse() {
+        final CodecPool pool = new CodecPool(Deflater.BEST_SPEED, false, 2);
+        final Inflater inflater = pool.acquireInflater();
+        pool.release(inflater);
+        assertEquals(1, pool.getPooledInflaters());
+        assertSame(inflater, pool.acquireInflater());
+    }
+
+    @Test
+    public void testFinishedStreamReturnsDeflater() throws IOException {
+        final CodecPool pool = new CodecPool(Deflater.BEST_SPEED, true, 1);
+        final PooledDeflaterOutputStream out = new PooledDeflaterOutputStream(new ByteArrayOutputStream(), pool, true);
+        out.write(new byte[100]);
+        out.finish();
+        assertEquals(1, pool.getPooledDeflaters());
+    }
+
+    @Test
+    public void testAbortedStreamEndsDeflater() throws IOException {
+        final CodecPool pool = new CodecPool(Deflater.BEST_SPEED, true, 1);
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        final PooledDeflaterOutputStream out = new PooledDeflaterOutputStream(entity, pool, true);
+        out.write(new byte[100]);
+        final int written = entity.size();
+        out.abort();
+        out.close();
+
+        assertEquals(0, pool.getPooledDeflaters());
+        assertEquals(written, entity.size());
+        try {
+            out.write(new byte[1]);
+            fail("IOException expected.");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFailedFinishEndsDeflater() throws IOException {
+        final CodecPool pool = new CodecPool(Deflater.BEST_SPEED, true, 1);
+        final PooledDeflaterOutputStream out = new PooledDeflaterOutputStream(new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("broken connection");
+            }
+        }, pool, false);
+        try {
+            out.finish();
+            fail("IOException expected.");
+        } catch (IOException expected) {
+            // expected
+        }
+        assertEquals(0, pool.getPooledDeflaters());
+    }
+}
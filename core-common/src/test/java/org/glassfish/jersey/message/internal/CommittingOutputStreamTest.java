@@ -0,0 +1,175 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link CommittingOutputStream} unit tests.
+ */
+public class CommittingOutputStreamTest {
+
+    private ByteArrayOutputStream output;
+    private CommittingOutputStream stream;
+    private long committedLength;
+    private int commits;
+
+    @Before
+    public void setUp() {
+        output = new ByteArrayOutputStream();
+        committedLength = Long.MIN_VALUE;
+        commits = 0;
+
+        stream = new CommittingOutputStream();
+        stream.setStreamProvider(new OutboundMessageContext.StreamProvider() {
+            @Override
+            public OutputStream getOutputStream() throws IOException {
+                return output;
+            }
+
+            @Override
+            public void commit(long contentLength) throws IOException {
+                committedLength = contentLength;
+                commits++;
+            }
+        });
+    }
+
+    @Test
+    public void testNoBufferingCommitsOnFirstWrite() throws IOException {
+        stream.write('a');
+
+        assertTrue(stream.isCommitted());
+        assertEquals(-1, committedLength);
+        assertEquals(1, output.size());
+    }
+
+    @Test
+    public void testBufferedEntityCommittedWithLength() throws IOException {
+        stream.enableBuffering(16);
+        stream.write(new byte[] {1, 2, 3});
+        stream.write(4);
+
+        assertFalse(stream.isCommitted());
+        assertEquals(0, output.size());
+
+        stream.commit();
+        stream.commit();
+
+        assertTrue(stream.isCommitted());
+        assertEquals(1, commits);
+        assertEquals(4, committedLength);
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, output.toByteArray());
+    }
+
+    @Test
+    public void testBufferedEntityCommittedOnClose() throws IOException {
+        stream.enableBuffering(16);
+        stream.write(new byte[16]);
+        stream.close();
+
+        assertEquals(16, committedLength);
+        assertEquals(16, output.size());
+    }
+
+    @Test
+    public void testBufferOverflowFallsBackToStreaming() throws IOException {
+        stream.enableBuffering(4);
+        stream.write(new byte[] {1, 2, 3});
+        stream.write(new byte[] {4, 5});
+
+        assertTrue(stream.isCommitted());
+        assertEquals(-1, committedLength);
+
+        stream.write(6);
+        stream.commit();
+
+        assertEquals(1, commits);
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6}, output.toByteArray());
+    }
+
+    @Test
+    public void testFlushCommitsBufferedData() throws IOException {
+        stream.enableBuffering(16);
+        stream.write(new byte[] {1, 2});
+        stream.flush();
+
+        assertTrue(stream.isCommitted());
+        assertEquals(-1, committedLength);
+        assertArrayEquals(new byte[] {1, 2}, output.toByteArray());
+
+        stream.write(3);
+        stream.close();
+
+        assertEquals(1, commits);
+        assertArrayEquals(new byte[] {1, 2, 3}, output.toByteArray());
+    }
+
+    @Test
+    public void testCompletedEntityCommittedWithLength() throws IOException {
+        stream.enableBuffering(16);
+        final OutputStream entityStream = new BufferedOutputStream(stream);
+        entityStream.write(new byte[] {1, 2, 3});
+        stream.complete(entityStream);
+
+        assertEquals(1, commits);
+        assertEquals(3, committedLength);
+        assertArrayEquals(new byte[] {1, 2, 3}, output.toByteArray());
+    }
+
+    @Test
+    public void testEmptyBufferedEntity() throws IOException {
+        stream.enableBuffering(4);
+        stream.commit();
+
+        assertEquals(0, committedLength);
+        assertEquals(0, output.size());
+    }
+}
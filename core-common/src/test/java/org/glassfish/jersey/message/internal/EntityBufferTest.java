@@ -0,0 +1,205 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.glassfish.jersey.message.MessageProperties;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link EntityBuffer} unit tests.
+ */
+public class EntityBufferTest {
+
+    /**
+     * Input stream generating {@code length} bytes of a repeating pattern.
+     */
+    private static class PatternInputStream extends InputStream {
+
+        private final long length;
+        private long position = 0;
+
+        private PatternInputStream(long length) {
+            this.length = length;
+        }
+
+        private static int valueAt(long position) {
+            return (int) (position % 251);
+        }
+
+        @Override
+        public int read() {
+            return position < length ? valueAt(position++) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= length) {
+                return -1;
+            }
+            final int n = (int) Math.min(len, length - position);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) valueAt(position++);
+            }
+            return n;
+        }
+    }
+
+    private static void assertPattern(InputStream in, long length) throws IOException {
+        final byte[] data = new byte[64 * 1024];
+        long position = 0;
+        int read;
+        while ((read = in.read(data)) != -1) {
+            for (int i = 0; i < read; i++) {
+                if ((data[i] & 0xFF) != PatternInputStream.valueAt(position + i)) {
+                    fail("Unexpected value at position " + (position + i));
+                }
+            }
+            position += read;
+        }
+        assertEquals(length, position);
+    }
+
+    @Test
+    public void testHeapBufferedEntity() throws IOException {
+        final EntityBuffer buffer = new EntityBuffer(100000);
+        buffer.readFrom(new PatternInputStream(20000));
+
+        assertFalse(buffer.isSpilled());
+        assertEquals(20000, buffer.size());
+        assertPattern(buffer, 20000);
+        buffer.close();
+        buffer.reset();
+        assertPattern(buffer, 20000);
+        buffer.release();
+    }
+
+    @Test
+    public void testSpilledEntity() throws IOException {
+        final int length = 5 * EntityBuffer.CHUNK_SIZE + 123;
+        final EntityBuffer buffer = new EntityBuffer(EntityBuffer.CHUNK_SIZE + 10);
+        buffer.readFrom(new PatternInputStream(length));
+
+        assertTrue(buffer.isSpilled());
+        assertEquals(length, buffer.size());
+        assertEquals(length, buffer.available());
+        assertPattern(buffer, length);
+
+        // single byte reads across the heap and file boundary
+        buffer.reset();
+        assertEquals(EntityBuffer.CHUNK_SIZE, buffer.skip(EntityBuffer.CHUNK_SIZE));
+        for (long i = EntityBuffer.CHUNK_SIZE; i < 3 * EntityBuffer.CHUNK_SIZE; i++) {
+            assertEquals(PatternInputStream.valueAt(i), buffer.read());
+        }
+
+        buffer.mark(0);
+        final byte[] data = new byte[100];
+        assertEquals(100, buffer.read(data));
+        buffer.reset();
+        assertEquals(PatternInputStream.valueAt(3 * EntityBuffer.CHUNK_SIZE), buffer.read());
+        buffer.release();
+    }
+
+    @Test
+    public void testFileOnlyEntity() throws IOException {
+        final EntityBuffer buffer = new EntityBuffer(0);
+        buffer.readFrom(new PatternInputStream(1000));
+
+        assertTrue(buffer.isSpilled());
+        assertPattern(buffer, 1000);
+        buffer.release();
+    }
+
+    @Test
+    public void testRelease() throws IOException {
+        final EntityBuffer buffer = new EntityBuffer(4 * EntityBuffer.CHUNK_SIZE);
+        buffer.readFrom(new PatternInputStream(10 * EntityBuffer.CHUNK_SIZE));
+        final int pooled = EntityBuffer.getPooledChunks();
+        buffer.release();
+        buffer.release();
+
+        assertTrue(EntityBuffer.getPooledChunks() >= Math.min(pooled + 4, EntityBuffer.MAX_POOLED_CHUNKS));
+        try {
+            buffer.read();
+            fail("Released buffer must not be readable.");
+        } catch (IOException expected) {
+            // ok
+        }
+    }
+
+    /**
+     * Buffers an entity larger than the default heap threshold and reads the buffered entity twice.
+     */
+    @Test
+    public void testBufferSpilledEntity() throws IOException {
+        final long length = 2L * MessageProperties.ENTITY_BUFFERING_DEFAULT_THRESHOLD + 123;
+
+        final InboundMessageContext context = new InboundMessageContext();
+        context.setEntityStream(new PatternInputStream(length));
+        assertTrue(context.bufferEntity());
+
+        assertPattern(context.getEntityStream(), length);
+        context.getEntityStream().reset();
+        assertPattern(context.getEntityStream(), length);
+        context.close();
+    }
+
+    @Test
+    public void testReleaseBufferedEntity() throws IOException {
+        final InboundMessageContext context = new InboundMessageContext();
+        final InputStream entityStream = new PatternInputStream(100);
+        context.setEntityStream(entityStream);
+        context.releaseBufferedEntity();
+        assertSame(entityStream, context.getEntityStream());
+
+        assertTrue(context.bufferEntity());
+        context.releaseBufferedEntity();
+        assertNull(context.getEntityStream());
+    }
+}
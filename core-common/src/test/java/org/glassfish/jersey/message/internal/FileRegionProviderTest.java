@@ -0,0 +1,145 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link FileRegionProvider} and {@link ReaderWriter#writeTo(File, long, long, OutputStream)} unit tests.
+ */
+public class FileRegionProviderTest {
+
+    private static final int LENGTH = 3 * ReaderWriter.BUFFER_SIZE + 17;
+
+    private static File file;
+    private static byte[] content;
+
+    @BeforeClass
+    public static void createFile() throws IOException {
+        content = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            content[i] = (byte) i;
+        }
+        file = File.createTempFile("region", ".bin");
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    @AfterClass
+    public static void deleteFile() {
+        file.delete();
+    }
+
+    private static byte[] write(final FileRegion region, final OutputStream out) throws IOException {
+        final FileRegionProvider provider = new FileRegionProvider();
+        assertEquals(region.getCount(), provider.getSize(region, FileRegion.class, FileRegion.class, null, null));
+        provider.writeTo(region, FileRegion.class, FileRegion.class, null, MediaType.APPLICATION_OCTET_STREAM_TYPE, null, out);
+        return Arrays.copyOfRange(content, (int) region.getPosition(), (int) (region.getPosition() + region.getCount()));
+    }
+
+    @Test
+    public void testStreamCopy() throws IOException {
+        for (FileRegion region : new FileRegion[] {
+                new FileRegion(file, 0, LENGTH),
+                new FileRegion(file, 10, 20),
+                new FileRegion(file, ReaderWriter.BUFFER_SIZE - 1, ReaderWriter.BUFFER_SIZE + 2),
+                new FileRegion(file, LENGTH, 0)}) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertArrayEquals(region.toString(), write(region, out), out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testFileTransfer() throws IOException {
+        final FileRegion region = new FileRegion(file, 100, 200);
+        final TransferringOutputStream out = new TransferringOutputStream(true);
+        write(region, out);
+        assertSame(file, out.file);
+        assertEquals(100, out.position);
+        assertEquals(200, out.count);
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testFileTransferDeclined() throws IOException {
+        final FileRegion region = new FileRegion(file, 100, 200);
+        final TransferringOutputStream out = new TransferringOutputStream(false);
+        assertArrayEquals(write(region, out), out.toByteArray());
+        assertSame(file, out.file);
+    }
+
+    private static class TransferringOutputStream extends ByteArrayOutputStream implements FileTransferOutput {
+
+        private final boolean accept;
+        private File file;
+        private long position;
+        private long count;
+
+        private TransferringOutputStream(final boolean accept) {
+            this.accept = accept;
+        }
+
+        @Override
+        public boolean transferFile(final File file, final long position, final long count) {
+            this.file = file;
+            this.position = position;
+            this.count = count;
+            return accept;
+        }
+    }
+}
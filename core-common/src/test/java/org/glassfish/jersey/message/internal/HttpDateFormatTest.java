@@ -0,0 +1,172 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link HttpDateFormat} unit tests verifying that the hand-written date parser and formatter
+ * produce the same results as the HTTP {@link HttpDateFormat#getDateFormats() date formats}.
+ */
+public class HttpDateFormatTest {
+
+    private static final long MIN_TIME = -11676096000000L; // 1600-01-01T00:00:00Z
+    private static final long MAX_TIME = 253402300799999L; // 9999-12-31T23:59:59.999Z
+
+    private static Date readWithDateFormats(String date) throws ParseException {
+        ParseException pe = null;
+        for (SimpleDateFormat f : HttpDateFormat.getDateFormats()) {
+            try {
+                return f.parse(date);
+            } catch (ParseException e) {
+                pe = (pe == null) ? e : pe;
+            }
+        }
+        throw pe;
+    }
+
+    private static void assertSameAsDateFormats(String date) {
+        Date expected;
+        try {
+            expected = readWithDateFormats(date);
+        } catch (ParseException ex) {
+            try {
+                HttpDateFormat.readDate(date);
+                fail("Date '" + date + "' should not be accepted.");
+            } catch (ParseException expectedEx) {
+                return;
+            }
+            return;
+        }
+        try {
+            assertEquals(date, expected, HttpDateFormat.readDate(date));
+        } catch (ParseException ex) {
+            fail("Date '" + date + "' should be accepted.");
+        }
+    }
+
+    private static SimpleDateFormat createRfc1123Format() {
+        final SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format;
+    }
+
+    @Test
+    public void testFormatDate() {
+        final Random random = new Random(42);
+        // the thread-local date formats switch the formatted time zone name after parsing a date in another zone
+        final SimpleDateFormat format = createRfc1123Format();
+        for (int i = 0; i < 10000; i++) {
+            final Date date = new Date(MIN_TIME + (long) (random.nextDouble() * (MAX_TIME - MIN_TIME)));
+            assertEquals(format.format(date), HttpDateFormat.formatDate(date));
+        }
+        for (long time : new long[] {MIN_TIME, MIN_TIME - 1, MAX_TIME, MAX_TIME + 1, 0, -1, Long.MIN_VALUE / 2}) {
+            assertEquals(format.format(new Date(time)), HttpDateFormat.formatDate(new Date(time)));
+        }
+        assertEquals("x=Sun, 06 Nov 1994 08:49:37 GMT",
+                HttpDateFormat.appendDate(new StringBuilder("x="), new Date(784111777000L)).toString());
+    }
+
+    @Test
+    public void testParseCanonicalForms() throws ParseException {
+        final Random random = new Random(42);
+        final long start = HttpDateFormat.getDateFormats().get(1).get2DigitYearStart().getTime();
+        for (int i = 0; i < 3000; i++) {
+            final Date date = new Date((MIN_TIME + (long) (random.nextDouble() * (MAX_TIME - MIN_TIME))) / 1000 * 1000);
+            final String rfc1123 = HttpDateFormat.getDateFormats().get(0).format(date);
+            final String asctime = HttpDateFormat.getDateFormats().get(2).format(date);
+            assertTrue(HttpDateFormat.parse(rfc1123) != Long.MIN_VALUE);
+            assertTrue(HttpDateFormat.parse(asctime) != Long.MIN_VALUE);
+            assertEquals(date, HttpDateFormat.readDate(rfc1123));
+            assertEquals(date, HttpDateFormat.readDate(asctime));
+
+            final Date recent = new Date(start + (long) (random.nextDouble() * 100 * 365 * 86400000L) / 1000 * 1000);
+            assertSameAsDateFormats(HttpDateFormat.getDateFormats().get(1).format(recent));
+        }
+    }
+
+    @Test
+    public void testParseSameAsDateFormats() {
+        final String[] dates = {
+                "Sun, 06 Nov 1994 08:49:37 GMT",
+                "Sunday, 06-Nov-94 08:49:37 GMT",
+                "Sun Nov  6 08:49:37 1994",
+                "Sun Nov 16 08:49:37 1994",
+                "Sun Nov 6 08:49:37 1994",
+                "Sun, 6 Nov 1994 08:49:37 GMT",
+                "Mon, 06 Nov 1994 08:49:37 GMT",
+                "Tue, 29 Jan 2002 22:14:02 -0500",
+                "Tue, 29 Jan 2002 22:14:02 +0130",
+                "Tue, 29 Feb 2000 22:14:02 GMT",
+                "Tue, 29 Feb 2001 22:14:02 GMT",
+                "Tue, 31 Apr 2001 22:14:02 GMT",
+                "Tue, 29 Jan 2002 24:14:02 GMT",
+                "Tue, 29 Jan 2002 22:14:02 PST",
+                "Tue, 29 Jan 2002 22:14:02 UTC",
+                "Tue, 29 Jan 2002 22:14:02 GMT+01:00",
+                "Tue, 29 Jan 2002 22:14:02 GMT trailing",
+                "tue, 29 jan 2002 22:14:02 gmt",
+                "Tue, 29 Jan 02 22:14:02 GMT",
+                "Tue, 29 Jan 1500 22:14:02 GMT",
+                "Tuesday, 29-Jan-2002 22:14:02 GMT",
+                "Tuesday, 29-Jan-02 22:14:02 -0500",
+                "Tue Jan 29 22:14:02 2002 GMT",
+                "Tue,29 Jan 2002 22:14:02 GMT",
+                "Tue, 29 Jan 2002 22:14 GMT",
+                "Tue, 29 Jan 2002",
+                "Tue",
+                "",
+                "not a date"
+        };
+        for (String date : dates) {
+            assertSameAsDateFormats(date);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.ValidationEvent;
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.validation.SchemaFactory;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link JaxbContextRegistry} context caching and marshaller pooling.
+ */
+public class JaxbContextRegistryTest {
+
+    @XmlRootElement
+    public static class Bean {
+
+        public String value = "a";
+    }
+
+    @XmlRootElement
+    public static class OtherBean {
+
+        public String value = "b";
+    }
+
+    @Test
+    public void testContextCreatedOnce() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final Callable<JAXBContext> lookup = new Callable<JAXBContext>() {
+
+                @Override
+                public JAXBContext call() throws Exception {
+                    return JaxbContextRegistry.getContext(OtherBean.class);
+                }
+            };
+            final Future<?>[] results = new Future<?>[16];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(lookup);
+            }
+            for (Future<?> result : results) {
+                assertSame(JaxbContextRegistry.getContext(OtherBean.class), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMarshallerReset() throws Exception {
+        final JAXBContext context = JAXBContext.newInstance(Bean.class);
+        final Marshaller m = JaxbContextRegistry.acquireMarshaller(context);
+        m.setProperty(Marshaller.JAXB_ENCODING, "ISO-8859-1");
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        JaxbContextRegistry.release(m);
+        assertEquals(1, JaxbContextRegistry.getPooledMarshallers(context));
+
+        assertSame(m, JaxbContextRegistry.acquireMarshaller(context));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.marshal(new Bean(), out);
+        final String xml = out.toString("UTF-8");
+        assertTrue(xml, xml.startsWith("<?xml"));
+        assertTrue(xml, xml.contains("UTF-8"));
+    }
+
+    @Test
+    public void testUnmarshallerReset() throws Exception {
+        final JAXBContext context = JAXBContext.newInstance(Bean.class);
+        final Unmarshaller u = JaxbContextRegistry.acquireUnmarshaller(context);
+        final ValidationEventHandler handler = new ValidationEventHandler() {
+            @Override
+            public boolean handleEvent(ValidationEvent event) {
+                return false;
+            }
+        };
+        u.setEventHandler(handler);
+        u.setSchema(SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema());
+        u.setListener(new Unmarshaller.Listener() {
+        });
+        JaxbContextRegistry.release(u);
+        assertEquals(1, JaxbContextRegistry.getPooledUnmarshallers(context));
+
+        assertSame(u, JaxbContextRegistry.acquireUnmarshaller(context));
+        assertNotSame(handler, u.getEventHandler());
+        assertNull(u.getSchema());
+        assertNull(u.getListener());
+    }
+
+    @Test
+    public void testDiscardedMarshallerNotPooled() throws Exception {
+        final JAXBContext context = JAXBContext.newInstance(Bean.class);
+        final Marshaller m = JaxbContextRegistry.acquireMarshaller(context);
+        JaxbContextRegistry.discard(m);
+        JaxbContextRegistry.release(m);
+        assertEquals(0, JaxbContextRegistry.getPooledMarshallers(context));
+        assertNotSame(m, JaxbContextRegistry.acquireMarshaller(context));
+    }
+
+    @Test
+    public void testForeignInstancesNotPooled() throws Exception {
+        final JAXBContext context = JAXBContext.newInstance(Bean.class);
+        JaxbContextRegistry.release(context.createMarshaller());
+        JaxbContextRegistry.release(context.createUnmarshaller());
+        assertEquals(0, JaxbContextRegistry.getPooledMarshallers(context));
+        assertEquals(0, JaxbContextRegistry.getPooledUnmarshallers(context));
+    }
+
+    @Test
+    public void testUnmarshallerReuse() throws Exception {
+        final JAXBContext context = JAXBContext.newInstance(Bean.class);
+        final Unmarshaller first = JaxbContextRegistry.acquireUnmarshaller(context);
+        final Unmarshaller second = JaxbContextRegistry.acquireUnmarshaller(context);
+        assertNotSame(first, second);
+
+        JaxbContextRegistry.release(first);
+        JaxbContextRegistry.release(second);
+        assertEquals(2, JaxbContextRegistry.getPooledUnmarshallers(context));
+
+        final Unmarshaller u = JaxbContextRegistry.acquireUnmarshaller(context);
+        assertTrue(u == first || u == second);
+        assertFalse(JaxbContextRegistry.getPooledUnmarshallers(context) == 2);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.jersey.internal.inject.AbstractModule;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the message body worker selection caching in {@link MessageBodyFactory}.
+ */
+public class MessageBodyFactoryTest {
+
+    @Produces("text/plain")
+    public static class CountingWriter implements MessageBodyWriter<Integer> {
+
+        final AtomicInteger isWriteableCalls = new AtomicInteger();
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            isWriteableCalls.incrementAndGet();
+            return type == Integer.class;
+        }
+
+        @Override
+        public long getSize(Integer i, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Integer i, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            entityStream.write(i.toString().getBytes());
+        }
+    }
+
+    private CountingWriter writer;
+    private MessageBodyFactory factory;
+
+    @Before
+    public void setUp() {
+        writer = new CountingWriter();
+        factory = new MessageBodyFactory(SaxParserFactoryInjectionProviderTest.createServices(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(MessageBodyWriter.class).toInstance(writer);
+            }
+        }));
+    }
+
+    @Test
+    public void testWriterSelectionCached() {
+        final MessageBodyWriter<Integer> selected =
+                factory.getMessageBodyWriter(Integer.class, Integer.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE);
+        assertSame(writer, selected);
+        final int calls = writer.isWriteableCalls.get();
+
+        assertSame(writer, factory.getMessageBodyWriter(Integer.class, Integer.class, new Annotation[0],
+                MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(calls, writer.isWriteableCalls.get());
+    }
+
+    @Test
+    public void testWriterSelectionCachedForAnnotationArrayCopy() {
+        final Annotation[] annotations = CountingWriter.class.getAnnotations();
+        assertSame(writer, factory.getMessageBodyWriter(Integer.class, Integer.class, annotations,
+                MediaType.TEXT_PLAIN_TYPE));
+        final int calls = writer.isWriteableCalls.get();
+
+        assertSame(writer, factory.getMessageBodyWriter(Integer.class, Integer.class, annotations.clone(),
+                MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(calls, writer.isWriteableCalls.get());
+    }
+
+    @Test
+    public void testNegativeResultCached() {
+        assertNull(factory.getMessageBodyWriter(CountingWriter.class, CountingWriter.class, new Annotation[0],
+                MediaType.TEXT_PLAIN_TYPE));
+        final int calls = writer.isWriteableCalls.get();
+
+        assertNull(factory.getMessageBodyWriter(CountingWriter.class, CountingWriter.class, new Annotation[0],
+                MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(calls, writer.isWriteableCalls.get());
+    }
+
+    @Test
+    public void testMediaTypeParametersNotCached() {
+        final MediaType multipart = MediaType.valueOf("text/plain;boundary=12345");
+        factory.getMessageBodyWriter(Integer.class, Integer.class, new Annotation[0], multipart);
+        final int calls = writer.isWriteableCalls.get();
+
+        factory.getMessageBodyWriter(Integer.class, Integer.class, new Annotation[0], multipart);
+        assertEquals(2 * calls, writer.isWriteableCalls.get());
+    }
+}
@@ -39,6 +39,8 @@
  */
 package org.glassfish.jersey.process.internal;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -103,6 +105,11 @@ public class RequestInvokerTest {
         private ProcessingExecutorsFactory executorsFactory;
 
         public RequestInvoker<String, Integer> build(final Stage<String> rootStage) {
+            return build(rootStage, injector.inject(String2IntegerResponseProcessorBuilder.class));
+        }
+
+        public RequestInvoker<String, Integer> build(final Stage<String> rootStage,
+                                                     final ResponseProcessor.Builder<Integer> responseProcessorBuilder) {
             final AsyncInflectorAdapter.Builder<String, Integer> asyncAdapterBuilder = new AsyncInflectorAdapter.Builder<String, Integer>() {
 
                 @Override
@@ -116,7 +123,7 @@ public class RequestInvokerTest {
                     };
                 }
             };
-            return new RequestInvoker<String, Integer>(rootStage, requestScope, asyncAdapterBuilder, injector.inject(String2IntegerResponseProcessorBuilder.class), invocationContextReferenceFactory, executorsFactory);
+            return new RequestInvoker<String, Integer>(rootStage, requestScope, asyncAdapterBuilder, responseProcessorBuilder, invocationContextReferenceFactory, executorsFactory);
         }
     }
 
@@ -205,6 +212,134 @@ public class RequestInvokerTest {
         assertEquals(-1, result.get().intValue());
     }
 
+    @Test
+    public void testDirectExecution() throws Exception {
+        final Services services = init();
+        assertTrue(services.forContract(ProcessingExecutorsFactory.class).get().isDirectExecution());
+
+        final RequestInvoker<String, Integer> invoker = services.forContract(String2IntegerRequestInvokerBuilder.class).get().build(createProcessingRoot());
+        final Thread caller = Thread.currentThread();
+        final Thread[] callbackThread = new Thread[1];
+
+        final Future<Integer> result = invoker.apply("",
+                new AbstractInvocationCallback<Integer>() {
+
+                    @Override
+                    public void result(Integer response) {
+                        callbackThread[0] = Thread.currentThread();
+                    }
+
+                    @Override
+                    public void failure(Throwable exception) {
+                        fail(exception.getMessage());
+                    }
+                });
+
+        // the response has been processed on the caller thread before apply(...) returned
+        assertTrue(result.isDone());
+        assertSame(caller, callbackThread[0]);
+        assertEquals(123, result.get().intValue());
+    }
+
+    @Test
+    public void testDirectExecutionContainsFailures() throws Exception {
+        final Services services = init();
+        final RequestInvoker<String, Integer> invoker = services.forContract(String2IntegerRequestInvokerBuilder.class).get().build(
+                createProcessingRoot(), new ResponseProcessor.Builder<Integer>() {
+
+                    @Override
+                    public ResponseProcessor<Integer> build(Future<Integer> inflectedResponse,
+                                                            SettableFuture<Integer> processedResponse,
+                                                            InvocationCallback<Integer> callback,
+                                                            RequestScope.Instance scopeInstance) {
+                        throw new IllegalStateException("response processor");
+                    }
+                });
+
+        final Throwable[] failure = new Throwable[1];
+        final Future<Integer> result = invoker.apply("",
+                new AbstractInvocationCallback<Integer>() {
+
+                    @Override
+                    public void result(Integer response) {
+                        fail("Unexpected response: " + response);
+                    }
+
+                    @Override
+                    public void failure(Throwable exception) {
+                        failure[0] = exception;
+                    }
+                });
+
+        assertTrue(result.isDone());
+        assertTrue(failure[0] instanceof IllegalStateException);
+        try {
+            result.get();
+            fail("ExecutionException expected.");
+        } catch (ExecutionException ex) {
+            assertSame(failure[0], ex.getCause());
+        }
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        final Services services = init();
+        final RequestInvoker<String, Integer> invoker = services.forContract(String2IntegerRequestInvokerBuilder.class).get().build(createProcessingRoot());
+        final Integer[] response = new Integer[1];
+
+        invoker.submit("",
+                new AbstractInvocationCallback<Integer>() {
+
+                    @Override
+                    public void result(Integer result) {
+                        response[0] = result;
+                    }
+
+                    @Override
+                    public void failure(Throwable exception) {
+                        fail(exception.getMessage());
+                    }
+                });
+
+        // the response has been reported to the callback before submit(...) returned
+        assertEquals(123, response[0].intValue());
+    }
+
+    @Test
+    public void testSubmitContainsFailures() throws Exception {
+        final Services services = init();
+        final RequestInvoker<String, Integer> invoker = services.forContract(String2IntegerRequestInvokerBuilder.class).get().build(
+                createProcessingRoot(), new ResponseProcessor.Builder<Integer>() {
+
+                    @Override
+                    public ResponseProcessor<Integer> build(Future<Integer> inflectedResponse,
+                                                            SettableFuture<Integer> processedResponse,
+                                                            InvocationCallback<Integer> callback,
+                                                            RequestScope.Instance scopeInstance) {
+                        assertNull(processedResponse);
+                        throw new IllegalStateException("response processor");
+                    }
+                });
+
+        final List<Throwable> failures = new ArrayList<Throwable>();
+        invoker.submit("",
+                new AbstractInvocationCallback<Integer>() {
+
+                    @Override
+                    public void result(Integer response) {
+                        fail("Unexpected response: " + response);
+                    }
+
+                    @Override
+                    public void failure(Throwable exception) {
+                        failures.add(exception);
+                    }
+                });
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof IllegalStateException);
+    }
+
     @Test
     public void testWaeThrownInRequestPreProcessingChain() throws Exception {
         final Services services = init();
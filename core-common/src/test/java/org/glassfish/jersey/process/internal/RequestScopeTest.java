@@ -40,7 +40,9 @@
 package org.glassfish.jersey.process.internal;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import org.glassfish.jersey.process.internal.RequestScope.Instance;
@@ -185,6 +187,90 @@ public class RequestScopeTest {
         assertNull(instance.get(inhab));
     }
 
+    @Test
+    public void testSlotsAssignedAfterInstanceCreated() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance instance = requestScope.createInstance();
+        final TestProvider inhabA = new TestProvider("a");
+        final TestProvider inhabB = new TestProvider("b");
+
+        assertNull(instance.get(inhabA));
+        assertFalse(instance.contains(inhabA));
+
+        instance.put(inhabA, "1");
+        final Instance anotherInstance = requestScope.createInstance();
+        anotherInstance.put(inhabB, "2");
+        instance.put(inhabB, "3");
+
+        assertEquals("1", instance.get(inhabA));
+        assertEquals("3", instance.get(inhabB));
+        assertNull(anotherInstance.get(inhabA));
+        assertEquals("2", anotherInstance.get(inhabB));
+        assertTrue(anotherInstance.contains(inhabB));
+
+        instance.release();
+        anotherInstance.release();
+        assertNull(instance.get(inhabA));
+        assertNull(anotherInstance.get(inhabB));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSeedTwice() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance instance = requestScope.createInstance();
+        final TestProvider inhab = new TestProvider("a");
+
+        instance.put(inhab, "1");
+        instance.put(inhab, "2");
+    }
+
+    @Test
+    public void testSeedNull() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance instance = requestScope.createInstance();
+        final TestProvider inhab = new TestProvider("a");
+
+        instance.put(inhab, null);
+        assertTrue(instance.contains(inhab));
+        assertNull(instance.get(inhab));
+        try {
+            instance.put(inhab, "1");
+            fail("IllegalStateException expected.");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        instance.release();
+        assertFalse(instance.contains(inhab));
+    }
+
+    @Test
+    public void testProvidersWithoutSlot() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance instance = requestScope.createInstance();
+        final List<TestProvider> inhabs = new ArrayList<TestProvider>();
+        for (int i = 0; i < 300; i++) {
+            final TestProvider inhab = new TestProvider(Integer.toString(i));
+            inhabs.add(inhab);
+            instance.put(inhab, inhab.get());
+        }
+
+        for (TestProvider inhab : inhabs) {
+            assertTrue(instance.contains(inhab));
+            assertEquals(inhab.get(), instance.get(inhab));
+        }
+        final Instance anotherInstance = requestScope.createInstance();
+        for (TestProvider inhab : inhabs) {
+            assertFalse(anotherInstance.contains(inhab));
+        }
+
+        instance.release();
+        anotherInstance.release();
+        for (TestProvider inhab : inhabs) {
+            assertNull(instance.get(inhab));
+        }
+    }
+
     /**
      * Test request scope inhabitant.
      *
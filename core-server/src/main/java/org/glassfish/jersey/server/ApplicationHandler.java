@@ -70,6 +70,7 @@ import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.message.internal.HeaderValueException;
+import org.glassfish.jersey.message.internal.InboundMessageContext;
 import org.glassfish.jersey.message.internal.MessageBodyFactory;
 import org.glassfish.jersey.message.internal.MessageBodyProviderNotFoundException;
 import org.glassfish.jersey.message.internal.OutboundMessageContext;
@@ -205,6 +206,14 @@ public final class ApplicationHandler {
      */
     private RequestInvoker<ContainerRequest, ContainerResponse> invoker;
     private final ResourceConfig configuration;
+    /**
+     * Size of the buffer used to compute the {@code Content-Length} of response entities.
+     */
+    private int contentLengthBufferSize;
+    /**
+     * Maximum number of bytes of a buffered request entity kept on the heap.
+     */
+    private long entityBufferingThreshold;
 
     /**
      * Create a new Jersey application handler using a default configuration.
@@ -272,6 +281,10 @@ public final class ApplicationHandler {
 
         configuration.lock();
 
+        contentLengthBufferSize = readBufferSize(configuration.getProperty(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER),
+                ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_DEFAULT);
+        entityBufferingThreshold = InboundMessageContext.getEntityBufferingThreshold(configuration.getProperties());
+
         final List<ResourceModelIssue> resourceModelIssues = Lists.newLinkedList();
         final Map<String, Resource.Builder> pathToResourceBuilderMap = Maps.newHashMap();
         final List<Resource.Builder> resourcesBuilders = new LinkedList<Resource.Builder>();
@@ -586,7 +599,8 @@ public final class ApplicationHandler {
             }
         };
 
-        invoker.apply(requestContext, callback);
+        requestContext.setEntityBufferingThreshold(entityBufferingThreshold);
+        invoker.submit(requestContext, callback);
 
         return callback;
     }
@@ -650,7 +664,8 @@ public final class ApplicationHandler {
             }
         };
 
-        invoker.apply(requestContext, callback);
+        requestContext.setEntityBufferingThreshold(entityBufferingThreshold);
+        invoker.submit(requestContext, callback);
 
         callback.suspendWriterIfRunning();
     }
@@ -668,6 +683,8 @@ public final class ApplicationHandler {
         if (!isChunked) {
             requestContext.getResponseWriter().commit();
         }
+        // release the pooled chunks and the temporary file of a buffered request entity
+        requestContext.releaseBufferedEntity();
     }
 
     private void checkContainerRequestContext(final ContainerRequest requestContext) {
@@ -680,6 +697,20 @@ public final class ApplicationHandler {
         }
     }
 
+    private static int readBufferSize(final Object value, final int defaultValue) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value != null) {
+            try {
+                return Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException ex) {
+                LOGGER.warning(LocalizationMessages.INVALID_CONFIG_PROPERTY_VALUE(
+                        ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, value));
+            }
+        }
+        return defaultValue;
+    }
+
     private static ContainerResponse prepareTimeoutResponse(
             final InvocationContext context, ContainerRequest requestContext) {
 
@@ -754,8 +785,9 @@ public final class ApplicationHandler {
                 private OutputStream output;
 
                 @Override
-                public void commit() throws IOException {
-                    output = writer.writeResponseStatusAndHeaders(messageBodySizeCallback.getSize(), responseContext);
+                public void commit(long contentLength) throws IOException {
+                    output = writer.writeResponseStatusAndHeaders(
+                            contentLength != -1 ? contentLength : messageBodySizeCallback.getSize(), responseContext);
                 }
 
                 @Override
@@ -763,6 +795,14 @@ public final class ApplicationHandler {
                     return output;
                 }
             });
+            // the buffering may be disabled or resized for a single response using a request property
+            final int bufferSize = readBufferSize(
+                    requestContext.getProperty(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER), contentLengthBufferSize);
+            if (bufferSize > 0
+                    && !requestContext.getMethod().equals(HttpMethod.HEAD)
+                    && !(entity instanceof ChunkedResponse)) {
+                responseContext.enableBuffering(bufferSize);
+            }
             requestContext.getWorkers().writeTo(
                     entity,
                     entity.getClass(),
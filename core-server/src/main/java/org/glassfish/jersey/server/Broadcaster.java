@@ -40,9 +40,15 @@
 package org.glassfish.jersey.server;
 
 import java.io.IOException;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,27 +56,64 @@ import org.glassfish.jersey.server.internal.LocalizationMessages;
 
 /**
  * Used for broadcasting response chunks to multiple {@link ChunkedResponse} instances.
+ * <p>
+ * By default, the chunks are written to the registered chunked responses synchronously, on the thread that invokes
+ * {@link #broadcast(Object)}. Alternatively, broadcaster can be created with an {@link Executor executor}
+ * (see {@link #Broadcaster(Executor, int, OverflowPolicy)}), in which case each registered chunked response
+ * gets its own bounded queue of pending chunks that is drained asynchronously using the executor. A slow chunked
+ * response then does not stall the broadcasting thread nor the other chunked responses; when its queue overflows,
+ * the configured {@link OverflowPolicy overflow policy} is applied and the
+ * {@link BroadcasterOverflowListener#onOverflow(ChunkedResponse, int, long) overflow listeners are notified}.
+ * The current lag and the number of dropped chunks of a registered chunked response can be read using
+ * {@link #getLag(ChunkedResponse)} and {@link #getDropped(ChunkedResponse)}.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  * @author Martin Matula (martin.matula at oracle.com)
  */
-public class Broadcaster<T> implements BroadcasterListener<T> {
+public class Broadcaster<T> implements BroadcasterOverflowListener<T> {
 
-    private final ConcurrentSkipListSet<BroadcasterListener<T>> listeners =
-            new ConcurrentSkipListSet<BroadcasterListener<T>> (new Comparator<BroadcasterListener<T>>() {
-                @Override
-                public int compare(final BroadcasterListener<T> listener1, final BroadcasterListener<T> listener2) {
-                    return listener1.hashCode() - listener2.hashCode();
-                }
-            });
+    /**
+     * Registered listeners - there are typically just a few of them and they are iterated on every event,
+     * so a copy-on-write set is used.
+     */
+    private final CopyOnWriteArraySet<BroadcasterListener<T>> listeners = new CopyOnWriteArraySet<BroadcasterListener<T>>();
 
-    private final ConcurrentSkipListSet<ChunkedResponse<T>> chunkedResponses =
-            new ConcurrentSkipListSet<ChunkedResponse<T>> (new Comparator<ChunkedResponse<T>>() {
-        @Override
-        public int compare(final ChunkedResponse<T> chunkedResponse1, final ChunkedResponse<T> chunkedResponse2) {
-            return chunkedResponse1.hashCode() - chunkedResponse2.hashCode();
-        }
-    });
+    /**
+     * Registered chunked responses.
+     * <p>
+     * The map is hashed by the chunked response identity, so registering and unregistering a chunked response
+     * is a constant-time operation that contends only on a single lock stripe of the map. Iteration over
+     * the map is weakly consistent - it does not create a snapshot of the registered chunked responses
+     * and it does not block concurrent registrations.
+     * </p>
+     */
+    private final ConcurrentMap<ChunkedResponse<T>, Subscriber> subscribers =
+            new ConcurrentHashMap<ChunkedResponse<T>, Subscriber>(64, 0.75f, 64);
+
+    private final Executor executor;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private volatile boolean sharedEncoding = false;
+
+    /**
+     * Policy applied when the asynchronous delivery queue of a {@link ChunkedResponse} is full.
+     */
+    public static enum OverflowPolicy {
+        /**
+         * Discard the oldest chunk pending in the queue to make room for the new chunk.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the new chunk, keep the chunks already pending in the queue.
+         */
+        DROP_NEWEST,
+        /**
+         * Discard all the pending chunks and close the chunked response.
+         */
+        DISCONNECT
+    }
 
     /**
      * Creates a new instance.
@@ -80,9 +123,7 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * passing {@code false} as argument.
      */
     public Broadcaster() {
-        if (getClass() != Broadcaster.class) {
-            listeners.add(this);
-        }
+        this(null, 0, null);
     }
 
     /**
@@ -93,11 +134,67 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * @see #Broadcaster()
      */
     protected Broadcaster(final boolean listen) {
+        this(listen, null, 0, null);
+    }
+
+    /**
+     * Creates a new instance delivering the broadcast chunks asynchronously.
+     * <p>
+     * Each registered {@link ChunkedResponse} gets a queue of pending chunks bounded by the given capacity,
+     * which is drained by a task submitted to the executor. At most one such task is running for a particular
+     * chunked response at a time, so the chunks are written in the order in which they were broadcast.
+     * </p>
+     * If this constructor is called by a subclass, the newly created instance is added as the listener
+     * (see {@link #Broadcaster()}).
+     *
+     * @param executor executor used to write the chunks to the registered chunked responses.
+     * @param queueCapacity maximum number of chunks pending for a single chunked response.
+     * @param overflowPolicy policy applied when a chunk is broadcast to a chunked response with a full queue.
+     */
+    public Broadcaster(final Executor executor, final int queueCapacity, final OverflowPolicy overflowPolicy) {
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        checkDeliveryConfiguration();
+
+        if (getClass() != Broadcaster.class) {
+            listeners.add(this);
+        }
+    }
+
+    /**
+     * Creates a new instance delivering the broadcast chunks asynchronously, which can be used by subclasses
+     * to override the default functionality of adding self to the set of {@link BroadcasterListener listeners}.
+     *
+     * @param listen if {@code true}, registers this instance as a listener, otherwise it doesn't.
+     * @param executor executor used to write the chunks to the registered chunked responses.
+     * @param queueCapacity maximum number of chunks pending for a single chunked response.
+     * @param overflowPolicy policy applied when a chunk is broadcast to a chunked response with a full queue.
+     * @see #Broadcaster(Executor, int, OverflowPolicy)
+     */
+    protected Broadcaster(final boolean listen, final Executor executor, final int queueCapacity,
+                          final OverflowPolicy overflowPolicy) {
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        checkDeliveryConfiguration();
+
         if (listen) {
             listeners.add(this);
         }
     }
 
+    private void checkDeliveryConfiguration() {
+        if (executor != null) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException(LocalizationMessages.BROADCASTER_INVALID_QUEUE_CAPACITY(queueCapacity));
+            }
+            if (overflowPolicy == null) {
+                throw new NullPointerException(LocalizationMessages.BROADCASTER_OVERFLOW_POLICY_NULL());
+            }
+        }
+    }
+
     /**
      * Register {@link ChunkedResponse} to this {@link Broadcaster} instance.
      *
@@ -106,7 +203,7 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * the list of registered chunked responses.
      */
     public final boolean add(final ChunkedResponse<T> chunkedResponse) {
-        return chunkedResponses.add(chunkedResponse);
+        return subscribers.putIfAbsent(chunkedResponse, new Subscriber(chunkedResponse)) == null;
     }
 
     /**
@@ -119,7 +216,7 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * of registered chunked responses.
      */
     public final boolean remove(final ChunkedResponse<T> chunkedResponse) {
-        return chunkedResponses.remove(chunkedResponse);
+        return subscribers.remove(chunkedResponse) != null;
     }
 
     /**
@@ -143,28 +240,116 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
         return listeners.remove(listener);
     }
 
+    /**
+     * Get the number of chunks pending in the asynchronous delivery queue of a registered {@link ChunkedResponse}.
+     *
+     * @param chunkedResponse registered chunked response.
+     * @return number of chunks not yet written to the chunked response, {@code 0} if the chunks are delivered
+     * synchronously or {@code -1} if the chunked response is not registered with this broadcaster.
+     */
+    public final int getLag(final ChunkedResponse<T> chunkedResponse) {
+        final Subscriber subscriber = subscribers.get(chunkedResponse);
+        if (subscriber == null) {
+            return -1;
+        }
+        return subscriber.queue == null ? 0 : subscriber.queue.size();
+    }
+
+    /**
+     * Get the total number of chunks dropped for a registered {@link ChunkedResponse} due to overflows
+     * of its asynchronous delivery queue.
+     *
+     * @param chunkedResponse registered chunked response.
+     * @return number of dropped chunks or {@code -1} if the chunked response is not registered with this broadcaster.
+     */
+    public final long getDropped(final ChunkedResponse<T> chunkedResponse) {
+        final Subscriber subscriber = subscribers.get(chunkedResponse);
+        return subscriber == null ? -1 : subscriber.dropped.get();
+    }
+
+    /**
+     * Enable or disable shared encoding of broadcast chunks.
+     * <p>
+     * When shared encoding is enabled, each broadcast chunk is serialized only once per distinct combination
+     * of {@link javax.ws.rs.core.MediaType media type} and {@link javax.ws.rs.ext.MessageBodyWriter message body writer}
+     * used by the registered {@link ChunkedResponse chunked responses}. The serialized bytes are then written
+     * directly to all the chunked responses sharing the same combination, which considerably reduces the cost
+     * of broadcasting to a large number of chunked responses.
+     * </p>
+     * <p>
+     * Since the serialization is shared, {@link javax.ws.rs.ext.WriterInterceptor writer interceptors}
+     * as well as the message body writer are invoked only in the context of the chunked response that
+     * serializes the chunk first, and each shared chunk is flushed once written. The serialized bytes are
+     * shared only among chunked responses using the same media type, generic type and entity annotations,
+     * which are all passed to the message body writer and may affect its output. Shared encoding is
+     * disabled by default.
+     * </p>
+     *
+     * @param sharedEncoding if {@code true}, broadcast chunks are serialized once and shared by all chunked responses,
+     *                       otherwise each chunk is serialized separately for every chunked response.
+     */
+    public final void setSharedEncoding(final boolean sharedEncoding) {
+        this.sharedEncoding = sharedEncoding;
+    }
+
+    /**
+     * Check whether the shared encoding of broadcast chunks is enabled.
+     *
+     * @return {@code true} if broadcast chunks are serialized once and shared by all chunked responses,
+     *         {@code false} otherwise.
+     * @see #setSharedEncoding(boolean)
+     */
+    public final boolean isSharedEncoding() {
+        return sharedEncoding;
+    }
+
     /**
      * Broadcast a chunk to all registered {@link ChunkedResponse} instances.
      *
+     * If this broadcaster delivers the chunks asynchronously, the method only enqueues the chunk
+     * for each of the registered chunked responses and returns.
+     *
      * @param chunk chunk to be sent.
+     * @see #setSharedEncoding(boolean)
      */
     public final void broadcast(final T chunk) {
-        forEachChunkedResponse(new Task<ChunkedResponse<T>>() {
-            @Override
-            public void run(final ChunkedResponse<T> cr) throws IOException {
-                cr.write(chunk);
+        final Object delivered = sharedEncoding && chunk != null ? new SharedChunk<T>(chunk) : chunk;
+
+        if (executor != null) {
+            if (delivered == null) {
+                return;
             }
-        });
+            forEachSubscriber(new Task<Subscriber>() {
+                @Override
+                public void run(final Subscriber subscriber) throws IOException {
+                    subscriber.offer(delivered);
+                }
+            });
+        } else {
+            forEachSubscriber(new Task<Subscriber>() {
+                @Override
+                public void run(final Subscriber subscriber) throws IOException {
+                    write(subscriber.chunkedResponse, delivered);
+                }
+            });
+        }
     }
 
     /**
      * Close all registered {@link ChunkedResponse} instances.
+     *
+     * If this broadcaster delivers the chunks asynchronously, each chunked response is closed asynchronously
+     * once all its pending chunks are written.
      */
     public final void closeAll() {
-        forEachChunkedResponse(new Task<ChunkedResponse<T>>() {
+        forEachSubscriber(new Task<Subscriber>() {
             @Override
-            public void run(final ChunkedResponse<T> cr) throws IOException {
-                cr.close();
+            public void run(final Subscriber subscriber) throws IOException {
+                if (executor != null) {
+                    subscriber.close();
+                } else {
+                    subscriber.chunkedResponse.close();
+                }
             }
         });
     }
@@ -193,23 +378,51 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
     public void onClose(final ChunkedResponse<T> chunkedResponse) {
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Can be implemented by subclasses to handle the event of asynchronous delivery queue of a {@link ChunkedResponse}
+     * being overflown, e.g. to shed slow chunked responses.
+     *
+     * @param chunkedResponse instance which could not keep up with the broadcast chunks.
+     * @param lag number of chunks pending in the delivery queue of the chunked response when the overflow occurred.
+     * @param dropped total number of chunks dropped for the chunked response so far.
+     */
+    @Override
+    public void onOverflow(final ChunkedResponse<T> chunkedResponse, final int lag, final long dropped) {
+    }
+
     private static interface Task<T> {
         void run(T parameter) throws IOException;
     }
 
-    private void forEachChunkedResponse(final Task<ChunkedResponse<T>> t) {
-        for (Iterator<ChunkedResponse<T>> iterator = chunkedResponses.iterator(); iterator.hasNext();) {
-            ChunkedResponse<T> chunkedResponse = iterator.next();
+    @SuppressWarnings("unchecked")
+    private static <T> void write(final ChunkedResponse<T> chunkedResponse, final Object chunk) throws IOException {
+        if (chunk instanceof SharedChunk) {
+            chunkedResponse.write((SharedChunk<T>) chunk);
+        } else {
+            chunkedResponse.write((T) chunk);
+        }
+    }
+
+    private void closed(final Subscriber subscriber) {
+        if (subscribers.remove(subscriber.chunkedResponse, subscriber)) {
+            fireOnClose(subscriber.chunkedResponse);
+        }
+    }
+
+    private void forEachSubscriber(final Task<Subscriber> t) {
+        for (Subscriber subscriber : subscribers.values()) {
+            final ChunkedResponse<T> chunkedResponse = subscriber.chunkedResponse;
             if (!chunkedResponse.isClosed()) {
                 try {
-                    t.run(chunkedResponse);
+                    t.run(subscriber);
                 } catch (Exception e) {
                     fireOnException(chunkedResponse, e);
                 }
             }
             if (chunkedResponse.isClosed()) {
-                iterator.remove();
-                fireOnClose(chunkedResponse);
+                closed(subscriber);
             }
         }
     }
@@ -243,4 +456,137 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
             }
         });
     }
+
+    private final void fireOnOverflow(final ChunkedResponse<T> chunkedResponse, final int lag, final long dropped) {
+        forEachListener(new Task<BroadcasterListener<T>>() {
+            @Override
+            public void run(BroadcasterListener<T> parameter) throws IOException {
+                if (parameter instanceof BroadcasterOverflowListener) {
+                    ((BroadcasterOverflowListener<T>) parameter).onOverflow(chunkedResponse, lag, dropped);
+                }
+            }
+        });
+    }
+
+    /**
+     * Registered chunked response.
+     *
+     * If the broadcaster delivers the chunks asynchronously, the subscriber also holds the bounded queue of chunks
+     * pending for the chunked response, which is drained using the executor.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final ChunkedResponse<T> chunkedResponse;
+        /**
+         * Pending chunks - contains either chunk instances or {@link SharedChunk shared chunks}.
+         * Not used ({@code null}) if the chunks are delivered synchronously.
+         */
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean closing = false;
+        /**
+         * Set once closing of the chunked response has been attempted; the subscriber is never scheduled again
+         * afterwards, even if the chunked response failed to close.
+         */
+        private volatile boolean terminated = false;
+
+        Subscriber(final ChunkedResponse<T> chunkedResponse) {
+            this.chunkedResponse = chunkedResponse;
+            this.queue = executor == null ? null : new ArrayBlockingQueue<Object>(queueCapacity);
+        }
+
+        /**
+         * Enqueue a chunk, apply the overflow policy if the queue is full and schedule the queue to be drained.
+         *
+         * @param chunk chunk to be written.
+         */
+        void offer(final Object chunk) {
+            if (closing || terminated) {
+                return;
+            }
+
+            if (!queue.offer(chunk)) {
+                final int lag;
+                switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        while (!queue.offer(chunk)) {
+                            if (queue.poll() != null) {
+                                dropped.incrementAndGet();
+                            }
+                        }
+                        lag = queue.size();
+                        break;
+                    case DISCONNECT:
+                        // report the lag the chunked response had before its pending chunks are discarded
+                        closing = true;
+                        lag = queue.size();
+                        dropped.addAndGet(lag + 1);
+                        queue.clear();
+                        break;
+                    default: // DROP_NEWEST
+                        dropped.incrementAndGet();
+                        lag = queue.size();
+                        break;
+                }
+                fireOnOverflow(chunkedResponse, lag, dropped.get());
+            }
+
+            schedule();
+        }
+
+        /**
+         * Close the chunked response once all the pending chunks are written.
+         */
+        void close() {
+            closing = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    fireOnException(chunkedResponse, e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Object chunk;
+                while (!chunkedResponse.isClosed() && (chunk = queue.poll()) != null) {
+                    try {
+                        write(chunkedResponse, chunk);
+                    } catch (Exception e) {
+                        fireOnException(chunkedResponse, e);
+                    }
+                }
+
+                if (closing && !terminated) {
+                    terminated = true;
+                    if (!chunkedResponse.isClosed()) {
+                        try {
+                            chunkedResponse.close();
+                        } catch (Exception e) {
+                            fireOnException(chunkedResponse, e);
+                        }
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+
+            if (terminated || chunkedResponse.isClosed()) {
+                queue.clear();
+                closed(this);
+            } else if (!queue.isEmpty() || closing) {
+                // chunks enqueued after the last poll but before the scheduled flag was reset
+                schedule();
+            }
+        }
+    }
 }
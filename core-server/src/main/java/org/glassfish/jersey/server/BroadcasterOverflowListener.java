@@ -0,0 +1,64 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+/**
+ * Extension of {@link BroadcasterListener} that is additionally notified when the asynchronous delivery queue
+ * of a {@link ChunkedResponse} overflows.
+ *
+ * The notification is only fired by a {@link Broadcaster} delivering the chunks asynchronously
+ * (see {@link Broadcaster#Broadcaster(java.util.concurrent.Executor, int, Broadcaster.OverflowPolicy)}).
+ * Listeners registered with the broadcaster that do not implement this interface are not notified
+ * about the overflows.
+ *
+ * @param <T> broadcast chunk type.
+ */
+public interface BroadcasterOverflowListener<T> extends BroadcasterListener<T> {
+
+    /**
+     * Called when the asynchronous delivery queue of a {@link ChunkedResponse} is full
+     * and the {@link Broadcaster.OverflowPolicy overflow policy} has been applied.
+     *
+     * @param chunkedResponse instance which could not keep up with the broadcast chunks.
+     * @param lag number of chunks pending in the delivery queue of the chunked response when the overflow occurred.
+     * @param dropped total number of chunks dropped for the chunked response so far.
+     */
+    void onOverflow(ChunkedResponse<T> chunkedResponse, int lag, long dropped);
+}
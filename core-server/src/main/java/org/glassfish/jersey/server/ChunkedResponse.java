@@ -39,13 +39,18 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
 
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyWriter;
 
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 
@@ -65,12 +70,16 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
      */
     static final String CHUNKED_MODE = "jersey.internal.server.chunked-mode";
 
-    private final BlockingDeque<T> queue = new LinkedBlockingDeque<T>();
+    /**
+     * Queue of pending chunks - contains either chunk instances or {@link SharedChunk shared chunks}.
+     */
+    private final BlockingDeque<Object> queue = new LinkedBlockingDeque<Object>();
 
     private volatile boolean closed = false;
     private boolean flushing = false;
     private volatile ContainerRequest requestContext;
     private volatile ContainerResponse responseContext;
+    private volatile SharedChunkWriter sharedChunkWriter;
 
     protected ChunkedResponse() {
     }
@@ -102,13 +111,35 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
         flushQueue();
     }
 
+    /**
+     * Write a chunk shared with other chunked responses.
+     *
+     * The chunk is serialized only if no other chunked response sharing the chunk has serialized it
+     * using the same media type and message body writer before; otherwise the previously serialized bytes are
+     * written directly to the response entity stream.
+     *
+     * @param sharedChunk chunk shared with other chunked responses.
+     * @throws IOException if this response is closed or when encountered any problem during serializing or writing a chunk.
+     */
+    void write(final SharedChunk<T> sharedChunk) throws IOException {
+        if (closed) {
+            throw new IOException(LocalizationMessages.CHUNKED_RESPONSE_CLOSED());
+        }
+
+        if (sharedChunk.getChunk() != null) {
+            queue.add(sharedChunk);
+        }
+
+        flushQueue();
+    }
+
     private void flushQueue() throws IOException {
         if (requestContext == null || responseContext == null) {
             return;
         }
 
         Exception ex = null;
-        T t;
+        Object t;
         boolean shouldClose;
 
         synchronized (this) {
@@ -132,17 +163,11 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
 
         try {
             while (t != null) {
-                requestContext.getWorkers().writeTo(
-                        t,
-                        t.getClass(),
-                        getType(),
-                        responseContext.getEntityAnnotations(),
-                        responseContext.getMediaType(),
-                        responseContext.getHeaders(),
-                        requestContext.getPropertiesDelegate(),
-                        responseContext.getEntityStream(),
-                        null,
-                        true);
+                if (t instanceof SharedChunk) {
+                    writeSharedChunk((SharedChunk<?>) t);
+                } else {
+                    writeChunk(t, responseContext.getEntityStream());
+                }
                 t = queue.poll();
                 if (t == null) {
                     synchronized (this) {
@@ -197,6 +222,83 @@ public class ChunkedResponse<T> extends GenericType<T> implements Closeable {
         }
     }
 
+    private void writeChunk(final Object chunk, final OutputStream entityStream) throws IOException {
+        requestContext.getWorkers().writeTo(
+                chunk,
+                chunk.getClass(),
+                getType(),
+                responseContext.getEntityAnnotations(),
+                responseContext.getMediaType(),
+                responseContext.getHeaders(),
+                requestContext.getPropertiesDelegate(),
+                entityStream,
+                null,
+                true);
+    }
+
+    private void writeSharedChunk(final SharedChunk<?> sharedChunk) throws IOException {
+        final Object chunk = sharedChunk.getChunk();
+        final MediaType mediaType = responseContext.getMediaType();
+        final Type genericType = getType();
+        final Annotation[] annotations = responseContext.getEntityAnnotations();
+        final MessageBodyWriter<?> writer = getSharedChunkWriter(chunk.getClass(), genericType, annotations, mediaType);
+
+        if (writer == null) {
+            // let the workers report the missing writer
+            writeChunk(chunk, responseContext.getEntityStream());
+            return;
+        }
+
+        byte[] encoded = sharedChunk.getEncoded(mediaType, genericType, annotations, writer);
+        if (encoded == null) {
+            // asynchronous delivery may write the same chunk from several threads - serialize it only once
+            synchronized (sharedChunk) {
+                encoded = sharedChunk.getEncoded(mediaType, genericType, annotations, writer);
+                if (encoded == null) {
+                    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    writeChunk(chunk, buffer);
+                    encoded = sharedChunk.setEncoded(mediaType, genericType, annotations, writer, buffer.toByteArray());
+                }
+            }
+        }
+
+        final OutputStream entityStream = responseContext.getEntityStream();
+        entityStream.write(encoded);
+        // writers typically flush the entity stream once the chunk is written - we do the same for the shared bytes
+        entityStream.flush();
+    }
+
+    /**
+     * Get the message body writer for a shared chunk of the given type.
+     *
+     * The media type, generic type and annotations of a chunked response do not change once the response
+     * context is set, so the writer is only looked up again if the raw type of the written chunks changes.
+     */
+    private MessageBodyWriter<?> getSharedChunkWriter(final Class<?> rawType, final Type genericType,
+                                                      final Annotation[] annotations, final MediaType mediaType) {
+        final SharedChunkWriter cached = sharedChunkWriter;
+        if (cached != null && cached.rawType == rawType) {
+            return cached.writer;
+        }
+        final MessageBodyWriter<?> writer = requestContext.getWorkers().getMessageBodyWriter(
+                rawType, genericType, annotations, mediaType);
+        if (writer != null) {
+            sharedChunkWriter = new SharedChunkWriter(rawType, writer);
+        }
+        return writer;
+    }
+
+    private static final class SharedChunkWriter {
+
+        private final Class<?> rawType;
+        private final MessageBodyWriter<?> writer;
+
+        SharedChunkWriter(final Class<?> rawType, final MessageBodyWriter<?> writer) {
+            this.rawType = rawType;
+            this.writer = writer;
+        }
+    }
+
     /**
      * Close this response - it will be finalized and underlying connections will be closed
      * or made available for another response.
@@ -355,6 +355,16 @@ public class ContainerResponse implements ContainerResponseContext {
         messageContext.setStreamProvider(streamProvider);
     }
 
+    /**
+     * Enable buffering of the entity data written before the {@link #getEntityStream() entity stream}
+     * is committed, so that an entity not larger than the buffer is committed with its exact length.
+     *
+     * @param bufferSize size of the buffer in bytes.
+     */
+    public void enableBuffering(int bufferSize) {
+        messageContext.enableBuffering(bufferSize);
+    }
+
     /**
      * Commits the {@link #getEntityStream() entity stream} if it wasn't already committed.
      */
@@ -45,12 +45,14 @@ import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 
 import org.glassfish.jersey.internal.ContextResolverFactory;
 import org.glassfish.jersey.internal.ExceptionMapperFactory;
 import org.glassfish.jersey.internal.JaxrsProviders;
 import org.glassfish.jersey.internal.ProviderBinder;
+import org.glassfish.jersey.internal.ServiceFinder;
 import org.glassfish.jersey.internal.ServiceFinderModule;
 import org.glassfish.jersey.internal.inject.AbstractModule;
 import org.glassfish.jersey.internal.inject.ContextInjectionResolver;
@@ -76,6 +78,7 @@ import org.glassfish.jersey.server.internal.routing.SingletonResourceBinder;
 import org.glassfish.jersey.server.model.ResourceModelModule;
 import org.glassfish.jersey.server.spi.ContainerProvider;
 import org.glassfish.jersey.spi.ExceptionMappers;
+import org.glassfish.jersey.spi.HeaderDelegateProvider;
 
 import org.glassfish.hk2.Factory;
 import org.glassfish.hk2.TypeLiteral;
@@ -210,6 +213,10 @@ public class ServerModule extends AbstractModule {
 
     @Override
     protected void configure() {
+        // read the META-INF/services files of all the service finder modules concurrently
+        ServiceFinder.preload(MessageBodyReader.class, MessageBodyWriter.class,
+                HeaderDelegateProvider.class, ContainerProvider.class);
+
         install(new RequestScope.Module(), // must go first as it registers the request scope instance.
                 new ProcessingModule(),
                 new ContextInjectionResolver.Module(),
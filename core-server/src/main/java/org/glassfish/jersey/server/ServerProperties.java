@@ -159,6 +159,42 @@ public final class ServerProperties {
      */
     public static final String LANGUAGE_MAPPINGS = "jersey.config.server.languageMappings";
 
+    /**
+     * Defines the size of the buffer used to compute the {@code Content-Length} of outbound response entities.
+     * <p>
+     * A response entity is written into the buffer before the response status and headers are committed.
+     * If the complete entity fits into the buffer, the response is sent with the exact {@code Content-Length}
+     * computed from the buffered data. Once the buffer overflows, the response is committed and the rest
+     * of the entity is streamed (typically using the chunked transfer coding). Flushing the entity stream
+     * commits the response and writes the buffered data, so entities written progressively (e.g. by
+     * a {@link javax.ws.rs.core.StreamingOutput}) are not delayed. Buffering is not used for responses
+     * to {@code HEAD} requests and for {@link org.glassfish.jersey.server.ChunkedResponse chunked responses}.
+     * </p>
+     * <p>
+     * The property value MUST be an instance of {@link Integer} or a {@link String} that can be parsed
+     * as an integer. A value less than or equal to zero disables the buffering.
+     * </p>
+     * <p>
+     * The configured value may be overridden for a single response by setting a request property
+     * of the same name (e.g. in a {@link javax.ws.rs.container.ContainerRequestFilter request filter}
+     * or in the resource method) before the response entity is written.
+     * </p>
+     * <p>
+     * The default value is {@value #OUTBOUND_CONTENT_LENGTH_BUFFER_DEFAULT} bytes.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    public static final String OUTBOUND_CONTENT_LENGTH_BUFFER = "jersey.config.server.contentLength.buffer";
+
+    /**
+     * Default size of the buffer used to compute the {@code Content-Length} of outbound response entities.
+     *
+     * @see #OUTBOUND_CONTENT_LENGTH_BUFFER
+     */
+    public static final int OUTBOUND_CONTENT_LENGTH_BUFFER_DEFAULT = 8192;
+
     private ServerProperties() {
         // prevents instantiation
     }
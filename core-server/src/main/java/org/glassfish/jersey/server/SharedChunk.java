@@ -0,0 +1,160 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+/**
+ * A chunk broadcast to multiple {@link ChunkedResponse chunked responses} at once.
+ * <p>
+ * The serialized form of the chunk is cached per combination of {@link MediaType media type},
+ * generic type, entity annotations and {@link MessageBodyWriter message body writer} used to produce it,
+ * so that each distinct
+ * encoding is produced only once and the resulting bytes are shared by all the chunked responses
+ * the chunk is written to.
+ * </p>
+ *
+ * @param <T> chunk type.
+ */
+final class SharedChunk<T> {
+
+    private final T chunk;
+    private final ConcurrentMap<EncodingKey, byte[]> encodings = new ConcurrentHashMap<EncodingKey, byte[]>(4);
+
+    /**
+     * Create new shared chunk.
+     *
+     * @param chunk chunk to be shared.
+     */
+    SharedChunk(final T chunk) {
+        this.chunk = chunk;
+    }
+
+    /**
+     * Get the shared chunk instance.
+     *
+     * @return shared chunk instance.
+     */
+    T getChunk() {
+        return chunk;
+    }
+
+    /**
+     * Get the cached serialized form of the chunk.
+     *
+     * @param mediaType media type of the serialized chunk.
+     * @param genericType generic type the chunk is serialized as.
+     * @param annotations entity annotations passed to the writer.
+     * @param writer message body writer used to serialize the chunk.
+     * @return serialized chunk or {@code null} if the chunk has not been serialized using the given
+     *         media type, generic type, annotations and writer yet. The returned array must not be modified.
+     */
+    byte[] getEncoded(final MediaType mediaType, final Type genericType, final Annotation[] annotations,
+                      final MessageBodyWriter<?> writer) {
+        return encodings.get(new EncodingKey(mediaType, genericType, annotations, writer));
+    }
+
+    /**
+     * Cache the serialized form of the chunk.
+     *
+     * If another thread has cached the serialized form for the same combination in the meantime,
+     * the previously cached value is retained and returned.
+     *
+     * @param mediaType media type of the serialized chunk.
+     * @param genericType generic type the chunk is serialized as.
+     * @param annotations entity annotations passed to the writer.
+     * @param writer message body writer used to serialize the chunk.
+     * @param encoded serialized chunk.
+     * @return serialized chunk that should be used by the caller. The returned array must not be modified.
+     */
+    byte[] setEncoded(final MediaType mediaType, final Type genericType, final Annotation[] annotations,
+                      final MessageBodyWriter<?> writer, final byte[] encoded) {
+        final byte[] previous = encodings.putIfAbsent(
+                new EncodingKey(mediaType, genericType, annotations, writer), encoded);
+        return previous == null ? encoded : previous;
+    }
+
+    private static final class EncodingKey {
+
+        private final MediaType mediaType;
+        private final Type genericType;
+        private final Annotation[] annotations;
+        private final MessageBodyWriter<?> writer;
+
+        EncodingKey(final MediaType mediaType, final Type genericType, final Annotation[] annotations,
+                    final MessageBodyWriter<?> writer) {
+            this.mediaType = mediaType;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof EncodingKey)) {
+                return false;
+            }
+            final EncodingKey other = (EncodingKey) obj;
+            return writer == other.writer
+                    && (mediaType == null ? other.mediaType == null : mediaType.equals(other.mediaType))
+                    && (genericType == null ? other.genericType == null : genericType.equals(other.genericType))
+                    && Arrays.equals(annotations, other.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(writer);
+            hash = 31 * hash + (mediaType == null ? 0 : mediaType.hashCode());
+            hash = 31 * hash + (genericType == null ? 0 : genericType.hashCode());
+            hash = 31 * hash + Arrays.hashCode(annotations);
+            return hash;
+        }
+    }
+}
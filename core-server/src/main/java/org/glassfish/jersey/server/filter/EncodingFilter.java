@@ -0,0 +1,146 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.filter;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.message.ContentEncoder;
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.message.internal.ContentEncodings;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+
+/**
+ * Container response filter that negotiates the content encoding of the response entity
+ * based on the request {@code Accept-Encoding} header and the registered
+ * {@link ContentEncoder content encoders} (e.g. {@link org.glassfish.jersey.message.GZipEncoder}).
+ * <p>
+ * The filter only selects the encoding by setting the response {@code Content-Encoding} header;
+ * the entity is then encoded by the content encoder while it is being written. Only entities
+ * of the media types configured by the {@value MessageProperties#ENCODING_MEDIA_TYPES} property
+ * are encoded, and only if they are at least {@value MessageProperties#ENCODING_MIN_SIZE} bytes
+ * long. Responses the resource has already set the {@code Content-Encoding} header for and
+ * partial content responses are left intact.
+ * </p>
+ * <p>
+ * The easiest way to enable the content encoding is to use the {@link #enableFor(ResourceConfig, Class[])}
+ * method:
+ * <pre>
+ * EncodingFilter.enableFor(resourceConfig, GZipEncoder.class, DeflateEncoder.class);
+ * </pre>
+ * Request entities are decoded by the registered content encoders regardless of the filter.
+ * </p>
+ */
+public class EncodingFilter implements ContainerResponseFilter {
+
+    private final int minSize;
+    private final List<MediaType> mediaTypes;
+
+    /**
+     * Registers this filter and the content encoders into the passed {@link ResourceConfig} instance.
+     *
+     * @param rc       ResourceConfig instance where the filter should be registered.
+     * @param encoders content encoders to be registered.
+     */
+    public static void enableFor(ResourceConfig rc, Class<? extends ContentEncoder>... encoders) {
+        rc.addClasses(EncodingFilter.class);
+        rc.addClasses(encoders);
+    }
+
+    /**
+     * Create a filter that reads the configuration (minimal entity size and encodable media types)
+     * from the provided {@link ResourceConfig} instance.
+     * This constructor will be called by the Jersey runtime when the filter
+     * class is returned from {@link javax.ws.rs.core.Application#getClasses()}.
+     * The {@link ResourceConfig} instance will get auto-injected.
+     *
+     * @param rc ResourceConfig instance that holds the configuration for the filter.
+     */
+    public EncodingFilter(@Context ResourceConfig rc) {
+        this(ContentEncodings.readMinSize(rc.getProperty(MessageProperties.ENCODING_MIN_SIZE)),
+                ContentEncodings.readMediaTypes(rc.getProperty(MessageProperties.ENCODING_MEDIA_TYPES)));
+    }
+
+    /**
+     * Create a filter with the given minimal entity size and encodable media types.
+     *
+     * @param minSize    minimal size (in bytes) of an encoded entity.
+     * @param mediaTypes media types of the entities that may be encoded.
+     */
+    public EncodingFilter(int minSize, List<MediaType> mediaTypes) {
+        this.minSize = minSize;
+        this.mediaTypes = mediaTypes;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        if (!response.hasEntity() || response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)
+                || response.getStatus() == Response.Status.PARTIAL_CONTENT.getStatusCode()
+                || !(request instanceof ContainerRequest)) {
+            return;
+        }
+        final MediaType mediaType = response.getMediaType();
+        if (mediaType == null || !ContentEncodings.isEncodable(mediaType, mediaTypes)) {
+            return;
+        }
+
+        // the representation depends on the Accept-Encoding header from now on
+        ContentEncodings.addVaryAcceptEncoding(response.getHeaders());
+
+        final List<String> acceptEncoding = request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return;
+        }
+        final String encoding = ContentEncodings.selectEncoding(acceptEncoding, ((ContainerRequest) request).getWorkers());
+        if (encoding != null) {
+            response.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+            request.setProperty(MessageProperties.ENCODING_MIN_SIZE, minSize);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.filter;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Date;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.message.internal.FileRegion;
+import org.glassfish.jersey.message.internal.HttpHeaderReader;
+import org.glassfish.jersey.server.ResourceConfig;
+
+/**
+ * Container response filter that serves single byte range requests (see the HTTP/1.1
+ * {@code Range} request header) for {@link File file} response entities.
+ * <p>
+ * Successful {@code GET} responses with a file entity are marked with the {@code Accept-Ranges: bytes}
+ * header. If the request contains a single satisfiable byte range, the response status is changed
+ * to {@code 206 Partial Content}, the {@code Content-Range} header is added and only the requested
+ * region of the file is sent. The region is written using the same direct file transfer path as
+ * the complete file if supported by the container. A byte range that can not be satisfied results
+ * in a {@code 416 Requested Range Not Satisfiable} response. Multiple byte ranges, malformed
+ * {@code Range} headers and {@code If-Range} preconditions not matching the response
+ * {@code ETag} or {@code Last-Modified} header are ignored and the complete file is sent.
+ * Responses with a {@code Content-Encoding} header are left intact.
+ * </p>
+ * <p>
+ * The easiest way to enable the byte range support is to use the {@link #enableFor(ResourceConfig)}
+ * method:
+ * <pre>
+ * RangeFilter.enableFor(resourceConfig);
+ * </pre>
+ * </p>
+ */
+public class RangeFilter implements ContainerResponseFilter {
+
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String IF_RANGE = "If-Range";
+    private static final String RANGE = "Range";
+    private static final String BYTES_UNIT = "bytes";
+
+    /**
+     * Registers this filter into the passed {@link ResourceConfig} instance.
+     *
+     * @param rc ResourceConfig instance where the filter should be registered.
+     */
+    public static void enableFor(ResourceConfig rc) {
+        rc.addClasses(RangeFilter.class);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        if (!HttpMethod.GET.equals(request.getMethod())
+                || response.getStatus() != Response.Status.OK.getStatusCode()
+                || !(response.getEntity() instanceof File)
+                || response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        response.getHeaders().putSingle(ACCEPT_RANGES, BYTES_UNIT);
+
+        final String range = request.getHeaders().getFirst(RANGE);
+        if (range == null) {
+            return;
+        }
+        final String ifRange = request.getHeaders().getFirst(IF_RANGE);
+        if (ifRange != null && !isIfRangeMatching(ifRange.trim(), response)) {
+            return;
+        }
+
+        final File file = (File) response.getEntity();
+        final long length = file.length();
+        final long[] bounds = parseRange(range.trim(), length);
+        if (bounds == null) {
+            return;
+        }
+
+        if (bounds.length == 0) {
+            response.setStatus(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode());
+            response.setEntity(null, response.getEntityAnnotations(), null);
+            response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+            response.getHeaders().putSingle(CONTENT_RANGE, BYTES_UNIT + " */" + length);
+            return;
+        }
+
+        final long first = bounds[0];
+        final long last = bounds[1];
+        response.setStatus(Response.Status.PARTIAL_CONTENT.getStatusCode());
+        response.getHeaders().putSingle(CONTENT_RANGE, BYTES_UNIT + " " + first + "-" + last + "/" + length);
+        response.setEntity(new FileRegion(file, first, last - first + 1),
+                response.getEntityAnnotations(), response.getMediaType());
+    }
+
+    /**
+     * Parse the single byte range from the {@code Range} header value.
+     *
+     * @param range  {@code Range} header value.
+     * @param length length of the file.
+     * @return first and last byte position of the range, an empty array if the range is not
+     *         satisfiable or {@code null} if the header should be ignored.
+     */
+    private static long[] parseRange(String range, long length) {
+        if (!range.regionMatches(true, 0, BYTES_UNIT + "=", 0, BYTES_UNIT.length() + 1)) {
+            return null;
+        }
+        final String spec = range.substring(BYTES_UNIT.length() + 1).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+
+        final long first;
+        final long last;
+        try {
+            if (dash == 0) {
+                // suffix byte range: the last N bytes
+                final long suffix = Long.parseLong(spec.substring(1).trim());
+                if (suffix < 0) {
+                    return null;
+                } else if (suffix == 0 || length == 0) {
+                    return new long[0];
+                }
+                first = Math.max(0, length - suffix);
+                last = length - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash).trim());
+                final String lastSpec = spec.substring(dash + 1).trim();
+                final long lastPosition = lastSpec.length() == 0 ? Long.MAX_VALUE : Long.parseLong(lastSpec);
+                if (first < 0 || lastPosition < first) {
+                    return null;
+                } else if (first >= length) {
+                    return new long[0];
+                }
+                last = Math.min(lastPosition, length - 1);
+            }
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        return new long[] {first, last};
+    }
+
+    private static boolean isIfRangeMatching(String ifRange, ContainerResponseContext response) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            final EntityTag entityTag = response.getEntityTag();
+            if (entityTag == null || entityTag.isWeak()) {
+                return false;
+            }
+            try {
+                final EntityTag requested = EntityTag.valueOf(ifRange);
+                return !requested.isWeak() && requested.getValue().equals(entityTag.getValue());
+            } catch (IllegalArgumentException ex) {
+                return false;
+            }
+        }
+
+        final Date lastModified = response.getLastModified();
+        if (lastModified == null) {
+            return false;
+        }
+        try {
+            return HttpHeaderReader.readDate(ifRange).getTime() == lastModified.getTime();
+        } catch (ParseException ex) {
+            return false;
+        }
+    }
+}
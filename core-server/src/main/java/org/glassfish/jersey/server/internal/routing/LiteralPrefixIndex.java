@@ -0,0 +1,262 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Function;
+
+/**
+ * Index of {@link Route routes} keyed by the literal prefix of their routing pattern.
+ * <p>
+ * A route whose regular expression starts with a literal prefix can only match a path
+ * that starts with the same prefix. The index arranges the literal prefixes of all routes
+ * in a character trie so that, for a given path, only the routes that may possibly
+ * match the path are returned. The returned candidate routes are still required to be
+ * matched against their full regular expression, in the order of the returned list.
+ * </p>
+ * <p>
+ * The candidate routes are always returned in the original order of the indexed route
+ * list, which guarantees that the first matching candidate route is the same route as
+ * the first matching route found by a linear scan of the original route list.
+ * </p>
+ *
+ * @param <T> routing pattern type.
+ */
+final class LiteralPrefixIndex<T> {
+
+    private static final class Node<T> {
+
+        private Map<Character, Node<T>> children;
+        private List<Integer> own;
+        private List<Route<T>> candidates;
+
+        Node<T> child(final char c) {
+            if (children == null) {
+                children = new HashMap<Character, Node<T>>();
+            }
+            Node<T> child = children.get(c);
+            if (child == null) {
+                child = new Node<T>();
+                children.put(c, child);
+            }
+            return child;
+        }
+    }
+
+    private final List<Route<T>> routes;
+    private final Node<T> root;
+
+    /**
+     * Create new literal prefix index of routes.
+     *
+     * @param routes        routes to be indexed.
+     * @param literalPrefix function that returns a literal prefix of a routing pattern.
+     */
+    LiteralPrefixIndex(final List<Route<T>> routes, final Function<T, String> literalPrefix) {
+        this.routes = Collections.unmodifiableList(new ArrayList<Route<T>>(routes));
+        this.root = new Node<T>();
+
+        for (int i = 0; i < this.routes.size(); i++) {
+            final String prefix = literalPrefix.apply(this.routes.get(i).routingPattern());
+
+            Node<T> node = root;
+            for (int j = 0; j < prefix.length(); j++) {
+                node = node.child(prefix.charAt(j));
+            }
+            if (node.own == null) {
+                node.own = new ArrayList<Integer>(1);
+            }
+            node.own.add(i);
+        }
+
+        initCandidates(root, Collections.<Integer>emptyList());
+        if (root.candidates == null) {
+            root.candidates = Collections.emptyList();
+        }
+    }
+
+    private void initCandidates(final Node<T> node, final List<Integer> inherited) {
+        List<Integer> indexes = inherited;
+        if (node.own != null) {
+            // both lists are sorted in the ascending order - merge them
+            indexes = new ArrayList<Integer>(inherited.size() + node.own.size());
+            int i = 0;
+            int j = 0;
+            while (i < inherited.size() || j < node.own.size()) {
+                if (j == node.own.size() || (i < inherited.size() && inherited.get(i) < node.own.get(j))) {
+                    indexes.add(inherited.get(i++));
+                } else {
+                    indexes.add(node.own.get(j++));
+                }
+            }
+
+            final List<Route<T>> candidates = new ArrayList<Route<T>>(indexes.size());
+            for (final Integer index : indexes) {
+                candidates.add(routes.get(index));
+            }
+            node.candidates = Collections.unmodifiableList(candidates);
+            node.own = null;
+        }
+
+        if (node.children != null) {
+            for (final Node<T> child : node.children.values()) {
+                initCandidates(child, indexes);
+            }
+        }
+    }
+
+    /**
+     * Get the routes that may match the path, in the original order of the indexed routes.
+     *
+     * @param path path to be matched. May be {@code null}.
+     * @return routes whose literal prefix is a prefix of the path. All indexed routes are
+     *         returned for a {@code null} path.
+     */
+    List<Route<T>> candidates(final CharSequence path) {
+        if (path == null) {
+            return routes;
+        }
+
+        List<Route<T>> result = root.candidates;
+        Node<T> node = root;
+        for (int i = 0; i < path.length() && node.children != null; i++) {
+            node = node.children.get(path.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.candidates != null) {
+                result = node.candidates;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the literal prefix of a compiled regular expression.
+     *
+     * @param pattern compiled regular expression.
+     * @return literal prefix of every input sequence matched by the pattern.
+     * @see #literalPrefix(String)
+     */
+    static String literalPrefix(final Pattern pattern) {
+        return (pattern.flags() == 0) ? literalPrefix(pattern.pattern()) : "";
+    }
+
+    /**
+     * Get the literal prefix of a regular expression, i.e. the longest sequence of characters
+     * every input sequence matched by the regular expression must start with.
+     * <p>
+     * The returned prefix is conservative: the parsing stops at the first character that
+     * is not a plain or escaped literal character and an empty prefix is returned for any
+     * expression containing an alternation.
+     * </p>
+     *
+     * @param regex regular expression (compiled without any flags). May be {@code null}.
+     * @return literal prefix of the regular expression, possibly empty.
+     */
+    static String literalPrefix(final String regex) {
+        if (regex == null || regex.length() == 0 || containsAlternation(regex)) {
+            return "";
+        }
+
+        final StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 == regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                        // character class, back reference, quotation or other special construct
+                        return prefix.toString();
+                    }
+                    c = regex.charAt(++i);
+                    break;
+                case '?':
+                case '*':
+                case '+':
+                case '{':
+                    // the last literal character is optional or repeated - remove it from the prefix
+                    removeLastCharacter(prefix);
+                    return prefix.toString();
+                case '.':
+                case '^':
+                case '$':
+                case '(':
+                case ')':
+                case '[':
+                case ']':
+                case '}':
+                    return prefix.toString();
+                default:
+                    break;
+            }
+            prefix.append(c);
+        }
+        return prefix.toString();
+    }
+
+    private static void removeLastCharacter(final StringBuilder prefix) {
+        int length = prefix.length();
+        if (length > 0) {
+            length--;
+            if (length > 0 && Character.isSurrogatePair(prefix.charAt(length - 1), prefix.charAt(length))) {
+                length--;
+            }
+            prefix.setLength(length);
+        }
+    }
+
+    private static boolean containsAlternation(final String regex) {
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '|') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -39,12 +39,16 @@
  */
 package org.glassfish.jersey.server.internal.routing;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -79,6 +83,12 @@ import com.google.common.collect.Sets;
  * The method selection algorithm selects the handling method based on the HTTP request
  * method name, requested media type as well as defined resource method media type
  * capabilities.
+ * <p>
+ * The outcome of a successful method selection depends only on the request method,
+ * the request content type and the request {@code Accept} header. The selected method
+ * and the effective response media type are therefore cached for each such request "shape",
+ * so that the selection for the subsequent requests of the same shape is a single lookup.
+ * </p>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -90,8 +100,16 @@ final class MethodSelectingRouter implements Router {
     private final Factory<ResponseProcessor.RespondingContext<ContainerResponse>> respondingContextFactory;
     private final MessageBodyWorkers workers;
 
+    /**
+     * Maximum number of cached method selections. Once reached, the methods for the new
+     * request shapes are selected without being cached.
+     */
+    private static final int MAX_CACHED_SELECTIONS = 256;
+
     private final Map<String, List<ConsumesProducesAcceptor>> consumesProducesAcceptors;
     private final Router router;
+    private final ConcurrentMap<RequestShape, MethodSelection> selectionCache =
+            new ConcurrentHashMap<RequestShape, MethodSelection>();
 
     /**
      * Injectable builder of a {@link MethodSelectingRouter} instance.
@@ -304,6 +322,110 @@ final class MethodSelectingRouter implements Router {
     }
 
 
+    /**
+     * Method selection cache key.
+     * <p>
+     * Only the type and subtype of the request content type are considered, as the content type
+     * parameters (e.g. a multipart boundary) do not influence the method selection. The {@code Accept}
+     * header values are considered as they are, without being parsed.
+     * </p>
+     */
+    private static final class RequestShape {
+
+        private final String method;
+        private final String contentType;
+        private final String contentSubtype;
+        private final List<String> accept;
+        private final int hash;
+
+        RequestShape(final String method, final MediaType contentType, final List<String> accept) {
+            this(method,
+                    contentType == null ? null : contentType.getType(),
+                    contentType == null ? null : contentType.getSubtype(),
+                    accept == null ? Collections.<String>emptyList() : accept);
+        }
+
+        private RequestShape(final String method, final String contentType, final String contentSubtype,
+                             final List<String> accept) {
+            this.method = method;
+            this.contentType = contentType;
+            this.contentSubtype = contentSubtype;
+            this.accept = accept;
+
+            int h = method.hashCode();
+            h = 31 * h + (contentType == null ? 0 : contentType.hashCode());
+            h = 31 * h + (contentSubtype == null ? 0 : contentSubtype.hashCode());
+            h = 31 * h + accept.hashCode();
+            this.hash = h;
+        }
+
+        /**
+         * Get a copy of the key that does not reference the (mutable) request headers.
+         *
+         * @return key suitable for storing in the cache.
+         */
+        RequestShape detach() {
+            return new RequestShape(method, contentType, contentSubtype,
+                    Collections.unmodifiableList(new ArrayList<String>(accept)));
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RequestShape)) {
+                return false;
+            }
+            final RequestShape other = (RequestShape) o;
+            return hash == other.hash
+                    && method.equals(other.method)
+                    && (contentType == null ? other.contentType == null : contentType.equals(other.contentType))
+                    && (contentSubtype == null ? other.contentSubtype == null : contentSubtype.equals(other.contentSubtype))
+                    && accept.equals(other.accept);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Result of a successful method selection: the router of the selected method and the function
+     * setting the effective response media type, shared by all the requests of the same shape.
+     */
+    private static final class MethodSelection {
+
+        private final Router router;
+        private final Function<ContainerResponse, ContainerResponse> responseMediaTypeSetter;
+
+        MethodSelection(final Router router, final MediaType producedType) {
+            this.router = router;
+            this.responseMediaTypeSetter = new Function<ContainerResponse, ContainerResponse>() {
+                @Override
+                public ContainerResponse apply(final ContainerResponse responseContext) {
+                    // we only need to compute and set the effective media type if it hasn't been set already
+                    // and either there is an entity, or we are responding to a HEAD request
+                    if (responseContext.getMediaType() == null &&
+                            (responseContext.hasEntity() ||
+                                    HttpMethod.HEAD.equals(responseContext.getRequestContext().getMethod()))) {
+                        MediaType effectiveResponseType = producedType;
+                        if (isWildcard(effectiveResponseType)) {
+                            if (effectiveResponseType.isWildcardType() || effectiveResponseType.getType().equalsIgnoreCase("application")) {
+                                effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
+                            } else {
+                                throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
+                            }
+                        }
+                        responseContext.setMediaType(effectiveResponseType);
+                    }
+                    return responseContext;
+                }
+            };
+        }
+    }
+
     private Router createInternalRouter() {
         return new Router() {
 
@@ -379,6 +501,21 @@ final class MethodSelectingRouter implements Router {
     }
 
     private Router getMethodRouter(final ContainerRequest requestContext) {
+        final RequestShape shape = new RequestShape(requestContext.getMethod(), requestContext.getMediaType(),
+                requestContext.getRequestHeader(HttpHeaders.ACCEPT));
+        MethodSelection selection = selectionCache.get(shape);
+        if (selection == null) {
+            selection = selectMethod(requestContext);
+            if (selectionCache.size() < MAX_CACHED_SELECTIONS) {
+                selectionCache.putIfAbsent(shape.detach(), selection);
+            }
+        }
+
+        respondingContextFactory.get().push(selection.responseMediaTypeSetter);
+        return selection.router;
+    }
+
+    private MethodSelection selectMethod(final ContainerRequest requestContext) {
         List<ConsumesProducesAcceptor> acceptors = consumesProducesAcceptors.get(requestContext.getMethod());
         if (acceptors == null) {
             throw new WebApplicationException(
@@ -418,38 +555,17 @@ final class MethodSelectingRouter implements Router {
             final RequestSpecificConsumesProducesAcceptor selected = methodSelector.selected;
 
             if (methodSelector.sameFitnessAcceptors != null) {
+                // reported once per cached request shape
                 reportMethodSelectionAmbiguity(acceptableMediaTypes, selected, methodSelector.sameFitnessAcceptors);
             }
 
-            respondingContextFactory.get().push(
-                    new Function<ContainerResponse, ContainerResponse>() {
-                        @Override
-                        public ContainerResponse apply(final ContainerResponse responseContext) {
-                            // we only need to compute and set the effective media type if it hasn't been set already
-                            // and either there is an entity, or we are responding to a HEAD request
-                            if (responseContext.getMediaType() == null &&
-                                    (responseContext.hasEntity() ||
-                                            HttpMethod.HEAD.equals(responseContext.getRequestContext().getMethod()))) {
-                                MediaType effectiveResponseType = selected.produces.getCombinedMediaType();
-                                if (isWildcard(effectiveResponseType)) {
-                                    if (effectiveResponseType.isWildcardType() || effectiveResponseType.getType().equalsIgnoreCase("application")) {
-                                        effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
-                                    } else {
-                                        throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
-                                    }
-                                }
-                                responseContext.setMediaType(effectiveResponseType);
-                            }
-                            return responseContext;
-                        }
-                    });
-            return selected.methodAcceptorPair.router;
+            return new MethodSelection(selected.methodAcceptorPair.router, selected.produces.getCombinedMediaType());
         }
 
         throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
     }
 
-    private boolean isWildcard(final MediaType effectiveResponseType) {
+    private static boolean isWildcard(final MediaType effectiveResponseType) {
         return effectiveResponseType.isWildcardType() || effectiveResponseType.isWildcardSubtype();
     }
 
@@ -49,9 +49,15 @@ import org.glassfish.hk2.Factory;
 
 import org.jvnet.hk2.annotations.Inject;
 
+import com.google.common.base.Function;
+
 /**
  * Matches the un-matched right-hand request path to a configured
  * {@link PathPattern path pattern}.
+ * <p>
+ * Only the routes whose path pattern starts with a literal prefix of the un-matched
+ * right-hand request path are matched, see {@link LiteralPrefixIndex}.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -81,8 +87,19 @@ class PathPatternRouter implements Router {
         }
     }
 
+    /**
+     * Function that returns the literal prefix of a path pattern.
+     */
+    private static final Function<PathPattern, String> LITERAL_PREFIX = new Function<PathPattern, String>() {
+
+        @Override
+        public String apply(final PathPattern pattern) {
+            return LiteralPrefixIndex.literalPrefix(pattern.getRegex());
+        }
+    };
+
     private final Factory<RoutingContext> contextProvider;
-    private final List<Route<PathPattern>> acceptedRoutes;
+    private final LiteralPrefixIndex<PathPattern> acceptedRoutes;
 
     /**
      * Constructs route methodAcceptorPair that uses {@link PathPattern} instances for
@@ -96,7 +113,7 @@ class PathPatternRouter implements Router {
                               final List<Route<PathPattern>> routes) {
 
         this.contextProvider = provider;
-        this.acceptedRoutes = routes;
+        this.acceptedRoutes = new LiteralPrefixIndex<PathPattern>(routes, LITERAL_PREFIX);
     }
 
     @Override
@@ -105,7 +122,7 @@ class PathPatternRouter implements Router {
         // Peek at matching information to obtain path to match
         String path = rc.getFinalMatchingGroup();
 
-        for (final Route<PathPattern> acceptedRoute : acceptedRoutes) {
+        for (final Route<PathPattern> acceptedRoute : acceptedRoutes.candidates(path)) {
             final MatchResult m = acceptedRoute.routingPattern().match(path);
             if (m != null) {
                 // Push match result information and rest of path to match
@@ -49,8 +49,14 @@ import org.glassfish.hk2.Factory;
 
 import org.jvnet.hk2.annotations.Inject;
 
+import com.google.common.base.Function;
+
 /**
  * Matches the un-matched right-hand request path to a configured {@link Pattern pattern}.
+ * <p>
+ * Only the routes whose pattern starts with a literal prefix of the un-matched
+ * right-hand request path are matched, see {@link LiteralPrefixIndex}.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -80,14 +86,25 @@ class PatternRouter implements Router {
         }
     }
 
+    /**
+     * Function that returns the literal prefix of a pattern.
+     */
+    private static final Function<Pattern, String> LITERAL_PREFIX = new Function<Pattern, String>() {
+
+        @Override
+        public String apply(final Pattern pattern) {
+            return LiteralPrefixIndex.literalPrefix(pattern);
+        }
+    };
+
     private final Factory<RoutingContext> contextProvider;
-    private final List<Route<Pattern>> acceptedRoutes;
+    private final LiteralPrefixIndex<Pattern> acceptedRoutes;
 
     private PatternRouter(Factory<RoutingContext> contextProvider,
                           List<Route<Pattern>> routes) {
 
         this.contextProvider = contextProvider;
-        this.acceptedRoutes = routes;
+        this.acceptedRoutes = new LiteralPrefixIndex<Pattern>(routes, LITERAL_PREFIX);
     }
 
     @Override
@@ -109,7 +126,7 @@ class PatternRouter implements Router {
             path = path.substring(1);
         }
 
-        for (final Route<Pattern> acceptedRoute : acceptedRoutes) {
+        for (final Route<Pattern> acceptedRoute : acceptedRoutes.candidates(path)) {
             final Matcher m = acceptedRoute.routingPattern().matcher(path);
             if (m.matches()) {
                 // Push match result information and rest of path to match
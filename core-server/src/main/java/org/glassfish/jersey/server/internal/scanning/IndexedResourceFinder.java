@@ -0,0 +1,137 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.server.ResourceFinder;
+
+/**
+ * A resource finder that iterates over the class files listed in the {@link ResourceIndexProcessor index}
+ * of a class path element.
+ * <p>
+ * Class files that are listed in the index but cannot be opened (e.g. because the class has been removed
+ * after the index was generated) are skipped.
+ * </p>
+ */
+final class IndexedResourceFinder implements ResourceFinder {
+
+    private static final Logger LOGGER = Logger.getLogger(IndexedResourceFinder.class.getName());
+
+    private final String root;
+    private final List<String> entries;
+
+    private Iterator<String> iterator;
+    private String next;
+    private InputStream current;
+
+    /**
+     * Create new indexed resource finder.
+     *
+     * @param root    URL of the class path element, ending with a {@code '/'}.
+     * @param entries names of the indexed class files relative to the class path element.
+     */
+    IndexedResourceFinder(final String root, final List<String> entries) {
+        this.root = root;
+        this.entries = entries;
+        this.iterator = entries.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && iterator.hasNext()) {
+            final String entry = iterator.next();
+            try {
+                closeCurrent();
+                current = new URL(root + entry).openStream();
+                next = entry;
+            } catch (IOException e) {
+                LOGGER.log(Level.CONFIG, "Indexed class file {0}{1} cannot be opened.", new Object[] {root, entry});
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (hasNext()) {
+            final String name = next;
+            next = null;
+            return name;
+        }
+
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InputStream open() {
+        return current;
+    }
+
+    @Override
+    public void reset() {
+        closeCurrent();
+        next = null;
+        iterator = entries.iterator();
+    }
+
+    private void closeCurrent() {
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Unable to close the indexed class file.", e);
+            }
+            current = null;
+        }
+    }
+}
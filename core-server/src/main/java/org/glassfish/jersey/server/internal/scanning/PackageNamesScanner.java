@@ -39,14 +39,19 @@
  */
 package org.glassfish.jersey.server.internal.scanning;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.ReflectPermission;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.glassfish.jersey.internal.util.ReflectionHelper;
@@ -79,6 +84,9 @@ import org.glassfish.jersey.uri.UriComponent;
  * <p>
  * If a URI scheme is not supported a {@link ResourceFinderException} will be thrown
  * and package scanning deployment will fail.
+ * <p>
+ * Class path elements that contain the index generated by {@link ResourceIndexProcessor}
+ * are not scanned, only the class files listed in the index are reported for such elements.
  *
  * @author Paul Sandoz
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
@@ -158,13 +166,21 @@ public class PackageNamesScanner implements ResourceFinder {
     private void init() {
         resourceFinderStack = new ResourceFinderStack();
 
+        final Map<String, List<String>> indexes = readIndexes();
         for (final String p : packages) {
+            final String path = p.replace('.', '/');
             try {
-                final Enumeration<URL> urls = ResourcesProvider.getInstance().
-                        getResources(p.replace('.', '/'), classloader);
+                final Enumeration<URL> urls = ResourcesProvider.getInstance().getResources(path, classloader);
                 while (urls.hasMoreElements()) {
+                    final URL url = urls.nextElement();
+                    final String root = getRoot(url.toExternalForm(), path);
+                    if (root != null && indexes.containsKey(root)) {
+                        resourceFinderStack.push(new IndexedResourceFinder(root, getEntries(indexes.get(root), path)));
+                        continue;
+                    }
+
                     try {
-                        addResourceFinder(toURI(urls.nextElement()));
+                        addResourceFinder(toURI(url));
                     } catch (URISyntaxException e) {
                         throw new ResourceFinderException("Error when converting a URL to a URI", e);
                     }
@@ -176,6 +192,90 @@ public class PackageNamesScanner implements ResourceFinder {
 
     }
 
+    /**
+     * Read all the {@link ResourceIndexProcessor indexes} visible to the class loader.
+     *
+     * @return map of class path element URLs (ending with {@code '/'}) to the indexed class names.
+     */
+    private Map<String, List<String>> readIndexes() {
+        final Map<String, List<String>> indexes = new HashMap<String, List<String>>();
+        try {
+            final Enumeration<URL> urls = ResourcesProvider.getInstance().
+                    getResources(ResourceIndexProcessor.INDEX_RESOURCE, classloader);
+            while (urls.hasMoreElements()) {
+                final URL url = urls.nextElement();
+                final String root = getRoot(url.toExternalForm(), ResourceIndexProcessor.INDEX_RESOURCE);
+                if (root != null) {
+                    final BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), "UTF-8"));
+                    try {
+                        indexes.put(root, readIndex(reader));
+                    } finally {
+                        reader.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ResourceFinderException("IO error when reading the resource index", e);
+        }
+        return indexes;
+    }
+
+    /**
+     * Get the URL of the class path element containing a resource.
+     *
+     * @param url  URL of the resource.
+     * @param path name of the resource.
+     * @return URL of the class path element ending with {@code '/'} or {@code null}
+     *         if the URL does not end with the resource name.
+     */
+    private static String getRoot(String url, final String path) {
+        if (path.length() == 0) {
+            return url.endsWith("/") ? url : url + '/';
+        }
+        if (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url.endsWith('/' + path) ? url.substring(0, url.length() - path.length()) : null;
+    }
+
+    /**
+     * Get the class file names of the indexed classes contained in a package or its sub-packages.
+     *
+     * @param classNames indexed class names.
+     * @param path       package name with {@code '.'} replaced by {@code '/'}.
+     * @return class file names relative to the class path element.
+     */
+    private static List<String> getEntries(final List<String> classNames, final String path) {
+        final String prefix = path.length() == 0 ? "" : path + '/';
+        final List<String> entries = new ArrayList<String>();
+        for (String className : classNames) {
+            final String entry = className.replace('.', '/') + ".class";
+            if (entry.startsWith(prefix)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Read the class names listed in a {@link ResourceIndexProcessor resource index}.
+     *
+     * @param reader index reader.
+     * @return class names listed in the index.
+     * @throws IOException in case of an I/O error.
+     */
+    static List<String> readIndex(final BufferedReader reader) throws IOException {
+        final List<String> classNames = new ArrayList<String>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.length() > 0) {
+                classNames.add(line);
+            }
+        }
+        return classNames.isEmpty() ? Collections.<String>emptyList() : classNames;
+    }
+
     /**
      * Find resources with a given name and class loader.
      */
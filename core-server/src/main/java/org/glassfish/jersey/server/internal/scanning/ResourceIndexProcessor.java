@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating the {@value #INDEX_RESOURCE} index of the classes
+ * annotated with {@link javax.ws.rs.Path} or {@link javax.ws.rs.ext.Provider}.
+ * <p>
+ * The index lists binary names of the annotated classes, one per line. {@link PackageNamesScanner}
+ * reads only the class files listed in the index of a class path element (a directory or a jar)
+ * instead of reading all the class files in the scanned packages of the element.
+ * </p>
+ * <p>
+ * The processor is not registered as a service, it has to be enabled explicitly, e.g. using
+ * the {@code -processor} option of {@code javac} or the {@code annotationProcessors} configuration
+ * of the Maven compiler plugin. The index is merged with an index produced by a previous (incremental)
+ * compilation into the same output directory. Classes that have been removed from the output or that are
+ * no longer annotated are ignored by the scanner. A class annotated in a compilation that did not run
+ * the processor is however not found by the scanner, so the processor has to be enabled in every
+ * compilation of the class path element.
+ * </p>
+ */
+@SupportedAnnotationTypes({"javax.ws.rs.Path", "javax.ws.rs.ext.Provider"})
+public class ResourceIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Class path resource name of the index.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/jersey/resource-index";
+
+    private final Set<String> classNames = new TreeSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind().isClass() || element.getKind().isInterface()) {
+                    classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            try {
+                writeIndex();
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Unable to write " + INDEX_RESOURCE + ": " + ex.getMessage());
+            }
+        }
+        // the annotations may be processed by other processors too
+        return false;
+    }
+
+    private void writeIndex() throws IOException {
+        readPreviousIndex();
+
+        final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+        final Writer writer = new OutputStreamWriter(index.openOutputStream(), "UTF-8");
+        try {
+            for (String className : classNames) {
+                writer.write(className);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void readPreviousIndex() {
+        try {
+            final FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(index.openInputStream(), "UTF-8"));
+            try {
+                classNames.addAll(PackageNamesScanner.readIndex(reader));
+            } finally {
+                reader.close();
+            }
+        } catch (IOException ex) {
+            // no previous index
+        }
+    }
+}
@@ -62,6 +62,7 @@ abstract class AbstractJavaResourceMethodDispatcher implements ResourceMethodDis
 
     private final Method method;
     private final InvocationHandler methodHandler;
+    private final DirectInvocationHandler directHandler;
 
     /**
      * Initialize common java resource method dispatcher structures.
@@ -72,6 +73,9 @@ abstract class AbstractJavaResourceMethodDispatcher implements ResourceMethodDis
     AbstractJavaResourceMethodDispatcher(Invocable resourceMethod, InvocationHandler methodHandler) {
         this.method = resourceMethod.getHandlingMethod();
         this.methodHandler = methodHandler;
+        this.directHandler = (methodHandler instanceof DirectInvocationHandler
+                && ((DirectInvocationHandler) methodHandler).getMethod().equals(method))
+                ? (DirectInvocationHandler) methodHandler : null;
     }
 
     @Override
@@ -109,6 +113,16 @@ abstract class AbstractJavaResourceMethodDispatcher implements ResourceMethodDis
      *     container exception in case the invocation failed.
      */
     final Object invoke(Object resource, Object... args) throws ProcessingException {
+        if (directHandler != null) {
+            try {
+                return directHandler.invokeDirect(resource, args);
+            } catch (ProcessingException ex) {
+                throw ex;
+            } catch (Throwable t) {
+                // exception thrown by the resource method potentially mappable
+                throw new MappableException(t);
+            }
+        }
         try {
             return methodHandler.invoke(resource, method, args);
         } catch (IllegalAccessException ex) {
@@ -0,0 +1,292 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Invocation handler that invokes a single resource Java method directly, i.e.
+ * without the use of the Java reflection API.
+ * <p>
+ * The direct invocation is performed by a small class generated for the resource
+ * method at resource model build time. The generated class casts the resource instance
+ * and the method arguments to the declared types, unboxes the primitive arguments and
+ * boxes the primitive return value, so that no reflective argument checking, array
+ * copying or exception wrapping takes place on the request processing path.
+ * </p>
+ * <p>
+ * {@link AbstractJavaResourceMethodDispatcher Jersey dispatchers} call the resource
+ * method via {@link #invokeDirect(Object, Object[])} that propagates any exception
+ * thrown by the method unchanged. Other users of the handler get the exceptions
+ * thrown by the method wrapped in an {@link InvocationTargetException}, exactly as
+ * if the method were invoked via {@link Method#invoke(Object, Object...)}.
+ * </p>
+ */
+final class DirectInvocationHandler implements InvocationHandler {
+
+    private static final Logger LOGGER = Logger.getLogger(DirectInvocationHandler.class.getName());
+    private static final AtomicInteger invokerCounter = new AtomicInteger();
+    private static final String INVOKE_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class),
+            new Type[] {Type.getType(Object.class), Type.getType(Method.class), Type.getType(Object[].class)});
+    /**
+     * Invoker class loaders by the resource class loader. The invoker class loader is kept only as long as some
+     * of its invoker classes are in use; the resource class loader is not kept from being unloaded.
+     */
+    private static final LoadingCache<ClassLoader, InvokerClassLoader> invokerClassLoaders = CacheBuilder.newBuilder()
+            .weakKeys()
+            .weakValues()
+            .build(new CacheLoader<ClassLoader, InvokerClassLoader>() {
+
+                @Override
+                public InvokerClassLoader load(ClassLoader parent) {
+                    return new InvokerClassLoader(parent);
+                }
+            });
+
+    private final Method method;
+    private final InvocationHandler invoker;
+
+    private DirectInvocationHandler(Method method, InvocationHandler invoker) {
+        this.method = method;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Create a new direct invocation handler for the invocable resource method.
+     *
+     * @param invocable invocable resource method.
+     * @return new direct invocation handler or {@code null} if the handling Java method
+     *     cannot be invoked directly (e.g. it is not accessible from outside of its package).
+     */
+    static DirectInvocationHandler create(Invocable invocable) {
+        final Method method = invocable.getHandlingMethod();
+        if (method == null || !isDirectlyInvocable(method)) {
+            return null;
+        }
+
+        final Class<?> owner = method.getDeclaringClass();
+        final String className = owner.getName() + "$$JerseyInvoker" + invokerCounter.incrementAndGet();
+        try {
+            final byte[] bytecode = generate(className.replace('.', '/'), method);
+            final Class<?> invokerClass = invokerClassLoaders.getUnchecked(owner.getClassLoader()).define(className, bytecode);
+            return new DirectInvocationHandler(method, (InvocationHandler) invokerClass.newInstance());
+        } catch (Throwable t) {
+            // e.g. security or linkage restrictions - fall back to reflection
+            LOGGER.log(Level.FINE, "Unable to generate direct invoker for " + method + ".", t);
+            return null;
+        }
+    }
+
+    /**
+     * Get the Java method invoked by the handler.
+     *
+     * @return invoked Java method.
+     */
+    Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Invoke the Java method on the resource instance.
+     *
+     * @param target resource instance.
+     * @param args method arguments.
+     * @return value returned by the method ({@code null} for {@code void} methods).
+     * @throws Throwable any exception thrown by the method.
+     */
+    Object invokeDirect(Object target, Object[] args) throws Throwable {
+        return invoker.invoke(target, method, args);
+    }
+
+    @Override
+    public Object invoke(Object target, Method method, Object[] args)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        if (this.method != method && !this.method.equals(method)) {
+            return method.invoke(target, args);
+        }
+        try {
+            return invoker.invoke(target, method, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private static boolean isDirectlyInvocable(Method method) {
+        final int modifiers = method.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers)
+                || !isPublic(method.getDeclaringClass()) || method.getDeclaringClass().getClassLoader() == null) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!isPublic(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+    }
+
+    /**
+     * Generate a class implementing {@link InvocationHandler} that invokes the method directly.
+     */
+    private static byte[] generate(String internalName, Method method) {
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                internalName, null, "java/lang/Object", new String[] {Type.getInternalName(InvocationHandler.class)});
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V");
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_DESCRIPTOR, null, new String[] {"java/lang/Throwable"});
+        mv.visitCode();
+        final Class<?> owner = method.getDeclaringClass();
+        final String ownerName = Type.getInternalName(owner);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, ownerName);
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            pushInt(mv, i);
+            mv.visitInsn(Opcodes.AALOAD);
+            unboxOrCast(mv, parameterTypes[i]);
+        }
+        mv.visitMethodInsn(owner.isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+                ownerName, method.getName(), Type.getMethodDescriptor(method));
+        box(mv, method.getReturnType());
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+
+    private static void unboxOrCast(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            final String wrapper = Type.getInternalName(wrapperOf(type));
+            mv.visitTypeInsn(Opcodes.CHECKCAST, wrapper);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapper, type.getName() + "Value", "()" + Type.getDescriptor(type));
+        } else if (type != Object.class) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+        }
+    }
+
+    private static void box(MethodVisitor mv, Class<?> type) {
+        if (type == void.class) {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        } else if (type.isPrimitive()) {
+            final Class<?> wrapper = wrapperOf(type);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+                    "(" + Type.getDescriptor(type) + ")" + Type.getDescriptor(wrapper));
+        }
+    }
+
+    private static Class<?> wrapperOf(Class<?> primitive) {
+        if (primitive == int.class) {
+            return Integer.class;
+        } else if (primitive == long.class) {
+            return Long.class;
+        } else if (primitive == boolean.class) {
+            return Boolean.class;
+        } else if (primitive == double.class) {
+            return Double.class;
+        } else if (primitive == float.class) {
+            return Float.class;
+        } else if (primitive == short.class) {
+            return Short.class;
+        } else if (primitive == byte.class) {
+            return Byte.class;
+        } else {
+            return Character.class;
+        }
+    }
+
+    /**
+     * Class loader defining the generated invoker classes of all the resource classes
+     * loaded by its parent class loader. The generated classes see the same classes
+     * as the resource class loader.
+     */
+    private static final class InvokerClassLoader extends ClassLoader {
+
+        InvokerClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+}
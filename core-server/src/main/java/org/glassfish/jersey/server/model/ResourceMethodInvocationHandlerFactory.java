@@ -67,6 +67,8 @@ import org.jvnet.hk2.annotations.Scoped;
  * invocation handler} instance retrieved from the providers. If no custom providers
  * are available, or if none of the providers returns a non-null invocation handler,
  * in such case a default invocation handler provided by the factory is returned.
+ * The default handler invokes the resource method {@link DirectInvocationHandler directly}
+ * whenever possible and falls back to the Java reflection API otherwise.
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -104,6 +106,7 @@ final class ResourceMethodInvocationHandlerFactory implements ResourceMethodInvo
             }
         }
 
-        return DEFAULT_HANDLER;
+        final InvocationHandler directHandler = DirectInvocationHandler.create(resourceMethod);
+        return directHandler != null ? directHandler : DEFAULT_HANDLER;
     }
 }
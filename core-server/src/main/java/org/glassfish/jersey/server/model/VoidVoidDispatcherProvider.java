@@ -64,13 +64,15 @@ final class VoidVoidDispatcherProvider implements ResourceMethodDispatcher.Provi
 
     private static class VoidToVoidDispatcher extends AbstractJavaResourceMethodDispatcher {
 
+        private static final Object[] NO_ARGS = new Object[0];
+
         private VoidToVoidDispatcher(Invocable resourceMethod, InvocationHandler handler) {
             super(resourceMethod, handler);
         }
 
         @Override
         public Response doDispatch(Object resource, Request request) throws ProcessingException {
-            invoke(resource);
+            invoke(resource, NO_ARGS);
             return Response.noContent().build();
         }
     }
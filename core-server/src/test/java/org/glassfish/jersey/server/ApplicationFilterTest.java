@@ -40,7 +40,9 @@
 package org.glassfish.jersey.server;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.BindingPriority;
@@ -54,11 +56,13 @@ import javax.ws.rs.core.Response;
 import org.glassfish.jersey.internal.inject.ProviderInstanceBindingModule;
 import org.glassfish.jersey.process.Inflector;
 import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.spi.PerLookup;
 
 import org.junit.Test;
 import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import junit.framework.Assert;
 import static junit.framework.Assert.assertEquals;
@@ -237,6 +241,38 @@ public class ApplicationFilterTest {
         assertEquals(200, application.apply(RequestContextBuilder.from("/test", "GET").build()).get().getStatus());
     }
 
+    @PerLookup
+    public static class PerLookupFilter implements ContainerRequestFilter {
+
+        private static final Set<PerLookupFilter> invoked = Collections.synchronizedSet(Sets.<PerLookupFilter>newIdentityHashSet());
+
+        @Override
+        public void filter(ContainerRequestContext context) throws IOException {
+            invoked.add(this);
+        }
+    }
+
+    @Test
+    public void testPerLookupFilterInstancePerRequest() throws Exception {
+        final ResourceConfig resourceConfig = new ResourceConfig().addClasses(PerLookupFilter.class);
+
+        Resource.Builder rb = Resource.builder("test");
+        rb.addMethod("GET").handledBy(new Inflector<ContainerRequestContext, Response>() {
+
+            @Override
+            public Response apply(ContainerRequestContext request) {
+                return Response.ok().build();
+            }
+        });
+        resourceConfig.addResources(rb.build());
+        final ApplicationHandler application = new ApplicationHandler(resourceConfig);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, application.apply(RequestContextBuilder.from("/test", "GET").build()).get().getStatus());
+        }
+        assertEquals(3, PerLookupFilter.invoked.size());
+    }
+
     public class ExceptionFilter implements ContainerRequestFilter {
         @Override
         public void filter(ContainerRequestContext context) throws IOException {
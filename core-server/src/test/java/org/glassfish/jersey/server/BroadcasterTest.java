@@ -0,0 +1,263 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests asynchronous {@link Broadcaster} delivery.
+ */
+public class BroadcasterTest {
+
+    private ExecutorService executor;
+
+    /**
+     * Chunked response that blocks when writing chunks until released.
+     */
+    private static class SlowChunkedResponse extends ChunkedResponse<String> {
+        final List<String> written = new CopyOnWriteArrayList<String>();
+        final CountDownLatch writeStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        SlowChunkedResponse() {
+            super(String.class);
+        }
+
+        @Override
+        public void write(String chunk) throws IOException {
+            written.add(chunk);
+            writeStarted.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Chunked response that fails to close.
+     */
+    private static class FailingCloseChunkedResponse extends ChunkedResponse<String> {
+        final AtomicInteger closeAttempts = new AtomicInteger();
+
+        FailingCloseChunkedResponse() {
+            super(String.class);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeAttempts.incrementAndGet();
+            throw new IOException("close failed");
+        }
+    }
+
+    private static class TestBroadcaster extends Broadcaster<String> {
+        final List<String> overflows = new CopyOnWriteArrayList<String>();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        TestBroadcaster(ExecutorService executor, OverflowPolicy overflowPolicy) {
+            super(executor, 2, overflowPolicy);
+        }
+
+        @Override
+        public void onClose(ChunkedResponse<String> chunkedResponse) {
+            closed.countDown();
+        }
+
+        @Override
+        public void onOverflow(ChunkedResponse<String> chunkedResponse, int lag, long dropped) {
+            overflows.add(lag + "/" + dropped);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private TestBroadcaster broadcastToSlowResponse(Broadcaster.OverflowPolicy overflowPolicy,
+                                                    SlowChunkedResponse response) throws InterruptedException {
+        final TestBroadcaster broadcaster = new TestBroadcaster(executor, overflowPolicy);
+        broadcaster.add(response);
+
+        broadcaster.broadcast("1");
+        assertTrue(response.writeStarted.await(10, TimeUnit.SECONDS));
+        for (String chunk : new String[]{"2", "3", "4", "5"}) {
+            broadcaster.broadcast(chunk);
+        }
+        response.release.countDown();
+
+        broadcaster.closeAll();
+        assertTrue(broadcaster.closed.await(10, TimeUnit.SECONDS));
+        return broadcaster;
+    }
+
+    @Test
+    public void testDropNewest() throws Exception {
+        final SlowChunkedResponse response = new SlowChunkedResponse();
+        final TestBroadcaster broadcaster = broadcastToSlowResponse(Broadcaster.OverflowPolicy.DROP_NEWEST, response);
+
+        assertEquals(Lists.newArrayList("1", "2", "3"), response.written);
+        assertEquals(Lists.newArrayList("2/1", "2/2"), broadcaster.overflows);
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        final SlowChunkedResponse response = new SlowChunkedResponse();
+        final TestBroadcaster broadcaster = broadcastToSlowResponse(Broadcaster.OverflowPolicy.DROP_OLDEST, response);
+
+        assertEquals(Lists.newArrayList("1", "4", "5"), response.written);
+        assertEquals(Lists.newArrayList("2/1", "2/2"), broadcaster.overflows);
+    }
+
+    @Test
+    public void testDisconnect() throws Exception {
+        final SlowChunkedResponse response = new SlowChunkedResponse();
+        final TestBroadcaster broadcaster = broadcastToSlowResponse(Broadcaster.OverflowPolicy.DISCONNECT, response);
+
+        assertEquals(Lists.newArrayList("1"), response.written);
+        assertEquals(Lists.newArrayList("2/3"), broadcaster.overflows);
+        assertTrue(response.isClosed());
+    }
+
+    @Test
+    public void testFailedCloseIsNotRetried() throws Exception {
+        final FailingCloseChunkedResponse response = new FailingCloseChunkedResponse();
+        final TestBroadcaster broadcaster = new TestBroadcaster(executor, Broadcaster.OverflowPolicy.DROP_NEWEST);
+        broadcaster.add(response);
+
+        broadcaster.closeAll();
+        assertTrue(broadcaster.closed.await(10, TimeUnit.SECONDS));
+        broadcaster.broadcast("1");
+        broadcaster.closeAll();
+        Thread.sleep(100);
+
+        assertEquals(1, response.closeAttempts.get());
+        assertEquals(-1, broadcaster.getLag(response));
+    }
+
+    @Test
+    public void testLagAndDropped() throws Exception {
+        final SlowChunkedResponse response = new SlowChunkedResponse();
+        final TestBroadcaster broadcaster = new TestBroadcaster(executor, Broadcaster.OverflowPolicy.DROP_NEWEST);
+        final List<String> overflows = new CopyOnWriteArrayList<String>();
+        broadcaster.addBroadcasterListener(new BroadcasterOverflowListener<String>() {
+            @Override
+            public void onOverflow(ChunkedResponse<String> chunkedResponse, int lag, long dropped) {
+                overflows.add(lag + "/" + dropped);
+            }
+
+            @Override
+            public void onException(ChunkedResponse<String> chunkedResponse, Exception exception) {
+            }
+
+            @Override
+            public void onClose(ChunkedResponse<String> chunkedResponse) {
+            }
+        });
+        broadcaster.add(response);
+        assertEquals(0, broadcaster.getLag(response));
+        assertEquals(0, broadcaster.getDropped(response));
+
+        broadcaster.broadcast("1");
+        assertTrue(response.writeStarted.await(10, TimeUnit.SECONDS));
+        for (String chunk : new String[]{"2", "3", "4"}) {
+            broadcaster.broadcast(chunk);
+        }
+        assertEquals(2, broadcaster.getLag(response));
+        assertEquals(1, broadcaster.getDropped(response));
+        assertEquals(Lists.newArrayList("2/1"), overflows);
+
+        response.release.countDown();
+        broadcaster.closeAll();
+        assertTrue(broadcaster.closed.await(10, TimeUnit.SECONDS));
+        assertEquals(-1, broadcaster.getLag(response));
+        assertEquals(-1, broadcaster.getDropped(response));
+    }
+
+    @Test
+    public void testBroadcastDoesNotBlock() throws Exception {
+        final SlowChunkedResponse slow = new SlowChunkedResponse();
+        final SlowChunkedResponse fast = new SlowChunkedResponse();
+        fast.release.countDown();
+
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            final TestBroadcaster broadcaster = new TestBroadcaster(pool, Broadcaster.OverflowPolicy.DROP_NEWEST);
+            broadcaster.add(slow);
+            broadcaster.add(fast);
+
+            broadcaster.broadcast("1");
+            broadcaster.broadcast("2");
+            assertTrue(slow.writeStarted.await(10, TimeUnit.SECONDS));
+
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (fast.written.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(Lists.newArrayList("1", "2"), fast.written);
+            assertEquals(Lists.newArrayList("1"), slow.written);
+        } finally {
+            slow.release.countDown();
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@code Content-Length} computation by buffering of response entities
+ * (see {@link ServerProperties#OUTBOUND_CONTENT_LENGTH_BUFFER}).
+ */
+public class ContentLengthBufferTest {
+
+    private static final int LARGE = ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_DEFAULT + 1;
+
+    @Path("/")
+    public static class Resource {
+
+        @Context
+        private ContainerRequest request;
+
+        @GET
+        @Path("small")
+        public StreamingOutput small() {
+            return new Output(100, false);
+        }
+
+        @GET
+        @Path("flushed")
+        public StreamingOutput flushed() {
+            return new Output(100, true);
+        }
+
+        @GET
+        @Path("unbuffered")
+        public StreamingOutput unbuffered() {
+            request.setProperty(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, 0);
+            return new Output(100, false);
+        }
+
+        @GET
+        @Path("large")
+        public StreamingOutput large() {
+            return new Output(LARGE, false);
+        }
+
+        @GET
+        @Path("string")
+        public String string() {
+            return "hello";
+        }
+    }
+
+    private static class Output implements StreamingOutput {
+
+        private final int size;
+        private final boolean flush;
+
+        private Output(int size, boolean flush) {
+            this.size = size;
+            this.flush = flush;
+        }
+
+        @Override
+        public void write(OutputStream output) throws IOException {
+            final byte[] data = new byte[size];
+            Arrays.fill(data, (byte) 'a');
+            output.write(data, 0, size / 2);
+            if (flush) {
+                output.flush();
+            }
+            output.write(data, size / 2, size - size / 2);
+        }
+    }
+
+    private static ApplicationHandler createApplication(Object bufferSize) {
+        final ResourceConfig rc = new ResourceConfig(Resource.class);
+        if (bufferSize != null) {
+            rc.setProperty(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, bufferSize);
+        }
+        return new ApplicationHandler(rc);
+    }
+
+    private static ContainerResponse get(ApplicationHandler app, String path) throws Exception {
+        return app.apply(RequestContextBuilder.from(path, "GET").build()).get();
+    }
+
+    @Test
+    public void testSmallStreamingEntity() throws Exception {
+        final ContainerResponse response = get(createApplication(null), "/small");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("100", response.getHeaderString("Content-Length"));
+    }
+
+    @Test
+    public void testLargeStreamingEntity() throws Exception {
+        final ContainerResponse response = get(createApplication(null), "/large");
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString("Content-Length"));
+    }
+
+    @Test
+    public void testFlushedStreamingEntity() throws Exception {
+        final ContainerResponse response = get(createApplication(null), "/flushed");
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString("Content-Length"));
+    }
+
+    @Test
+    public void testBufferingDisabledForResponse() throws Exception {
+        final ContainerResponse response = get(createApplication(null), "/unbuffered");
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString("Content-Length"));
+    }
+
+    @Test
+    public void testBufferSizeProperty() throws Exception {
+        assertEquals(String.valueOf(LARGE),
+                get(createApplication(String.valueOf(LARGE)), "/large").getHeaderString("Content-Length"));
+        assertNull(get(createApplication(0), "/small").getHeaderString("Content-Length"));
+        assertEquals("5", get(createApplication(0), "/string").getHeaderString("Content-Length"));
+    }
+}
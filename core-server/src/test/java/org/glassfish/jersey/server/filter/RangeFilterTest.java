@@ -0,0 +1,181 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.filter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.glassfish.jersey.message.internal.FileRegion;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link RangeFilter} unit tests.
+ */
+public class RangeFilterTest {
+
+    private static File file;
+
+    private ApplicationHandler handler;
+
+    @Path("/file")
+    public static class Resource {
+
+        @GET
+        @Produces("application/octet-stream")
+        public File get() {
+            return file;
+        }
+
+        @GET
+        @Path("text")
+        @Produces("text/plain")
+        public String text() {
+            return "text";
+        }
+    }
+
+    @BeforeClass
+    public static void createFile() throws IOException {
+        file = File.createTempFile("range", ".bin");
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[1000]);
+        } finally {
+            out.close();
+        }
+    }
+
+    @AfterClass
+    public static void deleteFile() {
+        file.delete();
+    }
+
+    @Before
+    public void setUp() {
+        final ResourceConfig rc = new ResourceConfig(Resource.class);
+        RangeFilter.enableFor(rc);
+        handler = new ApplicationHandler(rc);
+    }
+
+    private ContainerResponse get(final String path, final String range) throws Exception {
+        final RequestContextBuilder request = RequestContextBuilder.from("", path, "GET");
+        if (range != null) {
+            request.header("Range", range);
+        }
+        return handler.apply(request.build()).get();
+    }
+
+    private void assertRegion(final String range, final long first, final long last) throws Exception {
+        final ContainerResponse response = get("/file", range);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes " + first + "-" + last + "/1000", response.getHeaderString("Content-Range"));
+        assertEquals("application/octet-stream", response.getMediaType().toString());
+
+        final FileRegion region = (FileRegion) response.getEntity();
+        assertSame(file, region.getFile());
+        assertEquals(first, region.getPosition());
+        assertEquals(last - first + 1, region.getCount());
+    }
+
+    @Test
+    public void testNoRange() throws Exception {
+        final ContainerResponse response = get("/file", null);
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeaderString("Accept-Ranges"));
+        assertSame(file, response.getEntity());
+    }
+
+    @Test
+    public void testRanges() throws Exception {
+        assertRegion("bytes=0-0", 0, 0);
+        assertRegion("bytes=100-199", 100, 199);
+        assertRegion("bytes=900-", 900, 999);
+        assertRegion("bytes=900-5000", 900, 999);
+        assertRegion("bytes=-10", 990, 999);
+        assertRegion("bytes=-5000", 0, 999);
+        assertRegion("BYTES=1-2", 1, 2);
+    }
+
+    @Test
+    public void testUnsatisfiableRanges() throws Exception {
+        for (String range : new String[] {"bytes=1000-", "bytes=-0"}) {
+            final ContainerResponse response = get("/file", range);
+            assertEquals(416, response.getStatus());
+            assertEquals("bytes */1000", response.getHeaderString("Content-Range"));
+            assertFalse(response.hasEntity());
+        }
+    }
+
+    @Test
+    public void testIgnoredRanges() throws Exception {
+        for (String range : new String[] {"bytes=0-1,5-6", "bytes=5-1", "items=0-1", "bytes=a-b", "bytes=1"}) {
+            final ContainerResponse response = get("/file", range);
+            assertEquals(range, 200, response.getStatus());
+            assertSame(file, response.getEntity());
+        }
+    }
+
+    @Test
+    public void testNonFileEntity() throws Exception {
+        final ContainerResponse response = get("/file/text", "bytes=0-1");
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString("Accept-Ranges"));
+        assertTrue(response.getEntity() instanceof String);
+    }
+}
@@ -59,12 +59,14 @@ import javax.ws.rs.core.UriInfo;
 
 import javax.xml.bind.annotation.XmlRootElement;
 
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.RequestContextBuilder;
 
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 /**
  * @author Paul Sandoz
@@ -97,6 +99,21 @@ public class FormParamTest extends AbstractTest {
         assertEquals("foo", responseContext.getEntity());
     }
 
+    @Test
+    public void testBufferedFormEntityReleased() throws ExecutionException, InterruptedException {
+        initiateWebApplication(SimpleFormResource.class);
+
+        Form form = new Form();
+        form.param("a", "foo");
+
+        final ContainerRequest request =
+                RequestContextBuilder.from("/", "POST").type(MediaType.APPLICATION_FORM_URLENCODED).entity(form).build();
+        assertEquals("foo", apply(request).getEntity());
+
+        // the entity buffered to read the form parameters is released at the end of the request
+        assertNull(request.getEntityStream());
+    }
+
 
     @Path("/")
     public static class FormResourceNoConsumes {
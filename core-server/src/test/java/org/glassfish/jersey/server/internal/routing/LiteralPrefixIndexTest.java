@@ -0,0 +1,136 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.glassfish.jersey.uri.PathPattern;
+
+import org.glassfish.hk2.Factory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link LiteralPrefixIndex} unit tests.
+ */
+public class LiteralPrefixIndexTest {
+
+    private static final Function<String, String> REGEX_PREFIX = new Function<String, String>() {
+
+        @Override
+        public String apply(final String regex) {
+            return LiteralPrefixIndex.literalPrefix(regex);
+        }
+    };
+
+    @Test
+    public void testLiteralPrefix() {
+        assertEquals("", LiteralPrefixIndex.literalPrefix((String) null));
+        assertEquals("", LiteralPrefixIndex.literalPrefix(""));
+        assertEquals("/a/b", LiteralPrefixIndex.literalPrefix("/a/b"));
+        assertEquals("/a-b.c", LiteralPrefixIndex.literalPrefix("/a\\-b\\.c([^/]+?)"));
+        assertEquals("/a", LiteralPrefixIndex.literalPrefix("/ab?"));
+        assertEquals("/a", LiteralPrefixIndex.literalPrefix("/ab*c"));
+        assertEquals("/a", LiteralPrefixIndex.literalPrefix("/ab+"));
+        assertEquals("/a", LiteralPrefixIndex.literalPrefix("/ab{2}"));
+        assertEquals("/a", LiteralPrefixIndex.literalPrefix("/a\\.?"));
+        assertEquals("/", LiteralPrefixIndex.literalPrefix("/\\d+"));
+        assertEquals("/", LiteralPrefixIndex.literalPrefix("/.*"));
+        assertEquals("/", LiteralPrefixIndex.literalPrefix("/[ab]"));
+        assertEquals("", LiteralPrefixIndex.literalPrefix("/a|/b"));
+        assertEquals("", LiteralPrefixIndex.literalPrefix("^/a"));
+        assertEquals("", LiteralPrefixIndex.literalPrefix("(/.*)?"));
+        assertEquals("a", LiteralPrefixIndex.literalPrefix("a\uD801\uDC00?"));
+
+        assertEquals("/customers/", LiteralPrefixIndex.literalPrefix(new PathPattern("customers/{id}").getRegex()));
+        assertEquals("", LiteralPrefixIndex.literalPrefix(new PathPattern("/").getRegex()));
+        assertEquals("/a", LiteralPrefixIndex.literalPrefix(Pattern.compile("/a")));
+        assertEquals("", LiteralPrefixIndex.literalPrefix(Pattern.compile("/a", Pattern.CASE_INSENSITIVE)));
+    }
+
+    @Test
+    public void testCandidates() {
+        final List<Route<String>> routes = Lists.newArrayList(
+                route("/a/b/c"),
+                route("/a([^/]+?)"),
+                route("/x"),
+                route(""),
+                route("/a/b"),
+                route("/a/\\d+"));
+        final LiteralPrefixIndex<String> index = new LiteralPrefixIndex<String>(routes, REGEX_PREFIX);
+
+        assertCandidates(index, "/a/b/c/d", "/a/b/c", "/a([^/]+?)", "", "/a/b", "/a/\\d+");
+        assertCandidates(index, "/a/bc", "/a([^/]+?)", "", "/a/b", "/a/\\d+");
+        assertCandidates(index, "/a/1", "/a([^/]+?)", "", "/a/\\d+");
+        assertCandidates(index, "/ab", "/a([^/]+?)", "");
+        assertCandidates(index, "/x", "/x", "");
+        assertCandidates(index, "/y", "");
+        assertCandidates(index, "", "");
+        assertEquals(routes.size(), index.candidates(null).size());
+    }
+
+    @Test
+    public void testNoRoutes() {
+        final LiteralPrefixIndex<String> index =
+                new LiteralPrefixIndex<String>(Collections.<Route<String>>emptyList(), REGEX_PREFIX);
+
+        assertEquals(0, index.candidates("/a").size());
+        assertEquals(0, index.candidates(null).size());
+    }
+
+    private static Route<String> route(final String regex) {
+        return Route.of(regex, Collections.<Factory<Router>>emptyList());
+    }
+
+    private static void assertCandidates(final LiteralPrefixIndex<String> index, final String path,
+                                         final String... expected) {
+        final List<String> actual = Lists.newArrayList();
+        for (final Route<String> route : index.candidates(path)) {
+            actual.add(route.routingPattern());
+        }
+        assertEquals(Lists.newArrayList(expected), actual);
+    }
+}
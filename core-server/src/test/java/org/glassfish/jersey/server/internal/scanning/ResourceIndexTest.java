@@ -0,0 +1,205 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.server.ResourceFinder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ResourceIndexProcessor} and indexed package scanning tests.
+ */
+public class ResourceIndexTest {
+
+    private File classes;
+
+    @Before
+    public void setUp() {
+        classes = Files.createTempDir();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        delete(classes);
+    }
+
+    @Test
+    public void testIndexContent() throws Exception {
+        compile(true,
+                source("a.Resource", "@javax.ws.rs.Path(\"r\") public class Resource {}"),
+                source("a.Plain", "public class Plain {}"),
+                source("a.Outer", "public class Outer { @javax.ws.rs.ext.Provider public static class Inner {} }"),
+                source("a.b.Provider", "@javax.ws.rs.ext.Provider public class Provider {}"));
+
+        assertEquals(Arrays.asList("a.Outer$Inner", "a.Resource", "a.b.Provider"), readIndex());
+    }
+
+    @Test
+    public void testIncrementalCompilation() throws Exception {
+        compile(true, source("a.Resource", "@javax.ws.rs.Path(\"r\") public class Resource {}"));
+        compile(true, source("a.Other", "@javax.ws.rs.Path(\"o\") public class Other {}"));
+
+        assertEquals(Arrays.asList("a.Other", "a.Resource"), readIndex());
+    }
+
+    @Test
+    public void testIndexedScanning() throws Exception {
+        compile(true,
+                source("a.Resource", "@javax.ws.rs.Path(\"r\") public class Resource {}"),
+                source("a.Removed", "@javax.ws.rs.Path(\"x\") public class Removed {}"),
+                source("a.b.Provider", "@javax.ws.rs.ext.Provider public class Provider {}"),
+                source("c.Other", "@javax.ws.rs.Path(\"o\") public class Other {}"));
+        // not indexed classes are not scanned, indexed classes that no longer exist are skipped
+        compile(false, source("a.NotIndexed", "@javax.ws.rs.Path(\"n\") public class NotIndexed {}"));
+        assertTrue(new File(classes, "a/Removed.class").delete());
+
+        assertEquals(new TreeSet<String>(Arrays.asList("a.Resource", "a.b.Provider")), scan("a"));
+        assertEquals(Collections.singleton("a.b.Provider"), scan("a.b"));
+    }
+
+    @Test
+    public void testScanningWithoutIndex() throws Exception {
+        compile(false,
+                source("a.Resource", "@javax.ws.rs.Path(\"r\") public class Resource {}"),
+                source("a.b.Provider", "@javax.ws.rs.ext.Provider public class Provider {}"));
+
+        assertEquals(new TreeSet<String>(Arrays.asList("a.Resource", "a.b.Provider")), scan("a"));
+    }
+
+    private Set<String> scan(final String pkg) throws IOException {
+        final ClassLoader loader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, getClass().getClassLoader());
+        final AnnotationAcceptingListener listener = AnnotationAcceptingListener.newJaxrsResourceAndProviderListener(loader);
+
+        final ResourceFinder finder = new PackageNamesScanner(loader, new String[] {pkg});
+        while (finder.hasNext()) {
+            final String name = finder.next();
+            if (listener.accept(name)) {
+                final InputStream in = finder.open();
+                try {
+                    listener.process(name, in);
+                } finally {
+                    in.close();
+                }
+            }
+        }
+
+        final Set<String> names = new TreeSet<String>();
+        for (Class<?> c : listener.getAnnotatedClasses()) {
+            names.add(c.getName());
+        }
+        return names;
+    }
+
+    private List<String> readIndex() throws IOException {
+        return Files.readLines(new File(classes, ResourceIndexProcessor.INDEX_RESOURCE), Charsets.UTF_8);
+    }
+
+    private void compile(final boolean index, final JavaFileObject... sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            final String classPath = new File(Path.class.getProtectionDomain().getCodeSource().getLocation().getPath())
+                    .getPath() + File.pathSeparator + classes.getPath();
+            final List<String> options = new ArrayList<String>(Arrays.asList("-d", classes.getPath(), "-cp", classPath));
+            if (!index) {
+                options.add("-proc:none");
+            }
+
+            final JavaCompiler.CompilationTask task = compiler.getTask(
+                    null, fileManager, null, options, null, Arrays.asList(sources));
+            if (index) {
+                task.setProcessors(Collections.singleton(new ResourceIndexProcessor()));
+            }
+            assertTrue(task.call());
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static JavaFileObject source(final String className, final String body) {
+        final int dot = className.lastIndexOf('.');
+        final String code = "package " + className.substring(0, dot) + "; " + body;
+        return new SimpleJavaFileObject(
+                new File(className.replace('.', '/') + ".java").toURI(), JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -47,8 +47,10 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 
 import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.RequestContextBuilder;
 import org.glassfish.jersey.server.ResourceConfig;
 
@@ -173,6 +175,29 @@ public class ConsumeProduceSimpleTest  {
         assertEquals("XHTML", app.apply(RequestContextBuilder.from("/a/b", "GET").accept("text/xhtml").build()).get().getEntity());
     }
 
+    /**
+     * Repeated requests of the same shape are served using the cached method selection.
+     */
+    @Test
+    public void testConsumeProduceSimpleBeanRepeated() throws Exception {
+        ApplicationHandler app = createApplication(ConsumeProduceSimpleBean.class);
+
+        for (int i = 0; i < 3; i++) {
+            ContainerResponse response = app.apply(RequestContextBuilder.from("/a/b", "POST").entity("")
+                    .type("text/html").accept("text/html").build()).get();
+            assertEquals("HTML", response.getEntity());
+            assertEquals(MediaType.TEXT_HTML_TYPE, response.getMediaType());
+
+            response = app.apply(RequestContextBuilder.from("/a/b", "GET").accept("text/xhtml").build()).get();
+            assertEquals("XHTML", response.getEntity());
+            assertEquals(MediaType.valueOf("text/xhtml"), response.getMediaType());
+
+            response = app.apply(RequestContextBuilder.from("/a/b", "GET").accept("text/html").build()).get();
+            assertEquals("HTML", response.getEntity());
+            assertEquals(MediaType.TEXT_HTML_TYPE, response.getMediaType());
+        }
+    }
+
     @Path("/")
     @Consumes("text/html")
     @Produces("text/plain")
@@ -191,5 +216,7 @@ public class ConsumeProduceSimpleTest  {
         ApplicationHandler app = createApplication(ConsumeProduceWithParameters.class);
 
         assertEquals("{a=b, c=d}", app.apply(RequestContextBuilder.from("/", "POST").entity("<html>content</html>").type("text/html;a=b;c=d").build()).get().getEntity());
+        // content type parameters do not influence the (cached) method selection
+        assertEquals("{a=c}", app.apply(RequestContextBuilder.from("/", "POST").entity("<html>content</html>").type("text/html;a=c").build()).get().getEntity());
     }
 }
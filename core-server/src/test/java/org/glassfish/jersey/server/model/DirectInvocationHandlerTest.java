@@ -0,0 +1,146 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the generated {@link DirectInvocationHandler direct resource method invocation}.
+ */
+public class DirectInvocationHandlerTest {
+
+    public static class Calculator {
+
+        public long add(int a, long b, short c, byte d) {
+            return a + b + c + d;
+        }
+
+        public boolean not(boolean value) {
+            return !value;
+        }
+
+        public char[] chars(String value, char suffix) {
+            return (value + suffix).toCharArray();
+        }
+
+        public void fail(String message) throws IOException {
+            throw new IOException(message);
+        }
+
+        private String hidden() {
+            return "hidden";
+        }
+    }
+
+    private static DirectInvocationHandler create(String name, Class<?>... parameterTypes) throws Exception {
+        final Method method = Calculator.class.getDeclaredMethod(name, parameterTypes);
+        return DirectInvocationHandler.create(Invocable.create(MethodHandler.create(Calculator.class), method));
+    }
+
+    @Test
+    public void testPrimitives() throws Throwable {
+        final DirectInvocationHandler handler = create("add", int.class, long.class, short.class, byte.class);
+        assertNotNull(handler);
+        assertEquals(10L, handler.invokeDirect(new Calculator(), new Object[] {1, 2L, (short) 3, (byte) 4}));
+
+        assertEquals(Boolean.FALSE, create("not", boolean.class).invokeDirect(new Calculator(), new Object[] {true}));
+        assertArrayEquals("ab".toCharArray(),
+                (char[]) create("chars", String.class, char.class).invokeDirect(new Calculator(), new Object[] {"a", 'b'}));
+    }
+
+    @Test
+    public void testExceptions() throws Throwable {
+        final DirectInvocationHandler handler = create("fail", String.class);
+        try {
+            handler.invokeDirect(new Calculator(), new Object[] {"direct"});
+            fail("IOException expected.");
+        } catch (IOException expected) {
+            assertEquals("direct", expected.getMessage());
+        }
+
+        try {
+            handler.invoke(new Calculator(), handler.getMethod(), new Object[] {"reflective"});
+            fail("InvocationTargetException expected.");
+        } catch (InvocationTargetException expected) {
+            assertSame(IOException.class, expected.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testOtherMethodDelegatedToReflection() throws Throwable {
+        final DirectInvocationHandler handler = create("fail", String.class);
+        final Method add = Calculator.class.getMethod("add", int.class, long.class, short.class, byte.class);
+        assertEquals(3L, handler.invoke(new Calculator(), add, new Object[] {1, 1L, (short) 1, (byte) 0}));
+    }
+
+    @Test
+    public void testNonPublicMethodNotSupported() throws Exception {
+        assertNull(create("hidden"));
+    }
+
+    @Test
+    public void testInvokersShareClassLoader() throws Exception {
+        final Class<?> add = invokerClass(create("add", int.class, long.class, short.class, byte.class));
+        final Class<?> not = invokerClass(create("not", boolean.class));
+
+        assertNotSame(add, not);
+        assertSame(add.getClassLoader(), not.getClassLoader());
+        assertSame(Calculator.class.getClassLoader(), add.getClassLoader().getParent());
+    }
+
+    private static Class<?> invokerClass(DirectInvocationHandler handler) throws Exception {
+        final Field invoker = DirectInvocationHandler.class.getDeclaredField("invoker");
+        invoker.setAccessible(true);
+        return ((InvocationHandler) invoker.get(handler)).getClass();
+    }
+}
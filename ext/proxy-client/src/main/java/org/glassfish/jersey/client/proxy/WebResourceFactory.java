@@ -49,6 +49,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.ws.rs.*;
 import javax.ws.rs.client.Entity;
@@ -64,6 +66,15 @@ import javax.ws.rs.core.MultivaluedMap;
  * Factory for client-side representation of a resource.
  * See the <a href="package-summary.html">package overview</a>
  * for an example on how to use this class.
+ * <p>
+ * The annotations of a resource interface method are introspected only once, on the first
+ * invocation of the method; the resulting {@link InvocationPlan invocation plan} is shared
+ * by the resource proxy and all sub-resource proxies created from it. Web targets for the
+ * literal {@link Path @Path} of the resource methods are cached by each proxy as well, so
+ * that they reflect the configuration of the proxy target at the time of the first method
+ * invocation (similarly to the target of a resource interface annotated with {@code @Path}
+ * which is derived from the root target when the proxy is created).
+ * </p>
  *
  * @author Martin Matula (martin.matula at oracle.com)
  */
@@ -72,6 +83,8 @@ public final class WebResourceFactory implements InvocationHandler {
     private final MultivaluedMap<String, Object> headers;
     private final List<Cookie> cookies;
     private final Form form;
+    private final ConcurrentMap<Method, InvocationPlan> plans;
+    private final ConcurrentMap<Method, WebTarget> methodTargets = new ConcurrentHashMap<Method, WebTarget>();
 
     private static final MultivaluedMap<String, Object> EMPTY_HEADERS = new MultivaluedHashMap<String, Object>();
     private static final Form EMPTY_FORM = new Form();
@@ -109,141 +122,109 @@ public final class WebResourceFactory implements InvocationHandler {
      */
     public static <C> C newResource(Class<C> resourceInterface, WebTarget target, boolean ignoreResourcePath,
                                     MultivaluedMap<String, Object> headers, List<Cookie> cookies, Form form) {
+        return newResource(resourceInterface, target, ignoreResourcePath, headers, cookies, form,
+                new ConcurrentHashMap<Method, InvocationPlan>());
+    }
+
+    private static <C> C newResource(Class<C> resourceInterface, WebTarget target, boolean ignoreResourcePath,
+                                     MultivaluedMap<String, Object> headers, List<Cookie> cookies, Form form,
+                                     ConcurrentMap<Method, InvocationPlan> plans) {
         return (C) Proxy.newProxyInstance(resourceInterface.getClassLoader(),
                 new Class[] {resourceInterface},
                 new WebResourceFactory(ignoreResourcePath ? target : addPathFromAnnotation(resourceInterface, target),
-                        headers, cookies, form));
+                        headers, cookies, form, plans));
     }
 
     private WebResourceFactory(WebTarget target, MultivaluedMap<String, Object> headers, List<Cookie> cookies,
-                               Form form) {
+                               Form form, ConcurrentMap<Method, InvocationPlan> plans) {
         this.target = target;
         this.headers = headers;
         this.cookies = cookies;
         this.form = form;
+        this.plans = plans;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        // get the interface describing the resource
-        Class<?> proxyIfc = proxy.getClass().getInterfaces()[0];
-
-        // response type
-        Class<?> responseType = method.getReturnType();
-
-        // determine method name
-        String httpMethod = getHttpMethodName(method);
-        if (httpMethod == null) {
-            for (Annotation ann : method.getAnnotations()) {
-                httpMethod = getHttpMethodName(ann.annotationType());
-                if (httpMethod != null) {
-                    break;
-                }
-            }
-        }
-
-        // create a new UriBuilder appending the @Path attached to the method
-        WebTarget newTarget = addPathFromAnnotation(method, target);
-
-        if (httpMethod == null) {
-            if (newTarget == target) {
-                // no path annotation on the method -> fail
-                throw new UnsupportedOperationException("Not a resource method.");
-            } else if (!responseType.isInterface()) {
-                // the method is a subresource locator, but returns class,
-                // not interface - can't help here
-                throw new UnsupportedOperationException("Return type not an interface");
-            }
-        }
+        final InvocationPlan plan = getPlan(proxy, method);
+        WebTarget newTarget = getMethodTarget(method, plan);
 
         // process method params (build maps of (Path|Form|Cookie|Matrix|Header..)Params
-        // and extract entity type
-        MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<String, Object>(this.headers);
-        LinkedList<Cookie> cookies = new LinkedList<Cookie>(this.cookies);
-        Form form = new Form();
-        form.asMap().putAll(this.form.asMap());
-        Annotation[][] paramAnns = method.getParameterAnnotations();
+        // and extract entity type); the inherited maps are copied only when modified
+        MultivaluedHashMap<String, Object> headers = null;
+        LinkedList<Cookie> cookies = null;
+        Form form = null;
         Object entity = null;
-        for (int i = 0; i < paramAnns.length; i++) {
-            Map<Class, Annotation> anns = new HashMap<Class, Annotation>();
-            for (Annotation ann : paramAnns[i]) {
-                anns.put(ann.annotationType(), ann);
-            }
-            Annotation ann;
+        for (int i = 0; i < plan.params.length; i++) {
+            final ParamBinder param = plan.params[i];
             Object value = args[i];
-            if (anns.isEmpty()) {
+            if (param.source == null) {
                 entity = value;
-            } else {
-                if (value == null && (ann = anns.get(DefaultValue.class)) != null) {
-                    value = ((DefaultValue) ann).value();
+                continue;
+            }
+            if (value == null) {
+                value = param.defaultValue;
+                if (value == null) {
+                    continue;
                 }
-                if (value != null) {
-                    if ((ann = anns.get(PathParam.class)) != null) {
-                        newTarget = newTarget.pathParam(((PathParam) ann).value(), value);
-                    } else if ((ann = anns.get((QueryParam.class))) != null) {
-                        newTarget = newTarget.queryParam(((QueryParam) ann).value(), value);
-                    } else if ((ann = anns.get((HeaderParam.class))) != null) {
-                        headers.addAll(((HeaderParam) ann).value(), value);
-                    } else if ((ann = anns.get((CookieParam.class))) != null) {
-                        String name = ((CookieParam) ann).value();
-                        Cookie c;
-                        if (!(value instanceof Cookie)) {
-                            c = new Cookie(name, value.toString());
-                        } else {
-                            c = (Cookie) value;
-                            if (!name.equals(((Cookie) value).getName())) {
-                                // is this the right thing to do? or should I fail? or ignore the difference?
-                                c = new Cookie(name, c.getValue(), c.getPath(), c.getDomain(), c.getVersion());
-                            }
-                        }
-                        cookies.add(c);
-                    } else if ((ann = anns.get((MatrixParam.class))) != null) {
-                        newTarget = newTarget.matrixParam(((MatrixParam) ann).value(), value);
-                    } else if ((ann = anns.get((FormParam.class))) != null) {
-                        form.param(((FormParam) ann).value(), value.toString());
+            }
+            switch (param.source) {
+                case PATH:
+                    newTarget = newTarget.pathParam(param.name, value);
+                    break;
+                case QUERY:
+                    newTarget = newTarget.queryParam(param.name, value);
+                    break;
+                case HEADER:
+                    if (headers == null) {
+                        headers = new MultivaluedHashMap<String, Object>(this.headers);
                     }
-                }
+                    headers.addAll(param.name, value);
+                    break;
+                case COOKIE:
+                    if (cookies == null) {
+                        cookies = new LinkedList<Cookie>(this.cookies);
+                    }
+                    cookies.add(toCookie(param.name, value));
+                    break;
+                case MATRIX:
+                    newTarget = newTarget.matrixParam(param.name, value);
+                    break;
+                case FORM:
+                    if (form == null) {
+                        form = new Form();
+                        form.asMap().putAll(this.form.asMap());
+                    }
+                    form.param(param.name, value.toString());
+                    break;
+                default:
+                    // parameter annotated with annotations not supported by the proxy
+                    break;
             }
         }
 
-        if (httpMethod == null) {
+        if (plan.httpMethod == null) {
             // the method is a subresource locator
-            return WebResourceFactory.newResource(responseType, newTarget, true, headers, cookies, form);
-        }
-
-        // accepted media types
-        Produces produces = method.getAnnotation(Produces.class);
-        if (produces == null) {
-            produces = proxyIfc.getAnnotation(Produces.class);
-        }
-        String[] accepts = produces == null ? null : produces.value();
-
-        // determine content type
-        String contentType = null;
-        if (entity != null) {
-            Consumes consumes = method.getAnnotation(Consumes.class);
-            if (consumes == null) {
-                consumes = proxyIfc.getAnnotation(Consumes.class);
-            }
-            if (consumes != null && consumes.value().length > 0) {
-                // TODO: should consider q/qs instead of picking the first one
-                contentType = consumes.value()[0];
-            }
+            return WebResourceFactory.newResource(plan.responseType, newTarget, true,
+                    headers != null ? headers : new MultivaluedHashMap<String, Object>(this.headers),
+                    cookies != null ? cookies : new LinkedList<Cookie>(this.cookies),
+                    form != null ? form : copy(this.form),
+                    plan.subResourcePlans);
         }
 
         Invocation.Builder b;
-        if (accepts != null) {
-            b = newTarget.request(accepts);
+        if (plan.accepts != null) {
+            b = newTarget.request(plan.accepts);
         } else {
             b = newTarget.request();
         }
 
         // apply header params and cookies
-        for (Cookie c : cookies) {
+        for (Cookie c : (cookies != null ? cookies : this.cookies)) {
             b = b.cookie(c);
         }
         // TODO: change this to b.headers(headers) once we switch to the latest JAX-RS API
-        for (Map.Entry<String, List<Object>> header : headers.entrySet()) {
+        for (Map.Entry<String, List<Object>> header : (headers != null ? headers : this.headers).entrySet()) {
             for (Object value : header.getValue()) {
                 b = b.header(header.getKey(), value);
             }
@@ -251,13 +232,15 @@ public final class WebResourceFactory implements InvocationHandler {
 
         Object result;
 
+        if (form == null) {
+            form = this.form;
+        }
+        String contentType;
         if (entity == null && !form.asMap().isEmpty()) {
             entity = form;
             contentType = MediaType.APPLICATION_FORM_URLENCODED;
         } else {
-            if (contentType == null) {
-                contentType = MediaType.APPLICATION_OCTET_STREAM;
-            }
+            contentType = plan.contentType;
             if (!form.asMap().isEmpty()) {
                 if (entity instanceof Form) {
                     ((Form) entity).asMap().putAll(form.asMap());
@@ -268,14 +251,61 @@ public final class WebResourceFactory implements InvocationHandler {
         }
 
         if (entity != null) {
-            result = b.method(httpMethod, Entity.entity(entity, contentType), responseType);
+            result = b.method(plan.httpMethod, Entity.entity(entity, contentType), plan.responseType);
         } else {
-            result = b.method(httpMethod, responseType);
+            result = b.method(plan.httpMethod, plan.responseType);
         }
 
         return result;
     }
 
+    private InvocationPlan getPlan(Object proxy, Method method) {
+        InvocationPlan plan = plans.get(method);
+        if (plan == null) {
+            // get the interface describing the resource
+            final InvocationPlan newPlan = new InvocationPlan(proxy.getClass().getInterfaces()[0], method);
+            plan = plans.putIfAbsent(method, newPlan);
+            if (plan == null) {
+                plan = newPlan;
+            }
+        }
+        return plan;
+    }
+
+    private WebTarget getMethodTarget(Method method, InvocationPlan plan) {
+        if (plan.path == null) {
+            return target;
+        }
+        WebTarget methodTarget = methodTargets.get(method);
+        if (methodTarget == null) {
+            // create a new UriBuilder appending the @Path attached to the method
+            final WebTarget newTarget = target.path(plan.path);
+            methodTarget = methodTargets.putIfAbsent(method, newTarget);
+            if (methodTarget == null) {
+                methodTarget = newTarget;
+            }
+        }
+        return methodTarget;
+    }
+
+    private static Cookie toCookie(String name, Object value) {
+        if (!(value instanceof Cookie)) {
+            return new Cookie(name, value.toString());
+        }
+        Cookie c = (Cookie) value;
+        if (!name.equals(c.getName())) {
+            // is this the right thing to do? or should I fail? or ignore the difference?
+            c = new Cookie(name, c.getValue(), c.getPath(), c.getDomain(), c.getVersion());
+        }
+        return c;
+    }
+
+    private static Form copy(Form form) {
+        final Form copy = new Form();
+        copy.asMap().putAll(form.asMap());
+        return copy;
+    }
+
     private static WebTarget addPathFromAnnotation(AnnotatedElement ae, WebTarget target) {
         Path p = ae.getAnnotation(Path.class);
         if (p != null) {
@@ -288,4 +318,146 @@ public final class WebResourceFactory implements InvocationHandler {
         HttpMethod a = ae.getAnnotation(HttpMethod.class);
         return a == null ? null : a.value();
     }
+
+    /**
+     * Source of a resource method parameter value.
+     */
+    private static enum ParamSource {
+        PATH, QUERY, HEADER, COOKIE, MATRIX, FORM, UNSUPPORTED
+    }
+
+    /**
+     * Binds an argument of a resource method invocation to the request.
+     */
+    private static final class ParamBinder {
+        /**
+         * Parameter value source, {@code null} for the entity parameter.
+         */
+        final ParamSource source;
+        final String name;
+        final String defaultValue;
+
+        ParamBinder(Annotation[] annotations) {
+            final Map<Class<?>, Annotation> anns = new HashMap<Class<?>, Annotation>();
+            for (Annotation ann : annotations) {
+                anns.put(ann.annotationType(), ann);
+            }
+            Annotation ann;
+            if (anns.isEmpty()) {
+                source = null;
+                name = null;
+            } else if ((ann = anns.get(PathParam.class)) != null) {
+                source = ParamSource.PATH;
+                name = ((PathParam) ann).value();
+            } else if ((ann = anns.get(QueryParam.class)) != null) {
+                source = ParamSource.QUERY;
+                name = ((QueryParam) ann).value();
+            } else if ((ann = anns.get(HeaderParam.class)) != null) {
+                source = ParamSource.HEADER;
+                name = ((HeaderParam) ann).value();
+            } else if ((ann = anns.get(CookieParam.class)) != null) {
+                source = ParamSource.COOKIE;
+                name = ((CookieParam) ann).value();
+            } else if ((ann = anns.get(MatrixParam.class)) != null) {
+                source = ParamSource.MATRIX;
+                name = ((MatrixParam) ann).value();
+            } else if ((ann = anns.get(FormParam.class)) != null) {
+                source = ParamSource.FORM;
+                name = ((FormParam) ann).value();
+            } else {
+                source = ParamSource.UNSUPPORTED;
+                name = null;
+            }
+            ann = anns.get(DefaultValue.class);
+            defaultValue = ann == null ? null : ((DefaultValue) ann).value();
+        }
+    }
+
+    /**
+     * Immutable result of the resource interface method introspection.
+     */
+    private static final class InvocationPlan {
+        /**
+         * HTTP method, {@code null} for a sub-resource locator.
+         */
+        final String httpMethod;
+        /**
+         * Value of the method {@code @Path} annotation, {@code null} if not annotated.
+         */
+        final String path;
+        final Class<?> responseType;
+        final ParamBinder[] params;
+        /**
+         * Accepted media types or {@code null} if not declared.
+         */
+        final String[] accepts;
+        /**
+         * Media type of the request entity.
+         */
+        final String contentType;
+        /**
+         * Invocation plans of the sub-resource interface methods, {@code null} unless the method
+         * is a sub-resource locator.
+         */
+        final ConcurrentMap<Method, InvocationPlan> subResourcePlans;
+
+        InvocationPlan(Class<?> proxyIfc, Method method) {
+            // response type
+            responseType = method.getReturnType();
+
+            // determine method name
+            String httpMethod = getHttpMethodName(method);
+            if (httpMethod == null) {
+                for (Annotation ann : method.getAnnotations()) {
+                    httpMethod = getHttpMethodName(ann.annotationType());
+                    if (httpMethod != null) {
+                        break;
+                    }
+                }
+            }
+            this.httpMethod = httpMethod;
+
+            final Path p = method.getAnnotation(Path.class);
+            path = p == null ? null : p.value();
+
+            if (httpMethod == null) {
+                if (path == null) {
+                    // no path annotation on the method -> fail
+                    throw new UnsupportedOperationException("Not a resource method.");
+                } else if (!responseType.isInterface()) {
+                    // the method is a subresource locator, but returns class,
+                    // not interface - can't help here
+                    throw new UnsupportedOperationException("Return type not an interface");
+                }
+                subResourcePlans = new ConcurrentHashMap<Method, InvocationPlan>();
+            } else {
+                subResourcePlans = null;
+            }
+
+            final Annotation[][] paramAnns = method.getParameterAnnotations();
+            params = new ParamBinder[paramAnns.length];
+            for (int i = 0; i < paramAnns.length; i++) {
+                params[i] = new ParamBinder(paramAnns[i]);
+            }
+
+            // accepted media types
+            Produces produces = method.getAnnotation(Produces.class);
+            if (produces == null) {
+                produces = proxyIfc.getAnnotation(Produces.class);
+            }
+            accepts = produces == null ? null : produces.value();
+
+            // determine content type
+            Consumes consumes = method.getAnnotation(Consumes.class);
+            if (consumes == null) {
+                consumes = proxyIfc.getAnnotation(Consumes.class);
+            }
+            if (consumes != null && consumes.value().length > 0) {
+                // TODO: should consider q/qs instead of picking the first one
+                contentType = consumes.value()[0];
+            } else {
+                contentType = MediaType.APPLICATION_OCTET_STREAM;
+            }
+        }
+    }
 }
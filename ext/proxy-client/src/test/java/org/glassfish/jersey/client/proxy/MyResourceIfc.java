@@ -40,7 +40,10 @@
 package org.glassfish.jersey.client.proxy;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.FormParam;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -69,6 +72,17 @@ public interface MyResourceIfc {
     @Produces(MediaType.TEXT_PLAIN)
     String getByName(@QueryParam("name") String name);
 
+    @Path("header")
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    String getByHeader(@HeaderParam("name") @DefaultValue("none") String name);
+
+    @Path("form")
+    @POST
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    @Produces(MediaType.TEXT_PLAIN)
+    String postForm(@FormParam("name") String name);
+
     @Path("subresource")
     MySubResourceIfc getSubResource();
 }
@@ -87,6 +87,25 @@ public class WebResourceFactoryTest extends JerseyTest {
         assertEquals("jiri", resource.getByName("jiri"));
     }
 
+    @Test
+    public void testRepeatedPathParam() {
+        assertEquals("a", resource.getId("a"));
+        assertEquals("b", resource.getId("b"));
+    }
+
+    @Test
+    public void testHeaderParam() {
+        assertEquals("jiri", resource.getByHeader("jiri"));
+        // the header from the previous call must not leak, the default value is used instead
+        assertEquals("none", resource.getByHeader(null));
+    }
+
+    @Test
+    public void testFormParam() {
+        assertEquals("marek", resource.postForm("marek"));
+        assertEquals("jakub", resource.postForm("jakub"));
+    }
+
     @Test
     public void testSubResource() {
         assertEquals("Got it!", resource.getSubResource().getMyBean().name);
@@ -60,6 +60,7 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 
+import org.glassfish.jersey.media.json.JsonConfigured;
 import org.glassfish.jersey.media.json.JsonJaxbContext;
 import org.glassfish.jersey.media.json.JsonMarshaller;
 import org.glassfish.jersey.media.json.internal.reader.JsonFormatException;
@@ -146,6 +147,10 @@ public class JsonJaxbElementProvider extends AbstractJaxbElementProvider {
 
         JsonMarshaller jsonMarshaller = JsonJaxbContext.getJSONMarshaller(m);
         if (isFormattedOutput()) {
+            if (m instanceof JsonConfigured) {
+                // formatting changes the JSON configuration of the marshaller for good
+                discardMarshaller(m);
+            }
             jsonMarshaller.setProperty(JsonMarshaller.FORMATTED, true);
         }
         jsonMarshaller.marshallToJSON(t, new OutputStreamWriter(entityStream, c));
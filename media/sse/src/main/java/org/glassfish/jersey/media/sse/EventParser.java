@@ -0,0 +1,236 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.lang.annotation.Annotation;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.message.MessageBodyWorkers;
+
+/**
+ * Incremental parser of the server-sent events stream.
+ *
+ * The parser is fed with blocks of bytes as they arrive; lines split between two blocks are
+ * assembled in an internal buffer, complete lines are parsed in place. Field values are decoded as UTF-8.
+ */
+/* package */ final class EventParser {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte[] EVENT_FIELD = "event".getBytes(UTF_8);
+    private static final byte[] DATA_FIELD = "data".getBytes(UTF_8);
+    private static final byte[] ID_FIELD = "id".getBytes(UTF_8);
+    private static final byte[] RETRY_FIELD = "retry".getBytes(UTF_8);
+
+    private final Annotation[] annotations;
+    private final MediaType mediaType;
+    private final MultivaluedMap<String, String> headers;
+    private final MessageBodyWorkers messageBodyWorkers;
+
+    /**
+     * Beginning of a line that has not been terminated in the bytes parsed so far.
+     */
+    private byte[] lineBuffer = new byte[256];
+    private int lineLength = 0;
+
+    private InboundEvent event;
+    private long reconnectDelay = -1;
+
+    /**
+     * Create new parser.
+     *
+     * @param annotations to be passed to {@link InboundEvent} instance for use during {@link InboundEvent#getData(Class)} call
+     * @param mediaType to be passed to {@link InboundEvent} instance for use during {@link InboundEvent#getData(Class)} call
+     * @param headers to be passed to {@link InboundEvent} instance for use during {@link InboundEvent#getData(Class)} call
+     * @param messageBodyWorkers to be passed to {@link InboundEvent} instance for use during {@link InboundEvent#getData(Class)} call
+     */
+    EventParser(Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> headers, MessageBodyWorkers messageBodyWorkers) {
+        this.annotations = annotations;
+        this.mediaType = mediaType;
+        this.headers = headers;
+        this.messageBodyWorkers = messageBodyWorkers;
+    }
+
+    /**
+     * Parse bytes between the position and the limit of an array-backed buffer until an event is complete.
+     *
+     * The buffer position is advanced past the last byte parsed. If no event has been completed, all the
+     * remaining bytes of the buffer are consumed.
+     *
+     * @param buffer bytes of the event stream.
+     * @return next complete event or {@code null} if more bytes are needed to complete the event.
+     */
+    InboundEvent next(ByteBuffer buffer) {
+        final byte[] array = buffer.array();
+        final int offset = buffer.arrayOffset();
+        final int limit = offset + buffer.limit();
+        int position = offset + buffer.position();
+
+        while (position < limit) {
+            int i = position;
+            while (i < limit && array[i] != '\n') {
+                i++;
+            }
+
+            if (i == limit) {
+                appendToLine(array, position, limit - position);
+                position = limit;
+                break;
+            }
+
+            final InboundEvent completed;
+            if (lineLength == 0) {
+                completed = processLine(array, position, i);
+            } else {
+                appendToLine(array, position, i - position);
+                completed = processLine(lineBuffer, 0, lineLength);
+                lineLength = 0;
+            }
+            position = i + 1;
+
+            if (completed != null) {
+                buffer.position(position - offset);
+                return completed;
+            }
+        }
+
+        buffer.position(position - offset);
+        return null;
+    }
+
+    /**
+     * Get the reconnection delay requested by the server in the last {@code retry} field.
+     *
+     * @return reconnection delay in milliseconds or {@code -1} if the server has not requested any.
+     */
+    long getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    private void appendToLine(byte[] bytes, int offset, int length) {
+        if (lineLength + length > lineBuffer.length) {
+            final byte[] newLineBuffer = new byte[Math.max(lineBuffer.length << 1, lineLength + length)];
+            System.arraycopy(lineBuffer, 0, newLineBuffer, 0, lineLength);
+            lineBuffer = newLineBuffer;
+        }
+        System.arraycopy(bytes, offset, lineBuffer, lineLength, length);
+        lineLength += length;
+    }
+
+    private InboundEvent processLine(byte[] line, int start, int end) {
+        if (end > start && line[end - 1] == '\r') {
+            end--;
+        }
+
+        if (start == end) {
+            // empty line dispatches the event
+            final InboundEvent completed = event;
+            event = null;
+            return (completed == null || completed.isEmpty()) ? null : completed;
+        }
+
+        if (line[start] != ':') {
+            // lines starting with a colon are comments
+            processField(line, start, end);
+        }
+        return null;
+    }
+
+    private void processField(byte[] line, int start, int end) {
+        int nameEnd = start;
+        while (nameEnd < end && line[nameEnd] != ':') {
+            nameEnd++;
+        }
+
+        int valueStart = nameEnd;
+        if (valueStart < end) {
+            // skip the colon and the first space
+            valueStart++;
+            if (valueStart < end && line[valueStart] == ' ') {
+                valueStart++;
+            }
+        }
+
+        if (isField(EVENT_FIELD, line, start, nameEnd)) {
+            getEvent().setName(new String(line, valueStart, end - valueStart, UTF_8));
+        } else if (isField(DATA_FIELD, line, start, nameEnd)) {
+            getEvent().addData(line, valueStart, end - valueStart);
+        } else if (isField(ID_FIELD, line, start, nameEnd)) {
+            getEvent().setId(new String(line, valueStart, end - valueStart, UTF_8));
+        } else if (isField(RETRY_FIELD, line, start, nameEnd)) {
+            long delay = 0;
+            for (int i = valueStart; i < end; i++) {
+                if (line[i] < '0' || line[i] > '9') {
+                    // ignore values that are not a base-ten integer
+                    return;
+                }
+                delay = delay * 10 + (line[i] - '0');
+            }
+            if (valueStart < end) {
+                reconnectDelay = delay;
+            }
+        } else {
+            // ignore
+        }
+    }
+
+    private InboundEvent getEvent() {
+        if (event == null) {
+            event = new InboundEvent(messageBodyWorkers, annotations, mediaType, headers);
+        }
+        return event;
+    }
+
+    private static boolean isField(byte[] field, byte[] line, int start, int nameEnd) {
+        if (nameEnd - start != field.length) {
+            return false;
+        }
+        for (int i = 0; i < field.length; i++) {
+            if (line[start + i] != field[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
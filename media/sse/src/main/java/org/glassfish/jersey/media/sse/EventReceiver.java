@@ -39,11 +39,11 @@
  */
 package org.glassfish.jersey.media.sse;
 
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.nio.ByteBuffer;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -56,30 +56,24 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
 /**
  * Base functionality for {@link EventProcessor} and {@link EventProcessorReader}.
  *
- * Processes incoming stream and parses {@link InboundEvent}s.
+ * Processes incoming stream and parses {@link InboundEvent}s. The stream is read in blocks
+ * which are parsed by an {@link EventParser}.
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  */
 /* package */ final class EventReceiver implements Closeable {
 
-    private enum State {
-        START,
-
-        COMMENT,
-        FIELD_NAME,
-        FIELD_VALUE_FIRST,
-        FIELD_VALUE,
-
-        EVENT_FIRED
-    }
+    private static final int BUFFER_SIZE = 8192;
 
     private final InputStream inputStream;
-    private final Annotation[] annotations;
-    private final MediaType mediaType;
-    private final MultivaluedMap<String, String> headers;
-    private final MessageBodyWorkers messageBodyWorkers;
+    private final EventParser parser;
     private boolean closed = false;
 
+    /**
+     * Bytes read from the input stream and not parsed yet. Kept between {@link #process} invocations.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
     /**
      * Constructor.
      *
@@ -91,10 +85,8 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
      */
     EventReceiver(InputStream inputStream, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> headers, MessageBodyWorkers messageBodyWorkers) {
         this.inputStream = inputStream;
-        this.annotations = annotations;
-        this.mediaType = mediaType;
-        this.headers = headers;
-        this.messageBodyWorkers = messageBodyWorkers;
+        this.parser = new EventParser(annotations, mediaType, headers, messageBodyWorkers);
+        buffer.limit(0);
     }
 
     /* package */ void process(final LinkedBlockingQueue<InboundEvent> inboundEventQueue, final EventSource eventSource) {
@@ -103,90 +95,31 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
          * last editors draft from 13 March 2012
          */
 
-        InboundEvent inboundEvent = new InboundEvent(messageBodyWorkers, annotations, mediaType, headers);
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        State currentState = State.START;
-        String fieldName = null;
-
         try {
-            int data = 0;
-            while(currentState != State.EVENT_FIRED && (data = inputStream.read()) != -1) {
-
-                switch (currentState) {
-
-                    case START:
-                        if(data == ':') {
-                            currentState = State.COMMENT;
-                        } else if(data != '\n') {
-                            baos.write(data);
-                            currentState = State.FIELD_NAME;
-                        } else if(data == '\n') {
-                            if(!inboundEvent.isEmpty()) {
-                                // fire!
-                                if(inboundEventQueue != null) {
-                                    inboundEventQueue.add(inboundEvent);
-                                }
-
-                                if(eventSource != null) {
-                                    eventSource.onReceivedEvent(inboundEvent);
-                                }
-
-                                currentState = State.EVENT_FIRED;
-                            }
-
-                            inboundEvent = new InboundEvent(messageBodyWorkers, annotations, mediaType, headers);
-                        }
-                        break;
-                    case COMMENT:
-                        if(data == '\n') {
-                            currentState = State.START;
-                        }
-                        break;
-                    case FIELD_NAME:
-                        if(data == ':') {
-                            fieldName = baos.toString();
-                            baos.reset();
-                            currentState = State.FIELD_VALUE_FIRST;
-                        } else if(data == '\n') {
-                            processField(inboundEvent, baos.toString(), "".getBytes());
-                            baos.reset();
-                            currentState = State.START;
-                        } else {
-                            baos.write(data);
-                        }
-                        break;
-                    case FIELD_VALUE_FIRST:
-                        // first space has to be skipped
-                        if(data != ' ') {
-                            baos.write(data);
-                        }
-
-                        if(data == '\n') {
-                            processField(inboundEvent, fieldName, baos.toByteArray());
-                            baos.reset();
-                            currentState = State.START;
-                            break;
-                        }
-
-                        currentState = State.FIELD_VALUE;
-                        break;
-                    case FIELD_VALUE:
-                        if(data == '\n') {
-                            processField(inboundEvent, fieldName, baos.toByteArray());
-                            baos.reset();
-                            currentState = State.START;
-                        } else {
-                            baos.write(data);
-                        }
-                        break;
+            while (true) {
+                final InboundEvent inboundEvent = parser.next(buffer);
+                if (inboundEvent != null) {
+                    // fire!
+                    if (inboundEventQueue != null) {
+                        inboundEventQueue.add(inboundEvent);
+                    }
+
+                    if (eventSource != null) {
+                        eventSource.onReceivedEvent(inboundEvent);
+                    }
+                    return;
                 }
 
+                // the parser consumed all the buffered bytes
+                final int read = inputStream.read(buffer.array(), 0, buffer.capacity());
+                if (read == -1) {
+                    break;
+                }
+                buffer.position(0);
+                buffer.limit(read);
             }
 
-            if(data == -1) {
-                close();
-            }
+            close();
         } catch (IOException e) {
             Logger.getLogger(this.getClass().getName()).log(Level.FINE, e.getMessage(), e);
             if (!closed) {
@@ -200,28 +133,6 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
 
     }
 
-    private void processField(InboundEvent inboundEvent, String name, byte[] value) {
-        if(name.equals("event")) {
-            inboundEvent.setName(new String(value));
-        } else if(name.equals("data")) {
-            inboundEvent.addData(value);
-            inboundEvent.addData(new byte[]{'\n'});
-        } else if(name.equals("id")) {
-            String s = new String(value);
-            try {
-                // TODO: check the value [0-9]*
-                Integer.parseInt(new String(value));
-            } catch (NumberFormatException nfe) {
-                s = "";
-            }
-            inboundEvent.setId(s);
-        } else if(name.equals("retry")) {
-            // TODO
-        } else {
-            // ignore
-        }
-    }
-
     /**
      * Get object state.
      *
@@ -58,6 +58,10 @@ import javax.ws.rs.client.WebTarget;
  * Whenever any event is received, {@link EventSource#onEvent(InboundEvent)} is called and listeners (if any) are notified (see
  * {@link EventSource#addEventListener(String, EventListener)} and {@link EventSource#addEventListener(String, EventListener)}.</p>
  *
+ * <p>By default, each {@link EventSource} reads its event stream in a dedicated thread. Event sources created with
+ * an {@link EventSourceMultiplexer} share the multiplexer threads instead and reconnect automatically when the
+ * event stream is lost.</p>
+ *
  * <p>Instances of this class are thread safe.</p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
@@ -65,6 +69,7 @@ import javax.ws.rs.client.WebTarget;
 public class EventSource implements EventListener {
 
     private final WebTarget target;
+    private final EventSourceMultiplexer.Connection connection;
     private volatile EventProcessor processor;
     private boolean close = false;
 
@@ -95,6 +100,7 @@ public class EventSource implements EventListener {
      */
     public EventSource(WebTarget target, ExecutorService executorService) {
         this.target = target;
+        this.connection = null;
 
         executorService.execute(new Runnable() {
             @Override
@@ -104,6 +110,20 @@ public class EventSource implements EventListener {
         });
     }
 
+    /**
+     * Create new instance and start processing incoming {@link InboundEvent}s in provided {@link EventSourceMultiplexer}.
+     *
+     * <p>The event stream is reconnected whenever it is lost, until this event source is {@link #close() closed};
+     * see {@link EventSourceMultiplexer} for details.</p>
+     *
+     * @param target JAX-RS {@link WebTarget} instance which will be used to obtain {@link InboundEvent}s.
+     * @param multiplexer used for processing events.
+     */
+    public EventSource(WebTarget target, EventSourceMultiplexer multiplexer) {
+        this.target = target;
+        this.connection = multiplexer.open(this, target);
+    }
+
     /**
      * Add {@link EventListener}.
      *
@@ -189,7 +209,9 @@ public class EventSource implements EventListener {
      * Closes this event source.
      */
     public synchronized void close() {
-        if (processor != null) {
+        if (connection != null) {
+            connection.close();
+        } else if (processor != null) {
             processor.close();
         } else {
             close = true;
@@ -0,0 +1,169 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.BindingPriority;
+import javax.ws.rs.client.ClientException;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.internal.util.collection.Ref;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+
+import org.jvnet.hk2.annotations.Inject;
+
+/**
+ * Client request filter used by {@link EventSourceMultiplexer} to pass the event stream request
+ * through the client request processing without sending it.
+ *
+ * The filter is registered in the configuration of the handshake invocation only, so the configuration
+ * of the event source target is not modified. It runs after all other request filters, so that the request
+ * reflects the changes made by them. It captures the request URI, the request headers and the message body
+ * workers of the client configuration and stops the request processing before the request is sent; response
+ * filters are not invoked.
+ */
+@BindingPriority(Integer.MAX_VALUE)
+class EventSourceHandshake implements ClientRequestFilter {
+
+    /**
+     * Handshake invocation configuration property holding the {@link Result} of the handshake.
+     */
+    private static final String RESULT_PROPERTY = EventSourceHandshake.class.getName() + ".result";
+
+    @Inject
+    Ref<MessageBodyWorkers> messageBodyWorkers;
+
+    /**
+     * Event stream request as prepared by the client.
+     */
+    static final class Result {
+
+        private volatile URI uri;
+        private volatile MultivaluedMap<String, String> headers;
+        private volatile MessageBodyWorkers messageBodyWorkers;
+
+        URI getUri() {
+            return uri;
+        }
+
+        MultivaluedMap<String, String> getHeaders() {
+            return headers;
+        }
+
+        MessageBodyWorkers getMessageBodyWorkers() {
+            return messageBodyWorkers;
+        }
+    }
+
+    /**
+     * Thrown by the filter to stop the request processing once the request has been captured.
+     */
+    private static final class Completed extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * Run the handshake for an event stream request to the given target.
+     *
+     * @param target      event stream target.
+     * @param lastEventId id of the last received event, {@code null} if no event has been received yet.
+     * @return event stream request as prepared by the client.
+     * @throws ClientException if the request has not reached the handshake filter.
+     */
+    static Result perform(WebTarget target, String lastEventId) {
+        final Result result = new Result();
+
+        final Invocation.Builder request = target.request(EventChannel.SERVER_SENT_EVENTS_TYPE)
+                .header("Cache-Control", "no-cache");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        request.configuration()
+                .register(EventSourceHandshake.class)
+                .setProperty(RESULT_PROPERTY, result);
+
+        RuntimeException failure = null;
+        try {
+            request.get();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        if (result.messageBodyWorkers == null) {
+            throw new ClientException("Event stream request to " + target.getUri() + " has not been prepared.", failure);
+        }
+        return result;
+    }
+
+    @Override
+    public void filter(ClientRequestContext request) throws IOException {
+        final Object result = request.getConfiguration().getProperty(RESULT_PROPERTY);
+        if (!(result instanceof Result)) {
+            return;
+        }
+
+        final MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+        for (Map.Entry<String, List<Object>> header : request.getHeaders().entrySet()) {
+            for (Object value : header.getValue()) {
+                headers.add(header.getKey(), value.toString());
+            }
+        }
+
+        ((Result) result).uri = request.getUri();
+        ((Result) result).headers = headers;
+        ((Result) result).messageBodyWorkers = messageBodyWorkers.get();
+
+        throw new Completed();
+    }
+}
@@ -0,0 +1,755 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.client.ClientException;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Processes the event streams of many {@link EventSource event sources} without dedicating a thread to each of them.
+ *
+ * <p>All the event streams are read by a single selector thread which parses the incoming events as soon as
+ * the bytes are available. The parsed events are delivered to the event sources in the provided
+ * {@link ExecutorService}; events of a single event source are delivered one by one in the order they were received.
+ * If an event source does not keep up, reading of its stream is suspended until the backlog is processed.</p>
+ *
+ * <p>When a stream ends or the connection is lost, the event source reconnects after the delay requested by the server
+ * in the {@code retry} field (3 seconds by default) and sends the id of the last received event in the
+ * {@code Last-Event-ID} request header. The event source stops reconnecting when it is closed, when the server responds
+ * with {@code 204 No Content}, or when the response is not a {@code 200 OK} event stream. A failure of one event stream
+ * does not affect the other event streams of the multiplexer.</p>
+ *
+ * <p>The event stream request is prepared by the client of the event source target, including its request filters,
+ * whenever the event source connects. The request preparation and the host name resolution run in the provided
+ * {@link ExecutorService}. The request is then sent directly over a non-blocking socket channel, bypassing the client
+ * connector: only plain {@code http} targets are supported, proxies and client timeouts are not used and redirects are
+ * not followed.</p>
+ *
+ * <p>Instances of this class are thread safe.</p>
+ *
+ * @see EventSource#EventSource(WebTarget, EventSourceMultiplexer)
+ */
+public class EventSourceMultiplexer implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(EventSourceMultiplexer.class.getName());
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    /**
+     * Reconnection delay used until the server requests a different one.
+     */
+    static final long DEFAULT_RECONNECT_DELAY = 3000;
+
+    private static final int BUFFER_SIZE = 16384;
+    private static final int MAX_HEADERS_SIZE = 65536;
+    /**
+     * Number of received events not yet delivered to an event source at which reading of its stream is suspended.
+     */
+    private static final int MAX_PENDING_EVENTS = 1024;
+
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final Selector selector;
+    private final Thread selectorThread;
+    private volatile boolean closed = false;
+
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+    private final Set<Connection> connections = Collections.newSetFromMap(new ConcurrentHashMap<Connection, Boolean>());
+
+    // accessed by the selector thread only
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final PriorityQueue<Connection> reconnects = new PriorityQueue<Connection>(11, new Comparator<Connection>() {
+        @Override
+        public int compare(Connection connection, Connection connection1) {
+            return connection.reconnectAt < connection1.reconnectAt ? -1 : (connection.reconnectAt == connection1.reconnectAt ? 0 : 1);
+        }
+    });
+
+    /**
+     * Create new instance delivering events in a fixed thread pool with one thread per available processor.
+     */
+    public EventSourceMultiplexer() {
+        this(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()), true);
+    }
+
+    /**
+     * Create new instance delivering events in the provided {@link ExecutorService}.
+     *
+     * The executor service is not shut down when this instance is {@link #close() closed}.
+     *
+     * @param executorService used for delivering events to event sources and their listeners.
+     */
+    public EventSourceMultiplexer(ExecutorService executorService) {
+        this(executorService, false);
+    }
+
+    private EventSourceMultiplexer(ExecutorService executorService, boolean ownExecutor) {
+        this.executor = executorService;
+        this.ownExecutor = ownExecutor;
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new ClientException(e);
+        }
+
+        this.selectorThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                select();
+            }
+        }, "jersey-sse-multiplexer");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    /**
+     * Closes all event streams and stops the selector thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        if (ownExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Start processing event stream of given target for an event source.
+     *
+     * @param eventSource event source to deliver the events to.
+     * @param target event stream target.
+     * @return connection to be closed when the event source is closed.
+     */
+    Connection open(EventSource eventSource, WebTarget target) {
+        if (closed) {
+            throw new IllegalStateException("Event source multiplexer has been closed.");
+        }
+
+        final URI uri = target.getUri();
+        if (!isSupported(uri)) {
+            throw new IllegalArgumentException("Event source multiplexer does not support " + uri.getScheme() + " URIs: " + uri);
+        }
+
+        final Connection connection = new Connection(eventSource, target);
+        connections.add(connection);
+        connection.prepare();
+        return connection;
+    }
+
+    private static boolean isSupported(URI uri) {
+        return "http".equalsIgnoreCase(uri.getScheme());
+    }
+
+    /**
+     * Run a task in the selector thread.
+     */
+    private void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    private void select() {
+        try {
+            while (!closed) {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+
+                long timeout = 0;
+                final long now = System.currentTimeMillis();
+                while (!reconnects.isEmpty()) {
+                    final Connection connection = reconnects.peek();
+                    if (connection.reconnectAt > now) {
+                        timeout = connection.reconnectAt - now;
+                        break;
+                    }
+                    reconnects.poll().prepare();
+                }
+
+                selector.select(timeout);
+
+                final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    ((Connection) key.attachment()).process(key);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Event source multiplexer failed.", e);
+        } finally {
+            closed = true;
+            for (Connection connection : connections) {
+                connection.closed = true;
+                connection.closeChannel();
+            }
+            connections.clear();
+            try {
+                selector.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, e.getMessage(), e);
+            }
+        }
+    }
+
+    private enum State {
+        CONNECTING,
+        SENDING_REQUEST,
+        READING_HEADERS,
+        READING_BODY,
+        DISCONNECTED
+    }
+
+    private enum ChunkState {
+        SIZE,
+        DATA,
+        DATA_END
+    }
+
+    /**
+     * Event stream of a single event source.
+     */
+    final class Connection implements Runnable {
+
+        private final EventSource eventSource;
+        private final WebTarget target;
+
+        private volatile boolean closed = false;
+        private volatile String lastEventId;
+        private long reconnectDelay = DEFAULT_RECONNECT_DELAY;
+        private long reconnectAt;
+
+        // accessed by the selector thread only
+        private EventSourceHandshake.Result handshake;
+        private State state = State.DISCONNECTED;
+        private SocketChannel channel;
+        private SelectionKey key;
+        private boolean readSuspended;
+        private ByteBuffer request;
+        private final ByteArrayOutputStream headers = new ByteArrayOutputStream(512);
+        private int headersTail;
+        private EventParser parser;
+        private boolean chunked;
+        private long contentLength;
+        private ChunkState chunkState;
+        private boolean chunkExtension;
+        private long remaining;
+
+        // event delivery
+        private final ConcurrentLinkedQueue<InboundEvent> events = new ConcurrentLinkedQueue<InboundEvent>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean delivering = new AtomicBoolean();
+
+        private Connection(EventSource eventSource, WebTarget target) {
+            this.eventSource = eventSource;
+            this.target = target;
+        }
+
+        /**
+         * Stop processing the event stream. Events already received may still be delivered.
+         */
+        void close() {
+            closed = true;
+            connections.remove(this);
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    closeChannel();
+                    reconnects.remove(Connection.this);
+                }
+            });
+        }
+
+        /**
+         * Prepare the event stream request and resolve the server address in the executor service and connect then.
+         */
+        private void prepare() {
+            if (closed) {
+                return;
+            }
+
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        handshake();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                LOGGER.log(Level.FINE, "Event stream request preparation rejected.", e);
+                // the connection is disconnected while the request is being prepared
+                closed = true;
+                connections.remove(this);
+            }
+        }
+
+        private void handshake() {
+            if (closed) {
+                return;
+            }
+
+            final EventSourceHandshake.Result result;
+            final InetSocketAddress address;
+            try {
+                result = EventSourceHandshake.perform(target, lastEventId);
+                final URI uri = result.getUri();
+                if (!isSupported(uri)) {
+                    LOGGER.log(Level.WARNING, "Event source multiplexer does not support {0} URIs: {1}",
+                            new Object[]{uri.getScheme(), uri});
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            stop();
+                        }
+                    });
+                    return;
+                }
+
+                address = new InetSocketAddress(uri.getHost(), uri.getPort() == -1 ? 80 : uri.getPort());
+                if (address.isUnresolved()) {
+                    throw new UnknownHostException(uri.getHost());
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Preparing event stream request to " + target.getUri() + " failed.", e);
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        disconnect(true);
+                    }
+                });
+                return;
+            }
+
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    connect(result, address);
+                }
+            });
+        }
+
+        private void connect(EventSourceHandshake.Result result, InetSocketAddress address) {
+            if (closed) {
+                return;
+            }
+
+            handshake = result;
+            try {
+                request = ByteBuffer.wrap(createRequest());
+                headers.reset();
+                headersTail = 0;
+                parser = null;
+
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                if (channel.connect(address)) {
+                    state = State.SENDING_REQUEST;
+                    key = channel.register(selector, SelectionKey.OP_WRITE, this);
+                } else {
+                    state = State.CONNECTING;
+                    key = channel.register(selector, SelectionKey.OP_CONNECT, this);
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Connecting to " + handshake.getUri() + " failed.", e);
+                disconnect(true);
+            }
+        }
+
+        private byte[] createRequest() {
+            final URI uri = handshake.getUri();
+            final StringBuilder sb = new StringBuilder(256);
+
+            sb.append("GET ").append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+            if (uri.getRawQuery() != null) {
+                sb.append('?').append(uri.getRawQuery());
+            }
+            sb.append(" HTTP/1.1\r\n");
+            sb.append("Host: ").append(uri.getHost());
+            if (uri.getPort() != -1) {
+                sb.append(':').append(uri.getPort());
+            }
+            sb.append("\r\n");
+
+            for (Map.Entry<String, List<String>> header : handshake.getHeaders().entrySet()) {
+                final String name = header.getKey();
+                if ("Host".equalsIgnoreCase(name)) {
+                    continue;
+                }
+                for (String value : header.getValue()) {
+                    sb.append(name).append(": ").append(value).append("\r\n");
+                }
+            }
+            sb.append("\r\n");
+
+            return sb.toString().getBytes(ISO_8859_1);
+        }
+
+        private void process(SelectionKey key) {
+            try {
+                if (key.isConnectable()) {
+                    channel.finishConnect();
+                    state = State.SENDING_REQUEST;
+                    key.interestOps(SelectionKey.OP_WRITE);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    channel.write(request);
+                    if (!request.hasRemaining()) {
+                        request = null;
+                        state = State.READING_HEADERS;
+                        key.interestOps(readSuspended ? 0 : SelectionKey.OP_READ);
+                    }
+                }
+                if (key.isValid() && key.isReadable()) {
+                    read();
+                }
+            } catch (Exception e) {
+                // a failure of a single event stream must not stop the selector thread
+                LOGGER.log(Level.FINE, "Event stream " + handshake.getUri() + " failed.", e);
+                disconnect(true);
+            }
+        }
+
+        private void read() throws IOException {
+            final ByteBuffer buffer = readBuffer;
+            buffer.clear();
+            final int read = channel.read(buffer);
+            if (read == -1) {
+                // the connection has been closed
+                disconnect(true);
+                return;
+            }
+            buffer.flip();
+
+            if (state == State.READING_HEADERS) {
+                readHeaders(buffer);
+            }
+            if (state == State.READING_BODY) {
+                readBody(buffer);
+            }
+        }
+
+        private void readHeaders(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                final byte b = buffer.get();
+                headers.write(b);
+                headersTail = (headersTail << 8) | (b & 0xFF);
+                if ((headersTail & 0xFFFF) == 0x0A0A || headersTail == 0x0D0A0D0A) {
+                    // empty line terminates the headers
+                    processHeaders();
+                    return;
+                }
+            }
+            if (headers.size() > MAX_HEADERS_SIZE) {
+                LOGGER.log(Level.WARNING, "Response headers of event stream {0} are too large.", handshake.getUri());
+                stop();
+            }
+        }
+
+        private void processHeaders() {
+            final String[] lines = new String(headers.toByteArray(), ISO_8859_1).split("\r?\n");
+            final String[] statusLine = lines[0].split(" ", 3);
+            final int status;
+            try {
+                status = statusLine.length < 2 ? -1 : Integer.parseInt(statusLine[1]);
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.WARNING, "Invalid response status line of event stream {0}: {1}",
+                        new Object[]{handshake.getUri(), lines[0]});
+                stop();
+                return;
+            }
+
+            final MultivaluedMap<String, String> responseHeaders = new MultivaluedHashMap<String, String>();
+            for (int i = 1; i < lines.length; i++) {
+                final int colon = lines[i].indexOf(':');
+                if (colon > 0) {
+                    responseHeaders.add(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+                }
+            }
+
+            if (status == 204) {
+                LOGGER.log(Level.FINE, "Server requested event stream {0} to stop.", handshake.getUri());
+                stop();
+                return;
+            }
+            if (status != 200 || !isEventStream(getFirst(responseHeaders, HttpHeaders.CONTENT_TYPE))) {
+                LOGGER.log(Level.WARNING, "Event stream {0} failed: {1}", new Object[]{handshake.getUri(), lines[0]});
+                stop();
+                return;
+            }
+
+            final String transferEncoding = getFirst(responseHeaders, "Transfer-Encoding");
+            final String length = getFirst(responseHeaders, HttpHeaders.CONTENT_LENGTH);
+            chunked = transferEncoding != null && transferEncoding.toLowerCase().contains("chunked");
+            chunkState = ChunkState.SIZE;
+            chunkExtension = false;
+            remaining = 0;
+            try {
+                contentLength = (chunked || length == null) ? -1 : Long.parseLong(length.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.WARNING, "Invalid Content-Length of event stream {0}: {1}",
+                        new Object[]{handshake.getUri(), length});
+                stop();
+                return;
+            }
+
+            parser = new EventParser(new Annotation[0], MediaType.TEXT_PLAIN_TYPE, responseHeaders,
+                    handshake.getMessageBodyWorkers());
+            state = State.READING_BODY;
+        }
+
+        private boolean isEventStream(String contentType) {
+            if (contentType == null) {
+                return false;
+            }
+            try {
+                return EventChannel.SERVER_SENT_EVENTS_TYPE.isCompatible(MediaType.valueOf(contentType));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private String getFirst(MultivaluedMap<String, String> responseHeaders, String name) {
+            for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                    return header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        private void readBody(ByteBuffer buffer) {
+            if (!chunked) {
+                if (contentLength < 0) {
+                    parse(buffer, buffer.remaining());
+                } else {
+                    final int length = (int) Math.min(contentLength, buffer.remaining());
+                    parse(buffer, length);
+                    contentLength -= length;
+                    if (contentLength == 0) {
+                        disconnect(true);
+                    }
+                }
+                return;
+            }
+
+            while (buffer.hasRemaining() && state == State.READING_BODY) {
+                switch (chunkState) {
+                    case SIZE:
+                        final byte b = buffer.get();
+                        if (b == '\n') {
+                            chunkExtension = false;
+                            if (remaining == 0) {
+                                // last chunk
+                                disconnect(true);
+                                return;
+                            }
+                            chunkState = ChunkState.DATA;
+                        } else if (b == ';') {
+                            // chunk extensions are ignored
+                            chunkExtension = true;
+                        } else if (!chunkExtension) {
+                            final int digit = Character.digit(b, 16);
+                            if (digit >= 0) {
+                                remaining = remaining * 16 + digit;
+                            }
+                        }
+                        break;
+                    case DATA:
+                        final int length = (int) Math.min(remaining, buffer.remaining());
+                        parse(buffer, length);
+                        remaining -= length;
+                        if (remaining == 0) {
+                            chunkState = ChunkState.DATA_END;
+                        }
+                        break;
+                    case DATA_END:
+                        if (buffer.get() == '\n') {
+                            chunkState = ChunkState.SIZE;
+                        }
+                        break;
+                }
+            }
+        }
+
+        private void parse(ByteBuffer buffer, int length) {
+            final int limit = buffer.limit();
+            buffer.limit(buffer.position() + length);
+            InboundEvent event;
+            while ((event = parser.next(buffer)) != null) {
+                if (event.getId() != null) {
+                    lastEventId = event.getId();
+                }
+                deliver(event);
+            }
+            buffer.limit(limit);
+        }
+
+        private void deliver(InboundEvent event) {
+            events.add(event);
+            if (pending.incrementAndGet() >= MAX_PENDING_EVENTS && !readSuspended) {
+                readSuspended = true;
+                if (key.isValid()) {
+                    key.interestOps(0);
+                }
+            }
+
+            if (delivering.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    LOGGER.log(Level.FINE, "Event delivery rejected.", e);
+                    delivering.set(false);
+                }
+            }
+        }
+
+        /**
+         * Deliver the received events to the event source.
+         */
+        @Override
+        public void run() {
+            do {
+                InboundEvent event;
+                while ((event = events.poll()) != null) {
+                    if (!closed) {
+                        try {
+                            eventSource.onReceivedEvent(event);
+                        } catch (RuntimeException e) {
+                            LOGGER.log(Level.WARNING, "Event listener failed.", e);
+                        }
+                    }
+                    if (pending.decrementAndGet() == MAX_PENDING_EVENTS / 2) {
+                        resume();
+                    }
+                }
+                delivering.set(false);
+            } while (!events.isEmpty() && delivering.compareAndSet(false, true));
+        }
+
+        private void resume() {
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (readSuspended) {
+                        readSuspended = false;
+                        if (key != null && key.isValid() && state != State.CONNECTING && state != State.SENDING_REQUEST) {
+                            key.interestOps(SelectionKey.OP_READ);
+                        }
+                    }
+                }
+            });
+        }
+
+        /**
+         * Close the current connection and schedule a reconnect unless the event source has been closed.
+         */
+        private void disconnect(boolean reconnect) {
+            closeChannel();
+            if (parser != null && parser.getReconnectDelay() >= 0) {
+                reconnectDelay = parser.getReconnectDelay();
+            }
+            parser = null;
+
+            if (reconnect && !closed) {
+                reconnectAt = System.currentTimeMillis() + reconnectDelay;
+                reconnects.add(this);
+            }
+        }
+
+        /**
+         * Close the current connection and do not reconnect.
+         */
+        private void stop() {
+            disconnect(false);
+            closed = true;
+            connections.remove(this);
+        }
+
+        private void closeChannel() {
+            state = State.DISCONNECTED;
+            if (key != null) {
+                key.cancel();
+                key = null;
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, e.getMessage(), e);
+                }
+                channel = null;
+            }
+        }
+    }
+}
@@ -99,20 +99,19 @@ public class InboundEvent {
     }
 
     /**
-     * Add data. Used by {@link EventReceiver}.
+     * Add a line of data followed by a line break. Used by {@link EventReceiver}.
      *
      * @param data byte array containing incoming data.
+     * @param offset offset of the data line in the array.
+     * @param length length of the data line.
      */
-    void addData(byte[] data) {
+    void addData(byte[] data, int offset, int length) {
         if(this.data == null) {
             this.data = new ByteArrayOutputStream();
         }
 
-        try {
-            this.data.write(data);
-        } catch (IOException e) {
-            this.data = null;
-        }
+        this.data.write(data, offset, length);
+        this.data.write('\n');
     }
 
     /**
@@ -133,6 +132,15 @@ public class InboundEvent {
         return name;
     }
 
+    /**
+     * Get the event id.
+     *
+     * @return event id or {@code null} if it is not present.
+     */
+    public String getId() {
+        return id;
+    }
+
     /**
      * Get event data.
      *
@@ -155,7 +163,7 @@ public class InboundEvent {
     public <T> T getData(Class<T> messageType, MediaType mediaType) throws IOException {
         final MessageBodyReader<T> messageBodyReader = messageBodyWorkers.getMessageBodyReader(messageType, null, annotations, mediaType);
         return messageBodyReader.readFrom(messageType, null, annotations, (mediaType == null ? this.mediaType : mediaType),
-                headers, new ByteArrayInputStream(stripLastLineBreak(data.toByteArray())));
+                headers, stripLastLineBreak(data.toByteArray()));
     }
 
     /**
@@ -186,18 +194,16 @@ public class InboundEvent {
     }
 
     /**
-     * String last line break from data. (Last line-break should not be considered as part of received data).
+     * Strip last line break from data. (Last line-break should not be considered as part of received data).
      *
      * @param data data
-     * @return updated byte array.
+     * @return stream of the data without the last line break.
      */
-    private byte[] stripLastLineBreak(byte[] data) {
+    private ByteArrayInputStream stripLastLineBreak(byte[] data) {
         if((data.length >= 1) && (data[data.length - 1] == '\n')) {
-            byte[] newArray = new byte[data.length - 1];
-            System.arraycopy(data, 0, newArray, 0, data.length - 1);
-            data = newArray;
+            return new ByteArrayInputStream(data, 0, data.length - 1);
         }
 
-        return data;
+        return new ByteArrayInputStream(data);
     }
 }
@@ -43,6 +43,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
@@ -64,6 +65,16 @@ import org.jvnet.hk2.annotations.Inject;
  */
 public class OutboundEventWriter implements MessageBodyWriter<OutboundEvent> {
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte[] COMMENT_LEAD = ": ".getBytes(UTF_8);
+    private static final byte[] NAME_LEAD = "event: ".getBytes(UTF_8);
+    private static final byte[] ID_LEAD = "id: ".getBytes(UTF_8);
+    private static final byte[] RETRY_LEAD = "retry: ".getBytes(UTF_8);
+    private static final byte[] DATA_LEAD = "data: ".getBytes(UTF_8);
+    private static final byte[] EOL = {'\n'};
+    private static final byte[] EVENT_END = {'\n', '\n'};
+
     private static final class References {
         @Inject
         private Ref<MessageBodyWorkers> messageBodyWorkers;
@@ -88,7 +99,11 @@ public class OutboundEventWriter implements MessageBodyWriter<OutboundEvent> {
         final References references = services.forContract(Injector.class).get().inject(References.class);
 
         if(outboundEvent.getComment() != null) {
-            entityStream.write(String.format(": %s\n", outboundEvent.getComment()).getBytes());
+            writeField(COMMENT_LEAD, outboundEvent.getComment(), entityStream);
+        }
+
+        if(outboundEvent.getReconnectDelay() >= 0) {
+            writeField(RETRY_LEAD, Long.toString(outboundEvent.getReconnectDelay()), entityStream);
         }
 
         if(outboundEvent.getType() != null) {
@@ -96,31 +111,73 @@ public class OutboundEventWriter implements MessageBodyWriter<OutboundEvent> {
             final MessageBodyWriter messageBodyWriter = messageBodyWorkers.getMessageBodyWriter(outboundEvent.getType(),
                     null, annotations, (outboundEvent.getMediaType() == null ? MediaType.TEXT_PLAIN_TYPE : outboundEvent.getMediaType()));
             if(outboundEvent.getName() != null) {
-                entityStream.write(String.format("event: %s\n", outboundEvent.getName()).getBytes());
+                writeField(NAME_LEAD, outboundEvent.getName(), entityStream);
             }
             if(outboundEvent.getId() != null) {
-                entityStream.write(String.format("id: %s\n", outboundEvent.getName()).getBytes());
+                writeField(ID_LEAD, outboundEvent.getId(), entityStream);
             }
 
-            messageBodyWriter.writeTo(outboundEvent.getData(), outboundEvent.getClass(), null, annotations, mediaType, httpHeaders, new OutputStream() {
+            messageBodyWriter.writeTo(outboundEvent.getData(), outboundEvent.getClass(), null, annotations, mediaType, httpHeaders,
+                    new DataLinesOutputStream(entityStream));
+        }
+
+        entityStream.write(EVENT_END);
+        entityStream.flush();
+    }
+
+    private static void writeField(byte[] lead, String value, OutputStream entityStream) throws IOException {
+        entityStream.write(lead);
+        entityStream.write(value.getBytes(UTF_8));
+        entityStream.write(EOL);
+    }
 
-                private boolean start = true;
+    /**
+     * Prefixes every line of the event data with the {@code "data: "} field name. Blocks of bytes
+     * are scanned for line breaks and copied to the underlying entity stream in bulk.
+     */
+    private static final class DataLinesOutputStream extends OutputStream {
 
-                @Override
-                public void write(int i) throws IOException {
-                    if(start) {
-                        entityStream.write("data: ".getBytes());
-                        start = false;
-                    }
-                    entityStream.write(i);
-                    if(i == '\n') {
-                        entityStream.write("data: ".getBytes());
-                    }
-                }
-            });
+        private final OutputStream entityStream;
+        private boolean start = true;
+
+        DataLinesOutputStream(OutputStream entityStream) {
+            this.entityStream = entityStream;
         }
 
-        entityStream.write("\n\n".getBytes());
-        entityStream.flush();
+        @Override
+        public void write(int i) throws IOException {
+            if(start) {
+                entityStream.write(DATA_LEAD);
+                start = false;
+            }
+            entityStream.write(i);
+            if(i == '\n') {
+                entityStream.write(DATA_LEAD);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if(len == 0) {
+                return;
+            }
+            if(start) {
+                entityStream.write(DATA_LEAD);
+                start = false;
+            }
+
+            final int end = off + len;
+            int lineStart = off;
+            for(int i = off; i < end; i++) {
+                if(b[i] == '\n') {
+                    entityStream.write(b, lineStart, i + 1 - lineStart);
+                    entityStream.write(DATA_LEAD);
+                    lineStart = i + 1;
+                }
+            }
+            if(lineStart < end) {
+                entityStream.write(b, lineStart, end - lineStart);
+            }
+        }
     }
 }
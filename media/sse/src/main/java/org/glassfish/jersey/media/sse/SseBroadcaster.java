@@ -39,14 +39,71 @@
  */
 package org.glassfish.jersey.media.sse;
 
+import java.util.concurrent.Executor;
+
 import org.glassfish.jersey.server.Broadcaster;
 
 /**
  * Used for broadcasting sse to multiple {@link EventChannel} instances.
+ * <p>
+ * {@link #setSharedEncoding(boolean) Shared encoding} is disabled by default. It can be enabled
+ * when the broadcaster is created, e.g. using {@link #SseBroadcaster(boolean) new SseBroadcaster(true)},
+ * or later using {@code setSharedEncoding(true)}. With shared encoding, each broadcast
+ * {@link OutboundEvent event} is serialized only once and the serialized event is shared
+ * by all the registered event channels. As a consequence, {@link javax.ws.rs.ext.WriterInterceptor writer
+ * interceptors} are invoked once per broadcast event rather than once per event channel.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  */
 public class SseBroadcaster extends Broadcaster<OutboundEvent> {
+
+    /**
+     * Create new SSE broadcaster with the shared encoding disabled.
+     */
+    public SseBroadcaster() {
+        this(false);
+    }
+
+    /**
+     * Create new SSE broadcaster.
+     *
+     * @param sharedEncoding if {@code true}, each broadcast event is serialized only once and shared
+     *                       by all the registered event channels (see {@link #setSharedEncoding(boolean)}).
+     */
+    public SseBroadcaster(final boolean sharedEncoding) {
+        super();
+        setSharedEncoding(sharedEncoding);
+    }
+
+    /**
+     * Create new SSE broadcaster delivering the events asynchronously, with the shared encoding disabled.
+     *
+     * @param executor executor used to write the events to the registered event channels.
+     * @param queueCapacity maximum number of events pending for a single event channel.
+     * @param overflowPolicy policy applied when an event is broadcast to an event channel with a full queue.
+     * @see Broadcaster#Broadcaster(Executor, int, Broadcaster.OverflowPolicy)
+     */
+    public SseBroadcaster(final Executor executor, final int queueCapacity, final OverflowPolicy overflowPolicy) {
+        this(executor, queueCapacity, overflowPolicy, false);
+    }
+
+    /**
+     * Create new SSE broadcaster delivering the events asynchronously.
+     *
+     * @param executor executor used to write the events to the registered event channels.
+     * @param queueCapacity maximum number of events pending for a single event channel.
+     * @param overflowPolicy policy applied when an event is broadcast to an event channel with a full queue.
+     * @param sharedEncoding if {@code true}, each broadcast event is serialized only once and shared
+     *                       by all the registered event channels (see {@link #setSharedEncoding(boolean)}).
+     * @see Broadcaster#Broadcaster(Executor, int, Broadcaster.OverflowPolicy)
+     */
+    public SseBroadcaster(final Executor executor, final int queueCapacity, final OverflowPolicy overflowPolicy,
+                          final boolean sharedEncoding) {
+        super(executor, queueCapacity, overflowPolicy);
+        setSharedEncoding(sharedEncoding);
+    }
+
     /**
      * Register {@link EventChannel} to current {@link SseBroadcaster} instance.
      *
@@ -151,7 +151,7 @@ public class InMemoryConnector implements Inflector<ClientRequest, ClientRespons
                 }
 
                 @Override
-                public void commit() throws IOException {
+                public void commit(long contentLength) throws IOException {
                 }
             });
 
@@ -0,0 +1,164 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+
+/**
+ * Measures the throughput of requests for a small ({@value #ENTITY_SIZE} bytes) response entity deployed
+ * on Grizzly. The entity is written by a {@link StreamingOutput} in {@value #WRITES} separate writes.
+ * With the default buffer size the entity is buffered and sent with a {@code Content-Length} header,
+ * with the buffer size set to {@code 0} the response is committed on the first write and the entity
+ * is sent using the chunked transfer coding. The client reads the response using a plain {@link HttpURLConnection} (with keep-alive).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContentLengthBufferBenchmark {
+
+    private static final int ENTITY_SIZE = 2048;
+    private static final int WRITES = 4;
+    private static final URI BASE_URI = URI.create("http://localhost:9998/");
+
+    @Param({"8192", "0"})
+    private int bufferSize;
+
+    private HttpServer server;
+    private URL url;
+    private final byte[] buffer = new byte[8 * 1024];
+
+    @Path("entity")
+    public static class EntityResource {
+
+        private static final byte[] DATA = new byte[ENTITY_SIZE];
+
+        static {
+            Arrays.fill(DATA, (byte) 'a');
+        }
+
+        @GET
+        @Produces("text/plain")
+        public StreamingOutput get() {
+            return new StreamingOutput() {
+                @Override
+                public void write(OutputStream output) throws IOException {
+                    final int chunk = ENTITY_SIZE / WRITES;
+                    for (int i = 0; i < WRITES; i++) {
+                        output.write(DATA, i * chunk, chunk);
+                    }
+                }
+            };
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final ResourceConfig rc = new ResourceConfig(EntityResource.class);
+        rc.setProperty(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, bufferSize);
+        server = GrizzlyHttpServerFactory.createHttpServer(BASE_URI, rc);
+        url = BASE_URI.resolve("entity").toURL();
+
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        final boolean hasLength = connection.getHeaderField("Content-Length") != null;
+        connection.disconnect();
+        if (hasLength != bufferSize > 0) {
+            throw new IllegalStateException("Unexpected Content-Length header presence: " + hasLength);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int get() throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        final InputStream in = connection.getInputStream();
+        int total = 0;
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        } finally {
+            in.close();
+        }
+        if (total != ENTITY_SIZE) {
+            throw new IllegalStateException("Unexpected response length: " + total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.message.GZipEncoder;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.EncodingFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the gzip encoding throughput (in bytes of JSON entity per second) for JSON entities of
+ * various sizes:
+ * <ul>
+ * <li>{@link #jdkGZipStream()} - a new {@link GZIPOutputStream} (and native deflater) per entity,
+ * as done by a hand-written gzip writer interceptor,</li>
+ * <li>{@link #pooledGZipEncoder()} - the {@link GZipEncoder} stream using a pooled deflater,</li>
+ * <li>{@link #serverRoundTrip()} - an in-memory GET request with {@code Accept-Encoding: gzip}
+ * processed by an application with the {@link EncodingFilter} enabled.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EncodingBenchmark {
+
+    @Param({"1024", "10240", "102400", "1048576", "10485760"})
+    private int size;
+
+    private static volatile byte[] json;
+
+    private byte[] entity;
+    private GZipEncoder encoder;
+    private ApplicationHandler handler;
+
+    @Path("json")
+    public static class JsonResource {
+
+        @GET
+        @Produces("application/json")
+        public byte[] get() {
+            return json;
+        }
+    }
+
+    /**
+     * Output stream that only counts the written bytes.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        entity = createJson(size);
+        json = entity;
+        encoder = new GZipEncoder();
+
+        final ResourceConfig rc = new ResourceConfig(JsonResource.class);
+        EncodingFilter.enableFor(rc, GZipEncoder.class);
+        handler = new ApplicationHandler(rc);
+    }
+
+    private static byte[] createJson(final int size) throws IOException {
+        final StringBuilder sb = new StringBuilder(size + 100).append('[');
+        for (int i = 0; sb.length() < size - 100; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"item-").append(i)
+                    .append("\",\"price\":").append(i % 1000).append('.').append(i % 100)
+                    .append(",\"available\":").append(i % 3 == 0)
+                    .append('}');
+        }
+        sb.append(']');
+        while (sb.length() < size) {
+            sb.append(' ');
+        }
+        return sb.toString().getBytes("UTF-8");
+    }
+
+    @Benchmark
+    public long jdkGZipStream() throws IOException {
+        final CountingOutputStream out = new CountingOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(entity);
+        gzip.finish();
+        gzip.close();
+        return out.count;
+    }
+
+    @Benchmark
+    public long pooledGZipEncoder() throws IOException {
+        final CountingOutputStream out = new CountingOutputStream();
+        final OutputStream gzip = encoder.encode("gzip", out);
+        gzip.write(entity);
+        gzip.close();
+        return out.count;
+    }
+
+    @Benchmark
+    public long serverRoundTrip() throws Exception {
+        final CountingOutputStream out = new CountingOutputStream();
+        final ContainerRequest request = new ContainerRequest(URI.create("/"), URI.create("/json"), "GET",
+                null, new MapPropertiesDelegate());
+        request.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        request.setEntityStream(new ByteArrayInputStream(new byte[0]));
+        final ContainerResponse response = handler.apply(request, out).get();
+        if (!"gzip".equals(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            throw new IllegalStateException("Response entity not encoded.");
+        }
+        return out.count;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.media.json.JsonJaxbModule;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of in-memory request/response round trips per second for a JAXB bean
+ * sent and received as XML or JSON. Each round trip selects a message body reader for the request
+ * entity and a message body writer for the response entity; the cost of the selection alone
+ * is measured by {@link #selectWorkers()} and {@link #selectAnnotatedWorkers()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EntityRoundTripBenchmark {
+
+    @Param({"application/xml", "application/json"})
+    private String mediaType;
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+    private static volatile MessageBodyWorkers workers;
+
+    private ApplicationHandler handler;
+    private byte[] entity;
+    private MediaType type;
+    private Annotation[] annotations;
+
+    @XmlRootElement
+    public static class Bean {
+        public String name = "jersey";
+        public int value = 42;
+    }
+
+    @Path("echo")
+    public static class EchoResource {
+
+        @Context
+        private MessageBodyWorkers messageBodyWorkers;
+
+        @POST
+        @Consumes({"application/xml", "application/json"})
+        @Produces({"application/xml", "application/json"})
+        public Bean echo(final Bean bean) {
+            workers = messageBodyWorkers;
+            return bean;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        handler = new ApplicationHandler(new ResourceConfig(EchoResource.class).addModules(new JsonJaxbModule()));
+
+        entity = "application/xml".equals(mediaType)
+                ? "<bean><name>jersey</name><value>42</value></bean>".getBytes("UTF-8")
+                : "{\"name\":\"jersey\",\"value\":\"42\"}".getBytes("UTF-8");
+        type = MediaType.valueOf(mediaType);
+        annotations = EchoResource.class.getMethod("echo", Bean.class).getAnnotations();
+
+        roundTrip(entity, new ByteArrayOutputStream());
+    }
+
+    @Benchmark
+    public int roundTrip() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        final int status = roundTrip(entity, out);
+        if (status != 200) {
+            throw new IllegalStateException("Unexpected response status: " + status);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public boolean selectWorkers() {
+        return workers.getMessageBodyReader(Bean.class, Bean.class, NO_ANNOTATIONS, type) != null
+                & workers.getMessageBodyWriter(Bean.class, Bean.class, NO_ANNOTATIONS, type) != null;
+    }
+
+    /**
+     * Selects the workers for the annotations of the resource method, passed in a new array copy
+     * each time as it happens during the request processing.
+     */
+    @Benchmark
+    public boolean selectAnnotatedWorkers() {
+        final Annotation[] as = annotations.clone();
+        return workers.getMessageBodyReader(Bean.class, Bean.class, as, type) != null
+                & workers.getMessageBodyWriter(Bean.class, Bean.class, as, type) != null;
+    }
+
+    private int roundTrip(final byte[] bytes, final ByteArrayOutputStream out) throws Exception {
+        final ContainerRequest request = new ContainerRequest(URI.create("/"), URI.create("/echo"), "POST",
+                null, new MapPropertiesDelegate());
+        request.header(HttpHeaders.CONTENT_TYPE, mediaType);
+        request.header(HttpHeaders.ACCEPT, mediaType);
+        request.setEntityStream(new ByteArrayInputStream(bytes));
+        final ContainerResponse response = handler.apply(request, out).get();
+        return response.getStatus();
+    }
+}
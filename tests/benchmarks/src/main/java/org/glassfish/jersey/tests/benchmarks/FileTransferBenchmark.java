@@ -0,0 +1,176 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.RangeFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+
+/**
+ * Measures the time needed to download a {@value #FILE_SIZE_MB} MB file ({@link #file()}) and a 64 MB
+ * byte range of the same file ({@link #range()}) from a resource method returning a {@link File} entity
+ * deployed on Grizzly. With the {@code sendfile} transfer the file is sent using the Grizzly file transfer
+ * support, the {@code stream} transfer disables the Grizzly {@code sendfile} support, so that the file
+ * content is copied into the response output stream. The client reads the response using a plain
+ * {@link HttpURLConnection} and discards the content.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FileTransferBenchmark {
+
+    private static final int FILE_SIZE_MB = 1024;
+    private static final URI BASE_URI = URI.create("http://localhost:9998/");
+
+    private static volatile File served;
+
+    @Param({"sendfile", "stream"})
+    private String transfer;
+
+    private File file;
+    private HttpServer server;
+    private URL fileUrl;
+    private final byte[] buffer = new byte[64 * 1024];
+
+    @Path("file")
+    public static class FileResource {
+
+        @GET
+        @Produces("application/octet-stream")
+        public File get() {
+            return served;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("transfer", ".bin");
+        final byte[] chunk = new byte[1024 * 1024];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) i;
+        }
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            for (int i = 0; i < FILE_SIZE_MB; i++) {
+                out.write(chunk);
+            }
+        } finally {
+            out.close();
+        }
+        served = file;
+
+        System.setProperty("org.glassfish.grizzly.http.USE_SEND_FILE", String.valueOf("sendfile".equals(transfer)));
+        final ResourceConfig rc = new ResourceConfig(FileResource.class);
+        RangeFilter.enableFor(rc);
+        server = GrizzlyHttpServerFactory.createHttpServer(BASE_URI, rc);
+        fileUrl = BASE_URI.resolve("file").toURL();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+        System.clearProperty("org.glassfish.grizzly.http.USE_SEND_FILE");
+        file.delete();
+    }
+
+    @Benchmark
+    public long file() throws IOException {
+        return download(null, FILE_SIZE_MB * 1024L * 1024L);
+    }
+
+    @Benchmark
+    public long range() throws IOException {
+        return download("bytes=268435456-335544319", 64 * 1024 * 1024);
+    }
+
+    private long download(final String range, final long expected) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) fileUrl.openConnection();
+        if (range != null) {
+            connection.setRequestProperty("Range", range);
+        }
+        final InputStream in = connection.getInputStream();
+        long total = 0;
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        } finally {
+            in.close();
+        }
+        if (total != expected) {
+            throw new IllegalStateException("Unexpected response length: " + total);
+        }
+        return total;
+    }
+}
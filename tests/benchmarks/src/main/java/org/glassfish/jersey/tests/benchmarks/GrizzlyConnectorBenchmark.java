@@ -0,0 +1,207 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.Suspend;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.ExecutionContext;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.JerseyClient;
+import org.glassfish.jersey.client.JerseyClientFactory;
+import org.glassfish.jersey.grizzly.connector.GrizzlyConnector;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of requests per second a {@link GrizzlyConnector}-backed client is able to complete
+ * with {@value #IN_FLIGHT} requests in flight against a server that answers each request after a fixed latency.
+ * <p>
+ * The {@link #sync() synchronous} variant keeps the requests in flight using a pool of blocked client threads.
+ * Its client uses the connector only through the blocking {@link Inflector} interface, so that the requests
+ * take the same path as with a connector that is not an {@link org.glassfish.jersey.client.AsyncConnector}.
+ * The {@link #async() asynchronous} variant submits all the requests from a single thread to a client
+ * using the connector as an asynchronous connector.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GrizzlyConnectorBenchmark {
+
+    private static final int IN_FLIGHT = 1000;
+    private static final URI BASE_URI = URI.create("http://localhost:9998/");
+
+    private static final ScheduledExecutorService RESPONDER = Executors.newScheduledThreadPool(4);
+    private static volatile int latency;
+
+    @Param({"10"})
+    private int latencyMillis;
+
+    private HttpServer server;
+    private GrizzlyConnector blockingConnector;
+    private JerseyClient blockingClient;
+    private WebTarget blockingTarget;
+    private JerseyClient client;
+    private WebTarget target;
+    private ExecutorService callers;
+
+    @Path("delayed")
+    @Produces("text/plain")
+    public static class DelayedResource {
+
+        @Context
+        private ExecutionContext ctx;
+
+        @GET
+        @Suspend
+        public void get() {
+            final ExecutionContext context = ctx;
+            RESPONDER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    context.resume("pong");
+                }
+            }, latency, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        latency = latencyMillis;
+        server = GrizzlyHttpServerFactory.createHttpServer(BASE_URI, new ResourceConfig(DelayedResource.class));
+
+        blockingConnector = new GrizzlyConnector(null);
+        blockingClient = JerseyClientFactory.clientBuilder().transport(new Inflector<ClientRequest, ClientResponse>() {
+            @Override
+            public ClientResponse apply(final ClientRequest request) {
+                return blockingConnector.apply(request);
+            }
+        }).build();
+        blockingTarget = blockingClient.target(BASE_URI).path("delayed");
+
+        client = JerseyClientFactory.clientBuilder().transport(new GrizzlyConnector(null)).build();
+        target = client.target(BASE_URI).path("delayed");
+        callers = Executors.newFixedThreadPool(IN_FLIGHT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        callers.shutdownNow();
+        blockingClient.close();
+        blockingConnector.close();
+        client.close();
+        server.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public int sync() throws Exception {
+        final List<Future<String>> responses = new ArrayList<Future<String>>(IN_FLIGHT);
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            responses.add(callers.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    return blockingTarget.request().get().readEntity(String.class);
+                }
+            }));
+        }
+        return await(responses);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public int async() throws Exception {
+        final List<Future<Response>> responses = new ArrayList<Future<Response>>(IN_FLIGHT);
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            responses.add(target.request().async().get());
+        }
+        int length = 0;
+        for (Future<Response> response : responses) {
+            length += response.get().readEntity(String.class).length();
+        }
+        return length;
+    }
+
+    private static int await(final List<Future<String>> responses) throws Exception {
+        int length = 0;
+        for (Future<String> response : responses) {
+            length += response.get().length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.internal.PropertiesDelegate;
+import org.glassfish.jersey.media.json.JsonJaxbModule;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of reading and writing a small JSON entity through the message body workers
+ * with none or a few pass-through reader and writer interceptors registered. Besides the message
+ * body reader/writer itself, each operation pays for setting up and walking the interceptor chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InterceptorChainBenchmark {
+
+    @Param({"0", "3"})
+    private int interceptors;
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+    private static volatile MessageBodyWorkers capturedWorkers;
+
+    private MessageBodyWorkers workers;
+    private PropertiesDelegate properties;
+    private Bean bean;
+    private byte[] entity;
+
+    @XmlRootElement
+    public static class Bean {
+        public String name = "jersey";
+        public int value = 42;
+    }
+
+    @Path("workers")
+    public static class WorkersResource {
+
+        @Context
+        private MessageBodyWorkers messageBodyWorkers;
+
+        @POST
+        @Consumes("application/json")
+        @Produces("application/json")
+        public Bean capture(final Bean bean) {
+            capturedWorkers = messageBodyWorkers;
+            return bean;
+        }
+    }
+
+    public static class PassThroughInterceptor implements ReaderInterceptor, WriterInterceptor {
+
+        @Override
+        public Object aroundReadFrom(final ReaderInterceptorContext context) throws IOException, WebApplicationException {
+            return context.proceed();
+        }
+
+        @Override
+        public void aroundWriteTo(final WriterInterceptorContext context) throws IOException, WebApplicationException {
+            context.proceed();
+        }
+    }
+
+    public static class FirstInterceptor extends PassThroughInterceptor {
+    }
+
+    public static class SecondInterceptor extends PassThroughInterceptor {
+    }
+
+    public static class ThirdInterceptor extends PassThroughInterceptor {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final ResourceConfig config = new ResourceConfig(WorkersResource.class).addModules(new JsonJaxbModule());
+        final Class<?>[] interceptorClasses = {FirstInterceptor.class, SecondInterceptor.class, ThirdInterceptor.class};
+        for (int i = 0; i < interceptors; i++) {
+            config.addClasses(interceptorClasses[i]);
+        }
+        final ApplicationHandler handler = new ApplicationHandler(config);
+        entity = "{\"name\":\"jersey\",\"value\":\"42\"}".getBytes("UTF-8");
+
+        // a JSON round trip captures the workers and initializes the JSON providers
+        // that need to be inside the request scope when used for the first time
+        final ContainerRequest request = new ContainerRequest(URI.create("/"), URI.create("/workers"), "POST",
+                null, new MapPropertiesDelegate());
+        request.header(HttpHeaders.CONTENT_TYPE, "application/json");
+        request.header(HttpHeaders.ACCEPT, "application/json");
+        request.setEntityStream(new ByteArrayInputStream(entity));
+        handler.apply(request, new ByteArrayOutputStream()).get();
+
+        workers = capturedWorkers;
+        properties = new MapPropertiesDelegate();
+        bean = new Bean();
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<String, Object>();
+        workers.writeTo(bean, Bean.class, Bean.class, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE, headers,
+                properties, out, null, true);
+        return out.size();
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        final MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+        return workers.readFrom(Bean.class, Bean.class, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE, headers,
+                properties, new ByteArrayInputStream(entity), true);
+    }
+}
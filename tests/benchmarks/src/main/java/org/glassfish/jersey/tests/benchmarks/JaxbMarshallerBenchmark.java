@@ -0,0 +1,173 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.glassfish.jersey.message.internal.JaxbContextRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of JAXB bean marshal/unmarshal round trips per second at 1, 8 and 32
+ * concurrent threads:
+ * <ul>
+ * <li>{@code synchronizedCreate*} - JAXB context looked up in a {@code synchronized}
+ * {@link WeakHashMap} and a new marshaller and unmarshaller created for every entity, as done
+ * by the JAXB providers before the {@link JaxbContextRegistry} was introduced,</li>
+ * <li>{@code registryPooled*} - JAXB context looked up in the {@link JaxbContextRegistry}
+ * and the marshaller and unmarshaller acquired from (and released to) its pools.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JaxbMarshallerBenchmark {
+
+    private static final Map<Class, JAXBContext> jaxbContexts = new WeakHashMap<Class, JAXBContext>();
+
+    @XmlRootElement
+    public static class Bean {
+
+        public String name = "jersey";
+        public int value = 42;
+        public String description = "A JAXB bean marshalled by the benchmark.";
+    }
+
+    /**
+     * Per-thread entity and output buffer.
+     */
+    @State(Scope.Thread)
+    public static class Entity {
+
+        final Bean bean = new Bean();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    }
+
+    private static JAXBContext getSynchronized(final Class type) throws JAXBException {
+        synchronized (jaxbContexts) {
+            JAXBContext c = jaxbContexts.get(type);
+            if (c == null) {
+                c = JAXBContext.newInstance(type);
+                jaxbContexts.put(type, c);
+            }
+            return c;
+        }
+    }
+
+    private static Object synchronizedCreate(final Entity entity) throws JAXBException {
+        entity.out.reset();
+        getSynchronized(Bean.class).createMarshaller().marshal(entity.bean, entity.out);
+        return getSynchronized(Bean.class).createUnmarshaller().unmarshal(new ByteArrayInputStream(entity.out.toByteArray()));
+    }
+
+    private static Object registryPooled(final Entity entity) throws JAXBException {
+        entity.out.reset();
+        final Marshaller m = JaxbContextRegistry.acquireMarshaller(JaxbContextRegistry.getContext(Bean.class));
+        try {
+            m.marshal(entity.bean, entity.out);
+        } finally {
+            JaxbContextRegistry.release(m);
+        }
+        final Unmarshaller u = JaxbContextRegistry.acquireUnmarshaller(JaxbContextRegistry.getContext(Bean.class));
+        try {
+            return u.unmarshal(new ByteArrayInputStream(entity.out.toByteArray()));
+        } finally {
+            JaxbContextRegistry.release(u);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object synchronizedCreate1(final Entity entity) throws JAXBException {
+        return synchronizedCreate(entity);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object registryPooled1(final Entity entity) throws JAXBException {
+        return registryPooled(entity);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object synchronizedCreate8(final Entity entity) throws JAXBException {
+        return synchronizedCreate(entity);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object registryPooled8(final Entity entity) throws JAXBException {
+        return registryPooled(entity);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object synchronizedCreate32(final Entity entity) throws JAXBException {
+        return synchronizedCreate(entity);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object registryPooled32(final Entity entity) throws JAXBException {
+        return registryPooled(entity);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.internal.scanning.ResourceIndexProcessor;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time needed to discover resource classes by package scanning in a jar containing
+ * 5,000 classes, 50 of which are annotated with {@link javax.ws.rs.Path}. Each invocation scans the
+ * jar using a new class loader, as done when an application is deployed:
+ * <ul>
+ * <li>{@code indexed = false} - all the class files in the jar are read and parsed,</li>
+ * <li>{@code indexed = true} - the jar contains the index generated by {@link ResourceIndexProcessor},
+ * only the indexed class files are read and parsed.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PackageScanningBenchmark {
+
+    private static final String PACKAGE = "org.glassfish.jersey.tests.scanning";
+    private static final int CLASSES = 5000;
+    private static final int RESOURCES = 50;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private File jar;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        jar = File.createTempFile("scanning", ".jar");
+        final StringBuilder index = new StringBuilder();
+        final JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            // directory entries are needed for the package to be found by the class loader
+            final String[] segments = PACKAGE.split("\\.");
+            final StringBuilder directory = new StringBuilder();
+            for (String segment : segments) {
+                directory.append(segment).append('/');
+                out.putNextEntry(new JarEntry(directory.toString()));
+            }
+            for (int i = 0; i < CLASSES; i++) {
+                final String className = PACKAGE + ".C" + i;
+                final boolean resource = i % (CLASSES / RESOURCES) == 0;
+                if (resource) {
+                    index.append(className).append('\n');
+                }
+                out.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+                out.write(generateClass(className.replace('.', '/'), resource));
+            }
+            if (indexed) {
+                out.putNextEntry(new JarEntry(ResourceIndexProcessor.INDEX_RESOURCE));
+                out.write(index.toString().getBytes("UTF-8"));
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jar.delete();
+    }
+
+    @Benchmark
+    public Set<Class<?>> scan() throws IOException {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader original = thread.getContextClassLoader();
+        final URLClassLoader loader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, original);
+        thread.setContextClassLoader(loader);
+        try {
+            final Set<Class<?>> classes = new ResourceConfig().packages(PACKAGE).getClasses();
+            if (classes.size() != RESOURCES) {
+                throw new IllegalStateException("Unexpected number of classes found: " + classes.size());
+            }
+            return classes;
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    private static byte[] generateClass(final String internalName, final boolean resource) {
+        final ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, "java/lang/Object", null);
+        if (resource) {
+            final AnnotationVisitor path = writer.visitAnnotation("Ljavax/ws/rs/Path;", true);
+            path.visit("value", internalName);
+            path.visitEnd();
+        }
+        writer.visitField(Opcodes.ACC_PRIVATE, "value", "Ljava/lang/String;", null, null).visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.process.ProcessingExecutorsModule;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.spi.ProcessingExecutorsProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Measures the average in-memory processing time of a trivial {@code GET} request.
+ * <p>
+ * With the {@code default} executors the request is processed directly on the caller thread.
+ * With the {@code custom} executors, which execute the processing tasks on the caller thread
+ * as well, the request processing is submitted to the requesting executor and the response
+ * processing is registered as a listener executed by the responding executor. Run with
+ * {@code -prof gc} to compare the per-request allocation rate.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RequestInvokerBenchmark {
+
+    @Param({"default", "custom"})
+    private String executors;
+
+    private ApplicationHandler handler;
+
+    @Path("hello")
+    public static class HelloResource {
+
+        @GET
+        public String get() {
+            return "hello";
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final ResourceConfig rc = new ResourceConfig(HelloResource.class);
+        if ("custom".equals(executors)) {
+            rc.addModules(new ProcessingExecutorsModule(new ProcessingExecutorsProvider() {
+
+                @Override
+                public ExecutorService getRequestingExecutor() {
+                    return MoreExecutors.sameThreadExecutor();
+                }
+
+                @Override
+                public ExecutorService getRespondingExecutor() {
+                    return MoreExecutors.sameThreadExecutor();
+                }
+            }));
+        }
+        handler = new ApplicationHandler(rc);
+
+        final Object entity = handler.apply(request()).get().getEntity();
+        if (!"hello".equals(entity)) {
+            throw new IllegalStateException("Unexpected response entity: " + entity);
+        }
+    }
+
+    @Benchmark
+    public int get() throws Exception {
+        return handler.apply(request()).get().getStatus();
+    }
+
+    private static ContainerRequest request() {
+        return new ContainerRequest(URI.create("/"), URI.create("/hello"), "GET", null, new MapPropertiesDelegate());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.process.internal.RequestScope;
+
+import org.glassfish.hk2.ComponentException;
+import org.glassfish.hk2.Provider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the average time of running a task in a new {@link RequestScope request scope} instance.
+ * The task looks up ten request-scoped instances, seeds them in the scope instance the same way
+ * the injection framework does and looks them up again. Run with {@code -prof gc} to compare
+ * the per-request allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RequestScopeBenchmark {
+
+    private static final int INJECTIONS = 10;
+
+    private RequestScope requestScope;
+    private ScopedProvider[] providers;
+    private Runnable task;
+    private int result;
+
+    private static class ScopedProvider implements Provider<Object> {
+
+        private final Object value = new Object();
+
+        @Override
+        public Object get() throws ComponentException {
+            return value;
+        }
+
+        @Override
+        public <U> U getByType(final Class<U> type) {
+            return null;
+        }
+
+        @Override
+        public Class<?> type() {
+            return Object.class;
+        }
+
+        @Override
+        public Collection<Annotation> getAnnotations() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        requestScope = new RequestScope();
+        providers = new ScopedProvider[INJECTIONS];
+        for (int i = 0; i < INJECTIONS; i++) {
+            providers[i] = new ScopedProvider();
+        }
+        task = new Runnable() {
+
+            @Override
+            public void run() {
+                final RequestScope.Instance instance = (RequestScope.Instance) requestScope.current();
+                for (final ScopedProvider provider : providers) {
+                    if (instance.get(provider) == null) {
+                        instance.put(provider, provider.get());
+                    }
+                }
+                int found = 0;
+                for (final ScopedProvider provider : providers) {
+                    if (instance.contains(provider) && instance.get(provider) != null) {
+                        found++;
+                    }
+                }
+                result = found;
+            }
+        };
+    }
+
+    @Benchmark
+    public int runInScope() {
+        requestScope.runInScope(task);
+        return result;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.MethodHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of invocations per second of a trivial resource method with 0, 3 and 8
+ * parameters through the invocation handler used by the resource method dispatchers. The
+ * {@code reflection} dispatch invokes the method using {@link Method#invoke(Object, Object...)},
+ * the {@code generated} dispatch uses the invocation handler generated by Jersey for the method.
+ * The parameter values are prepared upfront the same way the parameter value providers supply
+ * them to the dispatcher, i.e. primitive values boxed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResourceMethodDispatchBenchmark {
+
+    private static final InvocationHandler REFLECTION_HANDLER = new InvocationHandler() {
+        @Override
+        public Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+            return method.invoke(target, args);
+        }
+    };
+
+    @Param({"reflection", "generated"})
+    private String dispatch;
+
+    private final DispatchResource resource = new DispatchResource();
+    private final Object[] args0 = new Object[0];
+    private final Object[] args3 = new Object[] {"x", 1, 2L};
+    private final Object[] args8 = new Object[] {"x", 1, 2L, true, "y", 3, 4.5d, "z"};
+
+    private Method method0;
+    private Method method3;
+    private Method method8;
+    private InvocationHandler handler0;
+    private InvocationHandler handler3;
+    private InvocationHandler handler8;
+
+    @Path("dispatch")
+    public static class DispatchResource {
+
+        @GET
+        @Path("0")
+        public String noParams() {
+            return "0";
+        }
+
+        @GET
+        @Path("3")
+        public String threeParams(@QueryParam("a") final String a, @QueryParam("b") final int b,
+                                  @QueryParam("c") final long c) {
+            return "3";
+        }
+
+        @GET
+        @Path("8")
+        public String eightParams(@QueryParam("a") final String a, @QueryParam("b") final int b,
+                                  @QueryParam("c") final long c, @QueryParam("d") final boolean d,
+                                  @QueryParam("e") final String e, @QueryParam("f") final int f,
+                                  @QueryParam("g") final double g, @QueryParam("h") final String h) {
+            return "8";
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        method0 = DispatchResource.class.getMethod("noParams");
+        method3 = DispatchResource.class.getMethod("threeParams", String.class, int.class, long.class);
+        method8 = DispatchResource.class.getMethod("eightParams", String.class, int.class, long.class, boolean.class,
+                String.class, int.class, double.class, String.class);
+
+        handler0 = handler(method0);
+        handler3 = handler(method3);
+        handler8 = handler(method8);
+    }
+
+    private InvocationHandler handler(final Method method) throws Exception {
+        if ("reflection".equals(dispatch)) {
+            return REFLECTION_HANDLER;
+        }
+        // the generated handler is package-private, look it up the same way the invocation handler factory does
+        final Method create = Class.forName("org.glassfish.jersey.server.model.DirectInvocationHandler")
+                .getDeclaredMethod("create", Invocable.class);
+        create.setAccessible(true);
+        final Object handler = create.invoke(null, Invocable.create(MethodHandler.create(DispatchResource.class), method));
+        if (handler == null) {
+            throw new IllegalStateException("No invocation handler generated for " + method);
+        }
+        return (InvocationHandler) handler;
+    }
+
+    @Benchmark
+    public Object params0() throws Throwable {
+        return handler0.invoke(resource, method0, args0);
+    }
+
+    @Benchmark
+    public Object params3() throws Throwable {
+        return handler3.invoke(resource, method3, args3);
+    }
+
+    @Benchmark
+    public Object params8() throws Throwable {
+        return handler8.invoke(resource, method8, args8);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.media.sse.EventChannel;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.glassfish.jersey.media.sse.OutboundEventWriter;
+import org.glassfish.jersey.media.sse.SseBroadcaster;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of events per second an {@link SseBroadcaster} is able to deliver to a given
+ * number of subscribed {@link EventChannel event channels}, with and without
+ * {@link SseBroadcaster#setSharedEncoding(boolean) shared encoding}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SseBroadcasterBenchmark {
+
+    @Param({"1", "100", "1000", "20000"})
+    private int subscribers;
+
+    @Param({"true", "false"})
+    private boolean sharedEncoding;
+
+    private static volatile SseBroadcaster broadcaster;
+    private OutboundEvent event;
+
+    @Path("events")
+    public static class EventsResource {
+
+        @GET
+        @Produces(EventChannel.SERVER_SENT_EVENTS)
+        public EventChannel subscribe() {
+            final EventChannel channel = new EventChannel();
+            broadcaster.add(channel);
+            return channel;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        broadcaster = new SseBroadcaster(sharedEncoding);
+
+        final ApplicationHandler handler = new ApplicationHandler(
+                new ResourceConfig(EventsResource.class, OutboundEventWriter.class));
+
+        final OutputStream sink = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                // discard
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                // discard
+            }
+        };
+
+        for (int i = 0; i < subscribers; i++) {
+            final ContainerRequest request = new ContainerRequest(null, URI.create("/events"), "GET",
+                    null, new MapPropertiesDelegate());
+            handler.apply(request, sink).get();
+        }
+
+        event = new OutboundEvent.Builder()
+                .name("quote")
+                .data(String.class, "{\"symbol\":\"ORCL\",\"price\":33.21,\"volume\":1500}")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broadcaster.closeAll();
+    }
+
+    @Benchmark
+    public void broadcast() {
+        broadcaster.broadcast(event);
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.JerseyClient;
+import org.glassfish.jersey.client.JerseyClientFactory;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.media.sse.EventChannel;
+import org.glassfish.jersey.media.sse.EventSource;
+import org.glassfish.jersey.media.sse.InboundEvent;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.glassfish.jersey.media.sse.OutboundEventWriter;
+import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Measures the number of server-sent events per second encoded by {@link OutboundEventWriter} into an
+ * {@link EventChannel} and decoded from an event stream by an {@link EventSource}, for events carrying
+ * multi-line data of the given size.
+ * <p>
+ * The event source reads a recorded event stream returned by a client transport that does not do any I/O,
+ * in the calling thread.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SseCodecBenchmark {
+
+    private static final int EVENTS = 1000;
+
+    @Param({"100", "10240"})
+    private int eventSize;
+
+    private static volatile EventChannel channel;
+
+    private RecordingOutputStream sink;
+    private OutboundEvent event;
+    private byte[] stream;
+    private JerseyClient client;
+
+    @Path("events")
+    public static class EventsResource {
+
+        @GET
+        @Produces(EventChannel.SERVER_SENT_EVENTS)
+        public EventChannel subscribe() {
+            channel = new EventChannel();
+            return channel;
+        }
+    }
+
+    /**
+     * Discards written bytes unless recording.
+     */
+    private static class RecordingOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+        private boolean recording;
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (recording) {
+                recorded.write(b);
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (recording) {
+                recorded.write(b, off, len);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final ApplicationHandler handler = new ApplicationHandler(
+                new ResourceConfig(EventsResource.class, OutboundEventWriter.class));
+
+        sink = new RecordingOutputStream();
+        final ContainerRequest request = new ContainerRequest(null, URI.create("/events"), "GET",
+                null, new MapPropertiesDelegate());
+        handler.apply(request, sink).get();
+
+        // data lines of 80 characters
+        final char[] chars = new char[eventSize];
+        Arrays.fill(chars, 'x');
+        for (int i = 80; i < eventSize; i += 81) {
+            chars[i] = '\n';
+        }
+        event = new OutboundEvent.Builder()
+                .name("message")
+                .id("42")
+                .data(String.class, new String(chars))
+                .build();
+
+        sink.recording = true;
+        for (int i = 0; i < EVENTS; i++) {
+            channel.write(event);
+        }
+        sink.recording = false;
+        stream = sink.recorded.toByteArray();
+
+        client = JerseyClientFactory.clientBuilder().transport(new Inflector<ClientRequest, ClientResponse>() {
+
+            @Override
+            public ClientResponse apply(ClientRequest request) {
+                final ClientResponse response = new ClientResponse(Response.Status.OK, request);
+                response.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, EventChannel.SERVER_SENT_EVENTS);
+                response.setEntityStream(new ByteArrayInputStream(stream));
+                return response;
+            }
+        }).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channel.close();
+        client.close();
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        channel.write(event);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int read() {
+        final int[] received = new int[1];
+        // the event stream is read completely by the constructor using the same thread executor
+        new EventSource(client.target("http://localhost/events"), MoreExecutors.sameThreadExecutor()) {
+
+            @Override
+            public void onEvent(InboundEvent inboundEvent) {
+                received[0]++;
+            }
+        };
+        if (received[0] != EVENTS) {
+            throw new IllegalStateException("Unexpected number of events: " + received[0]);
+        }
+        return received[0];
+    }
+}
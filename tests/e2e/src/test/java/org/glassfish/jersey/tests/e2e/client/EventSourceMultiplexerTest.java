@@ -0,0 +1,249 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Application;
+
+import org.glassfish.jersey.media.sse.EventChannel;
+import org.glassfish.jersey.media.sse.EventSource;
+import org.glassfish.jersey.media.sse.EventSourceMultiplexer;
+import org.glassfish.jersey.media.sse.InboundEvent;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.glassfish.jersey.media.sse.OutboundEventWriter;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Soak test of many {@link EventSource event sources} sharing an {@link EventSourceMultiplexer}.
+ *
+ * All the event streams are kept open at the same time. After receiving the first half of the events,
+ * the streams are closed by the server and the event sources have to reconnect and resume from the last
+ * received event id.
+ */
+public class EventSourceMultiplexerTest extends JerseyTest {
+
+    private static final int SOURCES = 2000;
+    private static final int EVENTS = 5;
+
+    private static final Queue<EventChannel> OPEN_CHANNELS = new ConcurrentLinkedQueue<EventChannel>();
+    private static final AtomicInteger RESUMED = new AtomicInteger();
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(EventsResource.class, SingleEventResource.class, OutboundEventWriter.class);
+    }
+
+    @Path("events")
+    public static class EventsResource {
+
+        @GET
+        @Produces(EventChannel.SERVER_SENT_EVENTS)
+        public EventChannel get(@HeaderParam("Last-Event-ID") String lastEventId) throws IOException {
+            if (lastEventId == null) {
+                // the first half of the events is written once all the event sources are connected
+                final EventChannel channel = new EventChannel();
+                OPEN_CHANNELS.add(channel);
+                return channel;
+            } else if (lastEventId.equals(String.valueOf(EVENTS))) {
+                RESUMED.incrementAndGet();
+                final EventChannel channel = new EventChannel();
+                for (int i = EVENTS + 1; i <= 2 * EVENTS; i++) {
+                    channel.write(event(i));
+                }
+                channel.close();
+                return channel;
+            } else {
+                // no more events - 204 stops the event source
+                return null;
+            }
+        }
+    }
+
+    @Path("single")
+    public static class SingleEventResource {
+
+        @GET
+        @Produces(EventChannel.SERVER_SENT_EVENTS)
+        public EventChannel get(@HeaderParam("Last-Event-ID") String lastEventId) throws IOException {
+            if (lastEventId != null) {
+                return null;
+            }
+            final EventChannel channel = new EventChannel();
+            channel.write(event(1));
+            channel.close();
+            return channel;
+        }
+    }
+
+    public static class CountingResponseFilter implements ClientResponseFilter {
+
+        private static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+        @Override
+        public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+            INVOCATIONS.incrementAndGet();
+        }
+    }
+
+    private static OutboundEvent event(int id) {
+        return new OutboundEvent.Builder()
+                .id(String.valueOf(id))
+                .name("message")
+                .reconnectDelay(100)
+                .data(String.class, "event " + id)
+                .build();
+    }
+
+    @Test
+    public void testManyEventSources() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final EventSourceMultiplexer multiplexer = new EventSourceMultiplexer(executor);
+        final CountDownLatch latch = new CountDownLatch(SOURCES * 2 * EVENTS);
+        final List<Queue<String>> received = new ArrayList<Queue<String>>();
+        final List<EventSource> sources = new ArrayList<EventSource>();
+
+        try {
+            final WebTarget target = target().path("events");
+            for (int i = 0; i < SOURCES; i++) {
+                final Queue<String> events = new ConcurrentLinkedQueue<String>();
+                received.add(events);
+                sources.add(new EventSource(target, multiplexer) {
+                    @Override
+                    public void onEvent(InboundEvent inboundEvent) {
+                        try {
+                            events.add(inboundEvent.getId() + ":" + inboundEvent.getData());
+                        } catch (IOException e) {
+                            events.add(e.toString());
+                        }
+                        latch.countDown();
+                    }
+                });
+            }
+
+            final long deadline = System.currentTimeMillis() + 60000;
+            while (OPEN_CHANNELS.size() < SOURCES && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(SOURCES, OPEN_CHANNELS.size());
+
+            for (EventChannel channel : OPEN_CHANNELS) {
+                for (int i = 1; i <= EVENTS; i++) {
+                    channel.write(event(i));
+                }
+                channel.close();
+            }
+
+            assertTrue("Not all events received in time, " + latch.getCount() + " missing.",
+                    latch.await(60, TimeUnit.SECONDS));
+            assertEquals(SOURCES, RESUMED.get());
+
+            for (Queue<String> events : received) {
+                assertEquals(2 * EVENTS, events.size());
+                int id = 1;
+                for (String event : events) {
+                    assertEquals(id + ":event " + id, event);
+                    id++;
+                }
+            }
+        } finally {
+            for (EventSource source : sources) {
+                source.close();
+            }
+            multiplexer.close();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailingStreamDoesNotAffectOthers() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final EventSourceMultiplexer multiplexer = new EventSourceMultiplexer(executor);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final WebTarget target = target().path("single");
+        target.configuration().register(CountingResponseFilter.class);
+        final HashSet<Class<?>> providerClasses = new HashSet<Class<?>>(target.configuration().getProviderClasses());
+
+        // the event stream requests are prepared in the executor in the order the event sources are created
+        final EventSource failing = new EventSource(client().target("http://jersey-sse-multiplexer.invalid/events"),
+                multiplexer);
+        final EventSource source = new EventSource(target, multiplexer) {
+            @Override
+            public void onEvent(InboundEvent inboundEvent) {
+                latch.countDown();
+            }
+        };
+
+        try {
+            assertTrue("Event not received in time.", latch.await(30, TimeUnit.SECONDS));
+            assertEquals(providerClasses, target.configuration().getProviderClasses());
+            assertEquals(0, CountingResponseFilter.INVOCATIONS.get());
+        } finally {
+            failing.close();
+            source.close();
+            multiplexer.close();
+            executor.shutdown();
+        }
+    }
+}
@@ -46,6 +46,7 @@ import java.lang.reflect.Type;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.MediaType;
@@ -60,6 +61,7 @@ import org.glassfish.jersey.test.JerseyTest;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -72,7 +74,7 @@ public class ContentLengthTest extends JerseyTest {
     @Override
     protected Application configure() {
         ResourceConfig rc = new ResourceConfig();
-        rc.addClasses(MyTypeResource.class, MyTypeWriter.class, ResourceGetByteNoHead.class);
+        rc.addClasses(MyTypeResource.class, MyTypeWriter.class, ResourceGetByteNoHead.class, StringResource.class);
         return rc;
     }
 
@@ -148,4 +150,40 @@ public class ContentLengthTest extends JerseyTest {
         assertEquals(3, Integer.parseInt(response.getHeader("Content-Length")));
         assertFalse(response.hasEntity());
     }
+
+    public static final String NON_ASCII_STR = "\u017elu\u0165ou\u010dk\u00fd k\u016f\u0148";
+
+    @Path("/string")
+    @Produces("text/plain;charset=UTF-8")
+    static public class StringResource {
+
+        @GET
+        @Path("ascii")
+        public String getAscii() {
+            return STR;
+        }
+
+        @GET
+        @Path("non-ascii")
+        public String getNonAscii() {
+            return NON_ASCII_STR;
+        }
+    }
+
+    @Test
+    public void testGetAsciiString() throws Exception {
+        Response response = target().path("string/ascii").request().get(Response.class);
+        assertEquals(200, response.getStatus());
+        assertEquals(STR.length(), Integer.parseInt(response.getHeader("Content-Length")));
+        assertEquals(STR, response.readEntity(String.class));
+    }
+
+    @Test
+    public void testGetNonAsciiString() throws Exception {
+        // the number of characters does not match the number of the encoded bytes - the size must not be declared
+        Response response = target().path("string/non-ascii").request().get(Response.class);
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("Content-Length"));
+        assertEquals(NON_ASCII_STR, response.readEntity(String.class));
+    }
 }
@@ -0,0 +1,190 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.filter.EncodingFeature;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.EncodingFilter;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the content encoding negotiation using {@link EncodingFilter} and {@link EncodingFeature}.
+ */
+public class EncodingTest extends JerseyTest {
+
+    private static final int MIN_SIZE = 100;
+
+    @Override
+    protected Application configure() {
+        final ResourceConfig rc = new ResourceConfig(EncodingResource.class);
+        EncodingFilter.enableFor(rc, GZipEncoder.class, DeflateEncoder.class);
+        rc.setProperty(MessageProperties.ENCODING_MIN_SIZE, MIN_SIZE);
+        return rc;
+    }
+
+    @Path("encoding")
+    public static class EncodingResource {
+
+        @GET
+        @Produces("text/plain")
+        public String get(@QueryParam("size") int size) {
+            return entity(size);
+        }
+
+        @GET
+        @Path("image")
+        @Produces("image/png")
+        public byte[] image() {
+            return entity(1000).getBytes();
+        }
+
+        @POST
+        @Consumes("text/plain")
+        @Produces("text/plain")
+        public String post(String entity, @javax.ws.rs.core.Context HttpHeaders headers) {
+            return entity.length() + ":" + headers.getRequestHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        }
+    }
+
+    private static String entity(final int size) {
+        final char[] chars = new char[size];
+        Arrays.fill(chars, 'x');
+        return new String(chars);
+    }
+
+    private static String gunzip(final InputStream in) throws IOException {
+        final InputStream gzip = new GZIPInputStream(in);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int b;
+        while ((b = gzip.read()) != -1) {
+            out.write(b);
+        }
+        return out.toString("UTF-8");
+    }
+
+    @Test
+    public void testResponseEncoded() throws IOException {
+        final Response response = target("encoding").queryParam("size", 10000).request()
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate;q=0.5, gzip").get();
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertEquals(entity(10000), gunzip(response.readEntity(InputStream.class)));
+    }
+
+    @Test
+    public void testSmallResponseNotEncoded() {
+        final Response response = target("encoding").queryParam("size", MIN_SIZE - 1).request()
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip").get();
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertEquals(entity(MIN_SIZE - 1), response.readEntity(String.class));
+    }
+
+    @Test
+    public void testResponseNotAcceptingEncoding() {
+        final Response response = target("encoding").queryParam("size", 10000).request()
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity").get();
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(entity(10000), response.readEntity(String.class));
+    }
+
+    @Test
+    public void testMediaTypeNotEncoded() {
+        final Response response = target("encoding").path("image").request()
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip").get();
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    public void testClientFeature() {
+        client().configuration().register(new EncodingFeature(DeflateEncoder.class));
+
+        final Response response = target("encoding").queryParam("size", 10000).request().get();
+        assertEquals(200, response.getStatus());
+        assertEquals("deflate", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        // decoded by the client
+        assertEquals(entity(10000), response.readEntity(String.class));
+    }
+
+    @Test
+    public void testRequestEncoded() {
+        client().configuration().register(new EncodingFeature(GZipEncoder.class))
+                .setProperty(ClientProperties.USE_ENCODING, "gzip");
+
+        // the request entity is decoded by the server, the header is removed once the entity has been decoded
+        String response = target("encoding").request()
+                .post(Entity.entity(entity(10000), MediaType.TEXT_PLAIN_TYPE), String.class);
+        assertEquals("10000:null", response);
+
+        response = target("encoding").request()
+                .post(Entity.entity(entity(10), MediaType.TEXT_PLAIN_TYPE), String.class);
+        assertEquals("10:null", response);
+    }
+}
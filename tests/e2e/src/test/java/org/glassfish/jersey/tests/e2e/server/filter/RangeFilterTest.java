@@ -0,0 +1,191 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.server.filter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Date;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.message.internal.HttpDateFormat;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.RangeFilter;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the byte range support of {@link RangeFilter} and the file transfer of file entities.
+ */
+public class RangeFilterTest extends JerseyTest {
+
+    private static final int LENGTH = 100000;
+    private static final long LAST_MODIFIED = 1000000000000L;
+
+    private static File file;
+    private static byte[] content;
+
+    @BeforeClass
+    public static void createFile() throws IOException {
+        content = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        file = File.createTempFile("range", ".bin");
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    @AfterClass
+    public static void deleteFile() {
+        file.delete();
+    }
+
+    @Override
+    protected Application configure() {
+        final ResourceConfig rc = new ResourceConfig(FileResource.class);
+        RangeFilter.enableFor(rc);
+        return rc;
+    }
+
+    @Path("file")
+    public static class FileResource {
+
+        @GET
+        @Produces("application/octet-stream")
+        public Response get() {
+            return Response.ok(file).lastModified(new Date(LAST_MODIFIED)).build();
+        }
+    }
+
+    private static byte[] content(final int first, final int last) {
+        return Arrays.copyOfRange(content, first, last + 1);
+    }
+
+    @Test
+    public void testCompleteFile() {
+        for (int i = 0; i < 3; i++) {
+            final Response response = target("file").request().get();
+            assertEquals(200, response.getStatus());
+            assertEquals("bytes", response.getHeader("Accept-Ranges"));
+            assertEquals(String.valueOf(LENGTH), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+            assertArrayEquals(content, response.readEntity(byte[].class));
+        }
+    }
+
+    @Test
+    public void testByteRange() {
+        final Response response = target("file").request().header("Range", "bytes=1000-1999").get();
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 1000-1999/" + LENGTH, response.getHeader("Content-Range"));
+        assertEquals("1000", response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertArrayEquals(content(1000, 1999), response.readEntity(byte[].class));
+    }
+
+    @Test
+    public void testOpenAndSuffixByteRange() {
+        Response response = target("file").request().header("Range", "bytes=99000-").get();
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 99000-99999/" + LENGTH, response.getHeader("Content-Range"));
+        assertArrayEquals(content(99000, LENGTH - 1), response.readEntity(byte[].class));
+
+        response = target("file").request().header("Range", "bytes=-500").get();
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 99500-99999/" + LENGTH, response.getHeader("Content-Range"));
+        assertArrayEquals(content(99500, LENGTH - 1), response.readEntity(byte[].class));
+
+        response = target("file").request().header("Range", "bytes=99900-200000").get();
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 99900-99999/" + LENGTH, response.getHeader("Content-Range"));
+        assertArrayEquals(content(99900, LENGTH - 1), response.readEntity(byte[].class));
+    }
+
+    @Test
+    public void testUnsatisfiableByteRange() {
+        final Response response = target("file").request().header("Range", "bytes=" + LENGTH + "-").get();
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + LENGTH, response.getHeader("Content-Range"));
+    }
+
+    @Test
+    public void testIgnoredRanges() {
+        // multiple ranges
+        Response response = target("file").request().header("Range", "bytes=0-10,20-30").get();
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.readEntity(byte[].class));
+
+        // malformed range
+        response = target("file").request().header("Range", "bytes=10-5").get();
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("Content-Range"));
+        assertArrayEquals(content, response.readEntity(byte[].class));
+    }
+
+    @Test
+    public void testIfRange() {
+        Response response = target("file").request().header("Range", "bytes=0-9")
+                .header("If-Range", HttpDateFormat.getPreferedDateFormat().format(new Date(LAST_MODIFIED))).get();
+        assertEquals(206, response.getStatus());
+        assertArrayEquals(content(0, 9), response.readEntity(byte[].class));
+
+        response = target("file").request().header("Range", "bytes=0-9")
+                .header("If-Range", HttpDateFormat.getPreferedDateFormat().format(new Date(LAST_MODIFIED + 10000))).get();
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.readEntity(byte[].class));
+    }
+}